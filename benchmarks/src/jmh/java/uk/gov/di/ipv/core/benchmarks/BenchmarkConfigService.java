@@ -0,0 +1,64 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import uk.gov.di.ipv.core.library.config.ConfigurationVariable;
+import uk.gov.di.ipv.core.library.domain.ContraIndicatorConfig;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+
+import java.util.Map;
+
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.CORE_VTM_CLAIM;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.FRAUD_CHECK_EXPIRY_PERIOD_HOURS;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.RETURN_CODES_ALWAYS_REQUIRED;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.RETURN_CODES_NON_CI_BREACHING_P0;
+
+/**
+ * In-memory config so that benchmarks measure the code under test rather than SSM and Secrets
+ * Manager round trips. All CRIs are enabled and all feature flags are off.
+ */
+public class BenchmarkConfigService extends ConfigService {
+    private static final Map<ConfigurationVariable, String> PARAMETERS =
+            Map.of(
+                    CORE_VTM_CLAIM, "https://oidc.example.com/trustmark",
+                    FRAUD_CHECK_EXPIRY_PERIOD_HOURS, "720",
+                    RETURN_CODES_ALWAYS_REQUIRED, "1",
+                    RETURN_CODES_NON_CI_BREACHING_P0, "X");
+
+    private static final Map<String, ContraIndicatorConfig> CI_CONFIG =
+            Map.of(
+                    "A01", new ContraIndicatorConfig("A01", 4, -3, "1"),
+                    "A02", new ContraIndicatorConfig("A02", 4, -3, "2"),
+                    "A03", new ContraIndicatorConfig("A03", 4, -3, "3"),
+                    "D02", new ContraIndicatorConfig("D02", 4, -3, "D"));
+
+    public BenchmarkConfigService() {
+        super(null, null);
+    }
+
+    public static String componentIdFor(String criId) {
+        return String.format("https://%s.benchmark.account.gov.uk", criId);
+    }
+
+    @Override
+    public String getSsmParameter(
+            ConfigurationVariable configurationVariable, String... pathProperties) {
+        if (configurationVariable == ConfigurationVariable.FEATURE_FLAGS) {
+            return "false";
+        }
+        return PARAMETERS.getOrDefault(configurationVariable, "");
+    }
+
+    @Override
+    public String getComponentId(String credentialIssuerId) {
+        return componentIdFor(credentialIssuerId);
+    }
+
+    @Override
+    public boolean isEnabled(String credentialIssuerId) {
+        return true;
+    }
+
+    @Override
+    public Map<String, ContraIndicatorConfig> getContraIndicatorConfigMap() {
+        return CI_CONFIG;
+    }
+}
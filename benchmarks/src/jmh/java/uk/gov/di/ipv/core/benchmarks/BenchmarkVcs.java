@@ -0,0 +1,123 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
+import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
+import uk.gov.di.ipv.core.library.fixtures.VcFixtures;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.nimbusds.jose.JWSAlgorithm.ES256;
+import static uk.gov.di.ipv.core.library.domain.CriConstants.ADDRESS_CRI;
+import static uk.gov.di.ipv.core.library.domain.CriConstants.DCMAW_CRI;
+import static uk.gov.di.ipv.core.library.domain.CriConstants.DRIVING_LICENCE_CRI;
+import static uk.gov.di.ipv.core.library.domain.CriConstants.EXPERIAN_FRAUD_CRI;
+import static uk.gov.di.ipv.core.library.domain.CriConstants.F2F_CRI;
+import static uk.gov.di.ipv.core.library.domain.CriConstants.PASSPORT_CRI;
+
+/**
+ * Realistic VCs for benchmarking. The claims come from the shared test fixtures but every VC is
+ * re-signed with a freshly generated P-256 key, so signature verification runs against real key
+ * material rather than the well known test key.
+ */
+public class BenchmarkVcs {
+    public static final String USER_ID = VcFixtures.TEST_SUBJECT;
+
+    public enum Fixture {
+        PASSPORT(PASSPORT_CRI, () -> VcFixtures.PASSPORT_NON_DCMAW_SUCCESSFUL_VC),
+        DRIVING_PERMIT(DRIVING_LICENCE_CRI, VcFixtures::vcDrivingPermit),
+        FRAUD(EXPERIAN_FRAUD_CRI, () -> VcFixtures.M1A_EXPERIAN_FRAUD_VC),
+        ADDRESS(ADDRESS_CRI, () -> VcFixtures.VC_ADDRESS),
+        DCMAW(DCMAW_CRI, () -> VcFixtures.M1B_DCMAW_VC),
+        F2F(F2F_CRI, VcFixtures::vcF2fM1a);
+
+        private final String criId;
+        private final Supplier<VerifiableCredential> source;
+
+        Fixture(String criId, Supplier<VerifiableCredential> source) {
+            this.criId = criId;
+            this.source = source;
+        }
+
+        public String getCriId() {
+            return criId;
+        }
+
+        public String getComponentId() {
+            return BenchmarkConfigService.componentIdFor(criId);
+        }
+    }
+
+    private final ECKey signingKey;
+    private final Map<Fixture, VerifiableCredential> vcs = new EnumMap<>(Fixture.class);
+
+    private BenchmarkVcs(ECKey signingKey) {
+        this.signingKey = signingKey;
+    }
+
+    public static BenchmarkVcs generate()
+            throws JOSEException, ParseException, CredentialParseException {
+        var benchmarkVcs =
+                new BenchmarkVcs(
+                        new ECKeyGenerator(Curve.P_256)
+                                .keyID(UUID.randomUUID().toString())
+                                .generate());
+        for (var fixture : Fixture.values()) {
+            benchmarkVcs.vcs.put(fixture, benchmarkVcs.resign(fixture));
+        }
+        return benchmarkVcs;
+    }
+
+    public ECKey getVerificationKey() {
+        return signingKey.toPublicJWK();
+    }
+
+    public VerifiableCredential get(Fixture fixture) {
+        return vcs.get(fixture);
+    }
+
+    public String serialise(Fixture fixture) {
+        return vcs.get(fixture).getVcString();
+    }
+
+    public List<VerifiableCredential> all() {
+        return List.copyOf(vcs.values());
+    }
+
+    private VerifiableCredential resign(Fixture fixture)
+            throws JOSEException, ParseException, CredentialParseException {
+        var claimsSet =
+                new JWTClaimsSet.Builder(fixture.source.get().getClaimsSet())
+                        .issuer(fixture.getComponentId())
+                        .subject(USER_ID)
+                        .notBeforeTime(Date.from(Instant.now().minusSeconds(60)))
+                        .build();
+
+        var jwt =
+                new SignedJWT(
+                        new JWSHeader.Builder(ES256)
+                                .type(JOSEObjectType.JWT)
+                                .keyID(signingKey.getKeyID())
+                                .build(),
+                        claimsSet);
+        jwt.sign(new ECDSASigner(signingKey));
+
+        return VerifiableCredential.fromValidJwt(
+                USER_ID, fixture.getCriId(), SignedJWT.parse(jwt.serialize()));
+    }
+}
@@ -0,0 +1,137 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEObject;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSAEncrypter;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.buildcrioauthrequest.helpers.AuthorizationRequestHelper;
+import uk.gov.di.ipv.core.buildcrioauthrequest.helpers.SharedClaimsAggregator;
+import uk.gov.di.ipv.core.library.config.ConfigurationVariable;
+import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
+import uk.gov.di.ipv.core.library.dto.OauthCriConfig;
+import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
+import uk.gov.di.ipv.core.library.exceptions.HttpResponseExceptionWithErrorBody;
+import uk.gov.di.ipv.core.library.helpers.EncrypterRegistry;
+import uk.gov.di.ipv.core.library.verifiablecredential.helpers.VcHelper;
+
+import java.net.URI;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.COMPONENT_ID;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.JWT_TTL_SECONDS;
+
+/**
+ * Building the encrypted JAR that redirects a user to a CRI, from the user's session VCs. The VCs
+ * are parsed afresh on each call, as they are when read from the session credentials table, and
+ * the JAR is signed locally rather than with KMS.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CriOauthRequestBenchmark {
+    private static final List<String> SHARED_CLAIMS = List.of("name", "birthDate", "address");
+
+    @Param({"1", "4", "8", "16"})
+    public int vcCount;
+
+    private SharedClaimsAggregator sharedClaimsAggregator;
+    private BenchmarkConfigService configService;
+    private OauthCriConfig criConfig;
+    private ECDSASigner signer;
+    private List<VerifiableCredential> sessionVcs;
+
+    @Setup
+    public void setUp() throws Exception {
+        configService =
+                new BenchmarkConfigService() {
+                    @Override
+                    public String getSsmParameter(
+                            ConfigurationVariable configurationVariable,
+                            String... pathProperties) {
+                        if (configurationVariable == COMPONENT_ID) {
+                            return "https://identity.benchmark.account.gov.uk";
+                        }
+                        if (configurationVariable == JWT_TTL_SECONDS) {
+                            return "900";
+                        }
+                        return super.getSsmParameter(configurationVariable, pathProperties);
+                    }
+                };
+        VcHelper.setConfigService(configService);
+        sharedClaimsAggregator = new SharedClaimsAggregator(configService);
+        signer = new ECDSASigner(new ECKeyGenerator(Curve.P_256).generate());
+        var encryptionKey = new RSAKeyGenerator(2048).generate().toPublicJWK();
+        criConfig =
+                OauthCriConfig.builder()
+                        .clientId("ipv-core")
+                        .componentId(BenchmarkConfigService.componentIdFor("ukPassport"))
+                        .clientCallbackUrl(URI.create("https://identity.benchmark/callback"))
+                        .encryptionKey(encryptionKey.toJSONString())
+                        .build();
+
+        var fixtureVcs = BenchmarkVcs.generate().all();
+        sessionVcs = new ArrayList<>();
+        for (int i = 0; i < vcCount; i++) {
+            sessionVcs.add(fixtureVcs.get(i % fixtureVcs.size()));
+        }
+    }
+
+    @Benchmark
+    public JWEObject buildJar()
+            throws HttpResponseExceptionWithErrorBody, CredentialParseException, ParseException,
+                    JOSEException {
+        return AuthorizationRequestHelper.createJweObject(
+                EncrypterRegistry.getInstance().getEncrypter(criConfig.getParsedEncryptionKey()),
+                signJar());
+    }
+
+    @Benchmark
+    public JWEObject buildJarWithNewEncrypter()
+            throws HttpResponseExceptionWithErrorBody, CredentialParseException, ParseException,
+                    JOSEException {
+        return AuthorizationRequestHelper.createJweObject(
+                new RSAEncrypter(criConfig.getParsedEncryptionKey()), signJar());
+    }
+
+    private SignedJWT signJar()
+            throws HttpResponseExceptionWithErrorBody, CredentialParseException, ParseException {
+        var vcs = new ArrayList<VerifiableCredential>(sessionVcs.size());
+        for (var vc : sessionVcs) {
+            vcs.add(
+                    VerifiableCredential.fromValidJwt(
+                            vc.getUserId(), vc.getCriId(), SignedJWT.parse(vc.getVcString())));
+        }
+        return AuthorizationRequestHelper.createSignedJWT(
+                sharedClaimsAggregator.aggregate(vcs, SHARED_CLAIMS, null),
+                signer,
+                criConfig,
+                configService,
+                "benchmark-state",
+                BenchmarkVcs.USER_ID,
+                "benchmark-journey-id",
+                null,
+                null,
+                null);
+    }
+}
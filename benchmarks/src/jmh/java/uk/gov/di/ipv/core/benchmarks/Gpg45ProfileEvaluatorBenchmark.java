@@ -0,0 +1,59 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
+import uk.gov.di.ipv.core.library.enums.Vot;
+import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
+import uk.gov.di.ipv.core.library.gpg45.Gpg45ProfileEvaluator;
+import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores;
+import uk.gov.di.ipv.core.library.gpg45.enums.Gpg45Profile;
+import uk.gov.di.ipv.core.library.gpg45.exception.UnknownEvidenceTypeException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class Gpg45ProfileEvaluatorBenchmark {
+    private static final List<Gpg45Profile> ALL_PROFILES = List.of(Gpg45Profile.values());
+
+    private Gpg45ProfileEvaluator evaluator;
+    private List<VerifiableCredential> vcs;
+    private Gpg45Scores scores;
+
+    @Setup
+    public void setUp() throws Exception {
+        evaluator = new Gpg45ProfileEvaluator();
+        vcs = BenchmarkVcs.generate().all();
+        scores = evaluator.buildScore(vcs);
+    }
+
+    @Benchmark
+    public Gpg45Scores buildScore() throws UnknownEvidenceTypeException, CredentialParseException {
+        return evaluator.buildScore(vcs);
+    }
+
+    @Benchmark
+    public Optional<Gpg45Profile> getFirstMatchingProfileP2() {
+        return evaluator.getFirstMatchingProfile(scores, Vot.P2.getSupportedGpg45Profiles());
+    }
+
+    @Benchmark
+    public Optional<Gpg45Profile> getFirstMatchingProfileAllProfiles() {
+        return evaluator.getFirstMatchingProfile(scores, ALL_PROFILES);
+    }
+}
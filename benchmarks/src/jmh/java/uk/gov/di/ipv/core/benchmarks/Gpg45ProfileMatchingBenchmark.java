@@ -0,0 +1,56 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.library.gpg45.Gpg45ProfileEvaluator;
+import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores;
+import uk.gov.di.ipv.core.library.gpg45.enums.Gpg45Profile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile matching for users holding a large number of identity evidences. The verification score
+ * is zero so no profile matches and the evidence of every profile is checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class Gpg45ProfileMatchingBenchmark {
+    private static final List<Gpg45Profile> ALL_PROFILES = List.of(Gpg45Profile.values());
+
+    @Param({"8", "10", "12"})
+    public int evidenceCount;
+
+    private Gpg45ProfileEvaluator evaluator;
+    private Gpg45Scores scores;
+
+    @Setup
+    public void setUp() {
+        evaluator = new Gpg45ProfileEvaluator();
+        var evidences = new ArrayList<Gpg45Scores.Evidence>();
+        for (int i = 0; i < evidenceCount; i++) {
+            evidences.add(Gpg45Scores.EV_22);
+        }
+        scores = new Gpg45Scores(evidences, 4, 4, 0);
+    }
+
+    @Benchmark
+    public Optional<Gpg45Profile> getFirstMatchingProfile() {
+        return evaluator.getFirstMatchingProfile(scores, ALL_PROFILES);
+    }
+}
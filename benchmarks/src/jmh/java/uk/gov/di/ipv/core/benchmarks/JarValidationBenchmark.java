@@ -0,0 +1,104 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.initialiseipvsession.exception.JarValidationException;
+import uk.gov.di.ipv.core.initialiseipvsession.service.KmsRsaDecrypter;
+import uk.gov.di.ipv.core.initialiseipvsession.validation.JarValidator;
+import uk.gov.di.ipv.core.library.config.EnvironmentVariable;
+import uk.gov.di.ipv.core.library.fixtures.InMemoryConfigProviders;
+import uk.gov.di.ipv.core.library.kmses256signer.InMemoryKmsClient;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PRIVATE_KEY_JWK;
+
+/**
+ * Validating the JAR sent to {@code /session/initialise} once the client's auth policy has been
+ * built, as on every warm request. Config is read from memory, and not again after the first call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JarValidationBenchmark {
+    private static final String CLIENT_ID = "orchestrator";
+    private static final String CLIENT_PATH = "/benchmark/core/clients/" + CLIENT_ID;
+    private static final String AUDIENCE = "https://identity.benchmark.account.gov.uk";
+    private static final String ISSUER = "https://orch.benchmark.account.gov.uk";
+    private static final String REDIRECT_URI = "https://orch.benchmark.account.gov.uk/callback";
+
+    private JarValidator jarValidator;
+    private SignedJWT jar;
+
+    @Setup
+    public void setUp() throws Exception {
+        var signingKey = ECKey.parse(EC_PRIVATE_KEY_JWK);
+        var providers =
+                new InMemoryConfigProviders()
+                        .withParameter("/benchmark/core/self/componentId", AUDIENCE)
+                        .withParameter("/benchmark/core/self/maxAllowedAuthClientTtl", "1500")
+                        .withParameter(CLIENT_PATH + "/issuer", ISSUER)
+                        .withParameter(
+                                CLIENT_PATH + "/publicKeyMaterialForCoreToVerify",
+                                signingKey.toPublicJWK().toJSONString())
+                        .withParameter(CLIENT_PATH + "/validRedirectUrls", REDIRECT_URI);
+        var configService =
+                new ConfigService(providers.ssmProvider(), providers.secretsProvider()) {
+                    @Override
+                    public String getEnvironmentVariable(EnvironmentVariable environmentVariable) {
+                        return environmentVariable == EnvironmentVariable.ENVIRONMENT
+                                ? "benchmark"
+                                : super.getEnvironmentVariable(environmentVariable);
+                    }
+                };
+        jarValidator =
+                new JarValidator(new KmsRsaDecrypter(new InMemoryKmsClient()), configService);
+
+        var now = Instant.now();
+        jar =
+                new SignedJWT(
+                        new JWSHeader.Builder(JWSAlgorithm.ES256).type(JOSEObjectType.JWT).build(),
+                        new JWTClaimsSet.Builder()
+                                .audience(AUDIENCE)
+                                .issuer(ISSUER)
+                                .subject("urn:fdc:gov.uk:2022:benchmark")
+                                .issueTime(Date.from(now))
+                                .notBeforeTime(Date.from(now))
+                                .expirationTime(Date.from(now.plus(20, ChronoUnit.MINUTES)))
+                                .claim("client_id", CLIENT_ID)
+                                .claim("response_type", "code")
+                                .claim("redirect_uri", REDIRECT_URI)
+                                .claim("state", "benchmark-state")
+                                .build());
+        jar.sign(new ECDSASigner(signingKey));
+        jarValidator.validateRequestJwt(jar, CLIENT_ID);
+    }
+
+    @Benchmark
+    public JWTClaimsSet validateRequestJwt() throws JarValidationException, ParseException {
+        return jarValidator.validateRequestJwt(jar, CLIENT_ID);
+    }
+}
@@ -0,0 +1,45 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.library.domain.IpvJourneyTypes;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachineInitializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a journey map on a cold start. {@code fromYaml} parses the YAML as before the journey
+ * maps were compiled at build time, {@code precompiled} reads the compiled form. Each sample is the
+ * first load in a fresh JVM, so class loading and interpreted parsing are measured rather than
+ * JIT-compiled steady state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class JourneyMapLoadingBenchmark {
+    @Param({"INITIAL_JOURNEY_SELECTION", "NEW_P2_IDENTITY", "REUSE_EXISTING_IDENTITY"})
+    public IpvJourneyTypes journeyType;
+
+    @Benchmark
+    public Map<String, ?> fromYaml() throws IOException {
+        return new StateMachineInitializer(journeyType).initializeFromYaml();
+    }
+
+    @Benchmark
+    public Map<String, ?> precompiled() throws IOException {
+        return new StateMachineInitializer(journeyType).initialize();
+    }
+}
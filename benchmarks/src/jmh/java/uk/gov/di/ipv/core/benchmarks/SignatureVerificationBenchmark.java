@@ -0,0 +1,52 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.library.helpers.VerifierRegistry;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifying a VC signature against key material held as a JWK string, as the CIMIT and JAR
+ * validators do. {@code parseAndBuildVerifier} is the cost before keys and verifiers were shared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SignatureVerificationBenchmark {
+    private String keyMaterial;
+    private SignedJWT jwt;
+
+    @Setup
+    public void setUp() throws Exception {
+        var vcs = BenchmarkVcs.generate();
+        keyMaterial = vcs.getVerificationKey().toJSONString();
+        jwt = SignedJWT.parse(vcs.serialise(BenchmarkVcs.Fixture.PASSPORT));
+    }
+
+    @Benchmark
+    public boolean parseAndBuildVerifier() throws ParseException, JOSEException {
+        return jwt.verify(new ECDSAVerifier(ECKey.parse(keyMaterial).toECPublicKey()));
+    }
+
+    @Benchmark
+    public boolean sharedVerifier() throws ParseException, JOSEException {
+        return jwt.verify(VerifierRegistry.getInstance().getVerifier(keyMaterial));
+    }
+}
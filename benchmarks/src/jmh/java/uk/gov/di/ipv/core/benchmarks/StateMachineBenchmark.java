@@ -0,0 +1,94 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.library.domain.IpvJourneyTypes;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachine;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachineInitializer;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.TransitionTable;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownEventException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownStateException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.State;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.JourneyContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.di.ipv.core.library.domain.IpvJourneyTypes.INITIAL_JOURNEY_SELECTION;
+import static uk.gov.di.ipv.core.library.domain.IpvJourneyTypes.NEW_P2_IDENTITY;
+
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StateMachineBenchmark {
+    public enum Transition {
+        // Journey change out of the entry point
+        REUSE(INITIAL_JOURNEY_SELECTION, "CHECK_EXISTING_IDENTITY", "reuse"),
+        // Event resolved through feature flag and disabled CRI checks
+        APP_TRIAGE(NEW_P2_IDENTITY, "IDENTITY_START_PAGE", "appTriage"),
+        // Event inherited from a parent state
+        PARENT_EVENT(NEW_P2_IDENTITY, "CRI_UK_PASSPORT_J2", "fail-with-ci"),
+        // Transition within a nested journey
+        NESTED(NEW_P2_IDENTITY, "ADDRESS_AND_FRAUD_J2/CRI_ADDRESS", "next"),
+        // Exit from a nested journey back to the parent journey
+        NESTED_EXIT(NEW_P2_IDENTITY, "ADDRESS_AND_FRAUD_J2/CRI_FRAUD", "next");
+
+        private final IpvJourneyTypes journeyType;
+        private final String state;
+        private final String event;
+
+        Transition(IpvJourneyTypes journeyType, String state, String event) {
+            this.journeyType = journeyType;
+            this.state = state;
+            this.event = event;
+        }
+    }
+
+    @Param({"REUSE", "APP_TRIAGE", "PARENT_EVENT", "NESTED", "NESTED_EXIT"})
+    public Transition scenario;
+
+    private StateMachine stateMachine;
+    private TransitionTable transitionTable;
+    private JourneyContext journeyContext;
+
+    @Setup
+    public void setUp() throws IOException {
+        stateMachine = new StateMachine(new StateMachineInitializer(scenario.journeyType));
+        transitionTable =
+                TransitionTable.compile(
+                        new StateMachineInitializer(scenario.journeyType).initialize());
+        journeyContext = new JourneyContext(new BenchmarkConfigService());
+    }
+
+    @Benchmark
+    public State transition() throws UnknownEventException, UnknownStateException {
+        return stateMachine.transition(scenario.state, scenario.event, journeyContext, null);
+    }
+
+    @Benchmark
+    public State compiledTransition() throws UnknownEventException, UnknownStateException {
+        return transitionTable.transition(scenario.state, scenario.event, journeyContext, null);
+    }
+
+    @Benchmark
+    public StateMachine initialize() throws IOException {
+        return new StateMachine(new StateMachineInitializer(scenario.journeyType));
+    }
+
+    @Benchmark
+    public TransitionTable initializeAndCompile() throws IOException {
+        return TransitionTable.compile(
+                new StateMachineInitializer(scenario.journeyType).initialize());
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.library.domain.ContraIndicators;
+import uk.gov.di.ipv.core.library.domain.UserIdentity;
+import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
+import uk.gov.di.ipv.core.library.enums.Vot;
+import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
+import uk.gov.di.ipv.core.library.exceptions.HttpResponseExceptionWithErrorBody;
+import uk.gov.di.ipv.core.library.exceptions.UnrecognisedCiException;
+import uk.gov.di.ipv.core.library.service.UserIdentityService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class UserIdentityServiceBenchmark {
+    private static final ContraIndicators NO_CONTRA_INDICATORS =
+            ContraIndicators.builder().usersContraIndicators(List.of()).build();
+
+    private UserIdentityService userIdentityService;
+    private List<VerifiableCredential> vcs;
+
+    @Setup
+    public void setUp() throws Exception {
+        userIdentityService = new UserIdentityService(new BenchmarkConfigService());
+        var benchmarkVcs = BenchmarkVcs.generate();
+        vcs =
+                List.of(
+                        benchmarkVcs.get(BenchmarkVcs.Fixture.PASSPORT),
+                        benchmarkVcs.get(BenchmarkVcs.Fixture.ADDRESS),
+                        benchmarkVcs.get(BenchmarkVcs.Fixture.FRAUD));
+    }
+
+    @Benchmark
+    public UserIdentity generateUserIdentity()
+            throws HttpResponseExceptionWithErrorBody, CredentialParseException,
+                    UnrecognisedCiException {
+        return userIdentityService.generateUserIdentity(
+                vcs, BenchmarkVcs.USER_ID, Vot.P2, NO_CONTRA_INDICATORS);
+    }
+
+    @Benchmark
+    public boolean areVcsCorrelated()
+            throws HttpResponseExceptionWithErrorBody, CredentialParseException {
+        return userIdentityService.areVcsCorrelated(vcs);
+    }
+}
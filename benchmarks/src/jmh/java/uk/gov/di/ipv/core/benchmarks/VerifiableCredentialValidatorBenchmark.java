@@ -0,0 +1,56 @@
+package uk.gov.di.ipv.core.benchmarks;
+
+import com.nimbusds.jose.jwk.ECKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
+import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
+import uk.gov.di.ipv.core.library.verifiablecredential.validator.VerifiableCredentialValidator;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.IDENTITY_CHECK_CREDENTIAL_TYPE;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class VerifiableCredentialValidatorBenchmark {
+    @Param({"PASSPORT", "DRIVING_PERMIT", "FRAUD", "ADDRESS", "DCMAW", "F2F"})
+    public BenchmarkVcs.Fixture fixture;
+
+    private VerifiableCredentialValidator validator;
+    private ECKey verificationKey;
+    private String vcString;
+
+    @Setup
+    public void setUp() throws Exception {
+        var vcs = BenchmarkVcs.generate();
+        validator = new VerifiableCredentialValidator(new BenchmarkConfigService());
+        verificationKey = vcs.getVerificationKey();
+        vcString = vcs.serialise(fixture);
+    }
+
+    @Benchmark
+    public VerifiableCredential parseAndValidate() throws VerifiableCredentialException {
+        return validator.parseAndValidate(
+                BenchmarkVcs.USER_ID,
+                fixture.getCriId(),
+                vcString,
+                IDENTITY_CHECK_CREDENTIAL_TYPE,
+                verificationKey,
+                fixture.getComponentId(),
+                false);
+    }
+}
@@ -80,9 +80,9 @@ public class AuthRequestValidator {
             String clientId =
                     getOnlyValueOrThrow(
                             queryStringParameters.getOrDefault(CLIENT_ID_PARAM, List.of()));
-            List<String> clientRedirectUrls = configService.getClientRedirectUrls(clientId);
+            var clientAuthPolicy = configService.getClientAuthPolicy(clientId);
 
-            if (!clientRedirectUrls.contains(redirectUrl)) {
+            if (!clientAuthPolicy.isAllowedRedirectUrl(redirectUrl)) {
                 LOGGER.error(
                         new StringMapMessage()
                                 .with(
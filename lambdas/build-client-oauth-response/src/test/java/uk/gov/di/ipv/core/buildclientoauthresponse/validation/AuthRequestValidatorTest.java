@@ -7,8 +7,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.core.library.domain.ErrorResponse;
 import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.library.validation.ClientAuthPolicy;
 import uk.gov.di.ipv.core.library.validation.ValidationResult;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -49,8 +51,7 @@ class AuthRequestValidatorTest {
 
     @Test
     void validateRequestReturnsValidResultForValidRequest() {
-        when(mockConfigService.getClientRedirectUrls("12345"))
-                .thenReturn(List.of("http://example.com"));
+        givenRegisteredRedirectUrls(List.of("http://example.com"));
 
         var validationResult =
                 validator.validateRequest(VALID_QUERY_STRING_PARAMS, REQUEST_HEADERS);
@@ -114,8 +115,7 @@ class AuthRequestValidatorTest {
 
     @Test
     void validateRequestReturnValidResultForBlankIpvSessionId() {
-        when(mockConfigService.getClientRedirectUrls("12345"))
-                .thenReturn(List.of("http://example.com"));
+        givenRegisteredRedirectUrls(List.of("http://example.com"));
         var validationResult =
                 validator.validateRequest(
                         VALID_QUERY_STRING_PARAMS,
@@ -151,7 +151,7 @@ class AuthRequestValidatorTest {
                         "https://wrong.example.com",
                         "https://nope.example.com",
                         "https://whoops.example.com");
-        when(mockConfigService.getClientRedirectUrls("12345")).thenReturn(registeredRedirectUrls);
+        givenRegisteredRedirectUrls(registeredRedirectUrls);
 
         var validationResult =
                 validator.validateRequest(VALID_QUERY_STRING_PARAMS, REQUEST_HEADERS);
@@ -164,4 +164,26 @@ class AuthRequestValidatorTest {
                 ErrorResponse.INVALID_REDIRECT_URL.getMessage(),
                 validationResult.getError().getMessage());
     }
+
+    @Test
+    void validateRequestReturnsValidResultForEquivalentRedirectUrl() {
+        givenRegisteredRedirectUrls(List.of("http://example.com"));
+        var queryStringParams = new HashMap<>(VALID_QUERY_STRING_PARAMS);
+        queryStringParams.put(REDIRECT_URI_PARAM, List.of("HTTP://Example.com:80/"));
+
+        var validationResult = validator.validateRequest(queryStringParams, REQUEST_HEADERS);
+
+        assertTrue(validationResult.isValid());
+    }
+
+    private void givenRegisteredRedirectUrls(List<String> redirectUrls) {
+        when(mockConfigService.getClientAuthPolicy("12345"))
+                .thenReturn(
+                        new ClientAuthPolicy(
+                                "12345",
+                                "test-issuer",
+                                null,
+                                redirectUrls,
+                                Duration.ofMinutes(25)));
+    }
 }
@@ -2,9 +2,6 @@ package uk.gov.di.ipv.core.buildcrioauthrequest;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.crypto.RSAEncrypter;
@@ -18,6 +15,7 @@ import software.amazon.lambda.powertools.tracing.Tracing;
 import uk.gov.di.ipv.core.buildcrioauthrequest.domain.CriDetails;
 import uk.gov.di.ipv.core.buildcrioauthrequest.domain.CriResponse;
 import uk.gov.di.ipv.core.buildcrioauthrequest.helpers.AuthorizationRequestHelper;
+import uk.gov.di.ipv.core.buildcrioauthrequest.helpers.SharedClaimsAggregator;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.core.library.auditing.AuditEvent;
 import uk.gov.di.ipv.core.library.auditing.AuditEventTypes;
@@ -27,7 +25,6 @@ import uk.gov.di.ipv.core.library.domain.ErrorResponse;
 import uk.gov.di.ipv.core.library.domain.EvidenceRequest;
 import uk.gov.di.ipv.core.library.domain.JourneyErrorResponse;
 import uk.gov.di.ipv.core.library.domain.JourneyRequest;
-import uk.gov.di.ipv.core.library.domain.SharedClaims;
 import uk.gov.di.ipv.core.library.domain.SharedClaimsResponse;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
 import uk.gov.di.ipv.core.library.dto.OauthCriConfig;
@@ -39,6 +36,7 @@ import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
 import uk.gov.di.ipv.core.library.gpg45.Gpg45ProfileEvaluator;
 import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores;
 import uk.gov.di.ipv.core.library.gpg45.exception.UnknownEvidenceTypeException;
+import uk.gov.di.ipv.core.library.helpers.EncrypterRegistry;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.helpers.SecureTokenHelper;
 import uk.gov.di.ipv.core.library.kmses256signer.KmsEs256SignerFactory;
@@ -55,24 +53,19 @@ import uk.gov.di.ipv.core.library.verifiablecredential.service.SessionCredential
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
 import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
-import static uk.gov.di.ipv.core.library.domain.CriConstants.ADDRESS_CRI;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.F2F_CRI;
 import static uk.gov.di.ipv.core.library.domain.ErrorResponse.FAILED_TO_CONSTRUCT_REDIRECT_URI;
 import static uk.gov.di.ipv.core.library.domain.ErrorResponse.FAILED_TO_DETERMINE_CREDENTIAL_TYPE;
 import static uk.gov.di.ipv.core.library.domain.ErrorResponse.FAILED_TO_PARSE_ISSUED_CREDENTIALS;
 import static uk.gov.di.ipv.core.library.domain.ErrorResponse.FAILED_TO_SEND_AUDIT_EVENT;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CLAIM;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CREDENTIAL_SUBJECT;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_LAMBDA_RESULT;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_REDIRECT_URI;
 import static uk.gov.di.ipv.core.library.helpers.RequestHelper.getFeatureSet;
@@ -84,13 +77,8 @@ import static uk.gov.di.ipv.core.library.journeyuris.JourneyUris.JOURNEY_ERROR_P
 public class BuildCriOauthRequestHandler
         implements RequestHandler<JourneyRequest, Map<String, Object>> {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final String DCMAW_CRI_ID = "dcmaw";
-    public static final String SHARED_CLAIM_ATTR_NAME = "name";
-    public static final String SHARED_CLAIM_ATTR_BIRTH_DATE = "birthDate";
-    public static final String SHARED_CLAIM_ATTR_ADDRESS = "address";
     public static final String SHARED_CLAIM_ATTR_EMAIL = "emailAddress";
-    public static final String SHARED_CLAIM_ATTR_SOCIAL_SECURITY_RECORD = "socialSecurityRecord";
     public static final String DEFAULT_ALLOWED_SHARED_ATTR = "name,birthDate,address";
     public static final String REGEX_COMMA_SEPARATION = "\\s*,\\s*";
     public static final Pattern LAST_SEGMENT_PATTERN = Pattern.compile("/([^/]+)$");
@@ -105,6 +93,7 @@ public class BuildCriOauthRequestHandler
     private final ClientOAuthSessionDetailsService clientOAuthSessionDetailsService;
     private final Gpg45ProfileEvaluator gpg45ProfileEvaluator;
     private final SessionCredentialsService sessionCredentialsService;
+    private final SharedClaimsAggregator sharedClaimsAggregator;
 
     public BuildCriOauthRequestHandler(
             ConfigService configService,
@@ -123,19 +112,27 @@ public class BuildCriOauthRequestHandler
         this.clientOAuthSessionDetailsService = clientOAuthSessionDetailsService;
         this.gpg45ProfileEvaluator = gpg45ProfileEvaluator;
         this.sessionCredentialsService = sessionCredentialsService;
+        this.sharedClaimsAggregator = new SharedClaimsAggregator(configService);
         VcHelper.setConfigService(this.configService);
     }
 
     @ExcludeFromGeneratedCoverageReport
     public BuildCriOauthRequestHandler() {
+        this(new KmsEs256SignerFactory());
+    }
+
+    // Local running passes a signer factory that signs in process instead of with KMS
+    @ExcludeFromGeneratedCoverageReport
+    public BuildCriOauthRequestHandler(KmsEs256SignerFactory signerFactory) {
         this.configService = new ConfigService();
-        this.signerFactory = new KmsEs256SignerFactory();
+        this.signerFactory = signerFactory;
         this.auditService = new AuditService(AuditService.getSqsClient(), configService);
         this.ipvSessionService = new IpvSessionService(configService);
         this.criOAuthSessionService = new CriOAuthSessionService(configService);
         this.clientOAuthSessionDetailsService = new ClientOAuthSessionDetailsService(configService);
         this.gpg45ProfileEvaluator = new Gpg45ProfileEvaluator();
         this.sessionCredentialsService = new SessionCredentialsService(configService);
+        this.sharedClaimsAggregator = new SharedClaimsAggregator(configService);
         VcHelper.setConfigService(configService);
     }
 
@@ -323,7 +320,9 @@ public class BuildCriOauthRequestHandler
                         context,
                         scope);
 
-        RSAEncrypter rsaEncrypter = new RSAEncrypter(oauthCriConfig.getParsedEncryptionKey());
+        RSAEncrypter rsaEncrypter =
+                EncrypterRegistry.getInstance()
+                        .getEncrypter(oauthCriConfig.getParsedEncryptionKey());
         return AuthorizationRequestHelper.createJweObject(rsaEncrypter, signedJWT);
     }
 
@@ -366,56 +365,10 @@ public class BuildCriOauthRequestHandler
     private SharedClaimsResponse getSharedAttributesForUser(
             IpvSessionItem ipvSessionItem, List<VerifiableCredential> vcs, String criId)
             throws HttpResponseExceptionWithErrorBody {
-
-        Set<SharedClaims> sharedClaimsSet = new HashSet<>();
         List<String> criAllowedSharedClaimAttrs = getAllowedSharedClaimAttrs(criId);
-        boolean hasAddressVc = false;
-        for (var vc : vcs) {
-            try {
-                String credentialIss = vc.getClaimsSet().getIssuer();
-
-                if (VcHelper.isSuccessfulVc(vc)) {
-                    JsonNode credentialSubject =
-                            OBJECT_MAPPER
-                                    .readTree(
-                                            SignedJWT.parse(vc.getVcString())
-                                                    .getPayload()
-                                                    .toString())
-                                    .path(VC_CLAIM)
-                                    .path(VC_CREDENTIAL_SUBJECT);
-                    if (credentialSubject.isMissingNode()) {
-                        LOGGER.error(
-                                LogHelper.buildLogMessage(
-                                        ErrorResponse.CREDENTIAL_SUBJECT_MISSING.getMessage()));
-                        throw new HttpResponseExceptionWithErrorBody(
-                                500, ErrorResponse.CREDENTIAL_SUBJECT_MISSING);
-                    }
-
-                    SharedClaims credentialsSharedClaims =
-                            OBJECT_MAPPER.readValue(
-                                    credentialSubject.toString(), SharedClaims.class);
-                    if (credentialIss.equals(configService.getComponentId(ADDRESS_CRI))) {
-                        hasAddressVc = true;
-                        sharedClaimsSet.forEach(sharedClaims -> sharedClaims.setAddress(null));
-                    } else if (hasAddressVc) {
-                        credentialsSharedClaims.setAddress(null);
-                    }
-                    verifyForAllowedSharedClaimAttrs(
-                            credentialsSharedClaims, criAllowedSharedClaimAttrs);
-                    sharedClaimsSet.add(credentialsSharedClaims);
-                }
-            } catch (JsonProcessingException e) {
-                LOGGER.error(LogHelper.buildErrorMessage("Failed to get Shared Attributes.", e));
-                throw new HttpResponseExceptionWithErrorBody(
-                        500, ErrorResponse.FAILED_TO_GET_SHARED_ATTRIBUTES);
-            } catch (ParseException | CredentialParseException e) {
-                LOGGER.error(LogHelper.buildErrorMessage("Failed to parse issued credentials.", e));
-                throw new HttpResponseExceptionWithErrorBody(
-                        500, FAILED_TO_PARSE_ISSUED_CREDENTIALS);
-            }
-        }
-        return SharedClaimsResponse.from(
-                sharedClaimsSet,
+        return sharedClaimsAggregator.aggregate(
+                vcs,
+                criAllowedSharedClaimAttrs,
                 getEmailAddressFromIpvSession(ipvSessionItem, criAllowedSharedClaimAttrs));
     }
 
@@ -428,22 +381,6 @@ public class BuildCriOauthRequestHandler
         return null;
     }
 
-    private void verifyForAllowedSharedClaimAttrs(
-            SharedClaims credentialsSharedClaims, List<String> allowedSharedAttr) {
-        if (!allowedSharedAttr.contains(SHARED_CLAIM_ATTR_NAME)) {
-            credentialsSharedClaims.setName(null);
-        }
-        if (!allowedSharedAttr.contains(SHARED_CLAIM_ATTR_BIRTH_DATE)) {
-            credentialsSharedClaims.setBirthDate(null);
-        }
-        if (!allowedSharedAttr.contains(SHARED_CLAIM_ATTR_ADDRESS)) {
-            credentialsSharedClaims.setAddress(null);
-        }
-        if (!allowedSharedAttr.contains(SHARED_CLAIM_ATTR_SOCIAL_SECURITY_RECORD)) {
-            credentialsSharedClaims.setSocialSecurityRecord(null);
-        }
-    }
-
     private List<String> getAllowedSharedClaimAttrs(String criId) {
         String allowedSharedAttributes = configService.getAllowedSharedAttributes(criId);
         return allowedSharedAttributes == null
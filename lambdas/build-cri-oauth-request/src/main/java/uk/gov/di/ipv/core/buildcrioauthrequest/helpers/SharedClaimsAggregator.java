@@ -0,0 +1,124 @@
+package uk.gov.di.ipv.core.buildcrioauthrequest.helpers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.ipv.core.library.domain.Address;
+import uk.gov.di.ipv.core.library.domain.BirthDate;
+import uk.gov.di.ipv.core.library.domain.ErrorResponse;
+import uk.gov.di.ipv.core.library.domain.Name;
+import uk.gov.di.ipv.core.library.domain.SharedClaims;
+import uk.gov.di.ipv.core.library.domain.SharedClaimsResponse;
+import uk.gov.di.ipv.core.library.domain.SocialSecurityRecord;
+import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
+import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
+import uk.gov.di.ipv.core.library.exceptions.HttpResponseExceptionWithErrorBody;
+import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.library.verifiablecredential.helpers.VcHelper;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static uk.gov.di.ipv.core.library.domain.CriConstants.ADDRESS_CRI;
+
+/**
+ * Gathers the claims core shares with a CRI from a user's successful credentials. Each credential's
+ * typed claims are read once, and each claim is deduplicated across credentials in the order the
+ * credentials are given.
+ *
+ * <p>If the user has an address credential, only the addresses from the last one are shared.
+ */
+public class SharedClaimsAggregator {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String SHARED_CLAIM_ATTR_NAME = "name";
+    private static final String SHARED_CLAIM_ATTR_BIRTH_DATE = "birthDate";
+    private static final String SHARED_CLAIM_ATTR_ADDRESS = "address";
+    private static final String SHARED_CLAIM_ATTR_SOCIAL_SECURITY_RECORD = "socialSecurityRecord";
+
+    private final ConfigService configService;
+
+    public SharedClaimsAggregator(ConfigService configService) {
+        this.configService = configService;
+    }
+
+    public SharedClaimsResponse aggregate(
+            List<VerifiableCredential> vcs, List<String> allowedClaims, String emailAddress)
+            throws HttpResponseExceptionWithErrorBody {
+        Set<Name> names = new LinkedHashSet<>();
+        Set<BirthDate> birthDates = new LinkedHashSet<>();
+        Set<Address> addresses = new LinkedHashSet<>();
+        Set<Address> addressVcAddresses = null;
+        Set<SocialSecurityRecord> socialSecurityRecords = new LinkedHashSet<>();
+
+        for (var vc : vcs) {
+            if (!isSuccessful(vc)) {
+                continue;
+            }
+            try {
+                var claims = vc.getClaims();
+                if (!claims.hasCredentialSubject()) {
+                    LOGGER.error(
+                            LogHelper.buildLogMessage(
+                                    ErrorResponse.CREDENTIAL_SUBJECT_MISSING.getMessage()));
+                    throw new HttpResponseExceptionWithErrorBody(
+                            500, ErrorResponse.CREDENTIAL_SUBJECT_MISSING);
+                }
+                if (allowedClaims.contains(SHARED_CLAIM_ATTR_NAME)) {
+                    addAll(names, claims.getNames());
+                }
+                if (allowedClaims.contains(SHARED_CLAIM_ATTR_BIRTH_DATE)) {
+                    addAll(birthDates, claims.getBirthDates());
+                }
+                if (isAddressVc(vc)) {
+                    addressVcAddresses = new LinkedHashSet<>();
+                    if (allowedClaims.contains(SHARED_CLAIM_ATTR_ADDRESS)) {
+                        addAll(addressVcAddresses, claims.getAddresses());
+                    }
+                } else if (allowedClaims.contains(SHARED_CLAIM_ATTR_ADDRESS)) {
+                    addAll(addresses, claims.getAddresses());
+                }
+                if (allowedClaims.contains(SHARED_CLAIM_ATTR_SOCIAL_SECURITY_RECORD)) {
+                    addAll(socialSecurityRecords, claims.getSocialSecurityRecords());
+                }
+            } catch (CredentialParseException e) {
+                LOGGER.error(LogHelper.buildErrorMessage("Failed to get Shared Attributes.", e));
+                throw new HttpResponseExceptionWithErrorBody(
+                        500, ErrorResponse.FAILED_TO_GET_SHARED_ATTRIBUTES);
+            }
+        }
+
+        var sharedClaims =
+                new SharedClaims(
+                        names,
+                        birthDates,
+                        addressVcAddresses == null ? addresses : addressVcAddresses,
+                        socialSecurityRecords);
+        return SharedClaimsResponse.from(Set.of(sharedClaims), emailAddress);
+    }
+
+    private boolean isSuccessful(VerifiableCredential vc)
+            throws HttpResponseExceptionWithErrorBody {
+        try {
+            return VcHelper.isSuccessfulVc(vc);
+        } catch (CredentialParseException e) {
+            LOGGER.error(LogHelper.buildErrorMessage("Failed to parse issued credentials.", e));
+            throw new HttpResponseExceptionWithErrorBody(
+                    500, ErrorResponse.FAILED_TO_PARSE_ISSUED_CREDENTIALS);
+        }
+    }
+
+    private boolean isAddressVc(VerifiableCredential vc) {
+        return Objects.equals(
+                vc.getClaimsSet().getIssuer(), configService.getComponentId(ADDRESS_CRI));
+    }
+
+    // A claim set to null in the credential has nothing to add
+    private static <T> void addAll(Set<T> claims, Collection<T> values) {
+        if (values != null) {
+            claims.addAll(values);
+        }
+    }
+}
@@ -39,6 +39,7 @@ import uk.gov.di.ipv.core.library.gpg45.Gpg45ProfileEvaluator;
 import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores;
 import uk.gov.di.ipv.core.library.gpg45.exception.UnknownEvidenceTypeException;
 import uk.gov.di.ipv.core.library.helpers.SecureTokenHelper;
+import uk.gov.di.ipv.core.library.kmses256signer.InMemoryKmsClient;
 import uk.gov.di.ipv.core.library.kmses256signer.KmsEs256SignerFactory;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
@@ -54,6 +55,7 @@ import uk.gov.di.ipv.core.library.verifiablecredential.service.SessionCredential
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.KeyFactory;
+import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.interfaces.ECPrivateKey;
@@ -127,6 +129,7 @@ class BuildCriOauthRequestHandlerTest {
                     "%s?%s=%s&%s=%s",
                     CLAIMED_IDENTITY_CRI, CONTEXT, TEST_CONTEXT, SCOPE, TEST_SCOPE);
 
+    private static final String SIGNING_KEY_ID = "signing-key-id";
     private static final String TEST_CLIENT_OAUTH_SESSION_ID =
             SecureTokenHelper.getInstance().generate();
     public static final String MAIN_CONNECTION = "main";
@@ -374,6 +377,59 @@ class BuildCriOauthRequestHandlerTest {
         verify(mockClientOAuthSessionDetailsService, times(1)).getClientOAuthSession(any());
     }
 
+    @Test
+    void shouldSignTheJarWithTheSigningKeyHeldInKms() throws Exception {
+        // Arrange
+        var kmsClient = new InMemoryKmsClient();
+        kmsClient.importKey(SIGNING_KEY_ID, new KeyPair(null, getSigningPrivateKey()));
+        var handler =
+                new BuildCriOauthRequestHandler(
+                        configService,
+                        new KmsEs256SignerFactory(kmsClient),
+                        mockAuditService,
+                        mockIpvSessionService,
+                        mockCriOAuthSessionService,
+                        mockClientOAuthSessionDetailsService,
+                        mockGpg45ProfileEvaluator,
+                        mockSessionCredentialService);
+        when(configService.getActiveConnection(CRI_ID)).thenReturn(MAIN_CONNECTION);
+        when(configService.getOauthCriConfigForConnection(MAIN_CONNECTION, CRI_ID))
+                .thenReturn(oauthCriConfig);
+        when(configService.getSsmParameter(JWT_TTL_SECONDS)).thenReturn("900");
+        when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(IPV_ISSUER);
+        when(configService.getSigningKeyId()).thenReturn(SIGNING_KEY_ID);
+        when(mockIpvSessionService.getIpvSession(SESSION_ID)).thenReturn(ipvSessionItem);
+        when(mockSessionCredentialService.getCredentials(SESSION_ID, TEST_USER_ID))
+                .thenReturn(List.of());
+        when(mockClientOAuthSessionDetailsService.getClientOAuthSession(any()))
+                .thenReturn(clientOAuthSessionItem);
+
+        JourneyRequest input =
+                JourneyRequest.builder()
+                        .ipvSessionId(SESSION_ID)
+                        .ipAddress(TEST_IP_ADDRESS)
+                        .journey(String.format(JOURNEY_BASE_URL, CRI_ID))
+                        .build();
+
+        // Act
+        var response = handler.handleRequest(input, context);
+
+        // Assert
+        var criResponse = OBJECT_MAPPER.convertValue(response, CriResponse.class);
+        var queryParams = new URIBuilder(criResponse.getCri().getRedirectUrl()).getQueryParams();
+        var request =
+                queryParams.stream()
+                        .filter(param -> param.getName().equals("request"))
+                        .findFirst()
+                        .orElseThrow();
+        JWEObject jweObject = JWEObject.parse(request.getValue());
+        jweObject.decrypt(new RSADecrypter(getEncryptionPrivateKey()));
+        SignedJWT signedJWT = jweObject.getPayload().toSignedJWT();
+        assertTrue(signedJWT.verify(new ECDSAVerifier(ECKey.parse(EC_PUBLIC_JWK))));
+        assertEquals(IPV_ISSUER, signedJWT.getJWTClaimsSet().getIssuer());
+        assertEquals(1, kmsClient.getRequestCount());
+    }
+
     @Test
     void
             shouldReceive200ResponseCodeAndReturnCredentialIssuerResponseWithoutResponseTypeParamForAllVCsAreNotSuccess()
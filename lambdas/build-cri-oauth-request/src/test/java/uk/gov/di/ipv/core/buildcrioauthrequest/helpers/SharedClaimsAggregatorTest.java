@@ -0,0 +1,142 @@
+package uk.gov.di.ipv.core.buildcrioauthrequest.helpers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.di.ipv.core.library.domain.Address;
+import uk.gov.di.ipv.core.library.domain.BirthDate;
+import uk.gov.di.ipv.core.library.domain.ErrorResponse;
+import uk.gov.di.ipv.core.library.domain.Name;
+import uk.gov.di.ipv.core.library.exceptions.HttpResponseExceptionWithErrorBody;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.library.verifiablecredential.helpers.VcHelper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.core.library.domain.CriConstants.ADDRESS_CRI;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.CREDENTIAL_ATTRIBUTES_1;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.CREDENTIAL_ATTRIBUTES_2;
+import static uk.gov.di.ipv.core.library.helpers.VerifiableCredentialGenerator.generateVerifiableCredential;
+import static uk.gov.di.ipv.core.library.helpers.VerifiableCredentialGenerator.vcClaim;
+
+@ExtendWith(MockitoExtension.class)
+class SharedClaimsAggregatorTest {
+    private static final String USER_ID = "test-user-id";
+    private static final String ISSUER = "https://issuer.example.com";
+    private static final String ADDRESS_ISSUER = "https://address.example.com";
+    private static final List<String> DEFAULT_CLAIMS = List.of("name", "birthDate", "address");
+
+    @Mock private ConfigService mockConfigService;
+    @Mock private MockedStatic<VcHelper> mockVcHelper;
+
+    private SharedClaimsAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new SharedClaimsAggregator(mockConfigService);
+    }
+
+    @Test
+    void aggregateShouldDeduplicateClaimsInCredentialOrder() throws Exception {
+        when(mockConfigService.getComponentId(ADDRESS_CRI)).thenReturn(ADDRESS_ISSUER);
+        mockVcHelper.when(() -> VcHelper.isSuccessfulVc(any())).thenReturn(true);
+        var vcs =
+                List.of(
+                        generateVerifiableCredential(
+                                USER_ID, "ukPassport", vcClaim(CREDENTIAL_ATTRIBUTES_1), ISSUER),
+                        generateVerifiableCredential(
+                                USER_ID, "fraud", vcClaim(CREDENTIAL_ATTRIBUTES_2), ISSUER));
+
+        var sharedClaims = aggregator.aggregate(vcs, DEFAULT_CLAIMS, "test@example.com");
+
+        assertEquals(
+                List.of("Alice Jane Laura Doe Musk", "Alice Doe"),
+                sharedClaims.getName().stream().map(Name::getFullName).toList());
+        assertEquals(
+                List.of("2020-01-03", "2021-01-03"),
+                sharedClaims.getBirthDate().stream().map(BirthDate::getValue).toList());
+        assertEquals(
+                List.of("10", "123", "11"),
+                sharedClaims.getAddress().stream().map(Address::getBuildingNumber).toList());
+        assertTrue(sharedClaims.getSocialSecurityRecord().isEmpty());
+        assertEquals("test@example.com", sharedClaims.getEmailAddress());
+    }
+
+    @Test
+    void aggregateShouldOnlyShareAddressesFromTheLastAddressCredential() throws Exception {
+        when(mockConfigService.getComponentId(ADDRESS_CRI)).thenReturn(ADDRESS_ISSUER);
+        mockVcHelper.when(() -> VcHelper.isSuccessfulVc(any())).thenReturn(true);
+        var vcs =
+                List.of(
+                        generateVerifiableCredential(
+                                USER_ID,
+                                ADDRESS_CRI,
+                                vcClaim(CREDENTIAL_ATTRIBUTES_2),
+                                ADDRESS_ISSUER),
+                        generateVerifiableCredential(
+                                USER_ID, "ukPassport", vcClaim(CREDENTIAL_ATTRIBUTES_2), ISSUER),
+                        generateVerifiableCredential(
+                                USER_ID,
+                                ADDRESS_CRI,
+                                vcClaim(CREDENTIAL_ATTRIBUTES_1),
+                                ADDRESS_ISSUER));
+
+        var sharedClaims = aggregator.aggregate(vcs, DEFAULT_CLAIMS, null);
+
+        assertEquals(
+                List.of("10", "123"),
+                sharedClaims.getAddress().stream().map(Address::getBuildingNumber).toList());
+    }
+
+    @Test
+    void aggregateShouldOnlyShareAllowedClaimsFromSuccessfulCredentials() throws Exception {
+        var successfulVc =
+                generateVerifiableCredential(
+                        USER_ID, "ukPassport", vcClaim(CREDENTIAL_ATTRIBUTES_1), ISSUER);
+        var failedVc =
+                generateVerifiableCredential(
+                        USER_ID, "fraud", vcClaim(CREDENTIAL_ATTRIBUTES_2), ISSUER);
+        when(mockConfigService.getComponentId(ADDRESS_CRI)).thenReturn(ADDRESS_ISSUER);
+        mockVcHelper.when(() -> VcHelper.isSuccessfulVc(successfulVc)).thenReturn(true);
+        mockVcHelper.when(() -> VcHelper.isSuccessfulVc(failedVc)).thenReturn(false);
+
+        var sharedClaims =
+                aggregator.aggregate(
+                        List.of(successfulVc, failedVc),
+                        List.of("name", "socialSecurityRecord"),
+                        null);
+
+        assertEquals(1, sharedClaims.getName().size());
+        assertTrue(sharedClaims.getBirthDate().isEmpty());
+        assertTrue(sharedClaims.getAddress().isEmpty());
+        assertEquals(1, sharedClaims.getSocialSecurityRecord().size());
+    }
+
+    @Test
+    void aggregateShouldThrowIfACredentialHasNoSubject() throws Exception {
+        mockVcHelper.when(() -> VcHelper.isSuccessfulVc(any())).thenReturn(true);
+        var vcs =
+                List.of(
+                        generateVerifiableCredential(
+                                USER_ID,
+                                "ukPassport",
+                                Map.of("type", new String[] {"VerifiableCredential"}),
+                                ISSUER));
+
+        var exception =
+                assertThrows(
+                        HttpResponseExceptionWithErrorBody.class,
+                        () -> aggregator.aggregate(vcs, DEFAULT_CLAIMS, null));
+
+        assertEquals(ErrorResponse.CREDENTIAL_SUBJECT_MISSING, exception.getErrorResponse());
+    }
+}
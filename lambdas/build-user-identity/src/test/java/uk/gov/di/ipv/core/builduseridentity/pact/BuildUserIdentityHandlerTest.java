@@ -27,6 +27,7 @@ import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.pacttesthelpers.LambdaHttpServer;
 import uk.gov.di.ipv.core.library.pacttesthelpers.PactJwtBuilder;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.SessionCredentialItem;
@@ -70,6 +71,7 @@ class BuildUserIdentityHandlerTest {
     @Mock private ConfigService mockConfigService;
     @Mock private AuditService mockAuditService;
     @Mock private DataStore<IpvSessionItem> mockIpvSessionDataStore;
+    @Mock private DataStore<AccessTokenItem> mockAccessTokenDataStore;
     @Mock private DataStore<SessionCredentialItem> mockSessionCredentialItemStore;
     @Mock private DataStore<ClientOAuthSessionItem> mockOAuthSessionStore;
     @Mock private CiMitService mockCiMitService;
@@ -86,7 +88,8 @@ class BuildUserIdentityHandlerTest {
             throws IOException, CiRetrievalException, ParseException, CredentialParseException {
 
         var userIdentityService = new UserIdentityService(mockConfigService);
-        var ipvSessionService = new IpvSessionService(mockIpvSessionDataStore);
+        var ipvSessionService =
+                new IpvSessionService(mockIpvSessionDataStore, mockAccessTokenDataStore);
         var clientOAuthSessionDetailsService =
                 new ClientOAuthSessionDetailsService(mockOAuthSessionStore, mockConfigService);
 
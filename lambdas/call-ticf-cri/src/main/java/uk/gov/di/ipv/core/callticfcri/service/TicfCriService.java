@@ -14,6 +14,7 @@ import uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants;
 import uk.gov.di.ipv.core.library.dto.RestCriConfig;
 import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.http.CriHttpClient;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
 import uk.gov.di.ipv.core.library.service.ConfigService;
@@ -36,13 +37,13 @@ public class TicfCriService {
     public static final String X_API_KEY_HEADER = "x-api-key";
 
     private final ConfigService configService;
-    private final HttpClient httpClient;
+    private final CriHttpClient criHttpClient;
     private final VerifiableCredentialValidator jwtValidator;
     private final SessionCredentialsService sessionCredentialsService;
 
     public TicfCriService(ConfigService configService) {
         this.configService = configService;
-        this.httpClient = HttpClient.newHttpClient();
+        this.criHttpClient = CriHttpClient.getInstance();
         this.jwtValidator = new VerifiableCredentialValidator(configService);
         this.sessionCredentialsService = new SessionCredentialsService(configService);
     }
@@ -53,7 +54,7 @@ public class TicfCriService {
             VerifiableCredentialValidator jwtValidator,
             SessionCredentialsService sessionCredentialsService) {
         this.configService = configService;
-        this.httpClient = HttpClient.newHttpClient();
+        this.criHttpClient = CriHttpClient.getInstance();
         this.jwtValidator = jwtValidator;
         this.sessionCredentialsService = sessionCredentialsService;
     }
@@ -64,7 +65,7 @@ public class TicfCriService {
             VerifiableCredentialValidator jwtValidator,
             SessionCredentialsService sessionCredentialsService) {
         this.configService = configService;
-        this.httpClient = httpClient;
+        this.criHttpClient = new CriHttpClient(httpClient);
         this.jwtValidator = jwtValidator;
         this.sessionCredentialsService = sessionCredentialsService;
     }
@@ -104,7 +105,7 @@ public class TicfCriService {
             }
             httpRequestBuilder.header("Content-Type", "application/json; charset=utf-8");
 
-            var ticfCriHttpResponse = sendHttpRequest(httpRequestBuilder.build());
+            var ticfCriHttpResponse = sendHttpRequest(httpRequestBuilder.build(), ticfCriConfig);
             checkStatusCode(ticfCriHttpResponse);
 
             TicfCriDto ticfCriResponse =
@@ -151,9 +152,11 @@ public class TicfCriService {
     }
 
     @Tracing
-    private HttpResponse<String> sendHttpRequest(HttpRequest ticfCriHttpRequest)
+    private HttpResponse<String> sendHttpRequest(
+            HttpRequest ticfCriHttpRequest, RestCriConfig ticfCriConfig)
             throws IOException, InterruptedException {
         LOGGER.info(LogHelper.buildLogMessage("Sending HTTP request to TICF CRI"));
-        return httpClient.send(ticfCriHttpRequest, HttpResponse.BodyHandlers.ofString());
+        return criHttpClient.send(
+                TICF_CRI, "FetchVerifiableCredential", ticfCriHttpRequest, ticfCriConfig);
     }
 }
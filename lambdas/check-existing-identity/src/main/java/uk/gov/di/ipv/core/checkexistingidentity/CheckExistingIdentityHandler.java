@@ -9,6 +9,7 @@ import org.apache.logging.log4j.message.StringMapMessage;
 import software.amazon.lambda.powertools.logging.Logging;
 import software.amazon.lambda.powertools.tracing.Tracing;
 import uk.gov.di.ipv.core.checkexistingidentity.exceptions.MitigationRouteException;
+import uk.gov.di.ipv.core.checkexistingidentity.exceptions.PrefetchException;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.core.library.auditing.AuditEvent;
 import uk.gov.di.ipv.core.library.auditing.AuditEventTypes;
@@ -37,6 +38,7 @@ import uk.gov.di.ipv.core.library.gpg45.enums.Gpg45Profile;
 import uk.gov.di.ipv.core.library.gpg45.exception.UnknownEvidenceTypeException;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.helpers.RequestHelper;
+import uk.gov.di.ipv.core.library.persistence.RequestScopedReadCache;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.CriResponseItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
@@ -53,6 +55,7 @@ import uk.gov.di.ipv.core.library.verifiablecredential.service.SessionCredential
 import uk.gov.di.ipv.core.library.verifiablecredential.service.VerifiableCredentialService;
 
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -111,6 +114,10 @@ public class CheckExistingIdentityHandler
     public static final List<Vot> SUPPORTED_VOTS_BY_STRENGTH =
             List.of(Vot.P2, Vot.PCL250, Vot.PCL200);
 
+    // One thread for each of the reads made before evaluating the user's identity
+    private static final ConcurrentReads CONCURRENT_READS =
+            new ConcurrentReads(3, Duration.ofSeconds(10));
+
     private final ConfigService configService;
     private final UserIdentityService userIdentityService;
     private final CriResponseService criResponseService;
@@ -175,6 +182,7 @@ public class CheckExistingIdentityHandler
     @Logging(clearState = true)
     public Map<String, Object> handleRequest(JourneyRequest event, Context context) {
         LogHelper.attachComponentId(configService);
+        var readCache = RequestScopedReadCache.open();
 
         try {
             String ipvSessionId = getIpvSessionId(event);
@@ -194,6 +202,8 @@ public class CheckExistingIdentityHandler
             return new JourneyErrorResponse(
                             JOURNEY_ERROR_PATH, e.getResponseCode(), e.getErrorResponse())
                     .toObjectMap();
+        } finally {
+            readCache.close();
         }
     }
 
@@ -211,15 +221,15 @@ public class CheckExistingIdentityHandler
             AuditEventUser auditEventUser =
                     new AuditEventUser(userId, ipvSessionId, govukSigninJourneyId, ipAddress);
 
-            var vcs = verifiableCredentialService.getVcs(userId);
+            var userData = getUserData(userId, govukSigninJourneyId, ipAddress);
+
+            var vcs = userData.vcs();
             var hasF2fVc = vcs.stream().anyMatch(vc -> vc.getCriId().equals(F2F_CRI));
-            CriResponseItem f2fRequest = criResponseService.getFaceToFaceRequest(userId);
+            CriResponseItem f2fRequest = userData.f2fRequest();
             final boolean isF2FIncomplete = !Objects.isNull(f2fRequest) && !hasF2fVc;
             final boolean isF2FComplete = !Objects.isNull(f2fRequest) && hasF2fVc;
 
-            var contraIndicators =
-                    ciMitService.getContraIndicators(
-                            clientOAuthSessionItem.getUserId(), govukSigninJourneyId, ipAddress);
+            var contraIndicators = userData.contraIndicators();
 
             var ciScoringCheckResponse = checkForCIScoringFailure(contraIndicators);
             Optional<Boolean> reproveIdentity =
@@ -282,9 +292,43 @@ public class CheckExistingIdentityHandler
             return buildErrorResponse(ErrorResponse.UNRECOGNISED_CI_CODE, e);
         } catch (MitigationRouteException e) {
             return buildErrorResponse(ErrorResponse.FAILED_TO_FIND_MITIGATION_ROUTE, e);
+        } catch (PrefetchException e) {
+            return buildErrorResponse(e.getErrorResponse(), e);
         }
     }
 
+    // None of these reads depends on another, so they are made concurrently
+    @Tracing
+    private UserData getUserData(String userId, String govukSigninJourneyId, String ipAddress)
+            throws CredentialParseException, CiRetrievalException, PrefetchException {
+        try (var reads = CONCURRENT_READS.begin()) {
+            var vcs =
+                    reads.submit(
+                            ErrorResponse.FAILED_TO_GET_CREDENTIAL,
+                            () -> verifiableCredentialService.getVcs(userId));
+            var f2fRequest =
+                    reads.submit(
+                            ErrorResponse.FAILED_TO_GET_CREDENTIAL,
+                            () -> criResponseService.getFaceToFaceRequest(userId));
+            var contraIndicators =
+                    reads.submit(
+                            ErrorResponse.FAILED_TO_GET_STORED_CIS,
+                            () ->
+                                    ciMitService.getContraIndicators(
+                                            userId, govukSigninJourneyId, ipAddress));
+
+            return new UserData(
+                    vcs.get(CredentialParseException.class),
+                    f2fRequest.get(),
+                    contraIndicators.get(CiRetrievalException.class));
+        }
+    }
+
+    private record UserData(
+            List<VerifiableCredential> vcs,
+            CriResponseItem f2fRequest,
+            ContraIndicators contraIndicators) {}
+
     @Tracing
     private JourneyResponse buildF2FIncompleteResponse(CriResponseItem faceToFaceRequest) {
         switch (faceToFaceRequest.getStatus()) {
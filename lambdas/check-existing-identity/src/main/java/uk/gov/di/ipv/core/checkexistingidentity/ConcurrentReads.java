@@ -0,0 +1,104 @@
+package uk.gov.di.ipv.core.checkexistingidentity;
+
+import uk.gov.di.ipv.core.checkexistingidentity.exceptions.PrefetchException;
+import uk.gov.di.ipv.core.library.domain.ErrorResponse;
+import uk.gov.di.ipv.core.library.helpers.ExecutorHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs independent remote reads on a small, bounded pool so that a request waits for the slowest
+ * read rather than for the sum of them.
+ *
+ * <p>Each read has its own timeout, measured from when it was submitted. Reads are awaited in the
+ * order the caller asks for them, so the first failure reported is the one the equivalent
+ * sequential code would have hit. Closing a batch cancels any read that has not finished, which
+ * stops the remaining reads once an earlier one has failed.
+ */
+public class ConcurrentReads {
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public ConcurrentReads(int maxConcurrency, Duration timeout) {
+        this.executor = ExecutorHelper.newFixedDaemonThreadPool("concurrent-reads", maxConcurrency);
+        this.timeout = timeout;
+    }
+
+    public Batch begin() {
+        return new Batch();
+    }
+
+    @FunctionalInterface
+    public interface RemoteRead<T> {
+        T read() throws Exception; // NOSONAR - rethrown with its original type by Read.get
+    }
+
+    public class Batch implements AutoCloseable {
+        private final List<Future<?>> futures = new ArrayList<>();
+
+        private Batch() {}
+
+        public <T> Read<T> submit(ErrorResponse timeoutErrorResponse, RemoteRead<T> remoteRead) {
+            var deadline = System.nanoTime() + timeout.toNanos();
+            Future<T> future = executor.submit(remoteRead::read);
+            futures.add(future);
+            return new Read<>(future, deadline, timeoutErrorResponse);
+        }
+
+        @Override
+        public void close() {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    public static class Read<T> {
+        private final Future<T> future;
+        private final long deadline;
+        private final ErrorResponse timeoutErrorResponse;
+
+        private Read(Future<T> future, long deadline, ErrorResponse timeoutErrorResponse) {
+            this.future = future;
+            this.deadline = deadline;
+            this.timeoutErrorResponse = timeoutErrorResponse;
+        }
+
+        // For reads that do not throw checked exceptions
+        public T get() throws PrefetchException {
+            return get(RuntimeException.class);
+        }
+
+        // Returns the result of the read, or rethrows its failure if it is a failureType
+        public <E extends Exception> T get(Class<E> failureType) throws E, PrefetchException {
+            try {
+                return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                var cause = e.getCause();
+                if (failureType.isInstance(cause)) {
+                    throw failureType.cast(cause);
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Unexpected failure from remote read", cause);
+            } catch (TimeoutException | CancellationException e) {
+                future.cancel(true);
+                throw new PrefetchException(timeoutErrorResponse, "Remote read timed out");
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new PrefetchException(timeoutErrorResponse, "Interrupted awaiting read");
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package uk.gov.di.ipv.core.checkexistingidentity.exceptions;
+
+import uk.gov.di.ipv.core.library.domain.ErrorResponse;
+
+public class PrefetchException extends Exception {
+    private final ErrorResponse errorResponse;
+
+    public PrefetchException(ErrorResponse errorResponse, String message) {
+        super(message);
+        this.errorResponse = errorResponse;
+    }
+
+    public ErrorResponse getErrorResponse() {
+        return errorResponse;
+    }
+}
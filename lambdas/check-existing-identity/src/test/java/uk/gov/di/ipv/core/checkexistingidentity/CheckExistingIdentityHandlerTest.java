@@ -25,6 +25,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import uk.gov.di.ipv.core.library.auditing.AuditEvent;
 import uk.gov.di.ipv.core.library.auditing.AuditEventTypes;
 import uk.gov.di.ipv.core.library.cimit.exception.CiRetrievalException;
@@ -47,9 +48,13 @@ import uk.gov.di.ipv.core.library.gpg45.enums.Gpg45Profile;
 import uk.gov.di.ipv.core.library.gpg45.exception.UnknownEvidenceTypeException;
 import uk.gov.di.ipv.core.library.helpers.SecureTokenHelper;
 import uk.gov.di.ipv.core.library.journeyuris.JourneyUris;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.CriResponseItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
+import uk.gov.di.ipv.core.library.persistence.item.SessionCredentialItem;
+import uk.gov.di.ipv.core.library.persistence.item.VcStoreItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
 import uk.gov.di.ipv.core.library.service.CiMitService;
 import uk.gov.di.ipv.core.library.service.CiMitUtilityService;
@@ -65,17 +70,24 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -223,6 +235,113 @@ class CheckExistingIdentityHandlerTest {
         verify(auditService, never()).sendAuditEvent(auditEventArgumentCaptor.capture());
     }
 
+    @Test
+    void shouldHaveAllReadsInFlightAtOnce() throws Exception {
+        when(ipvSessionService.getIpvSession(TEST_SESSION_ID)).thenReturn(ipvSessionItem);
+        when(clientOAuthSessionDetailsService.getClientOAuthSession(any()))
+                .thenReturn(clientOAuthSessionItem);
+        // Each read only returns once all three have started, so sequential reads would time out
+        var allReadsStarted = new CyclicBarrier(3);
+        when(mockVerifiableCredentialService.getVcs(TEST_USER_ID))
+                .thenAnswer(afterAllReadsStart(allReadsStarted, List.of()));
+        when(criResponseService.getFaceToFaceRequest(TEST_USER_ID))
+                .thenAnswer(afterAllReadsStart(allReadsStarted, null));
+        when(ciMitService.getContraIndicators(
+                        TEST_USER_ID, TEST_JOURNEY_ID, TEST_CLIENT_SOURCE_IP))
+                .thenAnswer(
+                        afterAllReadsStart(
+                                allReadsStarted,
+                                ContraIndicators.builder()
+                                        .usersContraIndicators(List.of())
+                                        .build()));
+
+        JourneyResponse journeyResponse =
+                toResponseClass(
+                        checkExistingIdentityHandler.handleRequest(event, context),
+                        JourneyResponse.class);
+
+        assertEquals(JOURNEY_IPV_GPG45_MEDIUM, journeyResponse);
+        assertFalse(allReadsStarted.isBroken());
+    }
+
+    @Test
+    void shouldReturnFirstReadFailureWithoutWaitingForOtherReads() throws Exception {
+        when(ipvSessionService.getIpvSession(TEST_SESSION_ID)).thenReturn(ipvSessionItem);
+        when(clientOAuthSessionDetailsService.getClientOAuthSession(any()))
+                .thenReturn(clientOAuthSessionItem);
+        when(mockVerifiableCredentialService.getVcs(TEST_USER_ID))
+                .thenThrow(new CredentialParseException("Unable to parse VC"));
+        // The CI read cannot finish until the handler has returned. It may be cancelled before it
+        // starts, so the stub is lenient.
+        var handlerReturned = new CountDownLatch(1);
+        var ciReadFinished = new AtomicBoolean();
+        lenient()
+                .when(
+                        ciMitService.getContraIndicators(
+                                TEST_USER_ID, TEST_JOURNEY_ID, TEST_CLIENT_SOURCE_IP))
+                .thenAnswer(
+                        invocation -> {
+                            handlerReturned.await();
+                            ciReadFinished.set(true);
+                            return null;
+                        });
+
+        JourneyErrorResponse response;
+        try {
+            response =
+                    toResponseClass(
+                            checkExistingIdentityHandler.handleRequest(event, context),
+                            JourneyErrorResponse.class);
+        } finally {
+            handlerReturned.countDown();
+        }
+
+        assertEquals(JOURNEY_ERROR_PATH, response.getJourney());
+        assertEquals(
+                ErrorResponse.FAILED_TO_PARSE_SUCCESSFUL_VC_STORE_ITEMS.getCode(),
+                response.getCode());
+        assertFalse(ciReadFinished.get());
+    }
+
+    @Test
+    void shouldReadEachTableOnceWhenReusingAnIdentity() throws Exception {
+        var sessions = new InMemoryDataStore<>(IpvSessionItem.class);
+        var clientSessions = new InMemoryDataStore<>(ClientOAuthSessionItem.class);
+        var vcStore = new InMemoryDataStore<>(VcStoreItem.class);
+        var sessionCredentials = new InMemoryDataStore<>(SessionCredentialItem.class);
+        clientOAuthSessionItem.setUserId(gpg45Vc.getUserId());
+        sessions.create(ipvSessionItem);
+        clientSessions.create(clientOAuthSessionItem);
+        vcStore.create(gpg45Vc.toVcStoreItem());
+        when(gpg45ProfileEvaluator.getFirstMatchingProfile(
+                        any(), eq(P2.getSupportedGpg45Profiles())))
+                .thenReturn(Optional.of(Gpg45Profile.M1A));
+        when(userIdentityService.areVcsCorrelated(any())).thenReturn(true);
+        var handler =
+                new CheckExistingIdentityHandler(
+                        configService,
+                        userIdentityService,
+                        new IpvSessionService(
+                                sessions, new InMemoryDataStore<>(AccessTokenItem.class)),
+                        gpg45ProfileEvaluator,
+                        auditService,
+                        new ClientOAuthSessionDetailsService(clientSessions, configService),
+                        criResponseService,
+                        ciMitService,
+                        ciMitUtilityService,
+                        new VerifiableCredentialService(vcStore),
+                        new SessionCredentialsService(sessionCredentials));
+
+        JourneyResponse journeyResponse =
+                toResponseClass(handler.handleRequest(event, context), JourneyResponse.class);
+
+        assertEquals(JOURNEY_REUSE, journeyResponse);
+        assertEquals(1, sessions.getReads());
+        assertEquals(1, clientSessions.getReads());
+        assertEquals(1, vcStore.getReads());
+        assertEquals(0, sessionCredentials.getReads());
+    }
+
     @Nested
     @DisplayName("reuse journeys")
     class ReuseJourneys {
@@ -1326,4 +1445,13 @@ class CheckExistingIdentityHandlerTest {
     private static ECDSASigner createJwtSigner() throws Exception {
         return new ECDSASigner(ECKey.parse(EC_PRIVATE_KEY_JWK).toECPrivateKey());
     }
+
+    // Stands in for a remote read that only responds once every read sharing the barrier has
+    // started. The wait is bounded so that reads made one at a time fail rather than hang.
+    private static <T> Answer<T> afterAllReadsStart(CyclicBarrier barrier, T result) {
+        return invocation -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return result;
+        };
+    }
 }
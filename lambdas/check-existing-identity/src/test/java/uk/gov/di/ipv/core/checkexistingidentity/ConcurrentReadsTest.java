@@ -0,0 +1,161 @@
+package uk.gov.di.ipv.core.checkexistingidentity;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.ipv.core.checkexistingidentity.exceptions.PrefetchException;
+import uk.gov.di.ipv.core.library.cimit.exception.CiRetrievalException;
+import uk.gov.di.ipv.core.library.domain.ErrorResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentReadsTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ConcurrentReads concurrentReads = new ConcurrentReads(3, TIMEOUT);
+
+    @AfterEach
+    void tearDown() {
+        ThreadContext.clearMap();
+    }
+
+    @Test
+    void shouldReturnResultOfEachRead() throws Exception {
+        try (var batch = concurrentReads.begin()) {
+            var first = batch.submit(ErrorResponse.FAILED_TO_GET_CREDENTIAL, () -> "first");
+            var second = batch.submit(ErrorResponse.FAILED_TO_GET_CREDENTIAL, () -> 2);
+
+            assertEquals("first", first.get());
+            assertEquals(2, second.get());
+        }
+    }
+
+    @Test
+    void shouldRunReadsConcurrently() throws Exception {
+        // Each read waits for all of the others to start, so this only completes if they overlap
+        var allStarted = new CountDownLatch(3);
+        ConcurrentReads.RemoteRead<Boolean> read =
+                () -> {
+                    allStarted.countDown();
+                    return allStarted.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                };
+
+        try (var batch = concurrentReads.begin()) {
+            var reads =
+                    new ConcurrentReads.Read<?>[] {
+                        batch.submit(ErrorResponse.FAILED_TO_GET_CREDENTIAL, read),
+                        batch.submit(ErrorResponse.FAILED_TO_GET_CREDENTIAL, read),
+                        batch.submit(ErrorResponse.FAILED_TO_GET_CREDENTIAL, read)
+                    };
+            for (var result : reads) {
+                assertEquals(true, result.get());
+            }
+        }
+    }
+
+    @Test
+    void shouldRethrowCheckedFailureWithOriginalType() {
+        var failure = new CiRetrievalException("Failed to get CIs");
+
+        try (var batch = concurrentReads.begin()) {
+            var read =
+                    batch.<String>submit(
+                            ErrorResponse.FAILED_TO_GET_STORED_CIS,
+                            () -> {
+                                throw failure;
+                            });
+
+            var thrown =
+                    assertThrows(
+                            CiRetrievalException.class,
+                            () -> read.get(CiRetrievalException.class));
+            assertSame(failure, thrown);
+        }
+    }
+
+    @Test
+    void shouldRethrowRuntimeFailure() {
+        var failure = new IllegalArgumentException("Bad read");
+
+        try (var batch = concurrentReads.begin()) {
+            var read =
+                    batch.<String>submit(
+                            ErrorResponse.FAILED_TO_GET_CREDENTIAL,
+                            () -> {
+                                throw failure;
+                            });
+
+            assertSame(failure, assertThrows(IllegalArgumentException.class, read::get));
+        }
+    }
+
+    @Test
+    void shouldTimeOutAndCancelSlowRead() throws Exception {
+        var shortTimeoutReads = new ConcurrentReads(1, Duration.ofMillis(100));
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+
+        try (var batch = shortTimeoutReads.begin()) {
+            var read =
+                    batch.submit(
+                            ErrorResponse.FAILED_TO_GET_STORED_CIS,
+                            blockUntilInterrupted(started, interrupted));
+            assertTrue(started.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+
+            var thrown = assertThrows(PrefetchException.class, read::get);
+
+            assertEquals(ErrorResponse.FAILED_TO_GET_STORED_CIS, thrown.getErrorResponse());
+            assertTrue(interrupted.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void shouldCancelOutstandingReadsWhenBatchIsClosed() throws Exception {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+
+        try (var batch = concurrentReads.begin()) {
+            batch.submit(
+                    ErrorResponse.FAILED_TO_GET_CREDENTIAL,
+                    blockUntilInterrupted(started, interrupted));
+            assertTrue(started.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        assertTrue(interrupted.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldCopyLogContextToReads() throws Exception {
+        ThreadContext.put("govuk_signin_journey_id", "test-journey-id");
+
+        try (var batch = concurrentReads.begin()) {
+            var read =
+                    batch.submit(
+                            ErrorResponse.FAILED_TO_GET_CREDENTIAL,
+                            () -> ThreadContext.get("govuk_signin_journey_id"));
+
+            assertEquals("test-journey-id", read.get());
+        }
+    }
+
+    private static ConcurrentReads.RemoteRead<String> blockUntilInterrupted(
+            CountDownLatch started, CountDownLatch interrupted) {
+        return () -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+                return "not interrupted";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        };
+    }
+}
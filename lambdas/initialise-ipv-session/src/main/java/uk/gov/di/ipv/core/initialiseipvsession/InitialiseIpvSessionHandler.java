@@ -95,13 +95,19 @@ public class InitialiseIpvSessionHandler
 
     @ExcludeFromGeneratedCoverageReport
     public InitialiseIpvSessionHandler() {
+        this(new KmsRsaDecrypter());
+    }
+
+    // Local running passes a decrypter that decrypts in process instead of with KMS
+    @ExcludeFromGeneratedCoverageReport
+    public InitialiseIpvSessionHandler(KmsRsaDecrypter kmsRsaDecrypter) {
         this.configService = new ConfigService();
         this.ipvSessionService = new IpvSessionService(configService);
         this.clientOAuthSessionService = new ClientOAuthSessionDetailsService(configService);
         this.userIdentityService = new UserIdentityService(configService);
         this.verifiableCredentialValidator = new VerifiableCredentialValidator(configService);
         this.verifiableCredentialService = new VerifiableCredentialService(configService);
-        this.kmsRsaDecrypter = new KmsRsaDecrypter();
+        this.kmsRsaDecrypter = kmsRsaDecrypter;
         this.jarValidator = new JarValidator(kmsRsaDecrypter, configService);
         this.auditService = new AuditService(AuditService.getSqsClient(), configService);
     }
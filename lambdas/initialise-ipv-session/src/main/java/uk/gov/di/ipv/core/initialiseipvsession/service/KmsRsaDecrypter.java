@@ -10,10 +10,10 @@ import com.nimbusds.jose.crypto.impl.ContentCryptoProvider;
 import com.nimbusds.jose.jca.JWEJCAContext;
 import com.nimbusds.jose.util.Base64URL;
 import software.amazon.awssdk.core.SdkBytes;
-import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.DecryptRequest;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.core.library.kmses256signer.KmsClients;
 
 import javax.crypto.spec.SecretKeySpec;
 
@@ -21,7 +21,6 @@ import java.util.Objects;
 import java.util.Set;
 
 import static com.nimbusds.jose.JWEAlgorithm.RSA_OAEP_256;
-import static software.amazon.awssdk.regions.Region.EU_WEST_2;
 import static software.amazon.awssdk.services.kms.model.EncryptionAlgorithmSpec.RSAES_OAEP_SHA_256;
 
 @ExcludeFromGeneratedCoverageReport
@@ -35,11 +34,11 @@ public class KmsRsaDecrypter implements JWEDecrypter {
     private final JWEJCAContext jwejcaContext = new JWEJCAContext();
 
     public KmsRsaDecrypter() {
-        this.kmsClient =
-                KmsClient.builder()
-                        .region(EU_WEST_2)
-                        .httpClientBuilder(UrlConnectionHttpClient.builder())
-                        .build();
+        this(KmsClients.create());
+    }
+
+    public KmsRsaDecrypter(KmsClient kmsClient) {
+        this.kmsClient = kmsClient;
     }
 
     public void setKeyId(String keyId) {
@@ -3,8 +3,6 @@ package uk.gov.di.ipv.core.initialiseipvsession.validation;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.crypto.ECDSAVerifier;
-import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jwt.JWTClaimNames;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
@@ -21,18 +19,15 @@ import uk.gov.di.ipv.core.initialiseipvsession.service.KmsRsaDecrypter;
 import uk.gov.di.ipv.core.library.helpers.JwtHelper;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.library.validation.ClientAuthPolicy;
 
 import java.net.URI;
 import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.List;
 import java.util.Set;
 
-import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.CLIENT_ISSUER;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.COMPONENT_ID;
-import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.MAX_ALLOWED_AUTH_CLIENT_TTL;
-import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_CLIENT_ID;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_JWT_ALGORITHM;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_MESSAGE_DESCRIPTION;
@@ -67,15 +62,15 @@ public class JarValidator {
 
     public JWTClaimsSet validateRequestJwt(SignedJWT signedJWT, String clientId)
             throws JarValidationException, ParseException {
-        validateClientId(clientId);
+        ClientAuthPolicy clientAuthPolicy = getClientAuthPolicy(clientId);
         validateJWTHeader(signedJWT);
-        validateSignature(signedJWT, clientId);
+        validateSignature(signedJWT, clientAuthPolicy);
 
         JWTClaimsSet jwtClaimsSet = signedJWT.getJWTClaimsSet();
-        URI redirectUri = validateRedirectUri(jwtClaimsSet, clientId);
+        URI redirectUri = validateRedirectUri(jwtClaimsSet, clientAuthPolicy);
 
         try {
-            return getValidatedClaimSet(signedJWT, clientId);
+            return getValidatedClaimSet(signedJWT, clientId, clientAuthPolicy);
         } catch (JarValidationException e) {
             throw new RecoverableJarValidationException(
                     e.getErrorObject(),
@@ -87,10 +82,11 @@ public class JarValidator {
         }
     }
 
-    private void validateClientId(String clientId) throws JarValidationException {
+    private ClientAuthPolicy getClientAuthPolicy(String clientId) throws JarValidationException {
         try {
-            configService.getSsmParameter(CLIENT_ISSUER, clientId);
+            var clientAuthPolicy = configService.getClientAuthPolicy(clientId);
             LogHelper.attachClientIdToLogs(clientId);
+            return clientAuthPolicy;
         } catch (ParameterNotFoundException e) {
             LOGGER.error(
                     new StringMapMessage()
@@ -118,23 +114,24 @@ public class JarValidator {
         }
     }
 
-    private void validateSignature(SignedJWT signedJWT, String clientId)
+    private void validateSignature(SignedJWT signedJWT, ClientAuthPolicy clientAuthPolicy)
             throws JarValidationException {
         try {
+            var verifier = clientAuthPolicy.getVerifier();
+            if (verifier.isEmpty()) {
+                LOGGER.error(
+                        LogHelper.buildLogMessage("No valid public key configured for client"));
+                throw new JarValidationException(
+                        OAuth2Error.INVALID_REQUEST_OBJECT.setDescription(
+                                "Failed to parse JWT when attempting signature validation"));
+            }
             SignedJWT concatSignatureJwt;
             if (JwtHelper.signatureIsDerFormat(signedJWT)) {
                 concatSignatureJwt = JwtHelper.transcodeSignature(signedJWT);
             } else {
                 concatSignatureJwt = signedJWT;
             }
-            boolean valid =
-                    concatSignatureJwt.verify(
-                            new ECDSAVerifier(
-                                    ECKey.parse(
-                                                    configService.getSsmParameter(
-                                                            PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY,
-                                                            clientId))
-                                            .toECPublicKey()));
+            boolean valid = concatSignatureJwt.verify(verifier.get());
 
             if (!valid) {
                 LOGGER.error(LogHelper.buildLogMessage("JWT signature validation failed"));
@@ -152,18 +149,18 @@ public class JarValidator {
         }
     }
 
-    private JWTClaimsSet getValidatedClaimSet(SignedJWT signedJWT, String clientId)
+    private JWTClaimsSet getValidatedClaimSet(
+            SignedJWT signedJWT, String clientId, ClientAuthPolicy clientAuthPolicy)
             throws JarValidationException {
 
         String criAudience = configService.getSsmParameter(COMPONENT_ID);
-        String clientIssuer = configService.getSsmParameter(CLIENT_ISSUER, clientId);
 
         DefaultJWTClaimsVerifier<?> verifier =
                 new DefaultJWTClaimsVerifier<>(
                         criAudience,
                         new JWTClaimsSet.Builder()
                                 .claim("client_id", clientId)
-                                .issuer(clientIssuer)
+                                .issuer(clientAuthPolicy.getIssuer())
                                 .claim("response_type", "code")
                                 .build(),
                         Set.of(
@@ -176,7 +173,7 @@ public class JarValidator {
             JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
             verifier.verify(claimsSet, null);
 
-            validateMaxAllowedJarTtl(claimsSet);
+            validateMaxAllowedJarTtl(claimsSet, clientAuthPolicy);
 
             return claimsSet;
         } catch (BadJWTException | ParseException e) {
@@ -186,10 +183,11 @@ public class JarValidator {
         }
     }
 
-    private void validateMaxAllowedJarTtl(JWTClaimsSet claimsSet) throws JarValidationException {
-        String maxAllowedTtl = configService.getSsmParameter(MAX_ALLOWED_AUTH_CLIENT_TTL);
+    private void validateMaxAllowedJarTtl(
+            JWTClaimsSet claimsSet, ClientAuthPolicy clientAuthPolicy)
+            throws JarValidationException {
         LocalDateTime maximumExpirationTime =
-                LocalDateTime.now().plusSeconds(Long.parseLong(maxAllowedTtl));
+                LocalDateTime.now().plus(clientAuthPolicy.getMaxJarTtl());
         LocalDateTime expirationTime =
                 LocalDateTime.ofInstant(claimsSet.getExpirationTime().toInstant(), ZoneOffset.UTC);
 
@@ -202,19 +200,19 @@ public class JarValidator {
         }
     }
 
-    private URI validateRedirectUri(JWTClaimsSet claimsSet, String clientId)
+    private URI validateRedirectUri(JWTClaimsSet claimsSet, ClientAuthPolicy clientAuthPolicy)
             throws JarValidationException {
         try {
             URI redirectUri = claimsSet.getURIClaim(REDIRECT_URI_CLAIM);
-            List<String> allowedRedirectUris = configService.getClientRedirectUrls(clientId);
 
-            if (redirectUri == null || !allowedRedirectUris.contains(redirectUri.toString())) {
+            if (redirectUri == null
+                    || !clientAuthPolicy.isAllowedRedirectUrl(redirectUri.toString())) {
                 LOGGER.error(
                         new StringMapMessage()
                                 .with(
                                         LOG_MESSAGE_DESCRIPTION.getFieldName(),
                                         "Invalid redirect_uri claim provided for client.")
-                                .with(LOG_CLIENT_ID.getFieldName(), clientId)
+                                .with(LOG_CLIENT_ID.getFieldName(), clientAuthPolicy.getClientId())
                                 .with(LOG_REDIRECT_URI.getFieldName(), redirectUri));
                 throw new JarValidationException(
                         OAuth2Error.INVALID_GRANT.setDescription(
@@ -1,12 +1,16 @@
 package uk.gov.di.ipv.core.initialiseipvsession.validation;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.EncryptionMethod;
 import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
 import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.Payload;
 import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSAEncrypter;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jwt.JWTClaimNames;
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -18,21 +22,35 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.kms.model.CreateKeyRequest;
+import software.amazon.awssdk.services.kms.model.GetPublicKeyRequest;
+import software.amazon.awssdk.services.kms.model.KeySpec;
+import software.amazon.awssdk.services.kms.model.KeyUsageType;
 import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
 import uk.gov.di.ipv.core.initialiseipvsession.domain.InheritedIdentityJwtClaim;
 import uk.gov.di.ipv.core.initialiseipvsession.domain.JarClaims;
 import uk.gov.di.ipv.core.initialiseipvsession.domain.JarUserInfo;
 import uk.gov.di.ipv.core.initialiseipvsession.exception.JarValidationException;
 import uk.gov.di.ipv.core.initialiseipvsession.service.KmsRsaDecrypter;
+import uk.gov.di.ipv.core.library.fixtures.InMemoryConfigProviders;
+import uk.gov.di.ipv.core.library.helpers.VerifierRegistry;
+import uk.gov.di.ipv.core.library.kmses256signer.InMemoryKmsClient;
 import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.library.validation.ClientAuthPolicy;
+import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
+import uk.org.webcompere.systemstubs.jupiter.SystemStub;
+import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
 
 import java.nio.charset.StandardCharsets;
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Base64;
 import java.util.Collections;
@@ -45,21 +63,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
-import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.CLIENT_ISSUER;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.COMPONENT_ID;
-import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.MAX_ALLOWED_AUTH_CLIENT_TTL;
-import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY;
 import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PRIVATE_KEY;
 import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PUBLIC_JWK;
 import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PUBLIC_JWK_2;
 import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.RSA_PRIVATE_KEY;
 
 @ExtendWith(MockitoExtension.class)
+@ExtendWith(SystemStubsExtension.class)
 class JarValidatorTest {
     public static final String CLAIMS_CLAIM = "claims";
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    @SystemStub private EnvironmentVariables environmentVariables;
     @Mock private ConfigService configService;
     @Mock private KmsRsaDecrypter kmsRsaDecrypter;
     private JarValidator jarValidator;
@@ -95,6 +111,44 @@ class JarValidatorTest {
         assertEquals(subjectClaim, claimsSet.getSubject());
     }
 
+    @Test
+    void decryptJWEShouldDecryptWithAKeyHeldInKms() throws Exception {
+        var kmsClient = new InMemoryKmsClient();
+        var kmsKeyId =
+                kmsClient
+                        .createKey(
+                                CreateKeyRequest.builder()
+                                        .keySpec(KeySpec.RSA_2048)
+                                        .keyUsage(KeyUsageType.ENCRYPT_DECRYPT)
+                                        .build())
+                        .keyMetadata()
+                        .keyId();
+        var publicKey =
+                KeyFactory.getInstance("RSA")
+                        .generatePublic(
+                                new X509EncodedKeySpec(
+                                        kmsClient
+                                                .getPublicKey(
+                                                        GetPublicKeyRequest.builder()
+                                                                .keyId(kmsKeyId)
+                                                                .build())
+                                                .publicKey()
+                                                .asByteArray()));
+        SignedJWT signedJWT = generateJWT(getValidClaimsSetValues());
+        var jweObject =
+                new JWEObject(
+                        new JWEHeader(JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM),
+                        new Payload(signedJWT));
+        jweObject.encrypt(new RSAEncrypter((RSAPublicKey) publicKey));
+
+        var kmsJarValidator = new JarValidator(new KmsRsaDecrypter(kmsClient), configService);
+        SignedJWT decryptedJwt =
+                kmsJarValidator.decryptJWE(JWEObject.parse(jweObject.serialize()), kmsKeyId);
+
+        assertEquals(signedJWT.serialize(), decryptedJwt.serialize());
+        assertEquals(3, kmsClient.getRequestCount());
+    }
+
     @Test
     void decryptJWEShouldThrowExceptionIfDecryptionFails() {
         String jweObjectString =
@@ -110,22 +164,46 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldPassValidationChecksOnValidJARRequest() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
         when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(audienceClaim);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getSsmParameter(MAX_ALLOWED_AUTH_CLIENT_TTL)).thenReturn("1500");
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
 
         SignedJWT signedJWT = generateJWT(getValidClaimsSetValues());
 
         assertDoesNotThrow(() -> jarValidator.validateRequestJwt(signedJWT, clientIdClaim));
     }
 
+    @Test
+    void validateRequestJwtShouldNotReadConfigOnceTheClientAuthPolicyIsBuilt() throws Exception {
+        environmentVariables.set("ENVIRONMENT", "test");
+        var clientPath = "/test/core/clients/" + clientIdClaim;
+        var providers =
+                new InMemoryConfigProviders()
+                        .withParameter("/test/core/self/componentId", audienceClaim)
+                        .withParameter("/test/core/self/maxAllowedAuthClientTtl", "1500")
+                        .withParameter(clientPath + "/issuer", issuerClaim)
+                        .withParameter(
+                                clientPath + "/publicKeyMaterialForCoreToVerify", EC_PUBLIC_JWK)
+                        .withParameter(clientPath + "/validRedirectUrls", redirectUriClaim);
+        var configuredJarValidator =
+                new JarValidator(
+                        kmsRsaDecrypter,
+                        new ConfigService(providers.ssmProvider(), providers.secretsProvider()));
+
+        configuredJarValidator.validateRequestJwt(
+                generateJWT(getValidClaimsSetValues()), clientIdClaim);
+        var callsForFirstRequest = providers.totalCalls();
+        for (int i = 0; i < 10; i++) {
+            configuredJarValidator.validateRequestJwt(
+                    generateJWT(getValidClaimsSetValues()), clientIdClaim);
+        }
+
+        assertEquals(5, callsForFirstRequest);
+        assertEquals(callsForFirstRequest, providers.totalCalls());
+    }
+
     @Test
     void validateRequestJwtShouldFailValidationChecksOnInvalidClientId() throws Exception {
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString()))
+        when(configService.getClientAuthPolicy(clientIdClaim))
                 .thenThrow(ParameterNotFoundException.builder().build());
 
         SignedJWT signedJWT = generateJWT(getValidClaimsSetValues());
@@ -168,9 +246,7 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnInvalidJWTSignature() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK_2);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
+        givenClientAuthPolicy(EC_PUBLIC_JWK_2, redirectUriClaim);
 
         SignedJWT signedJWT = generateJWT(getValidClaimsSetValues());
 
@@ -188,9 +264,7 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnInvalidPublicJwk() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn("invalid-jwk");
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
+        givenClientAuthPolicy(null, redirectUriClaim);
         SignedJWT signedJWT = generateJWT(getValidClaimsSetValues());
 
         JarValidationException thrown =
@@ -208,13 +282,8 @@ class JarValidatorTest {
     }
 
     @Test
-    void validateRequestJwtShouldFailValidationChecksOnMissingRequiredClaim()
-            throws NoSuchAlgorithmException, InvalidKeySpecException, JOSEException {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
+    void validateRequestJwtShouldFailValidationChecksOnMissingRequiredClaim() throws Exception {
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
 
         ECDSASigner signer = new ECDSASigner(getPrivateKey());
 
@@ -242,12 +311,8 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnInvalidAudienceClaim() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
         when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(audienceClaim);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
 
         Map<String, Object> invalidAudienceClaims = getValidClaimsSetValues();
         invalidAudienceClaims.put(JWTClaimNames.AUDIENCE, "invalid-audience");
@@ -269,12 +334,8 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnInvalidIssuerClaim() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
         when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(audienceClaim);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
 
         Map<String, Object> invalidIssuerClaims = getValidClaimsSetValues();
         invalidIssuerClaims.put(JWTClaimNames.ISSUER, "invalid-issuer");
@@ -296,12 +357,8 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnInvalidResponseTypeClaim() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
         when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(audienceClaim);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
 
         Map<String, Object> invalidResponseTypeClaim = getValidClaimsSetValues();
         invalidResponseTypeClaim.put("response_type", "invalid-response-type");
@@ -324,12 +381,8 @@ class JarValidatorTest {
     @Test
     void validateRequestJwtShouldFailValidationChecksIfClientIdClaimDoesNotMatchParam()
             throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
         when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(audienceClaim);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
 
         SignedJWT signedJWT = generateJWT(getValidClaimsSetValues());
 
@@ -348,12 +401,8 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnExpiredJWT() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
         when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(audienceClaim);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
 
         Map<String, Object> expiredClaims = getValidClaimsSetValues();
         expiredClaims.put(JWTClaimNames.EXPIRATION_TIME, fifteenMinutesInPast());
@@ -373,12 +422,8 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnFutureNbfClaim() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
         when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(audienceClaim);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
 
         Map<String, Object> notValidYet = getValidClaimsSetValues();
         notValidYet.put(JWTClaimNames.NOT_BEFORE, fifteenMinutesFromNow());
@@ -398,13 +443,8 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnExpiryClaimToFarInFuture() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
         when(configService.getSsmParameter(COMPONENT_ID)).thenReturn(audienceClaim);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getSsmParameter(MAX_ALLOWED_AUTH_CLIENT_TTL)).thenReturn("1500");
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList(redirectUriClaim));
 
         Map<String, Object> futureClaims = getValidClaimsSetValues();
         futureClaims.put(
@@ -427,11 +467,7 @@ class JarValidatorTest {
 
     @Test
     void validateRequestJwtShouldFailValidationChecksOnInvalidRedirectUriClaim() throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
-        when(configService.getClientRedirectUrls(anyString()))
-                .thenReturn(Collections.singletonList("test-redirect-uri"));
+        givenClientAuthPolicy(EC_PUBLIC_JWK, "test-redirect-uri");
 
         SignedJWT signedJWT = generateJWT(getValidClaimsSetValues());
 
@@ -451,9 +487,7 @@ class JarValidatorTest {
     @Test
     void validateRequestJwtShouldFailValidationChecksOnParseFailureOfRedirectUri()
             throws Exception {
-        when(configService.getSsmParameter(eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
-                .thenReturn(EC_PUBLIC_JWK);
-        when(configService.getSsmParameter(eq(CLIENT_ISSUER), anyString())).thenReturn(issuerClaim);
+        givenClientAuthPolicy(EC_PUBLIC_JWK, redirectUriClaim);
 
         Map<String, Object> badRedirectClaims = getValidClaimsSetValues();
         badRedirectClaims.put("redirect_uri", "({[]})./sd-234345////invalid-redirect-uri");
@@ -474,6 +508,20 @@ class JarValidatorTest {
                 errorObject.getDescription());
     }
 
+    // The policy has no verifier if the client's key couldn't be parsed
+    private void givenClientAuthPolicy(String publicJwk, String redirectUrl) throws Exception {
+        var verifier =
+                publicJwk == null ? null : VerifierRegistry.getInstance().getVerifier(publicJwk);
+        when(configService.getClientAuthPolicy(anyString()))
+                .thenReturn(
+                        new ClientAuthPolicy(
+                                clientIdClaim,
+                                issuerClaim,
+                                verifier,
+                                List.of(redirectUrl),
+                                Duration.ofSeconds(1500)));
+    }
+
     private SignedJWT generateJWT(Map<String, Object> claimsSetValues) throws Exception {
         ECDSASigner signer = new ECDSASigner(getPrivateKey());
 
@@ -3,7 +3,10 @@ package uk.gov.di.ipv.core.issueclientaccesstoken.domain;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.AsymmetricJWK;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.JSONObjectUtils;
 import com.nimbusds.oauth2.sdk.auth.ClientAuthenticationMethod;
 import com.nimbusds.oauth2.sdk.auth.Secret;
 import com.nimbusds.oauth2.sdk.auth.verifier.ClientCredentialsSelector;
@@ -17,21 +20,47 @@ import java.security.PublicKey;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.text.ParseException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY;
 
+/**
+ * Selects the keys a client's assertion may be signed with. A client's key material may be a single
+ * EC JWK, a base64 encoded X.509 certificate or a JWK set, so that a client can publish its next
+ * key alongside its current one and rotate between them without downtime. JWKs in a set may carry
+ * {@code nbf} and {@code exp} to bound when they are accepted.
+ *
+ * <p>Key material is parsed once and reused until it changes in config.
+ */
 public class ConfigurationServicePublicKeySelector implements ClientCredentialsSelector<Object> {
 
     private static final Base64.Decoder decoder = Base64.getDecoder();
     private static final String ES256 = "ES256";
     private static final String RS256 = "RS256";
+    // Newest keys first, as a client is most likely to be signing with the key it added last
+    private static final Comparator<ClientKey> TRIAL_ORDER =
+            Comparator.comparing(
+                    ClientKey::notBefore, Comparator.nullsLast(Comparator.reverseOrder()));
 
     private final ConfigService configService;
+    private final Clock clock;
+    private final Map<String, ClientKeySet> keySets = new ConcurrentHashMap<>();
 
     public ConfigurationServicePublicKeySelector(ConfigService configService) {
+        this(configService, Clock.systemUTC());
+    }
+
+    ConfigurationServicePublicKeySelector(ConfigService configService, Clock clock) {
         this.configService = configService;
+        this.clock = clock;
     }
 
     @Override
@@ -51,26 +80,55 @@ public class ConfigurationServicePublicKeySelector implements ClientCredentialsS
 
         JWSAlgorithm algorithm = jwsHeader.getAlgorithm();
         String clientId = claimedClientID.getValue();
-        String publicKeyMaterial =
-                configService.getSsmParameter(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY, clientId);
 
-        try {
-            switch (algorithm.toString()) {
-                case ES256:
-                    return List.of(ECKey.parse(publicKeyMaterial).toECPublicKey());
-                case RS256:
-                    return List.of(
-                            CertificateFactory.getInstance("X.509")
-                                    .generateCertificate(
-                                            new ByteArrayInputStream(
-                                                    decoder.decode(publicKeyMaterial)))
-                                    .getPublicKey());
-                default:
-                    throw new InvalidClientException(
+        String keyType =
+                switch (algorithm.toString()) {
+                    case ES256 -> "EC";
+                    case RS256 -> "RSA";
+                    default -> throw new InvalidClientException(
                             String.format(
                                     "%s algorithm is not supported. Received from client ID '%s'",
                                     algorithm, clientId));
-            }
+                };
+
+        var now = clock.instant();
+        var candidates =
+                getKeySet(clientId).keys().stream()
+                        .filter(key -> key.publicKey().getAlgorithm().equals(keyType))
+                        .filter(key -> key.isValidAt(now))
+                        .sorted(TRIAL_ORDER)
+                        .toList();
+        if (candidates.isEmpty()) {
+            throw new InvalidClientException(
+                    String.format(
+                            "No valid %s public key found for client ID '%s'",
+                            algorithm, clientId));
+        }
+
+        // Try the key the client named first, falling back to the others in case it is stale
+        var keyId = jwsHeader.getKeyID();
+        var ordered = new ArrayList<PublicKey>(candidates.size());
+        candidates.stream()
+                .filter(key -> keyId != null && keyId.equals(key.keyId()))
+                .forEach(key -> ordered.add(key.publicKey()));
+        candidates.stream()
+                .filter(key -> keyId == null || !keyId.equals(key.keyId()))
+                .forEach(key -> ordered.add(key.publicKey()));
+        return ordered;
+    }
+
+    private ClientKeySet getKeySet(String clientId) throws InvalidClientException {
+        String publicKeyMaterial =
+                configService.getSsmParameter(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY, clientId);
+
+        var cached = keySets.get(clientId);
+        if (cached != null && cached.material().equals(publicKeyMaterial)) {
+            return cached;
+        }
+        try {
+            var keySet = new ClientKeySet(publicKeyMaterial, parse(publicKeyMaterial));
+            keySets.put(clientId, keySet);
+            return keySet;
         } catch (ParseException
                 | JOSEException
                 | CertificateException
@@ -81,4 +139,52 @@ public class ConfigurationServicePublicKeySelector implements ClientCredentialsS
                             clientId, e.getMessage()));
         }
     }
+
+    private static List<ClientKey> parse(String publicKeyMaterial)
+            throws ParseException, JOSEException, CertificateException {
+        var trimmed = publicKeyMaterial.trim();
+        if (!trimmed.startsWith("{")) {
+            var publicKey =
+                    CertificateFactory.getInstance("X.509")
+                            .generateCertificate(new ByteArrayInputStream(decoder.decode(trimmed)))
+                            .getPublicKey();
+            return List.of(new ClientKey(null, publicKey, null, null));
+        }
+
+        var json = JSONObjectUtils.parse(trimmed);
+        List<JWK> jwks =
+                json.containsKey(JWKSet.JWK_SET_MEMBER_NAME)
+                        ? JWKSet.parse(json).getKeys()
+                        : List.of(JWK.parse(json));
+        var keys = new ArrayList<ClientKey>(jwks.size());
+        for (var jwk : jwks) {
+            if (!(jwk instanceof AsymmetricJWK asymmetricJwk)) {
+                throw new ParseException("Unsupported JWK type: " + jwk.getKeyType(), 0);
+            }
+            keys.add(
+                    new ClientKey(
+                            jwk.getKeyID(),
+                            asymmetricJwk.toPublicKey(),
+                            toInstant(
+                                    jwk.getNotBeforeTime() != null
+                                            ? jwk.getNotBeforeTime()
+                                            : jwk.getIssueTime()),
+                            toInstant(jwk.getExpirationTime())));
+        }
+        return List.copyOf(keys);
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
+
+    private record ClientKeySet(String material, List<ClientKey> keys) {}
+
+    private record ClientKey(
+            String keyId, PublicKey publicKey, Instant notBefore, Instant expiry) {
+        boolean isValidAt(Instant instant) {
+            return (notBefore == null || !instant.isBefore(notBefore))
+                    && (expiry == null || instant.isBefore(expiry));
+        }
+    }
 }
@@ -2,6 +2,7 @@ package uk.gov.di.ipv.core.issueclientaccesstoken.service;
 
 import uk.gov.di.ipv.core.issueclientaccesstoken.persistance.item.ClientAuthJwtIdItem;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.core.library.persistence.CreateOutcome;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
@@ -32,9 +33,11 @@ public class ClientAuthJwtIdService {
         return dataStore.getItem(jwtId, false);
     }
 
-    public void persistClientAuthJwtId(String jwtId) {
+    // Keeps the first use of a jwt id, so only one of several concurrent requests using it is
+    // told it was created
+    public CreateOutcome persistClientAuthJwtId(String jwtId) {
         String timestamp = Instant.now().toString();
         ClientAuthJwtIdItem clientAuthJwtIdItem = new ClientAuthJwtIdItem(jwtId, timestamp);
-        dataStore.create(clientAuthJwtIdItem, BACKEND_SESSION_TTL);
+        return dataStore.createIfNotExists(clientAuthJwtIdItem, BACKEND_SESSION_TTL);
     }
 }
@@ -17,6 +17,7 @@ import uk.gov.di.ipv.core.issueclientaccesstoken.exception.ClientAuthenticationE
 import uk.gov.di.ipv.core.issueclientaccesstoken.persistance.item.ClientAuthJwtIdItem;
 import uk.gov.di.ipv.core.issueclientaccesstoken.service.ClientAuthJwtIdService;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.persistence.CreateOutcome;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
 import java.time.OffsetDateTime;
@@ -25,6 +26,7 @@ import java.util.Set;
 
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.COMPONENT_ID;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.MAX_ALLOWED_AUTH_CLIENT_TTL;
+import static uk.gov.di.ipv.core.library.config.CoreFeatureFlag.REJECT_REUSED_CLIENT_AUTH_JWT_ID;
 
 public class TokenRequestValidator {
     private static final Logger LOGGER = LogManager.getLogger();
@@ -73,18 +75,26 @@ public class TokenRequestValidator {
         }
     }
 
-    private void validateJwtId(JWTAuthenticationClaimsSet claimsSet) {
+    private void validateJwtId(JWTAuthenticationClaimsSet claimsSet)
+            throws InvalidClientException {
         JWTID jwtId = claimsSet.getJWTID();
         if (jwtId == null || StringUtils.isBlank(jwtId.getValue())) {
             LOGGER.warn(LogHelper.buildLogMessage("The client auth JWT id (jti) is missing"));
             return;
         }
-        ClientAuthJwtIdItem clientAuthJwtIdItem =
-                clientAuthJwtIdService.getClientAuthJwtIdItem(jwtId.getValue());
-        if (clientAuthJwtIdItem != null) {
-            logWarningJtiHasAlreadyBeenUsed(clientAuthJwtIdItem);
+        if (clientAuthJwtIdService.persistClientAuthJwtId(jwtId.getValue())
+                == CreateOutcome.ALREADY_EXISTS) {
+            ClientAuthJwtIdItem clientAuthJwtIdItem =
+                    clientAuthJwtIdService.getClientAuthJwtIdItem(jwtId.getValue());
+            if (clientAuthJwtIdItem != null) {
+                logWarningJtiHasAlreadyBeenUsed(clientAuthJwtIdItem);
+            }
+            // Only the request that recorded the jti is accepted, however many race to use it
+            if (configService.enabled(REJECT_REUSED_CLIENT_AUTH_JWT_ID)) {
+                throw new InvalidClientException(
+                        "The client auth JWT id (jti) has already been used");
+            }
         }
-        clientAuthJwtIdService.persistClientAuthJwtId(jwtId.getValue());
     }
 
     private ClientAuthenticationVerifier<Object> getClientAuthVerifier(
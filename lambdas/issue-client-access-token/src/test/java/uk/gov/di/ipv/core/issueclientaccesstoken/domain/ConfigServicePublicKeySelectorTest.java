@@ -2,35 +2,61 @@ package uk.gov.di.ipv.core.issueclientaccesstoken.domain;
 
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.oauth2.sdk.auth.PrivateKeyJWT;
+import com.nimbusds.oauth2.sdk.auth.verifier.ClientAuthenticationVerifier;
 import com.nimbusds.oauth2.sdk.auth.verifier.Context;
 import com.nimbusds.oauth2.sdk.auth.verifier.InvalidClientException;
+import com.nimbusds.oauth2.sdk.id.Audience;
 import com.nimbusds.oauth2.sdk.id.ClientID;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.core.library.fixtures.TestFixtures;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
 import java.io.ByteArrayInputStream;
+import java.net.URI;
 import java.security.PublicKey;
 import java.security.cert.CertificateFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.nimbusds.oauth2.sdk.auth.ClientAuthenticationMethod.CLIENT_SECRET_JWT;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY;
 
 @ExtendWith(MockitoExtension.class)
 class ConfigServicePublicKeySelectorTest {
+    private static final String CLIENT_ID = "rotatingClient";
+    private static final URI TOKEN_ENDPOINT = URI.create("https://core.example.com/token");
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
 
     @Mock private ConfigService configServiceMock;
+    @Mock private Clock mockClock;
 
-    @InjectMocks private ConfigurationServicePublicKeySelector keySelector;
+    private ConfigurationServicePublicKeySelector keySelector;
+
+    @BeforeEach
+    void setUp() {
+        keySelector = new ConfigurationServicePublicKeySelector(configServiceMock);
+    }
 
     @Test
     void selectClientSecretsShouldThrow() {
@@ -140,4 +166,124 @@ class ConfigServicePublicKeySelectorTest {
                                 false,
                                 null));
     }
+
+    @Test
+    void selectPublicKeysShouldAcceptOldAndNewKeysWhileTheyOverlap() throws Exception {
+        var now = new AtomicReference<>(NOW);
+        when(mockClock.instant()).thenAnswer(invocation -> now.get());
+        var selector = new ConfigurationServicePublicKeySelector(configServiceMock, mockClock);
+        var verifier =
+                new ClientAuthenticationVerifier<>(
+                        selector, Set.of(new Audience(TOKEN_ENDPOINT.toString())));
+
+        var oldKey =
+                generateKey("old", NOW.minus(Duration.ofDays(30)), NOW.plus(Duration.ofHours(1)));
+        var newKey = generateKey("new", NOW.minus(Duration.ofMinutes(5)), null);
+        when(configServiceMock.getSsmParameter(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY, CLIENT_ID))
+                .thenReturn(publicJwks(oldKey))
+                .thenReturn(publicJwks(oldKey, newKey));
+
+        assertDoesNotThrow(() -> verifier.verify(signAssertion(oldKey), null, null));
+
+        // The client publishes its new key and starts using it while old assertions are in flight
+        assertDoesNotThrow(() -> verifier.verify(signAssertion(oldKey), null, null));
+        assertDoesNotThrow(() -> verifier.verify(signAssertion(newKey), null, null));
+
+        now.set(NOW.plus(Duration.ofHours(2)));
+
+        assertThrows(
+                InvalidClientException.class,
+                () -> verifier.verify(signAssertion(oldKey), null, null));
+        assertDoesNotThrow(() -> verifier.verify(signAssertion(newKey), null, null));
+    }
+
+    @Test
+    void selectPublicKeysShouldTryTheNamedKeyFirst() throws Exception {
+        when(mockClock.instant()).thenReturn(NOW);
+        var selector = new ConfigurationServicePublicKeySelector(configServiceMock, mockClock);
+        var oldKey = generateKey("old", NOW.minus(Duration.ofDays(30)), null);
+        var newKey = generateKey("new", NOW.minus(Duration.ofMinutes(5)), null);
+        when(configServiceMock.getSsmParameter(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY, CLIENT_ID))
+                .thenReturn(publicJwks(oldKey, newKey));
+
+        var namedOld = selectEs256Keys(selector, "old");
+        var unnamed = selectEs256Keys(selector, null);
+        var unknown = selectEs256Keys(selector, "unknown");
+
+        assertEquals(List.of(oldKey.toECPublicKey(), newKey.toECPublicKey()), namedOld);
+        assertEquals(List.of(newKey.toECPublicKey(), oldKey.toECPublicKey()), unnamed);
+        assertEquals(List.of(newKey.toECPublicKey(), oldKey.toECPublicKey()), unknown);
+    }
+
+    @Test
+    void selectPublicKeysShouldNotReturnKeysOutsideTheirValidity() throws Exception {
+        when(mockClock.instant()).thenReturn(NOW);
+        var selector = new ConfigurationServicePublicKeySelector(configServiceMock, mockClock);
+        var expiredKey = generateKey("expired", NOW.minus(Duration.ofDays(30)), NOW);
+        var futureKey = generateKey("future", NOW.plus(Duration.ofDays(1)), null);
+        when(configServiceMock.getSsmParameter(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY, CLIENT_ID))
+                .thenReturn(publicJwks(expiredKey, futureKey));
+
+        var exception =
+                assertThrows(InvalidClientException.class, () -> selectEs256Keys(selector, null));
+
+        assertEquals(
+                "No valid ES256 public key found for client ID 'rotatingClient'",
+                exception.getMessage());
+    }
+
+    @Test
+    void selectPublicKeysShouldOnlyParseKeyMaterialWhenItChanges() throws Exception {
+        var firstKey = generateKey("first", null, null);
+        var secondKey = generateKey("second", null, null);
+        when(configServiceMock.getSsmParameter(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY, CLIENT_ID))
+                .thenReturn(publicJwks(firstKey))
+                .thenReturn(publicJwks(firstKey))
+                .thenReturn(publicJwks(firstKey, secondKey));
+
+        var first = selectEs256Keys(keySelector, null).get(0);
+        var second = selectEs256Keys(keySelector, null).get(0);
+        var afterRotation = selectEs256Keys(keySelector, "first").get(0);
+
+        assertSame(first, second);
+        assertNotSame(first, afterRotation);
+        assertEquals(first, afterRotation);
+    }
+
+    private static ECKey generateKey(String keyId, Instant notBefore, Instant expiry)
+            throws Exception {
+        var generator = new ECKeyGenerator(Curve.P_256).keyID(keyId);
+        if (notBefore != null) {
+            generator.notBeforeTime(Date.from(notBefore));
+        }
+        if (expiry != null) {
+            generator.expirationTime(Date.from(expiry));
+        }
+        return generator.generate();
+    }
+
+    private static String publicJwks(ECKey... keys) {
+        return new JWKSet(List.of(keys)).toPublicJWKSet().toString();
+    }
+
+    private static PrivateKeyJWT signAssertion(ECKey key) throws Exception {
+        return new PrivateKeyJWT(
+                new ClientID(CLIENT_ID),
+                TOKEN_ENDPOINT,
+                JWSAlgorithm.ES256,
+                key.toECPrivateKey(),
+                key.getKeyID(),
+                null);
+    }
+
+    private static List<? extends PublicKey> selectEs256Keys(
+            ConfigurationServicePublicKeySelector selector, String keyId)
+            throws InvalidClientException {
+        return selector.selectPublicKeys(
+                new ClientID(CLIENT_ID),
+                null,
+                new JWSHeader.Builder(JWSAlgorithm.ES256).keyID(keyId).build(),
+                false,
+                null);
+    }
 }
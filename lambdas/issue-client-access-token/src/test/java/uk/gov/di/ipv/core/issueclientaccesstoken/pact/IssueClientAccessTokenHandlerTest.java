@@ -26,6 +26,8 @@ import uk.gov.di.ipv.core.library.config.ConfigurationVariable;
 import uk.gov.di.ipv.core.library.dto.AuthorizationCodeMetadata;
 import uk.gov.di.ipv.core.library.pacttesthelpers.LambdaHttpServer;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
 import uk.gov.di.ipv.core.library.service.ClientOAuthSessionDetailsService;
@@ -56,7 +58,10 @@ class IssueClientAccessTokenHandlerTest {
     private LambdaHttpServer httpServer;
     private IpvSessionItem ipvSessionItem;
     @Mock private ConfigService configService;
-    @Mock private DataStore<IpvSessionItem> ipvSessionDataStore;
+    private final InMemoryDataStore<IpvSessionItem> ipvSessionDataStore =
+            new InMemoryDataStore<>(IpvSessionItem.class);
+    private final InMemoryDataStore<AccessTokenItem> accessTokenDataStore =
+            new InMemoryDataStore<>(AccessTokenItem.class);
     @Mock private DataStore<ClientOAuthSessionItem> oAuthDataStore;
     @Mock private DataStore<ClientAuthJwtIdItem> jwtIdStore;
 
@@ -70,13 +75,14 @@ class IssueClientAccessTokenHandlerTest {
     void pactSetup(PactVerificationContext context) throws IOException {
 
         var accessTokenService = new AccessTokenService(configService);
-        var sessionService = new IpvSessionService(ipvSessionDataStore);
+        var sessionService = new IpvSessionService(ipvSessionDataStore, accessTokenDataStore);
         var clientOAuthSessionService =
                 new ClientOAuthSessionDetailsService(oAuthDataStore, configService);
         var clientAuthJwtIdService = new ClientAuthJwtIdService(jwtIdStore);
         var tokenRequestValidator =
                 new TokenRequestValidator(configService, clientAuthJwtIdService);
         ipvSessionItem = new IpvSessionItem();
+        ipvSessionItem.setIpvSessionId("dummyIpvSessionId");
         var clientOAuthSessionItem = new ClientOAuthSessionItem();
         var authorizationCodeMetadata = new AuthorizationCodeMetadata();
         authorizationCodeMetadata.setCreationDateTime(
@@ -113,11 +119,10 @@ class IssueClientAccessTokenHandlerTest {
 
     @State("dummyAuthCode is a valid authorization code")
     public void setAuthCode() {
-        when(ipvSessionDataStore.getItemByIndex(
-                        "authorizationCode",
-                        DigestUtils.sha256Hex(
-                                "dummyAuthCode"))) // 56298e46fe43e76f556b5aaea8601d758dd47c084495bf197b985a4e516ac5ce
-                .thenReturn(ipvSessionItem);
+        ipvSessionItem.setAuthorizationCode(
+                DigestUtils.sha256Hex(
+                        "dummyAuthCode")); // 56298e46fe43e76f556b5aaea8601d758dd47c084495bf197b985a4e516ac5ce
+        ipvSessionDataStore.create(ipvSessionItem);
     }
 
     @State(
@@ -7,14 +7,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.core.issueclientaccesstoken.persistance.item.ClientAuthJwtIdItem;
+import uk.gov.di.ipv.core.library.persistence.CreateOutcome;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
 
@@ -42,12 +47,47 @@ class ClientAuthJwtIdServiceTest {
         ArgumentCaptor<ClientAuthJwtIdItem> clientAuthJwtIdItemArgCaptor =
                 ArgumentCaptor.forClass(ClientAuthJwtIdItem.class);
 
-        clientAuthJwtIdService.persistClientAuthJwtId(testJwtId);
+        when(mockDataStore.createIfNotExists(
+                        clientAuthJwtIdItemArgCaptor.capture(), eq(BACKEND_SESSION_TTL)))
+                .thenReturn(CreateOutcome.CREATED);
 
-        verify(mockDataStore)
-                .create(clientAuthJwtIdItemArgCaptor.capture(), eq(BACKEND_SESSION_TTL));
+        var outcome = clientAuthJwtIdService.persistClientAuthJwtId(testJwtId);
+
+        assertEquals(CreateOutcome.CREATED, outcome);
         ClientAuthJwtIdItem capturedClientAuthJwtIdItem = clientAuthJwtIdItemArgCaptor.getValue();
         assertNotNull(capturedClientAuthJwtIdItem);
         assertEquals(testJwtId, capturedClientAuthJwtIdItem.getJwtId());
     }
+
+    @Test
+    void shouldOnlyCreateAJwtIdForOneOfManyConcurrentRequests() throws Exception {
+        var requests = 16;
+        var service =
+                new ClientAuthJwtIdService(new InMemoryDataStore<>(ClientAuthJwtIdItem.class));
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(requests);
+        try {
+            var outcomes = new ArrayList<Future<CreateOutcome>>();
+            for (int i = 0; i < requests; i++) {
+                outcomes.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    return service.persistClientAuthJwtId("replayed-jwt-id");
+                                }));
+            }
+            start.countDown();
+
+            var created = 0;
+            for (var outcome : outcomes) {
+                if (outcome.get() == CreateOutcome.CREATED) {
+                    created++;
+                }
+            }
+            assertEquals(1, created);
+            assertNotNull(service.getClientAuthJwtIdItem("replayed-jwt-id"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
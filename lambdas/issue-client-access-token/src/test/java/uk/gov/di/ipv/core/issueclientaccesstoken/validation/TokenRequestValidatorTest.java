@@ -20,6 +20,8 @@ import uk.gov.di.ipv.core.issueclientaccesstoken.exception.ClientAuthenticationE
 import uk.gov.di.ipv.core.issueclientaccesstoken.persistance.item.ClientAuthJwtIdItem;
 import uk.gov.di.ipv.core.issueclientaccesstoken.service.ClientAuthJwtIdService;
 import uk.gov.di.ipv.core.library.fixtures.TestFixtures;
+import uk.gov.di.ipv.core.library.persistence.CreateOutcome;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
 import java.net.URLEncoder;
@@ -32,9 +34,13 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -47,6 +53,7 @@ import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.COMPONENT_ID;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.MAX_ALLOWED_AUTH_CLIENT_TTL;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY;
+import static uk.gov.di.ipv.core.library.config.CoreFeatureFlag.REJECT_REUSED_CLIENT_AUTH_JWT_ID;
 
 @ExtendWith(MockitoExtension.class)
 class TokenRequestValidatorTest {
@@ -245,7 +252,7 @@ class TokenRequestValidatorTest {
 
         validator.authenticateClient(queryMapToString(getValidQueryParams(clientAssertion)));
 
-        verify(mockClientAuthJwtIdService, Mockito.times(0)).getClientAuthJwtIdItem(anyString());
+        verify(mockClientAuthJwtIdService, Mockito.times(0)).persistClientAuthJwtId(anyString());
     }
 
     @Test
@@ -257,8 +264,28 @@ class TokenRequestValidatorTest {
         Map<String, Object> claimsSetValues = getValidClaimsSetValues();
         String clientAssertion = generateClientAssertionWithRS256(claimsSetValues);
 
+        when(mockClientAuthJwtIdService.persistClientAuthJwtId(jti))
+                .thenReturn(CreateOutcome.CREATED);
+
+        validator.authenticateClient(queryMapToString(getValidQueryParams(clientAssertion)));
+
+        verify(mockClientAuthJwtIdService).persistClientAuthJwtId(jti);
+        verify(mockClientAuthJwtIdService, Mockito.times(0)).getClientAuthJwtIdItem(anyString());
+    }
+
+    @Test
+    void shouldLookUpTheFirstUseOfAJwtIdThatHasAlreadyBeenUsed() throws Exception {
+        when(mockConfigService.getSsmParameter(
+                        eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
+                .thenReturn(TestFixtures.RSA_PUBLIC_CERT);
+        when(mockConfigService.getSsmParameter(MAX_ALLOWED_AUTH_CLIENT_TTL)).thenReturn("2400");
+        Map<String, Object> claimsSetValues = getValidClaimsSetValues();
+        String clientAssertion = generateClientAssertionWithRS256(claimsSetValues);
+
         ClientAuthJwtIdItem clientAuthJwtIdItem =
                 new ClientAuthJwtIdItem(jti, Instant.now().toString());
+        when(mockClientAuthJwtIdService.persistClientAuthJwtId(jti))
+                .thenReturn(CreateOutcome.ALREADY_EXISTS);
         when(mockClientAuthJwtIdService.getClientAuthJwtIdItem(jti))
                 .thenReturn(clientAuthJwtIdItem);
 
@@ -267,6 +294,72 @@ class TokenRequestValidatorTest {
         verify(mockClientAuthJwtIdService).getClientAuthJwtIdItem(jti);
     }
 
+    @Test
+    void shouldThrowIfJwtIdHasAlreadyBeenUsedAndReuseIsRejected() throws Exception {
+        when(mockConfigService.getSsmParameter(
+                        eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
+                .thenReturn(TestFixtures.RSA_PUBLIC_CERT);
+        when(mockConfigService.getSsmParameter(MAX_ALLOWED_AUTH_CLIENT_TTL)).thenReturn("2400");
+        when(mockConfigService.enabled(REJECT_REUSED_CLIENT_AUTH_JWT_ID)).thenReturn(true);
+        String clientAssertion = generateClientAssertionWithRS256(getValidClaimsSetValues());
+        when(mockClientAuthJwtIdService.persistClientAuthJwtId(jti))
+                .thenReturn(CreateOutcome.ALREADY_EXISTS);
+
+        assertThrows(
+                ClientAuthenticationException.class,
+                () ->
+                        validator.authenticateClient(
+                                queryMapToString(getValidQueryParams(clientAssertion))));
+    }
+
+    @Test
+    void shouldOnlyAuthenticateOneOfManyConcurrentReplaysWhenReuseIsRejected() throws Exception {
+        var requests = 16;
+        when(mockConfigService.getSsmParameter(
+                        eq(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY), anyString()))
+                .thenReturn(TestFixtures.RSA_PUBLIC_CERT);
+        when(mockConfigService.getSsmParameter(MAX_ALLOWED_AUTH_CLIENT_TTL)).thenReturn("2400");
+        when(mockConfigService.enabled(REJECT_REUSED_CLIENT_AUTH_JWT_ID)).thenReturn(true);
+        var replayedValidator =
+                new TokenRequestValidator(
+                        mockConfigService,
+                        new ClientAuthJwtIdService(
+                                new InMemoryDataStore<>(ClientAuthJwtIdItem.class)));
+        var requestBody =
+                queryMapToString(
+                        getValidQueryParams(
+                                generateClientAssertionWithRS256(getValidClaimsSetValues())));
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(requests);
+        try {
+            var attempts = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < requests; i++) {
+                attempts.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    try {
+                                        replayedValidator.authenticateClient(requestBody);
+                                        return true;
+                                    } catch (ClientAuthenticationException e) {
+                                        return false;
+                                    }
+                                }));
+            }
+            start.countDown();
+
+            var authenticated = 0;
+            for (var attempt : attempts) {
+                if (attempt.get()) {
+                    authenticated++;
+                }
+            }
+            assertEquals(1, authenticated);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private RSAPrivateKey getRsaPrivateKey()
             throws InvalidKeySpecException, NoSuchAlgorithmException {
         return (RSAPrivateKey)
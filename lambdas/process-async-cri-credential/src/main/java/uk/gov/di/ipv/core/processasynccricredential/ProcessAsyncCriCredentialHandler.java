@@ -25,6 +25,7 @@ import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.exceptions.SqsException;
 import uk.gov.di.ipv.core.library.exceptions.UnrecognisedVotException;
 import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
+import uk.gov.di.ipv.core.library.helpers.ExecutorHelper;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.persistence.item.CriResponseItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
@@ -40,8 +41,17 @@ import uk.gov.di.ipv.core.processasynccricredential.domain.SuccessAsyncCriRespon
 import uk.gov.di.ipv.core.processasynccricredential.exceptions.AsyncVerifiableCredentialException;
 
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static uk.gov.di.ipv.core.library.auditing.helpers.AuditExtensionsHelper.getExtensionsForAudit;
 import static uk.gov.di.ipv.core.library.auditing.helpers.AuditExtensionsHelper.getRestrictedAuditDataForF2F;
@@ -56,6 +66,8 @@ import static uk.gov.di.ipv.core.processasynccricredential.helpers.AsyncCriRespo
 public class ProcessAsyncCriCredentialHandler
         implements RequestHandler<SQSEvent, SQSBatchResponse> {
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MAX_CONCURRENT_USERS = 5;
+    private static final Duration STOP_PROCESSING_TIMEOUT = Duration.ofSeconds(10);
     private final ConfigService configService;
     private final VerifiableCredentialService verifiableCredentialService;
     private final VerifiableCredentialValidator verifiableCredentialValidator;
@@ -84,7 +96,7 @@ public class ProcessAsyncCriCredentialHandler
         this.configService = new ConfigService();
         this.verifiableCredentialValidator = new VerifiableCredentialValidator(configService);
         this.verifiableCredentialService = new VerifiableCredentialService(configService);
-        this.auditService = new AuditService(AuditService.getSqsClient(), configService);
+        this.auditService = AuditService.buffered(AuditService.getSqsClient(), configService);
         this.ciMitService = new CiMitService(configService);
         this.criResponseService = new CriResponseService(configService);
         VcHelper.setConfigService(this.configService);
@@ -95,44 +107,179 @@ public class ProcessAsyncCriCredentialHandler
     @Logging(clearState = true)
     public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
         LogHelper.attachComponentId(configService);
-        List<SQSBatchResponse.BatchItemFailure> failedRecords = new ArrayList<>();
+        var failedMessageIds = new HashSet<String>();
 
+        // Each user's messages are processed in the order they arrived
+        var messagesByUser = new LinkedHashMap<String, List<AsyncCriMessage>>();
         for (SQSMessage message : event.getRecords()) {
-
             try {
-                final BaseAsyncCriResponse asyncCriResponse =
-                        getAsyncResponseMessage(message.getBody());
-                if (isSuccessAsyncCriResponse(asyncCriResponse)) {
-                    processSuccessAsyncCriResponse((SuccessAsyncCriResponse) asyncCriResponse);
-                } else {
-                    processErrorAsyncCriResponse((ErrorAsyncCriResponse) asyncCriResponse);
-                }
-            } catch (JsonProcessingException
-                    | ParseException
-                    | SqsException
-                    | CiPutException
-                    | AsyncVerifiableCredentialException
-                    | UnrecognisedVotException
-                    | CiPostMitigationsException
-                    | CredentialParseException e) {
+                var asyncCriResponse = getAsyncResponseMessage(message.getBody());
+                messagesByUser
+                        .computeIfAbsent(asyncCriResponse.getUserId(), id -> new ArrayList<>())
+                        .add(new AsyncCriMessage(message.getMessageId(), asyncCriResponse));
+            } catch (JsonProcessingException e) {
                 LOGGER.error(
                         LogHelper.buildErrorMessage("Failed to process VC response message.", e));
-                failedRecords.add(new SQSBatchResponse.BatchItemFailure(message.getMessageId()));
-            } catch (VerifiableCredentialException e) {
+                failedMessageIds.add(message.getMessageId());
+            }
+        }
+
+        var executor =
+                ExecutorHelper.newFixedDaemonThreadPool("async-cri-messages", MAX_CONCURRENT_USERS);
+        try {
+            var processedUsers =
+                    new LinkedHashMap<Future<List<String>>, List<AsyncCriMessage>>();
+            for (var userMessages : messagesByUser.values()) {
+                processedUsers.put(
+                        executor.submit(() -> processUserMessages(userMessages)), userMessages);
+            }
+            awaitProcessedUsers(executor, processedUsers, failedMessageIds);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return SQSBatchResponse.builder()
+                .withBatchItemFailures(
+                        event.getRecords().stream()
+                                .map(SQSMessage::getMessageId)
+                                .filter(failedMessageIds::contains)
+                                .map(SQSBatchResponse.BatchItemFailure::new)
+                                .toList())
+                .build();
+    }
+
+    // Waits for every user, so a failure can't leave messages being processed after returning
+    private void awaitProcessedUsers(
+            ExecutorService executor,
+            Map<Future<List<String>>, List<AsyncCriMessage>> processedUsers,
+            Set<String> failedMessageIds) {
+        for (var processedUser : processedUsers.keySet()) {
+            try {
+                processedUser.get();
+            } catch (ExecutionException e) {
+                // Reported below, once every user has finished
+            } catch (InterruptedException e) {
+                LOGGER.error(
+                        LogHelper.buildErrorMessage(
+                                "Interrupted awaiting VC response messages", e));
+                stopProcessing(executor);
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        RuntimeException unexpectedFailure = null;
+        for (var processedUser : processedUsers.entrySet()) {
+            var future = processedUser.getKey();
+            if (!future.isDone()) {
+                // Only after being interrupted, for users not started or still being processed
+                future.cancel(true);
+                processedUser.getValue().stream()
+                        .map(AsyncCriMessage::messageId)
+                        .forEach(failedMessageIds::add);
+                continue;
+            }
+            try {
+                failedMessageIds.addAll(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                if (unexpectedFailure == null) {
+                    unexpectedFailure =
+                            e.getCause() instanceof RuntimeException runtimeException
+                                    ? runtimeException
+                                    : new IllegalStateException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                // Not thrown, as getting the result of a done future doesn't wait
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (unexpectedFailure != null) {
+            throw unexpectedFailure;
+        }
+    }
+
+    // Interrupts the messages being processed and waits for them to stop, so that the response
+    // doesn't report a message as failed while it is still being processed
+    private void stopProcessing(ExecutorService executor) {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(
+                    STOP_PROCESSING_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
                 LOGGER.error(
-                        new StringMapMessage()
-                                .with(
-                                        LOG_MESSAGE_DESCRIPTION.getFieldName(),
-                                        "Failed to process VC response message.")
-                                .with(LOG_ERROR_DESCRIPTION.getFieldName(), e.getErrorResponse()));
-                failedRecords.add(new SQSBatchResponse.BatchItemFailure(message.getMessageId()));
+                        LogHelper.buildLogMessage(
+                                "Timed out waiting for VC response messages to stop"));
             }
+        } catch (InterruptedException e) {
+            LOGGER.error(
+                    LogHelper.buildErrorMessage(
+                            "Interrupted waiting for VC response messages to stop", e));
         }
+    }
 
-        return SQSBatchResponse.builder().withBatchItemFailures(failedRecords).build();
+    // Returns the IDs of the messages that failed. Once a message fails, or processing is
+    // interrupted, the user's later messages are failed without being processed, so that they are
+    // redelivered after it rather than being applied out of order.
+    private List<String> processUserMessages(List<AsyncCriMessage> userMessages) {
+        var failedMessageIds = new ArrayList<String>();
+        for (var userMessage : userMessages) {
+            if (!failedMessageIds.isEmpty()
+                    || Thread.currentThread().isInterrupted()
+                    || !processMessage(userMessage.asyncCriResponse())) {
+                failedMessageIds.add(userMessage.messageId());
+            }
+        }
+        return failedMessageIds;
     }
 
-    private void processErrorAsyncCriResponse(ErrorAsyncCriResponse errorAsyncCriResponse)
+    private boolean processMessage(BaseAsyncCriResponse asyncCriResponse) {
+        // Messages are processed concurrently, so each one's audit events are flushed separately
+        var messageAuditService = auditService.withSeparateBuffer();
+        try {
+            if (isSuccessAsyncCriResponse(asyncCriResponse)) {
+                processSuccessAsyncCriResponse(
+                        (SuccessAsyncCriResponse) asyncCriResponse, messageAuditService);
+            } else {
+                processErrorAsyncCriResponse(
+                        (ErrorAsyncCriResponse) asyncCriResponse, messageAuditService);
+            }
+            messageAuditService.flush();
+            return true;
+        } catch (ParseException
+                | SqsException
+                | CiPutException
+                | AsyncVerifiableCredentialException
+                | UnrecognisedVotException
+                | CiPostMitigationsException
+                | CredentialParseException e) {
+            LOGGER.error(LogHelper.buildErrorMessage("Failed to process VC response message.", e));
+            return false;
+        } catch (VerifiableCredentialException e) {
+            LOGGER.error(
+                    new StringMapMessage()
+                            .with(
+                                    LOG_MESSAGE_DESCRIPTION.getFieldName(),
+                                    "Failed to process VC response message.")
+                            .with(LOG_ERROR_DESCRIPTION.getFieldName(), e.getErrorResponse()));
+            return false;
+        } finally {
+            flushAuditEvents(messageAuditService);
+        }
+    }
+
+    // Sends audit events raised by a message before it failed
+    private void flushAuditEvents(AuditService messageAuditService) {
+        try {
+            messageAuditService.flush();
+        } catch (SqsException e) {
+            LOGGER.error(LogHelper.buildErrorMessage("Failed to send audit events", e));
+        }
+    }
+
+    private void processErrorAsyncCriResponse(
+            ErrorAsyncCriResponse errorAsyncCriResponse, AuditService messageAuditService)
             throws SqsException {
         CriResponseItem responseItem =
                 criResponseService.getCriResponseItem(
@@ -157,11 +304,12 @@ public class ProcessAsyncCriCredentialHandler
                                 LOG_CRI_ISSUER.getFieldName(),
                                 errorAsyncCriResponse.getCredentialIssuer()));
 
-        sendIpvVcErrorAuditEvent(errorAsyncCriResponse);
+        sendIpvVcErrorAuditEvent(errorAsyncCriResponse, messageAuditService);
     }
 
     @Tracing
-    private void processSuccessAsyncCriResponse(SuccessAsyncCriResponse successAsyncCriResponse)
+    private void processSuccessAsyncCriResponse(
+            SuccessAsyncCriResponse successAsyncCriResponse, AuditService messageAuditService)
             throws ParseException, SqsException, CiPutException, AsyncVerifiableCredentialException,
                     CiPostMitigationsException, VerifiableCredentialException,
                     UnrecognisedVotException, CredentialParseException {
@@ -184,14 +332,14 @@ public class ProcessAsyncCriCredentialHandler
             boolean isSuccessful = VcHelper.isSuccessfulVc(vc);
 
             AuditEventUser auditEventUser = new AuditEventUser(vc.getUserId(), null, null, null);
-            sendIpvVcReceivedAuditEvent(auditEventUser, vc, isSuccessful);
+            sendIpvVcReceivedAuditEvent(messageAuditService, auditEventUser, vc, isSuccessful);
 
             submitVcToCiStorage(vc);
             postMitigatingVc(vc);
 
             verifiableCredentialService.persistUserCredentials(vc);
 
-            sendIpvVcConsumedAuditEvent(auditEventUser, vc);
+            sendIpvVcConsumedAuditEvent(messageAuditService, auditEventUser, vc);
         }
     }
 
@@ -218,6 +366,7 @@ public class ProcessAsyncCriCredentialHandler
 
     @Tracing
     private void sendIpvVcReceivedAuditEvent(
+            AuditService messageAuditService,
             AuditEventUser auditEventUser,
             VerifiableCredential verifiableCredential,
             boolean isSuccessful)
@@ -228,11 +377,14 @@ public class ProcessAsyncCriCredentialHandler
                         configService.getSsmParameter(ConfigurationVariable.COMPONENT_ID),
                         auditEventUser,
                         getExtensionsForAudit(verifiableCredential, isSuccessful));
-        auditService.sendAuditEvent(auditEvent);
+        messageAuditService.sendAuditEvent(auditEvent);
     }
 
     @Tracing
-    void sendIpvVcConsumedAuditEvent(AuditEventUser auditEventUser, VerifiableCredential vc)
+    void sendIpvVcConsumedAuditEvent(
+            AuditService messageAuditService,
+            AuditEventUser auditEventUser,
+            VerifiableCredential vc)
             throws SqsException, CredentialParseException {
         AuditEvent auditEvent =
                 new AuditEvent(
@@ -241,11 +393,12 @@ public class ProcessAsyncCriCredentialHandler
                         auditEventUser,
                         null,
                         getRestrictedAuditDataForF2F(vc));
-        auditService.sendAuditEvent(auditEvent);
+        messageAuditService.sendAuditEvent(auditEvent);
     }
 
     @Tracing
-    private void sendIpvVcErrorAuditEvent(ErrorAsyncCriResponse errorAsyncCriResponse)
+    private void sendIpvVcErrorAuditEvent(
+            ErrorAsyncCriResponse errorAsyncCriResponse, AuditService messageAuditService)
             throws SqsException {
         AuditEventUser auditEventUser =
                 new AuditEventUser(errorAsyncCriResponse.getUserId(), null, null, null);
@@ -263,7 +416,7 @@ public class ProcessAsyncCriCredentialHandler
                         auditEventUser,
                         extensionErrorParams);
         LOGGER.info(LogHelper.buildLogMessage("Sending audit event IPV_F2F_CRI_VC_ERROR message."));
-        auditService.sendAuditEvent(auditEvent);
+        messageAuditService.sendAuditEvent(auditEvent);
     }
 
     @Tracing
@@ -275,4 +428,6 @@ public class ProcessAsyncCriCredentialHandler
     private void postMitigatingVc(VerifiableCredential vc) throws CiPostMitigationsException {
         ciMitService.submitMitigatingVcList(List.of(vc), null, null);
     }
+
+    private record AsyncCriMessage(String messageId, BaseAsyncCriResponse asyncCriResponse) {}
 }
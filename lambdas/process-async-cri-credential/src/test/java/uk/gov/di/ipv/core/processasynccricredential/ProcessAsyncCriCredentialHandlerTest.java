@@ -4,6 +4,7 @@ import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -12,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.core.library.auditing.AuditEvent;
 import uk.gov.di.ipv.core.library.auditing.AuditEventTypes;
+import uk.gov.di.ipv.core.library.auditing.extension.AuditExtensionErrorParams;
 import uk.gov.di.ipv.core.library.cimit.exception.CiPostMitigationsException;
 import uk.gov.di.ipv.core.library.cimit.exception.CiPutException;
 import uk.gov.di.ipv.core.library.domain.CriConstants;
@@ -30,14 +32,21 @@ import uk.gov.di.ipv.core.processasynccricredential.dto.CriResponseMessageDto;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -97,6 +106,11 @@ class ProcessAsyncCriCredentialHandlerTest {
     @Mock private CriResponseService criResponseService;
     @InjectMocks private ProcessAsyncCriCredentialHandler handler;
 
+    @BeforeEach
+    void setUp() {
+        when(auditService.withSeparateBuffer()).thenReturn(auditService);
+    }
+
     @Test
     void shouldProcessValidExpectedAsyncVerifiableCredentialSuccessfully() throws Exception {
         final SQSEvent testEvent = createSuccessTestEvent(TEST_OAUTH_STATE);
@@ -283,6 +297,190 @@ class ProcessAsyncCriCredentialHandlerTest {
         verifyBatchResponseFailures(testEvent, batchResponse);
     }
 
+    @Test
+    void shouldProcessDifferentUsersConcurrently() throws Exception {
+        var bothStarted = new CountDownLatch(2);
+        when(criResponseService.getCriResponseItem(any(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            bothStarted.countDown();
+                            // Only returns while the other user's message is being processed
+                            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                            return null;
+                        });
+
+        final SQSBatchResponse batchResponse =
+                handler.handleRequest(
+                        createEvent(
+                                createErrorMessage("1", "user-1", "user-1-message-1"),
+                                createErrorMessage("2", "user-2", "user-2-message-1")),
+                        null);
+
+        assertEquals(0, batchResponse.getBatchItemFailures().size());
+        verify(auditService, times(2)).sendAuditEvent(any(AuditEvent.class));
+    }
+
+    @Test
+    void shouldProcessEachUsersMessagesInOrder() throws Exception {
+        var otherUserProcessed = new CountDownLatch(1);
+        var processed = Collections.synchronizedList(new ArrayList<String>());
+        doAnswer(
+                        invocation -> {
+                            var description = getErrorDescription(invocation.getArgument(0));
+                            if (description.equals("user-1-message-1")) {
+                                // Holds the first user up, so their later messages could overtake
+                                assertTrue(otherUserProcessed.await(5, TimeUnit.SECONDS));
+                            }
+                            processed.add(description);
+                            if (description.startsWith("user-2")) {
+                                otherUserProcessed.countDown();
+                            }
+                            return null;
+                        })
+                .when(auditService)
+                .sendAuditEvent(any(AuditEvent.class));
+
+        final SQSBatchResponse batchResponse =
+                handler.handleRequest(
+                        createEvent(
+                                createErrorMessage("1", "user-1", "user-1-message-1"),
+                                createErrorMessage("2", "user-1", "user-1-message-2"),
+                                createErrorMessage("3", "user-2", "user-2-message-1"),
+                                createErrorMessage("4", "user-1", "user-1-message-3")),
+                        null);
+
+        assertEquals(0, batchResponse.getBatchItemFailures().size());
+        assertEquals("user-2-message-1", processed.get(0));
+        assertEquals(
+                List.of("user-1-message-1", "user-1-message-2", "user-1-message-3"),
+                processed.stream()
+                        .filter(description -> description.startsWith("user-1"))
+                        .toList());
+    }
+
+    @Test
+    void shouldReportFailedMessagesInBatchOrder() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            if (getErrorDescription(invocation.getArgument(0)).endsWith("fail")) {
+                                throw new SqsException("Failed to send audit event");
+                            }
+                            return null;
+                        })
+                .when(auditService)
+                .sendAuditEvent(any(AuditEvent.class));
+        var unparseableMessage = new SQSEvent.SQSMessage();
+        unparseableMessage.setMessageId("5");
+        unparseableMessage.setBody("not json");
+
+        final SQSBatchResponse batchResponse =
+                handler.handleRequest(
+                        createEvent(
+                                createErrorMessage("1", "user-1", "fail"),
+                                createErrorMessage("2", "user-2", "succeed"),
+                                createErrorMessage("3", "user-1", "succeed"),
+                                createErrorMessage("4", "user-2", "fail"),
+                                unparseableMessage),
+                        null);
+
+        assertEquals(
+                List.of("1", "3", "4", "5"),
+                batchResponse.getBatchItemFailures().stream()
+                        .map(SQSBatchResponse.BatchItemFailure::getItemIdentifier)
+                        .toList());
+    }
+
+    @Test
+    void shouldNotProcessUsersLaterMessagesOnceOneFails() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            if (getErrorDescription(invocation.getArgument(0)).endsWith("fail")) {
+                                throw new SqsException("Failed to send audit event");
+                            }
+                            return null;
+                        })
+                .when(auditService)
+                .sendAuditEvent(any(AuditEvent.class));
+
+        final SQSBatchResponse batchResponse =
+                handler.handleRequest(
+                        createEvent(
+                                createErrorMessage("1", "user-1", "succeed"),
+                                createErrorMessage("2", "user-1", "fail"),
+                                createErrorMessage("3", "user-1", "succeed")),
+                        null);
+
+        assertEquals(
+                List.of("2", "3"),
+                batchResponse.getBatchItemFailures().stream()
+                        .map(SQSBatchResponse.BatchItemFailure::getItemIdentifier)
+                        .toList());
+        verify(auditService, times(2)).sendAuditEvent(any(AuditEvent.class));
+    }
+
+    @Test
+    void shouldStopProcessingBeforeRespondingWhenInterrupted() throws Exception {
+        var handlerThread = Thread.currentThread();
+        var processingInterrupted = new AtomicBoolean();
+        when(criResponseService.getCriResponseItem(any(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            handlerThread.interrupt();
+                            try {
+                                // Only returns once the handler stops processing
+                                new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                processingInterrupted.set(true);
+                                Thread.currentThread().interrupt();
+                            }
+                            return null;
+                        });
+
+        final SQSBatchResponse batchResponse =
+                handler.handleRequest(
+                        createEvent(
+                                createErrorMessage("1", "user-1", "user-1-message-1"),
+                                createErrorMessage("2", "user-1", "user-1-message-2")),
+                        null);
+
+        assertTrue(Thread.interrupted());
+        assertTrue(processingInterrupted.get());
+        // The first message finished before the response was built
+        verify(auditService).sendAuditEvent(any(AuditEvent.class));
+        assertEquals(
+                List.of("2"),
+                batchResponse.getBatchItemFailures().stream()
+                        .map(SQSBatchResponse.BatchItemFailure::getItemIdentifier)
+                        .toList());
+    }
+
+    private static SQSEvent createEvent(SQSEvent.SQSMessage... messages) {
+        final SQSEvent sqsEvent = new SQSEvent();
+        sqsEvent.setRecords(List.of(messages));
+        return sqsEvent;
+    }
+
+    private static SQSEvent.SQSMessage createErrorMessage(
+            String messageId, String userId, String errorDescription)
+            throws JsonProcessingException {
+        final SQSEvent.SQSMessage message = new SQSEvent.SQSMessage();
+        message.setMessageId(messageId);
+        message.setBody(
+                OBJECT_MAPPER.writeValueAsString(
+                        new CriResponseMessageDto(
+                                null,
+                                userId,
+                                TEST_OAUTH_STATE,
+                                null,
+                                TEST_ASYNC_ERROR,
+                                errorDescription)));
+        return message;
+    }
+
+    private static String getErrorDescription(AuditEvent auditEvent) {
+        return ((AuditExtensionErrorParams) auditEvent.getExtensions()).getErrorDescription();
+    }
+
     private SQSEvent createErrorTestEvent() throws JsonProcessingException {
         final SQSEvent sqsEvent = new SQSEvent();
         final CriResponseMessageDto criResponseMessageDto =
@@ -107,6 +107,12 @@ public class ProcessCriCallbackHandler
 
     @ExcludeFromGeneratedCoverageReport
     public ProcessCriCallbackHandler() {
+        this(new KmsEs256SignerFactory());
+    }
+
+    // Local running passes a signer factory that signs in process instead of with KMS
+    @ExcludeFromGeneratedCoverageReport
+    public ProcessCriCallbackHandler(KmsEs256SignerFactory signerFactory) {
         configService = new ConfigService();
         ipvSessionService = new IpvSessionService(configService);
         criOAuthSessionService = new CriOAuthSessionService(configService);
@@ -120,7 +126,7 @@ public class ProcessCriCallbackHandler
         criApiService =
                 new CriApiService(
                         configService,
-                        new KmsEs256SignerFactory(),
+                        signerFactory,
                         SecureTokenHelper.getInstance(),
                         Clock.systemDefaultZone());
         criCheckingService =
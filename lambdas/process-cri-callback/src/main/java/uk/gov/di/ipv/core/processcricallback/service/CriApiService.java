@@ -28,6 +28,7 @@ import uk.gov.di.ipv.core.library.dto.OauthCriConfig;
 import uk.gov.di.ipv.core.library.helpers.JwtHelper;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.helpers.SecureTokenHelper;
+import uk.gov.di.ipv.core.library.http.CriHttpClient;
 import uk.gov.di.ipv.core.library.kmses256signer.KmsEs256SignerFactory;
 import uk.gov.di.ipv.core.library.persistence.item.CriOAuthSessionItem;
 import uk.gov.di.ipv.core.library.service.ConfigService;
@@ -55,6 +56,7 @@ public class CriApiService {
     private final KmsEs256SignerFactory signerFactory;
     private final SecureTokenHelper secureTokenHelper;
     private final Clock clock;
+    private final CriHttpClient criHttpClient;
 
     @ExcludeFromGeneratedCoverageReport
     public CriApiService(
@@ -62,10 +64,20 @@ public class CriApiService {
             KmsEs256SignerFactory signerFactory,
             SecureTokenHelper secureTokenHelper,
             Clock clock) {
+        this(configService, signerFactory, secureTokenHelper, clock, CriHttpClient.getInstance());
+    }
+
+    public CriApiService(
+            ConfigService configService,
+            KmsEs256SignerFactory signerFactory,
+            SecureTokenHelper secureTokenHelper,
+            Clock clock,
+            CriHttpClient criHttpClient) {
         this.configService = configService;
         this.signerFactory = signerFactory;
         this.secureTokenHelper = secureTokenHelper;
         this.clock = clock;
+        this.criHttpClient = criHttpClient;
     }
 
     private String getApiKey(OauthCriConfig criConfig, CriOAuthSessionItem criOAuthSessionItem) {
@@ -82,7 +94,8 @@ public class CriApiService {
 
         try {
             var httpRequest = buildFetchAccessTokenRequest(callbackRequest, criOAuthSessionItem);
-            var httpResponse = httpRequest.send();
+            var httpResponse =
+                    criHttpClient.send(criId, "FetchAccessToken", httpRequest, criConfig);
             var tokenResponse = TokenResponse.parse(httpResponse);
 
             if (tokenResponse instanceof TokenErrorResponse) {
@@ -110,6 +123,12 @@ public class CriApiService {
             throw new CriApiException(
                     HTTPResponse.SC_SERVER_ERROR,
                     ErrorResponse.FAILED_TO_EXCHANGE_AUTHORIZATION_CODE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("Interrupted exchanging token: {}", e.getMessage(), e);
+            throw new CriApiException(
+                    HTTPResponse.SC_SERVER_ERROR,
+                    ErrorResponse.FAILED_TO_EXCHANGE_AUTHORIZATION_CODE);
         }
     }
 
@@ -176,12 +195,15 @@ public class CriApiService {
             CriOAuthSessionItem criOAuthSessionItem)
             throws CriApiException {
         var criId = callbackRequest.getCredentialIssuerId();
+        var criConfig = configService.getOauthCriConfig(criOAuthSessionItem);
         var credentialRequest =
                 buildFetchVerifiableCredentialRequest(
                         accessToken, callbackRequest, criOAuthSessionItem);
 
         try {
-            var response = credentialRequest.send();
+            var response =
+                    criHttpClient.send(
+                            criId, "FetchVerifiableCredential", credentialRequest, criConfig);
 
             if (!response.indicatesSuccess()) {
                 LOGGER.error(
@@ -238,6 +260,12 @@ public class CriApiService {
             throw new CriApiException(
                     HTTPResponse.SC_SERVER_ERROR,
                     ErrorResponse.FAILED_TO_GET_CREDENTIAL_FROM_ISSUER);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error(LogHelper.buildErrorMessage("Interrupted retrieving credential.", e));
+            throw new CriApiException(
+                    HTTPResponse.SC_SERVER_ERROR,
+                    ErrorResponse.FAILED_TO_GET_CREDENTIAL_FROM_ISSUER);
         }
     }
 
@@ -6,6 +6,9 @@ import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.oauth2.sdk.auth.PrivateKeyJWT;
 import com.nimbusds.oauth2.sdk.http.HTTPResponse;
 import com.nimbusds.oauth2.sdk.token.AccessTokenType;
 import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
@@ -22,6 +25,7 @@ import uk.gov.di.ipv.core.library.dto.CriCallbackRequest;
 import uk.gov.di.ipv.core.library.dto.OauthCriConfig;
 import uk.gov.di.ipv.core.library.helpers.JwtHelper;
 import uk.gov.di.ipv.core.library.helpers.SecureTokenHelper;
+import uk.gov.di.ipv.core.library.kmses256signer.InMemoryKmsClient;
 import uk.gov.di.ipv.core.library.kmses256signer.KmsEs256SignerFactory;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 import uk.gov.di.ipv.core.library.verifiablecredential.domain.VerifiableCredentialStatus;
@@ -29,6 +33,7 @@ import uk.gov.di.ipv.core.processcricallback.exception.CriApiException;
 
 import java.net.URI;
 import java.security.KeyFactory;
+import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.ECPrivateKey;
 import java.security.spec.InvalidKeySpecException;
@@ -62,6 +67,7 @@ import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.PASSPORT_NON_DCMAW_
 @ExtendWith(MockitoExtension.class)
 class CriApiServiceTest {
     private static final String TEST_CRI_ID = "test-cri-id";
+    private static final String SIGNING_KEY_ID = "signing-key-id";
     private static final String API_KEY_HEADER = "x-api-key";
     private static final String TEST_API_KEY = "test_api_key";
     private static final String TEST_AUTHORISATION_CODE = "test_authorisation_code";
@@ -307,6 +313,31 @@ class CriApiServiceTest {
         assertTrue(request.getQuery().contains("redirect_uri="));
     }
 
+    @Test
+    void buildFetchAccessTokenRequestShouldSignClientAssertionWithTheSigningKeyHeldInKms()
+            throws Exception {
+        // Arrange
+        var kmsClient = new InMemoryKmsClient();
+        kmsClient.importKey(SIGNING_KEY_ID, new KeyPair(null, getPrivateKey()));
+        var service =
+                new CriApiService(
+                        mockConfigService,
+                        new KmsEs256SignerFactory(kmsClient),
+                        SecureTokenHelper.getInstance(),
+                        Clock.systemDefaultZone());
+        when(mockConfigService.getSsmParameter(JWT_TTL_SECONDS)).thenReturn("900");
+        when(mockConfigService.getSigningKeyId()).thenReturn(SIGNING_KEY_ID);
+
+        // Act
+        var request = service.buildFetchAccessTokenRequest(getValidCallbackRequest(), null);
+
+        // Assert
+        var clientAssertion = PrivateKeyJWT.parse(request.getQuery()).getClientAssertion();
+        assertTrue(clientAssertion.verify(new ECDSAVerifier(ECKey.parse(EC_PUBLIC_JWK))));
+        assertEquals("ipv-core", clientAssertion.getJWTClaimsSet().getIssuer());
+        assertEquals(1, kmsClient.getRequestCount());
+    }
+
     @Test
     void getVerifiableCredentialCorrectlyCallsACredentialIssuer() throws CriApiException {
         // Arrange
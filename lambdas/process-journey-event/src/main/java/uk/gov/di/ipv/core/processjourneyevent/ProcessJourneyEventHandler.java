@@ -25,16 +25,19 @@ import uk.gov.di.ipv.core.library.exceptions.SqsException;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.helpers.RequestHelper;
 import uk.gov.di.ipv.core.library.helpers.StepFunctionHelpers;
+import uk.gov.di.ipv.core.library.persistence.RequestScopedReadCache;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
 import uk.gov.di.ipv.core.library.service.ClientOAuthSessionDetailsService;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 import uk.gov.di.ipv.core.library.service.IpvSessionService;
+import uk.gov.di.ipv.core.library.service.JourneyTransitionLogService;
 import uk.gov.di.ipv.core.processjourneyevent.exceptions.JourneyEngineException;
-import uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachine;
 import uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachineInitializer;
 import uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachineInitializerMode;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.TransitionTable;
 import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.StateMachineNotFoundException;
 import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownEventException;
 import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownStateException;
@@ -47,6 +50,7 @@ import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.StepRes
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -63,8 +67,9 @@ public class ProcessJourneyEventHandler
         implements RequestHandler<JourneyRequest, Map<String, Object>> {
     private static final Logger LOGGER = LogManager.getLogger();
     public static final String CURRENT_PAGE = "currentPage";
-    private static final String CORE_SESSION_TIMEOUT_STATE = "CORE_SESSION_TIMEOUT";
-    private static final String NEXT_EVENT = "next";
+    public static final String CORE_SESSION_TIMEOUT_STATE = "CORE_SESSION_TIMEOUT";
+    public static final String TIMEOUT_EVENT = "timeout";
+    public static final String NEXT_EVENT = "next";
     private static final String END_SESSION_EVENT = "build-client-oauth-response";
     private static final StepResponse END_SESSION_RESPONSE =
             new ProcessStepResponse("build-client-oauth-response", null, null);
@@ -72,13 +77,15 @@ public class ProcessJourneyEventHandler
     private final AuditService auditService;
     private final ConfigService configService;
     private final ClientOAuthSessionDetailsService clientOAuthSessionService;
-    private final Map<IpvJourneyTypes, StateMachine> stateMachines;
+    private final JourneyTransitionLogService journeyTransitionLogService;
+    private final Map<IpvJourneyTypes, TransitionTable> stateMachines;
 
     public ProcessJourneyEventHandler(
             AuditService auditService,
             IpvSessionService ipvSessionService,
             ConfigService configService,
             ClientOAuthSessionDetailsService clientOAuthSessionService,
+            JourneyTransitionLogService journeyTransitionLogService,
             List<IpvJourneyTypes> journeyTypes,
             StateMachineInitializerMode stateMachineInitializerMode)
             throws IOException {
@@ -86,15 +93,17 @@ public class ProcessJourneyEventHandler
         this.auditService = auditService;
         this.configService = configService;
         this.clientOAuthSessionService = clientOAuthSessionService;
+        this.journeyTransitionLogService = journeyTransitionLogService;
         this.stateMachines = loadStateMachines(journeyTypes, stateMachineInitializerMode);
     }
 
     @ExcludeFromGeneratedCoverageReport
     public ProcessJourneyEventHandler() throws IOException {
         this.configService = new ConfigService();
-        this.auditService = new AuditService(AuditService.getSqsClient(), configService);
+        this.auditService = AuditService.buffered(AuditService.getSqsClient(), configService);
         this.ipvSessionService = new IpvSessionService(configService);
         this.clientOAuthSessionService = new ClientOAuthSessionDetailsService(configService);
+        this.journeyTransitionLogService = new JourneyTransitionLogService(configService);
         this.stateMachines =
                 loadStateMachines(
                         List.of(IpvJourneyTypes.values()), StateMachineInitializerMode.STANDARD);
@@ -105,6 +114,7 @@ public class ProcessJourneyEventHandler
     @Logging(clearState = true)
     public Map<String, Object> handleRequest(JourneyRequest journeyRequest, Context context) {
         LogHelper.attachComponentId(configService);
+        var readCache = RequestScopedReadCache.open();
 
         try {
             // Extract variables
@@ -167,6 +177,19 @@ public class ProcessJourneyEventHandler
         } catch (SqsException e) {
             return StepFunctionHelpers.generateErrorOutputMap(
                     HttpStatus.SC_INTERNAL_SERVER_ERROR, ErrorResponse.FAILED_TO_SEND_AUDIT_EVENT);
+        } finally {
+            flushAuditEvents();
+            readCache.close();
+        }
+    }
+
+    // Sends audit events raised after the session was saved, or before a failure. The response
+    // has already been decided.
+    private void flushAuditEvents() {
+        try {
+            auditService.flush();
+        } catch (SqsException e) {
+            LOGGER.error(LogHelper.buildErrorMessage("Failed to send audit events", e));
         }
     }
 
@@ -177,12 +200,17 @@ public class ProcessJourneyEventHandler
             AuditEventUser auditEventUser,
             String currentPage)
             throws JourneyEngineException, SqsException {
+        // Transitions are only recorded once the session has been saved in their target state
+        var completedTransitions = new ArrayList<JourneyTransitionItem>();
         if (sessionIsNewlyExpired(ipvSessionItem)) {
+            var timeout = startTransition(ipvSessionItem, TIMEOUT_EVENT, null);
             updateUserSessionForTimeout(
                     ipvSessionItem.getUserState(), ipvSessionItem, auditEventUser);
+            completedTransitions.add(setTarget(timeout, ipvSessionItem));
             journeyEvent = NEXT_EVENT;
         }
 
+        var transition = startTransition(ipvSessionItem, journeyEvent, currentPage);
         try {
             var newState = executeStateTransition(ipvSessionItem, journeyEvent, currentPage);
 
@@ -208,13 +236,18 @@ public class ProcessJourneyEventHandler
                     basicState.getName(),
                     journeyEvent,
                     ipvSessionItem);
+            completedTransitions.add(setTarget(transition, ipvSessionItem));
 
             clearOauthSessionIfExists(ipvSessionItem);
 
+            // Events raised so far are sent first, so if they fail the session is left unchanged
+            auditService.flush();
             ipvSessionService.updateIpvSession(ipvSessionItem);
+            completedTransitions.forEach(journeyTransitionLogService::recordTransition);
 
             return basicState.getResponse();
         } catch (UnknownStateException e) {
+            recordFailedTransition(transition, e.getMessage());
             LOGGER.error(
                     new StringMapMessage()
                             .with(LOG_MESSAGE_DESCRIPTION.getFieldName(), e.getMessage())
@@ -222,6 +255,7 @@ public class ProcessJourneyEventHandler
             throw new JourneyEngineException(
                     "Invalid journey state encountered, failed to execute journey engine step.");
         } catch (UnknownEventException e) {
+            recordFailedTransition(transition, e.getMessage());
             LOGGER.error(
                     new StringMapMessage()
                             .with(LOG_MESSAGE_DESCRIPTION.getFieldName(), e.getMessage())
@@ -245,7 +279,7 @@ public class ProcessJourneyEventHandler
     private State executeStateTransition(
             IpvSessionItem ipvSessionItem, String journeyEvent, String currentPage)
             throws StateMachineNotFoundException, UnknownEventException, UnknownStateException {
-        StateMachine stateMachine = stateMachines.get(ipvSessionItem.getJourneyType());
+        TransitionTable stateMachine = stateMachines.get(ipvSessionItem.getJourneyType());
         if (stateMachine == null) {
             throw new StateMachineNotFoundException(
                     String.format(
@@ -278,6 +312,36 @@ public class ProcessJourneyEventHandler
         LOGGER.info(message);
     }
 
+    private JourneyTransitionItem startTransition(
+            IpvSessionItem ipvSessionItem, String journeyEvent, String currentPage) {
+        var transition =
+                new JourneyTransitionItem(ipvSessionItem.getIpvSessionId(), Instant.now());
+        transition.setJourneyType(journeyTypeName(ipvSessionItem));
+        transition.setState(ipvSessionItem.getUserState());
+        transition.setEvent(journeyEvent);
+        transition.setCurrentPage(currentPage);
+        transition.setFeatureSet(configService.getFeatureSet());
+        return transition;
+    }
+
+    // Taken as soon as the session has moved, as a timeout moves it again before it is saved
+    private static JourneyTransitionItem setTarget(
+            JourneyTransitionItem transition, IpvSessionItem target) {
+        transition.setTargetJourneyType(journeyTypeName(target));
+        transition.setTargetState(target.getUserState());
+        return transition;
+    }
+
+    private void recordFailedTransition(JourneyTransitionItem transition, String error) {
+        transition.setError(error);
+        journeyTransitionLogService.recordTransition(transition);
+    }
+
+    private static String journeyTypeName(IpvSessionItem ipvSessionItem) {
+        var journeyType = ipvSessionItem.getJourneyType();
+        return journeyType == null ? null : journeyType.name();
+    }
+
     @Tracing
     private void clearOauthSessionIfExists(IpvSessionItem ipvSessionItem) {
         if (ipvSessionItem.getCriOAuthSessionId() != null) {
@@ -309,30 +373,35 @@ public class ProcessJourneyEventHandler
     }
 
     @Tracing
-    private Map<IpvJourneyTypes, StateMachine> loadStateMachines(
+    private Map<IpvJourneyTypes, TransitionTable> loadStateMachines(
             List<IpvJourneyTypes> journeyTypes,
             StateMachineInitializerMode stateMachineInitializerMode)
             throws IOException {
-        EnumMap<IpvJourneyTypes, StateMachine> stateMachinesMap =
+        EnumMap<IpvJourneyTypes, TransitionTable> stateMachinesMap =
                 new EnumMap<>(IpvJourneyTypes.class);
         for (IpvJourneyTypes journeyType : journeyTypes) {
             stateMachinesMap.put(
                     journeyType,
-                    new StateMachine(
-                            new StateMachineInitializer(journeyType, stateMachineInitializerMode)));
+                    TransitionTable.compile(
+                            new StateMachineInitializer(journeyType, stateMachineInitializerMode)
+                                    .initialize()));
         }
         return stateMachinesMap;
     }
 
-    private void sendMitigationStartAuditEvent(AuditEventUser auditEventUser, String mitigationType)
-            throws SqsException {
-
-        auditService.sendAuditEvent(
-                new AuditEvent(
-                        AuditEventTypes.IPV_MITIGATION_START,
-                        configService.getSsmParameter(ConfigurationVariable.COMPONENT_ID),
-                        auditEventUser,
-                        new AuditExtensionMitigationType(mitigationType)));
+    // Raised once the session has been saved, so a failure to send is logged, not returned
+    private void sendMitigationStartAuditEvent(
+            AuditEventUser auditEventUser, String mitigationType) {
+        try {
+            auditService.sendAuditEvent(
+                    new AuditEvent(
+                            AuditEventTypes.IPV_MITIGATION_START,
+                            configService.getSsmParameter(ConfigurationVariable.COMPONENT_ID),
+                            auditEventUser,
+                            new AuditExtensionMitigationType(mitigationType)));
+        } catch (SqsException e) {
+            LOGGER.error(LogHelper.buildErrorMessage("Failed to send audit event", e));
+        }
     }
 
     private void sendSubJourneyStartAuditEvent(
@@ -0,0 +1,106 @@
+package uk.gov.di.ipv.core.processjourneyevent.replay;
+
+import uk.gov.di.ipv.core.library.domain.IpvJourneyTypes;
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.library.service.JourneyTransitionLogService;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachineInitializer;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.TransitionTable;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownEventException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownStateException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.BasicState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.JourneyChangeState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.JourneyContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static uk.gov.di.ipv.core.library.domain.IpvJourneyTypes.SESSION_TIMEOUT;
+import static uk.gov.di.ipv.core.processjourneyevent.ProcessJourneyEventHandler.CORE_SESSION_TIMEOUT_STATE;
+import static uk.gov.di.ipv.core.processjourneyevent.ProcessJourneyEventHandler.NEXT_EVENT;
+import static uk.gov.di.ipv.core.processjourneyevent.ProcessJourneyEventHandler.TIMEOUT_EVENT;
+
+/**
+ * Re-runs a session's recorded journey transitions against the current journey maps. Each
+ * transition is replayed from its recorded starting state with its recorded feature set, so one
+ * changed transition shows up on its own rather than throwing off the rest of the history.
+ */
+public class JourneyReplayer {
+    private final Map<IpvJourneyTypes, TransitionTable> stateMachines;
+    private final ConfigService configService;
+
+    public JourneyReplayer(
+            Map<IpvJourneyTypes, TransitionTable> stateMachines, ConfigService configService) {
+        this.stateMachines = stateMachines;
+        this.configService = configService;
+    }
+
+    public static JourneyReplayer forCurrentJourneyMaps(ConfigService configService)
+            throws IOException {
+        var stateMachines = new EnumMap<IpvJourneyTypes, TransitionTable>(IpvJourneyTypes.class);
+        for (var journeyType : IpvJourneyTypes.values()) {
+            stateMachines.put(
+                    journeyType,
+                    TransitionTable.compile(new StateMachineInitializer(journeyType).initialize()));
+        }
+        return new JourneyReplayer(stateMachines, configService);
+    }
+
+    public ReplayReport replay(
+            JourneyTransitionLogService journeyTransitionLogService, String ipvSessionId) {
+        var replayed = new ArrayList<ReplayReport.ReplayedTransition>();
+        for (var transition : journeyTransitionLogService.getTransitions(ipvSessionId)) {
+            replayed.add(replay(transition));
+        }
+        return new ReplayReport(ipvSessionId, replayed);
+    }
+
+    ReplayReport.ReplayedTransition replay(JourneyTransitionItem transition) {
+        // Timeouts are decided by the session's age, not by the journey map
+        if (TIMEOUT_EVENT.equals(transition.getEvent())) {
+            return new ReplayReport.ReplayedTransition(
+                    transition, SESSION_TIMEOUT.name(), CORE_SESSION_TIMEOUT_STATE, null);
+        }
+
+        configService.setFeatureSet(transition.getFeatureSet());
+        var journeyContext = new JourneyContext(configService);
+        try {
+            var journeyType = IpvJourneyTypes.valueOf(transition.getJourneyType());
+            var state =
+                    getStateMachine(journeyType)
+                            .transition(
+                                    transition.getState(),
+                                    transition.getEvent(),
+                                    journeyContext,
+                                    transition.getCurrentPage());
+
+            while (state instanceof JourneyChangeState journeyChangeState) {
+                journeyType = journeyChangeState.getJourneyType();
+                state =
+                        getStateMachine(journeyType)
+                                .transition(
+                                        journeyChangeState.getInitialState(),
+                                        NEXT_EVENT,
+                                        journeyContext,
+                                        null);
+            }
+
+            return new ReplayReport.ReplayedTransition(
+                    transition, journeyType.name(), ((BasicState) state).getName(), null);
+        } catch (UnknownEventException | UnknownStateException | IllegalArgumentException e) {
+            return new ReplayReport.ReplayedTransition(transition, null, null, e.getMessage());
+        }
+    }
+
+    private TransitionTable getStateMachine(IpvJourneyTypes journeyType)
+            throws UnknownStateException {
+        var stateMachine = stateMachines.get(journeyType);
+        if (stateMachine == null) {
+            throw new UnknownStateException(
+                    String.format("State machine not found for journey type: '%s'", journeyType));
+        }
+        return stateMachine;
+    }
+}
@@ -0,0 +1,51 @@
+package uk.gov.di.ipv.core.processjourneyevent.replay;
+
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
+
+import java.util.List;
+import java.util.Objects;
+
+public record ReplayReport(String ipvSessionId, List<ReplayedTransition> transitions) {
+
+    public List<ReplayedTransition> divergences() {
+        return transitions.stream().filter(ReplayedTransition::diverged).toList();
+    }
+
+    public boolean hasDiverged() {
+        return transitions.stream().anyMatch(ReplayedTransition::diverged);
+    }
+
+    /**
+     * A recorded transition next to where the current journey maps send the same event. An error
+     * is only compared by its presence, as exception messages are free to change.
+     */
+    public record ReplayedTransition(
+            JourneyTransitionItem recorded, String journeyType, String state, String error) {
+
+        public boolean diverged() {
+            if (recorded.getError() != null || error != null) {
+                return recorded.getError() == null || error == null;
+            }
+            return !Objects.equals(recorded.getTargetJourneyType(), journeyType)
+                    || !Objects.equals(recorded.getTargetState(), state);
+        }
+
+        public String describe() {
+            return String.format(
+                    "%s %s/%s on '%s': recorded %s, replayed %s",
+                    recorded.getTimestamp(),
+                    recorded.getJourneyType(),
+                    recorded.getState(),
+                    recorded.getEvent(),
+                    outcome(
+                            recorded.getTargetJourneyType(),
+                            recorded.getTargetState(),
+                            recorded.getError()),
+                    outcome(journeyType, state, error));
+        }
+
+        private static String outcome(String journeyType, String state, String error) {
+            return error == null ? journeyType + "/" + state : "error (" + error + ")";
+        }
+    }
+}
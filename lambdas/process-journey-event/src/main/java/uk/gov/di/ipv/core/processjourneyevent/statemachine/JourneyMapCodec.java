@@ -0,0 +1,350 @@
+package uk.gov.di.ipv.core.processjourneyevent.statemachine;
+
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.events.BasicEvent;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.events.Event;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.events.ExitNestedJourneyEvent;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.JourneyMapDeserializationException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.BasicState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.NestedJourneyDefinition;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.NestedJourneyInvokeState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.State;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.CriStepResponse;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.ErrorStepResponse;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.PageStepResponse;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.ProcessStepResponse;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.StepResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes journey maps, as parsed from YAML and before they are linked, in a compact
+ * binary form. Reading needs neither a YAML parser nor reflection, which keeps it cheap on a cold
+ * start. Map order is kept, as the order of disabled CRI and feature flag checks matters.
+ */
+final class JourneyMapCodec {
+    private static final int MAGIC = 0x4a4d4150; // "JMAP"
+    private static final int VERSION = 1;
+
+    private static final byte BASIC_STATE = 0;
+    private static final byte NESTED_JOURNEY_INVOKE_STATE = 1;
+    private static final byte BASIC_EVENT = 0;
+    private static final byte EXIT_NESTED_JOURNEY_EVENT = 1;
+    private static final byte NO_RESPONSE = 0;
+    private static final byte PAGE_RESPONSE = 1;
+    private static final byte ERROR_RESPONSE = 2;
+    private static final byte CRI_RESPONSE = 3;
+    private static final byte PROCESS_RESPONSE = 4;
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte BOOLEAN_VALUE = 2;
+    private static final byte INTEGER_VALUE = 3;
+    private static final byte LONG_VALUE = 4;
+    private static final byte DOUBLE_VALUE = 5;
+    private static final byte LIST_VALUE = 6;
+    private static final byte MAP_VALUE = 7;
+
+    record JourneyMap(
+            Map<String, State> states,
+            Map<String, NestedJourneyDefinition> nestedJourneyDefinitions) {}
+
+    private JourneyMapCodec() {}
+
+    static void write(DataOutput out, JourneyMap journeyMap) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeStates(out, journeyMap.states());
+        writeMap(out, journeyMap.nestedJourneyDefinitions(), JourneyMapCodec::writeDefinition);
+    }
+
+    static JourneyMap read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new JourneyMapDeserializationException("Unsupported compiled journey map");
+        }
+        return new JourneyMap(readStates(in), readMap(in, JourneyMapCodec::readDefinition));
+    }
+
+    // Every nested journey invoke state needs its own copy of the definition to link
+    static NestedJourneyDefinition copy(NestedJourneyDefinition definition) {
+        try {
+            var bytes = new ByteArrayOutputStream();
+            writeDefinition(new DataOutputStream(bytes), definition);
+            return readDefinition(
+                    new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (IOException e) {
+            throw new JourneyMapDeserializationException(e);
+        }
+    }
+
+    private static void writeDefinition(DataOutput out, NestedJourneyDefinition definition)
+            throws IOException {
+        writeEvents(out, definition.getEntryEvents());
+        writeStates(out, definition.getNestedJourneyStates());
+    }
+
+    private static NestedJourneyDefinition readDefinition(DataInput in) throws IOException {
+        var definition = new NestedJourneyDefinition();
+        definition.setEntryEvents(readEvents(in));
+        definition.setNestedJourneyStates(readStates(in));
+        return definition;
+    }
+
+    private static void writeStates(DataOutput out, Map<String, State> states)
+            throws IOException {
+        writeMap(out, states, JourneyMapCodec::writeState);
+    }
+
+    private static Map<String, State> readStates(DataInput in) throws IOException {
+        return readMap(in, JourneyMapCodec::readState);
+    }
+
+    private static void writeState(DataOutput out, State state) throws IOException {
+        if (state instanceof BasicState basicState) {
+            out.writeByte(BASIC_STATE);
+            writeString(out, basicState.getParent());
+            writeResponse(out, basicState.getResponse());
+            writeEvents(out, basicState.getEvents());
+        } else if (state instanceof NestedJourneyInvokeState nestedState) {
+            out.writeByte(NESTED_JOURNEY_INVOKE_STATE);
+            writeString(out, nestedState.getNestedJourney());
+            writeEvents(out, nestedState.getExitEvents());
+        } else {
+            throw new JourneyMapDeserializationException("Unexpected state type: " + state);
+        }
+    }
+
+    private static State readState(DataInput in) throws IOException {
+        var type = in.readByte();
+        if (type == BASIC_STATE) {
+            var state = new BasicState();
+            state.setParent(readString(in));
+            state.setResponse(readResponse(in));
+            state.setEvents(readEvents(in));
+            return state;
+        }
+        if (type == NESTED_JOURNEY_INVOKE_STATE) {
+            var state = new NestedJourneyInvokeState();
+            state.setNestedJourney(readString(in));
+            state.setExitEvents(readEvents(in));
+            return state;
+        }
+        throw new JourneyMapDeserializationException("Unexpected state type: " + type);
+    }
+
+    private static void writeEvents(DataOutput out, Map<String, Event> events)
+            throws IOException {
+        writeMap(out, events, JourneyMapCodec::writeEvent);
+    }
+
+    private static LinkedHashMap<String, Event> readEvents(DataInput in) throws IOException {
+        return readMap(in, JourneyMapCodec::readEvent);
+    }
+
+    private static void writeEvent(DataOutput out, Event event) throws IOException {
+        if (event instanceof BasicEvent basicEvent) {
+            out.writeByte(BASIC_EVENT);
+            writeString(out, basicEvent.getTargetJourney());
+            writeString(out, basicEvent.getTargetState());
+            writeEvents(out, basicEvent.getCheckIfDisabled());
+            writeEvents(out, basicEvent.getCheckFeatureFlag());
+        } else if (event instanceof ExitNestedJourneyEvent exitEvent) {
+            out.writeByte(EXIT_NESTED_JOURNEY_EVENT);
+            writeString(out, exitEvent.getExitEventToEmit());
+        } else {
+            throw new JourneyMapDeserializationException("Unexpected event type: " + event);
+        }
+    }
+
+    private static Event readEvent(DataInput in) throws IOException {
+        var type = in.readByte();
+        if (type == BASIC_EVENT) {
+            var event = new BasicEvent();
+            event.setTargetJourney(readString(in));
+            event.setTargetState(readString(in));
+            event.setCheckIfDisabled(readEvents(in));
+            event.setCheckFeatureFlag(readEvents(in));
+            return event;
+        }
+        if (type == EXIT_NESTED_JOURNEY_EVENT) {
+            var event = new ExitNestedJourneyEvent();
+            event.setExitEventToEmit(readString(in));
+            return event;
+        }
+        throw new JourneyMapDeserializationException("Unexpected event type: " + type);
+    }
+
+    private static void writeResponse(DataOutput out, StepResponse response) throws IOException {
+        if (response == null) {
+            out.writeByte(NO_RESPONSE);
+        } else if (response instanceof PageStepResponse page) {
+            out.writeByte(PAGE_RESPONSE);
+            writeString(out, page.getPageId());
+            writeString(out, page.getContext());
+            writeString(out, page.getMitigationStart());
+        } else if (response instanceof ErrorStepResponse error) {
+            out.writeByte(ERROR_RESPONSE);
+            writeString(out, error.getPageId());
+            writeString(out, error.getStatusCode());
+            writeString(out, error.getMitigationStart());
+        } else if (response instanceof CriStepResponse cri) {
+            out.writeByte(CRI_RESPONSE);
+            writeString(out, cri.getCriId());
+            writeString(out, cri.getContext());
+            writeString(out, cri.getScope());
+            writeString(out, cri.getMitigationStart());
+        } else if (response instanceof ProcessStepResponse process) {
+            out.writeByte(PROCESS_RESPONSE);
+            writeString(out, process.getLambda());
+            writeMap(out, process.getLambdaInput(), JourneyMapCodec::writeValue);
+            writeString(out, process.getMitigationStart());
+        } else {
+            throw new JourneyMapDeserializationException("Unexpected response type: " + response);
+        }
+    }
+
+    private static StepResponse readResponse(DataInput in) throws IOException {
+        var type = in.readByte();
+        return switch (type) {
+            case NO_RESPONSE -> null;
+            case PAGE_RESPONSE -> new PageStepResponse(
+                    readString(in), readString(in), readString(in));
+            case ERROR_RESPONSE -> new ErrorStepResponse(
+                    readString(in), readString(in), readString(in));
+            case CRI_RESPONSE -> new CriStepResponse(
+                    readString(in), readString(in), readString(in), readString(in));
+            case PROCESS_RESPONSE -> new ProcessStepResponse(
+                    readString(in), readMap(in, JourneyMapCodec::readValue), readString(in));
+            default -> throw new JourneyMapDeserializationException(
+                    "Unexpected response type: " + type);
+        };
+    }
+
+    // Lambda inputs hold whatever scalars, lists and maps the YAML contains
+    private static void writeValue(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING_VALUE);
+            out.writeUTF(string);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeBoolean(bool);
+        } else if (value instanceof Integer integer) {
+            out.writeByte(INTEGER_VALUE);
+            out.writeInt(integer);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble(number);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST_VALUE);
+            out.writeInt(list.size());
+            for (var item : list) {
+                writeValue(out, item);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP_VALUE);
+            out.writeInt(map.size());
+            for (var entry : map.entrySet()) {
+                out.writeUTF(String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            throw new JourneyMapDeserializationException(
+                    "Unexpected lambda input type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInput in) throws IOException {
+        var type = in.readByte();
+        switch (type) {
+            case NULL_VALUE:
+                return null;
+            case STRING_VALUE:
+                return in.readUTF();
+            case BOOLEAN_VALUE:
+                return in.readBoolean();
+            case INTEGER_VALUE:
+                return in.readInt();
+            case LONG_VALUE:
+                return in.readLong();
+            case DOUBLE_VALUE:
+                return in.readDouble();
+            case LIST_VALUE:
+                var size = in.readInt();
+                var list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case MAP_VALUE:
+                var entries = in.readInt();
+                var map = new LinkedHashMap<String, Object>();
+                for (int i = 0; i < entries; i++) {
+                    map.put(in.readUTF(), readValue(in));
+                }
+                return map;
+            default:
+                throw new JourneyMapDeserializationException("Unexpected value type: " + type);
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // Null maps are kept distinct from empty ones, as some fields are optional
+    private static <V> void writeMap(DataOutput out, Map<String, V> map, Writer<V> valueWriter)
+            throws IOException {
+        if (map == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(map.size());
+        for (var entry : map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            valueWriter.write(out, entry.getValue());
+        }
+    }
+
+    private static <V> LinkedHashMap<String, V> readMap(DataInput in, Reader<V> valueReader)
+            throws IOException {
+        var size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        var map = new LinkedHashMap<String, V>();
+        for (int i = 0; i < size; i++) {
+            map.put(in.readUTF(), valueReader.read(in));
+        }
+        return map;
+    }
+
+    @FunctionalInterface
+    private interface Writer<V> {
+        void write(DataOutput out, V value) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<V> {
+        V read(DataInput in) throws IOException;
+    }
+}
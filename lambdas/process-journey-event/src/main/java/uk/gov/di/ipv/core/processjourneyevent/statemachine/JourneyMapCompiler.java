@@ -0,0 +1,46 @@
+package uk.gov.di.ipv.core.processjourneyevent.statemachine;
+
+import uk.gov.di.ipv.core.library.domain.IpvJourneyTypes;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compiles the journey maps at build time. Each journey map is parsed from YAML, checked by linking
+ * it and compiling its transition table, and written to {@code statemachine/compiled} under the
+ * given directory for {@link StateMachineInitializer} to load at runtime.
+ */
+public class JourneyMapCompiler {
+    private JourneyMapCompiler() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: JourneyMapCompiler <output directory>");
+        }
+        var outputDirectory = Path.of(args[0]);
+
+        for (var journeyType : IpvJourneyTypes.values()) {
+            var initializer = new StateMachineInitializer(journeyType);
+            // Linking mutates the parsed map, so the one written out is parsed separately
+            TransitionTable.compile(initializer.initializeFromYaml());
+            write(
+                    initializer.parseYaml(),
+                    outputDirectory.resolve(
+                            String.format(
+                                    StateMachineInitializer.COMPILED_JOURNEY_MAP_PATH,
+                                    journeyType.getPath())));
+        }
+    }
+
+    private static void write(JourneyMapCodec.JourneyMap journeyMap, Path path)
+            throws IOException {
+        Files.createDirectories(path.getParent());
+        try (var out =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            JourneyMapCodec.write(out, journeyMap);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package uk.gov.di.ipv.core.processjourneyevent.statemachine;
 
 import com.amazonaws.util.IOUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
@@ -15,6 +14,8 @@ import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.NestedJourneyD
 import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.NestedJourneyInvokeState;
 import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.State;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
@@ -24,7 +25,7 @@ import static com.fasterxml.jackson.core.JsonParser.Feature.STRICT_DUPLICATE_DET
 public class StateMachineInitializer {
     private static final ObjectMapper yamlOm =
             new ObjectMapper(new YAMLFactory()).configure(STRICT_DUPLICATE_DETECTION, true);
-    private static final ObjectMapper om = new ObjectMapper();
+    static final String COMPILED_JOURNEY_MAP_PATH = "statemachine/compiled/%s.bin";
     private Map<String, State> journeyStates;
     private Map<String, NestedJourneyDefinition> nestedJourneyDefinitions;
     private final StateMachineInitializerMode mode;
@@ -40,11 +41,39 @@ public class StateMachineInitializer {
 
     private final IpvJourneyTypes journeyType;
 
+    // Journey maps compiled at build time are used when present, so YAML is only parsed for
+    // test journey maps and when running from a build that skipped compileJourneyMaps
     public Map<String, State> initialize() throws IOException {
+        if (mode == StateMachineInitializerMode.STANDARD) {
+            InputStream compiled =
+                    getClass()
+                            .getClassLoader()
+                            .getResourceAsStream(
+                                    String.format(
+                                            COMPILED_JOURNEY_MAP_PATH, journeyType.getPath()));
+            if (compiled != null) {
+                try (var in = new DataInputStream(new BufferedInputStream(compiled))) {
+                    return initialize(JourneyMapCodec.read(in));
+                }
+            }
+        }
+        return initializeFromYaml();
+    }
+
+    public Map<String, State> initializeFromYaml() throws IOException {
+        return initialize(parseYaml());
+    }
+
+    JourneyMapCodec.JourneyMap parseYaml() throws IOException {
         Journey journey = yamlOm.readValue(getJourneyConfig(journeyType), new TypeReference<>() {});
-        journeyStates = journey.states();
-        nestedJourneyDefinitions =
+        Map<String, NestedJourneyDefinition> definitions =
                 yamlOm.readValue(getNestedJourneyDefinitionsConfig(), new TypeReference<>() {});
+        return new JourneyMapCodec.JourneyMap(journey.states(), definitions);
+    }
+
+    Map<String, State> initialize(JourneyMapCodec.JourneyMap journeyMap) {
+        journeyStates = journeyMap.states();
+        nestedJourneyDefinitions = journeyMap.nestedJourneyDefinitions();
 
         initializeJourneyStates();
 
@@ -113,21 +142,12 @@ public class StateMachineInitializer {
         NestedJourneyDefinition nestedJourneyDefinition =
                 nestedJourneyDefinitions.get(state.getNestedJourney());
         NestedJourneyDefinition nestedJourneyDefinitionCopy =
-                deepCopyNestedJourneyDefinition(nestedJourneyDefinition);
+                JourneyMapCodec.copy(nestedJourneyDefinition);
         state.setNestedJourneyDefinition(
                 initializeNestedJourneyDefinition(state, nestedJourneyDefinitionCopy));
         initializeExitStateEvents(state, journeyStates);
     }
 
-    private NestedJourneyDefinition deepCopyNestedJourneyDefinition(
-            NestedJourneyDefinition toCopy) {
-        try {
-            return om.readValue(om.writeValueAsString(toCopy), NestedJourneyDefinition.class);
-        } catch (JsonProcessingException e) {
-            throw new JourneyMapDeserializationException(e);
-        }
-    }
-
     private NestedJourneyDefinition initializeNestedJourneyDefinition(
             NestedJourneyInvokeState nestedJourneyInvokeState,
             NestedJourneyDefinition nestedJourneyDefinition) {
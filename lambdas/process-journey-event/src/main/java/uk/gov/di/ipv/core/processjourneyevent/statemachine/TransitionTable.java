@@ -0,0 +1,243 @@
+package uk.gov.di.ipv.core.processjourneyevent.statemachine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.events.BasicEvent;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.events.Event;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.events.ExitNestedJourneyEvent;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownEventException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownStateException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.BasicState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.NestedJourneyInvokeState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.State;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.CriStepResponse;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.JourneyContext;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.PageStepResponse;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.ProcessStepResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachine.DELIMITER;
+
+/**
+ * A journey map flattened into a single lookup table. Every state, including the states of nested
+ * journeys, is keyed by its full name, and each of its events is resolved ahead of time through
+ * parent states and nested journey entry and exit events. Only the disabled CRI and feature flag
+ * checks, which depend on config, are left to run on each transition.
+ *
+ * <p>Transitions give the same result as {@link StateMachine} does for the same journey map.
+ */
+public final class TransitionTable {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String ATTEMPT_RECOVERY_EVENT = "attempt-recovery";
+
+    private final Map<String, CompiledState> states;
+
+    private TransitionTable(Map<String, CompiledState> states) {
+        this.states = Map.copyOf(states);
+    }
+
+    public static TransitionTable compile(Map<String, State> journeyStates) {
+        var compiledStates = new HashMap<String, CompiledState>();
+        addStates(journeyStates, null, compiledStates);
+        return new TransitionTable(compiledStates);
+    }
+
+    public State transition(
+            String startState, String event, JourneyContext journeyContext, String currentPage)
+            throws UnknownEventException, UnknownStateException {
+        var state = getState(startState);
+
+        if (currentPage != null && state.topLevel() && state.basicState() != null) {
+            var response = state.basicState().getResponse();
+            if (response instanceof PageStepResponse pageStepResponse
+                            && !pageStepResponse.getPageId().equals(currentPage)
+                    || response instanceof CriStepResponse) {
+                return state.basicState();
+            } else if (response instanceof ProcessStepResponse) {
+                throw new UnknownStateException(
+                        String.format(
+                                "Unexpected page event (%s) from page (%s) received in process state (%s)",
+                                event, currentPage, startState));
+            }
+        }
+
+        var resolution = state.events().get(event);
+        if (resolution == null) {
+            throw new UnknownEventException(state.unknownEventMessage(event));
+        }
+        return resolution.resolve(journeyContext);
+    }
+
+    private CompiledState getState(String startState) throws UnknownStateException {
+        var state = states.get(startState);
+        if (state == null) {
+            // Anything after the name of a top level basic state has always been ignored
+            var delimiterIndex = startState.indexOf(DELIMITER);
+            if (delimiterIndex > 0) {
+                var topLevelState = states.get(startState.substring(0, delimiterIndex));
+                if (topLevelState != null
+                        && topLevelState.topLevel()
+                        && topLevelState.basicState() != null) {
+                    return topLevelState;
+                }
+            }
+            throw new UnknownStateException(
+                    String.format("Unknown state provided to state machine: %s", startState));
+        }
+        return state;
+    }
+
+    private static void addStates(
+            Map<String, State> journeyStates,
+            String prefix,
+            Map<String, CompiledState> compiledStates) {
+        journeyStates.forEach(
+                (stateName, state) -> {
+                    var name = prefix == null ? stateName : prefix + DELIMITER + stateName;
+                    if (state instanceof BasicState basicState) {
+                        compiledStates.put(name, compileBasicState(basicState, prefix == null));
+                    } else if (state instanceof NestedJourneyInvokeState nestedState) {
+                        compiledStates.put(name, compileNestedState(nestedState, prefix == null));
+                        addStates(
+                                nestedState.getNestedJourneyDefinition().getNestedJourneyStates(),
+                                name,
+                                compiledStates);
+                    }
+                });
+    }
+
+    private static CompiledState compileBasicState(BasicState state, boolean topLevel) {
+        var events = new HashMap<String, Resolution>();
+        events.put(ATTEMPT_RECOVERY_EVENT, new Target(state));
+        for (var current = state; current != null; current = current.getParentObj()) {
+            current.getEvents()
+                    .forEach(
+                            (eventName, event) -> {
+                                if (event != null) {
+                                    events.putIfAbsent(eventName, compileEvent(event, eventName));
+                                }
+                            });
+        }
+        return new CompiledState(state.getName(), state, topLevel, Map.copyOf(events));
+    }
+
+    // Starting from the invoking state itself selects one of the nested journey's entry events
+    private static CompiledState compileNestedState(
+            NestedJourneyInvokeState state, boolean topLevel) {
+        var events = new HashMap<String, Resolution>();
+        state.getNestedJourneyDefinition()
+                .getEntryEvents()
+                .forEach(
+                        (eventName, event) ->
+                                events.put(eventName, compileEvent(event, eventName)));
+        return new CompiledState(state.getName(), null, topLevel, Map.copyOf(events));
+    }
+
+    private static Resolution compileEvent(Event event, String eventName) {
+        if (event instanceof ExitNestedJourneyEvent exitEvent) {
+            var exitEvents = exitEvent.getNestedJourneyExitEvents();
+            var parentEvent =
+                    exitEvents == null ? null : exitEvents.get(exitEvent.getExitEventToEmit());
+            if (parentEvent == null) {
+                return new Unresolvable("Event '%s' not found in nested journey's exit events");
+            }
+            return compileEvent(parentEvent, eventName);
+        }
+
+        var basicEvent = (BasicEvent) event;
+        var target = compileTarget(basicEvent.getTargetStateObj(), eventName);
+        if (basicEvent.getCheckIfDisabled() == null && basicEvent.getCheckFeatureFlag() == null) {
+            return target;
+        }
+        return new Conditional(
+                compileBranches(basicEvent.getCheckIfDisabled(), eventName),
+                compileBranches(basicEvent.getCheckFeatureFlag(), eventName),
+                target);
+    }
+
+    // Arriving at a nested journey enters it with the same event
+    private static Resolution compileTarget(State target, String eventName) {
+        if (target instanceof NestedJourneyInvokeState nestedState) {
+            var entryEvent =
+                    nestedState.getNestedJourneyDefinition().getEntryEvents().get(eventName);
+            if (entryEvent == null) {
+                return new Unresolvable(
+                        String.format(
+                                "Unknown entry event '%s' for '%s' state nested journey definition",
+                                eventName, nestedState.getName()));
+            }
+            return compileEvent(entryEvent, eventName);
+        }
+        return new Target(target);
+    }
+
+    private static List<Branch> compileBranches(Map<String, Event> events, String eventName) {
+        var branches = new ArrayList<Branch>();
+        if (events != null) {
+            events.forEach(
+                    (key, event) -> branches.add(new Branch(key, compileEvent(event, eventName))));
+        }
+        return List.copyOf(branches);
+    }
+
+    private record CompiledState(
+            String name, BasicState basicState, boolean topLevel, Map<String, Resolution> events) {
+        private String unknownEventMessage(String event) {
+            if (basicState == null) {
+                return String.format(
+                        "Unknown entry event '%s' for '%s' state nested journey definition",
+                        event, name);
+            }
+            return String.format("Unknown event provided to '%s' state: '%s'", name, event);
+        }
+    }
+
+    private sealed interface Resolution permits Target, Unresolvable, Conditional {
+        State resolve(JourneyContext journeyContext) throws UnknownEventException;
+    }
+
+    private record Target(State state) implements Resolution {
+        @Override
+        public State resolve(JourneyContext journeyContext) {
+            return state;
+        }
+    }
+
+    private record Unresolvable(String message) implements Resolution {
+        @Override
+        public State resolve(JourneyContext journeyContext) throws UnknownEventException {
+            throw new UnknownEventException(message);
+        }
+    }
+
+    private record Branch(String key, Resolution resolution) {}
+
+    // Mirrors BasicEvent.resolve: disabled CRIs are checked first, then feature flags, in order
+    private record Conditional(
+            List<Branch> checkIfDisabled, List<Branch> checkFeatureFlag, Resolution otherwise)
+            implements Resolution {
+        @Override
+        public State resolve(JourneyContext journeyContext) throws UnknownEventException {
+            var configService = journeyContext.configService();
+            for (var branch : checkIfDisabled) {
+                if (!configService.isEnabled(branch.key())) {
+                    LOGGER.info(
+                            "CRI with ID '{}' is disabled. Using alternative event", branch.key());
+                    return branch.resolution().resolve(journeyContext);
+                }
+            }
+            for (var branch : checkFeatureFlag) {
+                if (configService.enabled(branch.key())) {
+                    LOGGER.info(
+                            "Feature flag '{}' is set. Using alternative event", branch.key());
+                    return branch.resolution().resolve(journeyContext);
+                }
+            }
+            return otherwise.resolve(journeyContext);
+        }
+    }
+}
@@ -19,13 +19,18 @@ import uk.gov.di.ipv.core.library.auditing.extension.AuditExtensionSubjourneyTyp
 import uk.gov.di.ipv.core.library.domain.ErrorResponse;
 import uk.gov.di.ipv.core.library.domain.IpvJourneyTypes;
 import uk.gov.di.ipv.core.library.domain.JourneyRequest;
+import uk.gov.di.ipv.core.library.exceptions.SqsException;
 import uk.gov.di.ipv.core.library.helpers.SecureTokenHelper;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
 import uk.gov.di.ipv.core.library.service.ClientOAuthSessionDetailsService;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 import uk.gov.di.ipv.core.library.service.IpvSessionService;
+import uk.gov.di.ipv.core.library.service.JourneyTransitionLogService;
 import uk.gov.di.ipv.core.processjourneyevent.statemachine.StateMachineInitializerMode;
 
 import java.io.IOException;
@@ -35,9 +40,15 @@ import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TIMEOUT;
@@ -71,6 +82,8 @@ class ProcessJourneyEventHandlerTest {
     @Mock private ConfigService mockConfigService;
     @Mock private AuditService mockAuditService;
     @Mock private ClientOAuthSessionDetailsService mockClientOAuthSessionService;
+    @Mock private JourneyTransitionLogService mockJourneyTransitionLogService;
+    @Captor private ArgumentCaptor<JourneyTransitionItem> journeyTransitionCaptor;
     @Captor private ArgumentCaptor<AuditEvent> auditEventCaptor;
 
     @Test
@@ -169,6 +182,7 @@ class ProcessJourneyEventHandlerTest {
                         mockIpvSessionService,
                         mockConfigService,
                         mockClientOAuthSessionService,
+                        mockJourneyTransitionLogService,
                         List.of(),
                         StateMachineInitializerMode.STANDARD);
 
@@ -196,6 +210,7 @@ class ProcessJourneyEventHandlerTest {
                         mockIpvSessionService,
                         mockConfigService,
                         mockClientOAuthSessionService,
+                        mockJourneyTransitionLogService,
                         List.of(INITIAL_JOURNEY_SELECTION, TECHNICAL_ERROR),
                         StateMachineInitializerMode.TEST);
 
@@ -223,6 +238,7 @@ class ProcessJourneyEventHandlerTest {
                         mockIpvSessionService,
                         mockConfigService,
                         mockClientOAuthSessionService,
+                        mockJourneyTransitionLogService,
                         List.of(INITIAL_JOURNEY_SELECTION, TECHNICAL_ERROR),
                         StateMachineInitializerMode.TEST);
 
@@ -231,6 +247,47 @@ class ProcessJourneyEventHandlerTest {
         assertEquals("/journey/cri/build-oauth-request/aCriId", output.get("journey"));
     }
 
+    @Test
+    void shouldReadTheSessionsOnceAndNotReadTheJourneyHistoryWhenMovingToNextState()
+            throws IOException {
+        var input =
+                JourneyRequest.builder()
+                        .ipAddress(TEST_IP)
+                        .journey(JOURNEY_EVENT_TWO_WITH_CORRECT_CURRENT_PAGE)
+                        .ipvSessionId(TEST_IP)
+                        .build();
+        var sessions = new InMemoryDataStore<>(IpvSessionItem.class);
+        var clientSessions = new InMemoryDataStore<>(ClientOAuthSessionItem.class);
+        var transitions = new InMemoryDataStore<>(JourneyTransitionItem.class);
+        var clientOAuthSessionItem = getClientOAuthSessionItem();
+        var ipvSessionItem = getIpvSessionItem("PAGE_STATE");
+        ipvSessionItem.setIpvSessionId(TEST_IP);
+        ipvSessionItem.setClientOAuthSessionId(clientOAuthSessionItem.getClientOAuthSessionId());
+        sessions.create(ipvSessionItem);
+        clientSessions.create(clientOAuthSessionItem);
+        when(mockConfigService.getSsmParameter(COMPONENT_ID)).thenReturn("core");
+        when(mockConfigService.getSsmParameter(BACKEND_SESSION_TIMEOUT)).thenReturn("7200");
+        when(mockConfigService.isEnabled("aCriId")).thenReturn(true);
+
+        ProcessJourneyEventHandler processJourneyEventHandler =
+                new ProcessJourneyEventHandler(
+                        mockAuditService,
+                        new IpvSessionService(
+                                sessions, new InMemoryDataStore<>(AccessTokenItem.class)),
+                        mockConfigService,
+                        new ClientOAuthSessionDetailsService(clientSessions, mockConfigService),
+                        new JourneyTransitionLogService(transitions),
+                        List.of(INITIAL_JOURNEY_SELECTION, TECHNICAL_ERROR),
+                        StateMachineInitializerMode.TEST);
+
+        Map<String, Object> output = processJourneyEventHandler.handleRequest(input, mockContext);
+
+        assertEquals("/journey/cri/build-oauth-request/aCriId", output.get("journey"));
+        assertEquals(1, sessions.getReads());
+        assertEquals(1, clientSessions.getReads());
+        assertEquals(0, transitions.getReads());
+    }
+
     @ParameterizedTest()
     @MethodSource("journeyUrisWithCurrentPageForCri")
     void shouldTransitionCriStateIfCurrentPageMatchesCriId(
@@ -250,6 +307,7 @@ class ProcessJourneyEventHandlerTest {
                         mockIpvSessionService,
                         mockConfigService,
                         mockClientOAuthSessionService,
+                        mockJourneyTransitionLogService,
                         List.of(INITIAL_JOURNEY_SELECTION, TECHNICAL_ERROR),
                         StateMachineInitializerMode.TEST);
 
@@ -291,6 +349,7 @@ class ProcessJourneyEventHandlerTest {
                         mockIpvSessionService,
                         mockConfigService,
                         mockClientOAuthSessionService,
+                        mockJourneyTransitionLogService,
                         List.of(INITIAL_JOURNEY_SELECTION, TECHNICAL_ERROR),
                         StateMachineInitializerMode.TEST);
 
@@ -344,6 +403,86 @@ class ProcessJourneyEventHandlerTest {
         assertEquals("testjourneyid", capturedAuditEvent.getUser().getGovukSigninJourneyId());
     }
 
+    @Test
+    void shouldRecordTimeoutAndFollowingTransitionInJourneyHistory() throws Exception {
+        var input =
+                JourneyRequest.builder()
+                        .ipAddress(TEST_IP)
+                        .journey(JOURNEY_NEXT)
+                        .ipvSessionId(TEST_IP)
+                        .build();
+
+        mockIpvSessionItemAndTimeout("CRI_STATE");
+        IpvSessionItem ipvSessionItem = mockIpvSessionService.getIpvSession(TEST_IP);
+        ipvSessionItem.setCreationDateTime(Instant.now().minusSeconds(100).toString());
+        when(mockConfigService.getSsmParameter(BACKEND_SESSION_TIMEOUT)).thenReturn("99");
+
+        getProcessJourneyStepHandler().handleRequest(input, mockContext);
+
+        verify(mockJourneyTransitionLogService, times(2))
+                .recordTransition(journeyTransitionCaptor.capture());
+        var timeout = journeyTransitionCaptor.getAllValues().get(0);
+        assertEquals(ipvSessionItem.getIpvSessionId(), timeout.getIpvSessionId());
+        assertEquals(INITIAL_JOURNEY_SELECTION.name(), timeout.getJourneyType());
+        assertEquals("CRI_STATE", timeout.getState());
+        assertEquals("timeout", timeout.getEvent());
+        assertEquals(SESSION_TIMEOUT.name(), timeout.getTargetJourneyType());
+        assertEquals("CORE_SESSION_TIMEOUT", timeout.getTargetState());
+
+        var next = journeyTransitionCaptor.getAllValues().get(1);
+        assertEquals("CORE_SESSION_TIMEOUT", next.getState());
+        assertEquals("next", next.getEvent());
+        assertEquals(TIMEOUT_UNRECOVERABLE_STATE, next.getTargetState());
+        assertNull(next.getError());
+        assertNotNull(next.getSortKey());
+    }
+
+    @Test
+    void shouldNotRecordTransitionsIfSessionIsNotSaved() throws Exception {
+        var input =
+                JourneyRequest.builder()
+                        .ipAddress(TEST_IP)
+                        .journey(JOURNEY_NEXT)
+                        .ipvSessionId(TEST_IP)
+                        .build();
+
+        mockIpvSessionItemAndTimeout("CRI_STATE");
+        IpvSessionItem ipvSessionItem = mockIpvSessionService.getIpvSession(TEST_IP);
+        ipvSessionItem.setCreationDateTime(Instant.now().minusSeconds(100).toString());
+        when(mockConfigService.getSsmParameter(BACKEND_SESSION_TIMEOUT)).thenReturn("99");
+        doThrow(new IllegalStateException("Failed to save session"))
+                .when(mockIpvSessionService)
+                .updateIpvSession(ipvSessionItem);
+
+        var handler = getProcessJourneyStepHandler();
+        assertThrows(
+                IllegalStateException.class, () -> handler.handleRequest(input, mockContext));
+
+        verify(mockJourneyTransitionLogService, never()).recordTransition(any());
+    }
+
+    @Test
+    void shouldRecordFailedTransitionInJourneyHistory() throws Exception {
+        var input =
+                JourneyRequest.builder()
+                        .ipAddress(TEST_IP)
+                        .journey("/journey/not-a-journey-event")
+                        .ipvSessionId(TEST_IP)
+                        .build();
+
+        mockIpvSessionItemAndTimeout("CRI_STATE");
+
+        getProcessJourneyStepHandler(StateMachineInitializerMode.TEST)
+                .handleRequest(input, mockContext);
+
+        verify(mockJourneyTransitionLogService)
+                .recordTransition(journeyTransitionCaptor.capture());
+        var transition = journeyTransitionCaptor.getValue();
+        assertEquals("not-a-journey-event", transition.getEvent());
+        assertNull(transition.getTargetState());
+        assertNotNull(transition.getError());
+    }
+
     @Test
     void shouldReturnSessionEndJourneyIfStateIsSessionTimeout() throws Exception {
         var input =
@@ -490,13 +629,56 @@ class ProcessJourneyEventHandlerTest {
                         .mitigationType());
     }
 
+    @Test
+    void shouldReturn500AndNotSaveSessionWhenBufferedAuditEventsFailToSend() throws Exception {
+        var input =
+                JourneyRequest.builder()
+                        .ipAddress(TEST_IP)
+                        .journey("testJourneyStep")
+                        .ipvSessionId(TEST_IP)
+                        .build();
+        mockIpvSessionItemAndTimeout("CRI_STATE");
+        doThrow(new SqsException("Failed to send 1 of 1 audit events: Throttled"))
+                .doNothing()
+                .when(mockAuditService)
+                .flush();
+
+        Map<String, Object> output =
+                getProcessJourneyStepHandler(StateMachineInitializerMode.TEST)
+                        .handleRequest(input, mockContext);
+
+        assertEquals(HttpStatus.SC_INTERNAL_SERVER_ERROR, output.get(STATUS_CODE));
+        assertEquals(ErrorResponse.FAILED_TO_SEND_AUDIT_EVENT.getCode(), output.get(CODE));
+        verify(mockAuditService, times(2)).flush();
+        verify(mockIpvSessionService, never()).updateIpvSession(any());
+    }
+
+    @Test
+    void shouldReturnStepResponseWhenAuditEventsRaisedAfterSavingSessionFailToSend()
+            throws Exception {
+        var input =
+                JourneyRequest.builder()
+                        .ipAddress(TEST_IP)
+                        .journey("testWithMitigationStart")
+                        .ipvSessionId(TEST_IP)
+                        .build();
+        mockIpvSessionItemAndTimeout("CRI_STATE");
+        doNothing()
+                .doThrow(new SqsException("Failed to send 1 of 1 audit events: Throttled"))
+                .when(mockAuditService)
+                .flush();
+
+        Map<String, Object> output =
+                getProcessJourneyStepHandler(StateMachineInitializerMode.TEST)
+                        .handleRequest(input, mockContext);
+
+        assertEquals("page-id-for-some-page", output.get("page"));
+        verify(mockIpvSessionService).updateIpvSession(any());
+        verify(mockAuditService, times(2)).flush();
+    }
+
     private void mockIpvSessionItemAndTimeout(String userState) {
-        IpvSessionItem ipvSessionItem = new IpvSessionItem();
-        ipvSessionItem.setIpvSessionId(SecureTokenHelper.getInstance().generate());
-        ipvSessionItem.setCreationDateTime(Instant.now().toString());
-        ipvSessionItem.setUserState(userState);
-        ipvSessionItem.setClientOAuthSessionId(SecureTokenHelper.getInstance().generate());
-        ipvSessionItem.setJourneyType(INITIAL_JOURNEY_SELECTION);
+        IpvSessionItem ipvSessionItem = getIpvSessionItem(userState);
 
         when(mockConfigService.getSsmParameter(COMPONENT_ID)).thenReturn("core");
         when(mockConfigService.getSsmParameter(BACKEND_SESSION_TIMEOUT)).thenReturn("7200");
@@ -505,6 +687,16 @@ class ProcessJourneyEventHandlerTest {
                 .thenReturn(getClientOAuthSessionItem());
     }
 
+    private IpvSessionItem getIpvSessionItem(String userState) {
+        IpvSessionItem ipvSessionItem = new IpvSessionItem();
+        ipvSessionItem.setIpvSessionId(SecureTokenHelper.getInstance().generate());
+        ipvSessionItem.setCreationDateTime(Instant.now().toString());
+        ipvSessionItem.setUserState(userState);
+        ipvSessionItem.setClientOAuthSessionId(SecureTokenHelper.getInstance().generate());
+        ipvSessionItem.setJourneyType(INITIAL_JOURNEY_SELECTION);
+        return ipvSessionItem;
+    }
+
     private ClientOAuthSessionItem getClientOAuthSessionItem() {
         return ClientOAuthSessionItem.builder()
                 .clientOAuthSessionId(SecureTokenHelper.getInstance().generate())
@@ -528,6 +720,7 @@ class ProcessJourneyEventHandlerTest {
                 mockIpvSessionService,
                 mockConfigService,
                 mockClientOAuthSessionService,
+                mockJourneyTransitionLogService,
                 journeyTypes,
                 stateMachineInitializerMode);
     }
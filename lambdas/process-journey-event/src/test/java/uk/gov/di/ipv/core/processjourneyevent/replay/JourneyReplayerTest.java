@@ -0,0 +1,146 @@
+package uk.gov.di.ipv.core.processjourneyevent.replay;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.library.service.JourneyTransitionLogService;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class JourneyReplayerTest {
+    private static final String IPV_SESSION_ID = "ipv-session-id";
+    private static final Instant START = Instant.parse("2024-05-01T12:00:00Z");
+
+    private static JourneyReplayer journeyReplayer;
+    private JourneyTransitionLogService journeyTransitionLogService;
+    private int recorded;
+
+    @BeforeAll
+    static void setUpReplayer() throws IOException {
+        journeyReplayer = JourneyReplayer.forCurrentJourneyMaps(mock(ConfigService.class));
+    }
+
+    @BeforeEach
+    void setUp() {
+        journeyTransitionLogService =
+                new JourneyTransitionLogService(
+                        new InMemoryDataStore<>(JourneyTransitionItem.class));
+        recorded = 0;
+    }
+
+    @Test
+    void replayShouldNotDivergeWhenJourneyMapsGiveTheRecordedTargets() {
+        record(
+                "INITIAL_JOURNEY_SELECTION",
+                "CRI_STATE",
+                "timeout",
+                "SESSION_TIMEOUT",
+                "CORE_SESSION_TIMEOUT");
+        record(
+                "SESSION_TIMEOUT",
+                "CORE_SESSION_TIMEOUT",
+                "next",
+                "SESSION_TIMEOUT",
+                "TIMEOUT_UNRECOVERABLE_PAGE");
+
+        var report = journeyReplayer.replay(journeyTransitionLogService, IPV_SESSION_ID);
+
+        assertEquals(2, report.transitions().size());
+        assertFalse(report.hasDiverged());
+    }
+
+    @Test
+    void replayShouldReportTransitionsThatNowGoSomewhereElse() {
+        record(
+                "SESSION_TIMEOUT",
+                "CORE_SESSION_TIMEOUT",
+                "next",
+                "SESSION_TIMEOUT",
+                "RETURN_TO_RP");
+        record(
+                "SESSION_TIMEOUT",
+                "TIMEOUT_UNRECOVERABLE_PAGE",
+                "next",
+                "SESSION_TIMEOUT",
+                "RETURN_TO_RP");
+
+        var report = journeyReplayer.replay(journeyTransitionLogService, IPV_SESSION_ID);
+
+        assertEquals(1, report.divergences().size());
+        var divergence = report.divergences().get(0);
+        assertEquals("TIMEOUT_UNRECOVERABLE_PAGE", divergence.state());
+        assertTrue(
+                divergence
+                        .describe()
+                        .endsWith(
+                                "recorded SESSION_TIMEOUT/RETURN_TO_RP, "
+                                        + "replayed SESSION_TIMEOUT/TIMEOUT_UNRECOVERABLE_PAGE"));
+    }
+
+    @Test
+    void replayShouldFollowJourneyChanges() {
+        record(
+                "INITIAL_JOURNEY_SELECTION",
+                "CHECK_EXISTING_IDENTITY",
+                "reuse",
+                "REUSE_EXISTING_IDENTITY",
+                "unknown");
+
+        var replayed =
+                journeyReplayer
+                        .replay(journeyTransitionLogService, IPV_SESSION_ID)
+                        .transitions()
+                        .get(0);
+
+        assertEquals("REUSE_EXISTING_IDENTITY", replayed.journeyType());
+    }
+
+    @Test
+    void replayShouldCompareFailedTransitionsByOutcome() {
+        var stillFails = transition("SESSION_TIMEOUT", "CORE_SESSION_TIMEOUT", "not-an-event");
+        stillFails.setError("Unknown event");
+        journeyTransitionLogService.recordTransition(stillFails);
+        var nowSucceeds = transition("SESSION_TIMEOUT", "CORE_SESSION_TIMEOUT", "next");
+        nowSucceeds.setError("Unknown event");
+        journeyTransitionLogService.recordTransition(nowSucceeds);
+
+        var report = journeyReplayer.replay(journeyTransitionLogService, IPV_SESSION_ID);
+
+        assertEquals(
+                List.of(false, true),
+                report.transitions().stream()
+                        .map(ReplayReport.ReplayedTransition::diverged)
+                        .toList());
+    }
+
+    private void record(
+            String journeyType,
+            String state,
+            String event,
+            String targetJourneyType,
+            String targetState) {
+        var transition = transition(journeyType, state, event);
+        transition.setTargetJourneyType(targetJourneyType);
+        transition.setTargetState(targetState);
+        journeyTransitionLogService.recordTransition(transition);
+    }
+
+    private JourneyTransitionItem transition(String journeyType, String state, String event) {
+        var transition =
+                new JourneyTransitionItem(IPV_SESSION_ID, START.plusSeconds(recorded++));
+        transition.setJourneyType(journeyType);
+        transition.setState(state);
+        transition.setEvent(event);
+        return transition;
+    }
+}
@@ -0,0 +1,111 @@
+package uk.gov.di.ipv.core.processjourneyevent.statemachine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import uk.gov.di.ipv.core.library.domain.IpvJourneyTypes;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.JourneyMapDeserializationException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownEventException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownStateException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.BasicState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.JourneyContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class JourneyMapCodecTest {
+
+    @ParameterizedTest
+    @EnumSource
+    void shouldRoundTripProductionJourneyMaps(IpvJourneyTypes journeyType) throws Exception {
+        var journeyMap = new StateMachineInitializer(journeyType).parseYaml();
+
+        var decoded = roundTrip(journeyMap);
+
+        assertEquals(journeyMap, decoded);
+        assertEquals(
+                new ArrayList<>(journeyMap.states().keySet()),
+                new ArrayList<>(decoded.states().keySet()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(names = {"INITIAL_JOURNEY_SELECTION", "TECHNICAL_ERROR"})
+    void shouldRoundTripTestJourneyMaps(IpvJourneyTypes journeyType) throws Exception {
+        var journeyMap =
+                new StateMachineInitializer(journeyType, StateMachineInitializerMode.TEST)
+                        .parseYaml();
+
+        assertEquals(journeyMap, roundTrip(journeyMap));
+    }
+
+    @Test
+    void copyShouldReturnAnEqualDefinition() throws Exception {
+        var definitions =
+                new StateMachineInitializer(IpvJourneyTypes.NEW_P2_IDENTITY)
+                        .parseYaml()
+                        .nestedJourneyDefinitions();
+
+        for (var definition : definitions.values()) {
+            var copy = JourneyMapCodec.copy(definition);
+            assertEquals(definition, copy);
+            assertNotSame(definition.getNestedJourneyStates(), copy.getNestedJourneyStates());
+        }
+    }
+
+    @Test
+    void readShouldThrowIfDataIsNotACompiledJourneyMap() {
+        var in = new DataInputStream(new ByteArrayInputStream("states: {}".getBytes()));
+
+        assertThrows(JourneyMapDeserializationException.class, () -> JourneyMapCodec.read(in));
+    }
+
+    @Test
+    void decodedJourneyMapsShouldGiveTheSameTransitionsAsYaml() throws Exception {
+        var journeyType = IpvJourneyTypes.NEW_P2_IDENTITY;
+        var fromYaml = new StateMachineInitializer(journeyType).initializeFromYaml();
+        var initializer = new StateMachineInitializer(journeyType);
+        var decoded = initializer.initialize(roundTrip(initializer.parseYaml()));
+        var yamlTable = TransitionTable.compile(fromYaml);
+        var decodedTable = TransitionTable.compile(decoded);
+        var journeyContext = new JourneyContext(mock(ConfigService.class));
+
+        assertEquals(new ArrayList<>(fromYaml.keySet()), new ArrayList<>(decoded.keySet()));
+        for (var entry : fromYaml.entrySet()) {
+            if (entry.getValue() instanceof BasicState basicState) {
+                for (var event : basicState.getEvents().keySet()) {
+                    assertEquals(
+                            describe(yamlTable, entry.getKey(), event, journeyContext),
+                            describe(decodedTable, entry.getKey(), event, journeyContext),
+                            entry.getKey() + " on " + event);
+                }
+            }
+        }
+    }
+
+    private static String describe(
+            TransitionTable table, String state, String event, JourneyContext journeyContext) {
+        try {
+            return table.transition(state, event, journeyContext, null).toString();
+        } catch (UnknownEventException | UnknownStateException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static JourneyMapCodec.JourneyMap roundTrip(JourneyMapCodec.JourneyMap journeyMap)
+            throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        JourneyMapCodec.write(new DataOutputStream(bytes), journeyMap);
+        return JourneyMapCodec.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,185 @@
+package uk.gov.di.ipv.core.processjourneyevent.statemachine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import uk.gov.di.ipv.core.library.domain.IpvJourneyTypes;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownEventException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.exceptions.UnknownStateException;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.BasicState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.NestedJourneyInvokeState;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.states.State;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.JourneyContext;
+import uk.gov.di.ipv.core.processjourneyevent.statemachine.stepresponses.PageStepResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransitionTableTest {
+    private static final String UNKNOWN_EVENT = "not-a-journey-event";
+    private static final String UNKNOWN_PAGE = "not-a-page";
+
+    private enum ConfigScenario {
+        CRIS_ENABLED_FLAGS_OFF(key -> true, key -> false),
+        CRIS_DISABLED_FLAGS_ON(key -> false, key -> true),
+        ALL_ON(key -> true, key -> true),
+        MIXED(key -> key.hashCode() % 2 == 0, key -> key.hashCode() % 3 == 0);
+
+        private final Predicate<String> criEnabled;
+        private final Predicate<String> featureFlagEnabled;
+
+        ConfigScenario(Predicate<String> criEnabled, Predicate<String> featureFlagEnabled) {
+            this.criEnabled = criEnabled;
+            this.featureFlagEnabled = featureFlagEnabled;
+        }
+
+        private JourneyContext journeyContext() {
+            var configService = mock(ConfigService.class);
+            when(configService.isEnabled(anyString()))
+                    .thenAnswer(invocation -> criEnabled.test(invocation.getArgument(0)));
+            when(configService.enabled(anyString()))
+                    .thenAnswer(invocation -> featureFlagEnabled.test(invocation.getArgument(0)));
+            return new JourneyContext(configService);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource
+    void shouldMatchStateMachineForEveryStateAndEvent(IpvJourneyTypes journeyType)
+            throws Exception {
+        assertEquivalent(
+                new StateMachineInitializer(journeyType, StateMachineInitializerMode.STANDARD)
+                        .initialize());
+    }
+
+    @ParameterizedTest
+    @EnumSource(names = {"INITIAL_JOURNEY_SELECTION", "TECHNICAL_ERROR"})
+    void shouldMatchStateMachineForTestJourneyMaps(IpvJourneyTypes journeyType) throws Exception {
+        assertEquivalent(
+                new StateMachineInitializer(journeyType, StateMachineInitializerMode.TEST)
+                        .initialize());
+    }
+
+    @Test
+    void transitionShouldThrowIfGivenAnUnknownState() throws Exception {
+        var transitionTable =
+                TransitionTable.compile(
+                        new StateMachineInitializer(
+                                        IpvJourneyTypes.INITIAL_JOURNEY_SELECTION,
+                                        StateMachineInitializerMode.TEST)
+                                .initialize());
+
+        assertThrows(
+                UnknownStateException.class,
+                () ->
+                        transitionTable.transition(
+                                "UNKNOWN_STATE",
+                                "next",
+                                ConfigScenario.ALL_ON.journeyContext(),
+                                null));
+    }
+
+    private static void assertEquivalent(Map<String, State> journeyStates) throws IOException {
+        var initializer = mock(StateMachineInitializer.class);
+        when(initializer.initialize()).thenReturn(journeyStates);
+        var stateMachine = new StateMachine(initializer);
+        var transitionTable = TransitionTable.compile(journeyStates);
+
+        var stateNames = new ArrayList<String>();
+        var events = new LinkedHashSet<String>(List.of("attempt-recovery", UNKNOWN_EVENT));
+        collectStatesAndEvents(journeyStates, null, stateNames, events);
+
+        var transitions = 0;
+        for (var scenario : ConfigScenario.values()) {
+            var journeyContext = scenario.journeyContext();
+            for (var stateName : stateNames) {
+                for (var currentPage : pagesToTry(journeyStates, stateName)) {
+                    for (var event : events) {
+                        var expected =
+                                outcome(
+                                        () ->
+                                                stateMachine.transition(
+                                                        stateName,
+                                                        event,
+                                                        journeyContext,
+                                                        currentPage));
+                        var actual =
+                                outcome(
+                                        () ->
+                                                transitionTable.transition(
+                                                        stateName,
+                                                        event,
+                                                        journeyContext,
+                                                        currentPage));
+                        var description =
+                                String.format(
+                                        "%s on '%s' from page %s with %s",
+                                        stateName, event, currentPage, scenario);
+                        assertEquals(expected.failure(), actual.failure(), description);
+                        assertSame(expected.state(), actual.state(), description);
+                        transitions++;
+                    }
+                }
+            }
+        }
+        assertTrue(transitions > 0);
+    }
+
+    private static void collectStatesAndEvents(
+            Map<String, State> states, String prefix, List<String> stateNames, Set<String> events) {
+        states.forEach(
+                (name, state) -> {
+                    var fullName = prefix == null ? name : prefix + StateMachine.DELIMITER + name;
+                    stateNames.add(fullName);
+                    if (state instanceof BasicState basicState) {
+                        events.addAll(basicState.getEvents().keySet());
+                    } else if (state instanceof NestedJourneyInvokeState nestedState) {
+                        var definition = nestedState.getNestedJourneyDefinition();
+                        events.addAll(definition.getEntryEvents().keySet());
+                        events.addAll(nestedState.getExitEvents().keySet());
+                        collectStatesAndEvents(
+                                definition.getNestedJourneyStates(), fullName, stateNames, events);
+                    }
+                });
+    }
+
+    // Top level page states are also replayed from their own page, which skips the page check
+    private static List<String> pagesToTry(Map<String, State> journeyStates, String stateName) {
+        var pages = new ArrayList<>(Arrays.asList(null, UNKNOWN_PAGE));
+        if (journeyStates.get(stateName) instanceof BasicState basicState
+                && basicState.getResponse() instanceof PageStepResponse pageStepResponse) {
+            pages.add(pageStepResponse.getPageId());
+        }
+        return pages;
+    }
+
+    private static Outcome outcome(Transition transition) {
+        try {
+            return new Outcome(transition.run(), null);
+        } catch (UnknownEventException | UnknownStateException e) {
+            return new Outcome(null, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Transition {
+        State run() throws UnknownEventException, UnknownStateException;
+    }
+
+    private record Outcome(State state, String failure) {}
+}
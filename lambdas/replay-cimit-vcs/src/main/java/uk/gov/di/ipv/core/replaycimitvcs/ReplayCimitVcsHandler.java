@@ -8,27 +8,41 @@ import org.apache.logging.log4j.Logger;
 import software.amazon.lambda.powertools.logging.Logging;
 import software.amazon.lambda.powertools.tracing.Tracing;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
-import uk.gov.di.ipv.core.library.cimit.exception.CiPostMitigationsException;
-import uk.gov.di.ipv.core.library.cimit.exception.CiPutException;
 import uk.gov.di.ipv.core.library.domain.ReplayItem;
 import uk.gov.di.ipv.core.library.domain.ReplayRequest;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
 import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.exceptions.FailedVcReplayException;
+import uk.gov.di.ipv.core.library.helpers.ExecutorHelper;
 import uk.gov.di.ipv.core.library.helpers.ListHelper;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.service.CiMitService;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 import uk.gov.di.ipv.core.library.verifiablecredential.service.VerifiableCredentialService;
+import uk.gov.di.ipv.core.replaycimitvcs.domain.ReplayCimitVcsResult;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.MAX_IN_FLIGHT_CIMIT_INVOCATIONS;
 
 public class ReplayCimitVcsHandler implements RequestStreamHandler {
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // The most keys a DynamoDB BatchGetItem call can read
+    private static final int BATCH_SIZE = 100;
+    private static final int DEFAULT_MAX_IN_FLIGHT_CIMIT_INVOCATIONS = 10;
     private final ConfigService configService;
     private final CiMitService ciMitService;
     private final VerifiableCredentialService verifiableCredentialService;
@@ -56,48 +70,152 @@ public class ReplayCimitVcsHandler implements RequestStreamHandler {
     @Logging(clearState = true)
     public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) {
         LogHelper.attachComponentId(configService);
-        ObjectMapper mapper = new ObjectMapper();
         String failureMessage = "Failed to replay VCs to CIMIT because: '%s'";
         List<ReplayItem> requestItems;
         try {
-            requestItems = mapper.readValue(inputStream, ReplayRequest.class).getItems();
+            requestItems = OBJECT_MAPPER.readValue(inputStream, ReplayRequest.class).getItems();
             LOGGER.info("Retrieving {} VCs", requestItems.size());
-            List<List<ReplayItem>> batchedRequest = ListHelper.getBatches(requestItems, 100);
-            for (int i = 0; i < batchedRequest.size(); i++) {
-                LOGGER.info("Processing batch {} of {}", i, batchedRequest.size());
-                List<ReplayItem> batch = batchedRequest.get(i);
-                handleBatch(batch);
-            }
-            LOGGER.info("Completed sending {} VCs", requestItems.size());
+            var result = replay(requestItems);
+            LOGGER.info(
+                    "Completed replaying {} VCs: {} submitted, {} missing, {} failed",
+                    requestItems.size(),
+                    result.getSubmitted(),
+                    result.getMissing().size(),
+                    result.getFailures().size());
+            OBJECT_MAPPER.writeValue(outputStream, result);
         } catch (IOException e) {
             LOGGER.error("Failed to map request to valid replay event", e);
             throw new FailedVcReplayException(String.format(failureMessage, e));
         } catch (CredentialParseException e) {
             LOGGER.error("Failed to parse VC in replay event", e);
             throw new FailedVcReplayException(String.format(failureMessage, e));
-        } catch (CiPutException e) {
-            LOGGER.error("Failed to submit VCs to CIMIT", e);
-            throw new FailedVcReplayException(String.format(failureMessage, e));
-        } catch (CiPostMitigationsException e) {
-            LOGGER.error("Failed to submit mitigating VC list to CIMIT", e);
-            throw new FailedVcReplayException(String.format(failureMessage, e));
         }
     }
 
-    private void handleBatch(List<ReplayItem> replayItems)
-            throws CiPutException, CiPostMitigationsException, CredentialParseException {
-        List<VerifiableCredential> submittedVcs = new ArrayList<>();
-        for (ReplayItem item : replayItems) {
-            var vc =
-                    this.verifiableCredentialService.getVc(
-                            item.getUserId().get("S"), item.getCredentialIssuer().get("S"));
-            if (vc != null) {
-                ciMitService.submitVC(vc, null, null);
-                submittedVcs.add(vc);
-            } else {
+    // Each batch's VCs are read while earlier batches are being submitted. CIMIT invocations all
+    // run on one pool, so no more than the configured number are in flight at once. Only different
+    // users' VCs are submitted in parallel: each user's VCs, and the mitigations posted for them,
+    // are sent one after another in the order they were requested.
+    private ReplayCimitVcsResult replay(List<ReplayItem> requestItems)
+            throws CredentialParseException {
+        var result = new ReplayCimitVcsResult();
+        var executor = createExecutor();
+        try {
+            var batchedRequest = ListHelper.getBatches(requestItems, BATCH_SIZE);
+            var batchSubmissions = new ArrayList<CompletableFuture<Void>>();
+            var lastSubmissionByUser = new HashMap<String, CompletableFuture<?>>();
+            for (int i = 0; i < batchedRequest.size(); i++) {
+                LOGGER.info("Processing batch {} of {}", i + 1, batchedRequest.size());
+                batchSubmissions.add(
+                        submitBatch(
+                                batchedRequest.get(i), result, executor, lastSubmissionByUser));
+            }
+            CompletableFuture.allOf(batchSubmissions.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
+    private CompletableFuture<Void> submitBatch(
+            List<ReplayItem> replayItems,
+            ReplayCimitVcsResult result,
+            ExecutorService executor,
+            Map<String, CompletableFuture<?>> lastSubmissionByUser)
+            throws CredentialParseException {
+        var userIdCriIdPairs =
+                replayItems.stream()
+                        .map(
+                                item ->
+                                        new UserIdCriIdPair(
+                                                item.getUserId().get("S"),
+                                                item.getCredentialIssuer().get("S")))
+                        .toList();
+        var foundVcs =
+                verifiableCredentialService.getVcs(userIdCriIdPairs).stream()
+                        .collect(
+                                Collectors.toMap(
+                                        this::toUserIdCriIdPair,
+                                        Function.identity(),
+                                        (vc, duplicate) -> vc));
+
+        // VCs are read in no particular order, so they are put back in the requested order
+        var vcs = new ArrayList<VerifiableCredential>();
+        for (var userIdCriIdPair : userIdCriIdPairs) {
+            var vc = foundVcs.get(userIdCriIdPair);
+            if (vc == null) {
                 LOGGER.warn("VC not found");
+                result.addMissing(userIdCriIdPair);
+            } else {
+                vcs.add(vc);
             }
         }
-        ciMitService.submitMitigatingVcList(submittedVcs, null, null);
+
+        var submissions = new ArrayList<CompletableFuture<Boolean>>();
+        for (var vc : vcs) {
+            var submission =
+                    lastSubmissionByUser
+                            .getOrDefault(vc.getUserId(), CompletableFuture.completedFuture(null))
+                            .thenApplyAsync(previous -> submitVc(vc, result), executor);
+            lastSubmissionByUser.put(vc.getUserId(), submission);
+            submissions.add(submission);
+        }
+        // Mitigations are posted once CIMIT has the batch's VCs
+        var batchSubmission =
+                CompletableFuture.allOf(submissions.toArray(CompletableFuture[]::new))
+                        .thenRunAsync(
+                                () -> {
+                                    var submittedVcs = new ArrayList<VerifiableCredential>();
+                                    for (int i = 0; i < vcs.size(); i++) {
+                                        if (Boolean.TRUE.equals(submissions.get(i).join())) {
+                                            submittedVcs.add(vcs.get(i));
+                                        }
+                                    }
+                                    submitMitigatingVcs(submittedVcs, result);
+                                },
+                                executor);
+        // A user's VCs in later batches wait for the mitigations posted for this one
+        vcs.forEach(vc -> lastSubmissionByUser.put(vc.getUserId(), batchSubmission));
+        return batchSubmission;
+    }
+
+    private boolean submitVc(VerifiableCredential vc, ReplayCimitVcsResult result) {
+        try {
+            ciMitService.submitVC(vc, null, null);
+            return true;
+        } catch (Exception e) {
+            LOGGER.error(LogHelper.buildErrorMessage("Failed to submit VC to CIMIT", e));
+            result.addFailure(toUserIdCriIdPair(vc), e);
+            return false;
+        }
+    }
+
+    private void submitMitigatingVcs(
+            List<VerifiableCredential> submittedVcs, ReplayCimitVcsResult result) {
+        if (submittedVcs.isEmpty()) {
+            return;
+        }
+        try {
+            ciMitService.submitMitigatingVcList(submittedVcs, null, null);
+            result.addSubmitted(submittedVcs.size());
+        } catch (Exception e) {
+            LOGGER.error(
+                    LogHelper.buildErrorMessage("Failed to submit mitigating VC list to CIMIT", e));
+            submittedVcs.forEach(vc -> result.addFailure(toUserIdCriIdPair(vc), e));
+        }
+    }
+
+    private UserIdCriIdPair toUserIdCriIdPair(VerifiableCredential vc) {
+        return new UserIdCriIdPair(vc.getUserId(), vc.getCriId());
+    }
+
+    private ExecutorService createExecutor() {
+        var maxInFlightInvocations =
+                Optional.ofNullable(
+                                configService.getEnvironmentVariable(
+                                        MAX_IN_FLIGHT_CIMIT_INVOCATIONS))
+                        .map(Integer::valueOf)
+                        .orElse(DEFAULT_MAX_IN_FLIGHT_CIMIT_INVOCATIONS);
+        return ExecutorHelper.newFixedDaemonThreadPool("replay-cimit-vcs", maxInFlightInvocations);
     }
 }
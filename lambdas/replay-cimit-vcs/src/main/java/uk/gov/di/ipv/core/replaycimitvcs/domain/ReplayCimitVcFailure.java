@@ -1,4 +1,4 @@
-package uk.gov.di.ipv.core.revokevcs.domain;
+package uk.gov.di.ipv.core.replaycimitvcs.domain;
 
 import lombok.Data;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
@@ -6,11 +6,11 @@ import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
 
 @ExcludeFromGeneratedCoverageReport
 @Data
-public class RevokeVcFailure {
+public class ReplayCimitVcFailure {
     private final UserIdCriIdPair userIdCriIdPair;
     private final String errorMessage;
 
-    RevokeVcFailure(UserIdCriIdPair userIdCriIdPair, String errorMessage) {
+    ReplayCimitVcFailure(UserIdCriIdPair userIdCriIdPair, String errorMessage) {
         this.userIdCriIdPair = userIdCriIdPair;
         this.errorMessage = errorMessage;
     }
@@ -0,0 +1,35 @@
+package uk.gov.di.ipv.core.replaycimitvcs.domain;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// VCs are replayed concurrently, so outcomes can be added from any thread
+@ExcludeFromGeneratedCoverageReport
+@Getter
+public class ReplayCimitVcsResult {
+    @JsonProperty("submitted")
+    private int submitted;
+
+    @JsonProperty("missing")
+    private final List<UserIdCriIdPair> missing = new ArrayList<>();
+
+    @JsonProperty("failures")
+    private final List<ReplayCimitVcFailure> failures = new ArrayList<>();
+
+    public synchronized void addSubmitted(int numberOfVcs) {
+        submitted += numberOfVcs;
+    }
+
+    public synchronized void addMissing(UserIdCriIdPair userIdCriIdPair) {
+        missing.add(userIdCriIdPair);
+    }
+
+    public synchronized void addFailure(UserIdCriIdPair userIdCriIdPair, Throwable cause) {
+        failures.add(new ReplayCimitVcFailure(userIdCriIdPair, cause.getMessage()));
+    }
+}
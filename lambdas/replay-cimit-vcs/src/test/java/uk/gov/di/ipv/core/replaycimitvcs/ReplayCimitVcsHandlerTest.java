@@ -1,41 +1,67 @@
 package uk.gov.di.ipv.core.replaycimitvcs;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.model.InvokeRequest;
+import software.amazon.awssdk.services.lambda.model.InvokeResponse;
+import software.amazon.awssdk.services.lambda.model.TooManyRequestsException;
 import uk.gov.di.ipv.core.library.cimit.exception.CiPostMitigationsException;
 import uk.gov.di.ipv.core.library.cimit.exception.CiPutException;
+import uk.gov.di.ipv.core.library.domain.ReplayItem;
+import uk.gov.di.ipv.core.library.domain.ReplayRequest;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
-import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
-import uk.gov.di.ipv.core.library.exceptions.FailedVcReplayException;
+import uk.gov.di.ipv.core.library.helpers.TestVc;
 import uk.gov.di.ipv.core.library.service.CiMitService;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 import uk.gov.di.ipv.core.library.verifiablecredential.service.VerifiableCredentialService;
+import uk.gov.di.ipv.core.library.verifiablecredential.validator.VerifiableCredentialValidator;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.CI_STORAGE_POST_MITIGATIONS_LAMBDA_ARN;
+import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.CI_STORAGE_PUT_LAMBDA_ARN;
+import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.MAX_IN_FLIGHT_CIMIT_INVOCATIONS;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.M1A_ADDRESS_VC;
+import static uk.gov.di.ipv.core.library.helpers.VerifiableCredentialGenerator.generateVerifiableCredential;
 
 @ExtendWith(MockitoExtension.class)
 class ReplayCimitVcsHandlerTest {
-    private static final String TEST_USER_ID = "test-user-id";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String TEST_USER_ID = "urn:uuid:e6e2e324-5b66-4ad6-8338-83f9f837e345";
     private static final String TEST_CRI_ID = "address";
+    private static final UserIdCriIdPair TEST_PAIR = new UserIdCriIdPair(TEST_USER_ID, TEST_CRI_ID);
 
     @Mock private CiMitService ciMitService;
     @Mock private ConfigService configService;
@@ -46,10 +72,11 @@ class ReplayCimitVcsHandlerTest {
     void shouldSubmitVcsToCimit() throws Exception {
         InputStream inputStream =
                 ReplayCimitVcsHandlerTest.class.getResourceAsStream("/testReplayRequest.json");
-        when(mockVerifiableCredentialService.getVc(TEST_USER_ID, TEST_CRI_ID))
-                .thenReturn(M1A_ADDRESS_VC);
+        when(mockVerifiableCredentialService.getVcs(List.of(TEST_PAIR)))
+                .thenReturn(List.of(M1A_ADDRESS_VC));
+        var outputStream = new ByteArrayOutputStream();
 
-        this.replayCimitVcsHandler.handleRequest(inputStream, null, null);
+        this.replayCimitVcsHandler.handleRequest(inputStream, outputStream, null);
 
         var postedVcCaptor = ArgumentCaptor.forClass(VerifiableCredential.class);
         ArgumentCaptor<String> govukSigninJourneyIdCaptor = ArgumentCaptor.forClass(String.class);
@@ -67,50 +94,259 @@ class ReplayCimitVcsHandlerTest {
         List<String> ciIpAddresses = ipAddressCaptor.getAllValues();
         assertEquals(1, ciIpAddresses.size());
         assertNull(ciIpAddresses.get(0));
+        verify(ciMitService).submitMitigatingVcList(List.of(M1A_ADDRESS_VC), null, null);
+
+        var result = readResult(outputStream);
+        assertEquals(1, result.get("submitted"));
+        assertEquals(List.of(), result.get("missing"));
+        assertEquals(List.of(), result.get("failures"));
     }
 
     @Test
-    void shouldNotAttemptSubmitOnNullVc() throws CiPutException, CredentialParseException {
+    void shouldNotAttemptSubmitOnMissingVc() throws Exception {
         InputStream inputStream =
                 ReplayCimitVcsHandlerTest.class.getResourceAsStream("/testReplayRequest.json");
-        when(mockVerifiableCredentialService.getVc(TEST_USER_ID, TEST_CRI_ID)).thenReturn(null);
+        when(mockVerifiableCredentialService.getVcs(List.of(TEST_PAIR))).thenReturn(List.of());
+        var outputStream = new ByteArrayOutputStream();
 
-        this.replayCimitVcsHandler.handleRequest(inputStream, null, null);
+        this.replayCimitVcsHandler.handleRequest(inputStream, outputStream, null);
 
         verify(ciMitService, never()).submitVC(any(), any(), any());
+        verify(ciMitService, never()).submitMitigatingVcList(any(), any(), any());
+
+        var result = readResult(outputStream);
+        assertEquals(0, result.get("submitted"));
+        assertEquals(
+                List.of(Map.of("userId", TEST_USER_ID, "criId", TEST_CRI_ID)),
+                result.get("missing"));
     }
 
     @Test
-    void shouldHandleICiPutExceptionOnSubmitVcList()
-            throws IOException, CiPutException, CredentialParseException {
+    void shouldReportCiPutExceptionOnSubmitVc() throws Exception {
         try (InputStream inputStream =
                 ReplayCimitVcsHandlerTest.class.getResourceAsStream("/testReplayRequest.json")) {
-            when(mockVerifiableCredentialService.getVc(TEST_USER_ID, TEST_CRI_ID))
-                    .thenReturn(M1A_ADDRESS_VC);
+            when(mockVerifiableCredentialService.getVcs(List.of(TEST_PAIR)))
+                    .thenReturn(List.of(M1A_ADDRESS_VC));
             doThrow(new CiPutException("Lambda execution failed"))
                     .when(ciMitService)
                     .submitVC(any(), eq(null), eq(null));
+            var outputStream = new ByteArrayOutputStream();
 
-            assertThrows(
-                    FailedVcReplayException.class,
-                    () -> this.replayCimitVcsHandler.handleRequest(inputStream, null, null));
+            this.replayCimitVcsHandler.handleRequest(inputStream, outputStream, null);
+
+            verify(ciMitService, never()).submitMitigatingVcList(any(), any(), any());
+            assertFailedWith("Lambda execution failed", readResult(outputStream));
         }
     }
 
     @Test
-    void shouldHandleICiPostMitigationsExceptionOnSubmitVcList()
-            throws IOException, CiPostMitigationsException, CredentialParseException {
+    void shouldReportCiPostMitigationsExceptionOnSubmitVcList() throws Exception {
         try (InputStream inputStream =
                 ReplayCimitVcsHandlerTest.class.getResourceAsStream("/testReplayRequest.json")) {
-            when(mockVerifiableCredentialService.getVc(TEST_USER_ID, TEST_CRI_ID))
-                    .thenReturn(M1A_ADDRESS_VC);
+            when(mockVerifiableCredentialService.getVcs(List.of(TEST_PAIR)))
+                    .thenReturn(List.of(M1A_ADDRESS_VC));
             doThrow(new CiPostMitigationsException("Lambda execution failed"))
                     .when(ciMitService)
                     .submitMitigatingVcList(anyList(), eq(null), eq(null));
+            var outputStream = new ByteArrayOutputStream();
+
+            this.replayCimitVcsHandler.handleRequest(inputStream, outputStream, null);
+
+            assertFailedWith("Lambda execution failed", readResult(outputStream));
+        }
+    }
+
+    @Test
+    void shouldKeepCimitInvocationsWithinTheConfiguredLimit() throws Exception {
+        var maxInFlight = 5;
+        var cimitLambda = new ThrottlingCimitLambda(maxInFlight);
+        when(configService.getEnvironmentVariable(MAX_IN_FLIGHT_CIMIT_INVOCATIONS))
+                .thenReturn(String.valueOf(maxInFlight));
+        when(configService.getEnvironmentVariable(CI_STORAGE_PUT_LAMBDA_ARN))
+                .thenReturn("put-contra-indicators");
+        when(configService.getEnvironmentVariable(CI_STORAGE_POST_MITIGATIONS_LAMBDA_ARN))
+                .thenReturn("post-mitigations");
+        // Every tenth VC has been deleted since the replay request was made
+        when(mockVerifiableCredentialService.getVcs(anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            List<UserIdCriIdPair> pairs = invocation.getArgument(0);
+                            return pairs.stream()
+                                    .filter(pair -> !pair.getUserId().endsWith("0"))
+                                    .map(
+                                            pair ->
+                                                    generateVerifiableCredential(
+                                                            pair.getUserId(),
+                                                            pair.getCriId(),
+                                                            TestVc.builder().build()))
+                                    .toList();
+                        });
+        var handler =
+                new ReplayCimitVcsHandler(
+                        configService,
+                        new CiMitService(
+                                cimitLambda,
+                                configService,
+                                mock(VerifiableCredentialValidator.class)),
+                        mockVerifiableCredentialService);
+        var outputStream = new ByteArrayOutputStream();
+
+        handler.handleRequest(replayRequest(250), outputStream, null);
+
+        assertEquals(0, cimitLambda.throttles.get());
+        assertEquals(maxInFlight, cimitLambda.maxInFlight.get());
+        // One put per VC and one post per batch
+        assertEquals(225 + 3, cimitLambda.invocations.get());
+        var result = readResult(outputStream);
+        assertEquals(225, result.get("submitted"));
+        assertEquals(25, ((List<?>) result.get("missing")).size());
+        assertEquals(List.of(), result.get("failures"));
+    }
+
+    @Test
+    void shouldSubmitEachUsersVcsInOrderAndDifferentUsersVcsInParallel() throws Exception {
+        var userIds = List.of("user-1", "user-2", "user-3");
+        var criIds = List.of("address", "fraud", "ukPassport");
+        var items = new ArrayList<ReplayItem>();
+        for (var criId : criIds) {
+            for (var userId : userIds) {
+                items.add(
+                        ReplayItem.builder()
+                                .userId(Map.of("S", userId))
+                                .credentialIssuer(Map.of("S", criId))
+                                .build());
+            }
+        }
+        // VCs are read back in a different order to the one they were requested in
+        when(mockVerifiableCredentialService.getVcs(anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            List<UserIdCriIdPair> requestedPairs = invocation.getArgument(0);
+                            var pairs = new ArrayList<>(requestedPairs);
+                            Collections.reverse(pairs);
+                            return pairs.stream()
+                                    .map(
+                                            pair ->
+                                                    generateVerifiableCredential(
+                                                            pair.getUserId(),
+                                                            pair.getCriId(),
+                                                            TestVc.builder().build()))
+                                    .toList();
+                        });
+        var allUsersStarted = new CountDownLatch(userIds.size());
+        var usersInFlight = ConcurrentHashMap.<String>newKeySet();
+        var overlappingSubmissions = new AtomicInteger();
+        var submittedCriIdsByUser = new ConcurrentHashMap<String, List<String>>();
+        doAnswer(
+                        invocation -> {
+                            VerifiableCredential vc = invocation.getArgument(0);
+                            if (!usersInFlight.add(vc.getUserId())) {
+                                overlappingSubmissions.incrementAndGet();
+                            }
+                            allUsersStarted.countDown();
+                            // Only returns once every user has a VC being submitted
+                            assertTrue(allUsersStarted.await(5, TimeUnit.SECONDS));
+                            submittedCriIdsByUser
+                                    .computeIfAbsent(vc.getUserId(), userId -> new ArrayList<>())
+                                    .add(vc.getCriId());
+                            usersInFlight.remove(vc.getUserId());
+                            return null;
+                        })
+                .when(ciMitService)
+                .submitVC(any(), any(), any());
+        var outputStream = new ByteArrayOutputStream();
+
+        replayCimitVcsHandler.handleRequest(
+                new ByteArrayInputStream(
+                        OBJECT_MAPPER.writeValueAsBytes(
+                                ReplayRequest.builder().items(items).count(items.size()).build())),
+                outputStream,
+                null);
+
+        assertEquals(0, overlappingSubmissions.get());
+        userIds.forEach(userId -> assertEquals(criIds, submittedCriIdsByUser.get(userId)));
+        assertEquals(9, readResult(outputStream).get("submitted"));
+    }
+
+    private static InputStream replayRequest(int numberOfItems) throws IOException {
+        var items = new ArrayList<ReplayItem>();
+        for (int i = 0; i < numberOfItems; i++) {
+            items.add(
+                    ReplayItem.builder()
+                            .userId(Map.of("S", "user-" + i))
+                            .credentialIssuer(Map.of("S", TEST_CRI_ID))
+                            .build());
+        }
+        var request = ReplayRequest.builder().items(items).count(numberOfItems).build();
+        return new ByteArrayInputStream(OBJECT_MAPPER.writeValueAsBytes(request));
+    }
+
+    private static Map<String, Object> readResult(ByteArrayOutputStream outputStream)
+            throws IOException {
+        return OBJECT_MAPPER.readValue(outputStream.toByteArray(), Map.class);
+    }
+
+    private static void assertFailedWith(String errorMessage, Map<String, Object> result) {
+        assertEquals(0, result.get("submitted"));
+        assertEquals(
+                List.of(
+                        Map.of(
+                                "userIdCriIdPair",
+                                Map.of("userId", TEST_USER_ID, "criId", TEST_CRI_ID),
+                                "errorMessage",
+                                errorMessage)),
+                result.get("failures"));
+    }
+
+    // Stands in for CIMIT, rejecting invocations over its concurrency limit the way Lambda does
+    private static class ThrottlingCimitLambda implements LambdaClient {
+        private final int concurrencyLimit;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger throttles = new AtomicInteger();
+        private final AtomicInteger invocations = new AtomicInteger();
+        // Holds the first invocations until the limit is reached, so the test sees them overlap
+        private final CountDownLatch filled;
+
+        private ThrottlingCimitLambda(int concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            this.filled = new CountDownLatch(concurrencyLimit);
+        }
+
+        @Override
+        public InvokeResponse invoke(InvokeRequest invokeRequest) {
+            var current = inFlight.incrementAndGet();
+            try {
+                maxInFlight.accumulateAndGet(current, Math::max);
+                if (current > concurrencyLimit) {
+                    throttles.incrementAndGet();
+                    throw TooManyRequestsException.builder().message("Rate exceeded").build();
+                }
+                invocations.incrementAndGet();
+                filled.countDown();
+                if (!filled.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Invocations never reached the limit");
+                }
+                return InvokeResponse.builder()
+                        .statusCode(200)
+                        .payload(SdkBytes.fromUtf8String("{}"))
+                        .build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
 
-            assertThrows(
-                    FailedVcReplayException.class,
-                    () -> this.replayCimitVcsHandler.handleRequest(inputStream, null, null));
+        @Override
+        public void close() {
+            // Nothing to release
         }
     }
 }
@@ -3,6 +3,7 @@ package uk.gov.di.ipv.core.restorevcs;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.nimbusds.oauth2.sdk.http.HTTPResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -16,6 +17,7 @@ import uk.gov.di.ipv.core.library.auditing.AuditEventUser;
 import uk.gov.di.ipv.core.library.auditing.extension.AuditExtensionsVcEvidence;
 import uk.gov.di.ipv.core.library.config.ConfigurationVariable;
 import uk.gov.di.ipv.core.library.config.EnvironmentVariable;
+import uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus;
 import uk.gov.di.ipv.core.library.domain.ErrorResponse;
 import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
 import uk.gov.di.ipv.core.library.domain.VcsActionRequest;
@@ -29,13 +31,15 @@ import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
 import uk.gov.di.ipv.core.library.persistence.item.VcStoreItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
+import uk.gov.di.ipv.core.library.service.BulkVcsActionService;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 import uk.gov.di.ipv.core.restorevcs.exceptions.RestoreVcException;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import static uk.gov.di.ipv.core.library.auditing.helpers.AuditExtensionsHelper.getExtensionsForAudit;
 
@@ -43,21 +47,28 @@ import static uk.gov.di.ipv.core.library.auditing.helpers.AuditExtensionsHelper.
 @SuppressWarnings("unused") // Temporarily disable to pass sonarqube
 public class RestoreVcsHandler implements RequestStreamHandler {
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final ObjectMapper objectMapper =
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int MAX_CONCURRENT_VCS = 10;
+    private static final int STOP_BEFORE_TIMEOUT_MILLIS = 30_000;
     private final ConfigService configService;
     private final DataStore<VcStoreItem> vcDataStore;
     private final DataStore<VcStoreItem> archivedVcDataStore;
     private final AuditService auditService;
+    private final BulkVcsActionService bulkVcsActionService;
 
     @SuppressWarnings("unused") // Used through dependency injection
     public RestoreVcsHandler(
             ConfigService configService,
             DataStore<VcStoreItem> vcDataStore,
             DataStore<VcStoreItem> archivedVcDataStore,
-            AuditService auditService) {
+            AuditService auditService,
+            BulkVcsActionService bulkVcsActionService) {
         this.configService = configService;
         this.vcDataStore = vcDataStore;
         this.archivedVcDataStore = archivedVcDataStore;
         this.auditService = auditService;
+        this.bulkVcsActionService = bulkVcsActionService;
     }
 
     @SuppressWarnings("unused") // Used by AWS
@@ -78,6 +89,7 @@ public class RestoreVcsHandler implements RequestStreamHandler {
                         DataStore.getClient(),
                         configService);
         this.auditService = new AuditService(AuditService.getSqsClient(), configService);
+        this.bulkVcsActionService = new BulkVcsActionService(configService, MAX_CONCURRENT_VCS);
     }
 
     @Override
@@ -86,86 +98,70 @@ public class RestoreVcsHandler implements RequestStreamHandler {
     public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context)
             throws IOException {
         LogHelper.attachComponentId(configService);
-        var userIdCriIdPairs =
-                new ObjectMapper()
-                        .readValue(inputStream, VcsActionRequest.class)
-                        .getUserIdCriIdPairs();
+        var request = objectMapper.readValue(inputStream, VcsActionRequest.class);
+        var runId =
+                Optional.ofNullable(request.getRunId())
+                        .orElseGet(() -> UUID.randomUUID().toString());
+        var userIdCriIdPairs = request.getUserIdCriIdPairs();
         LOGGER.info(
                 LogHelper.buildLogMessage(
-                        String.format("Restoring %s VCs.", userIdCriIdPairs.size())));
+                        String.format(
+                                "Restoring %s VCs in run %s.", userIdCriIdPairs.size(), runId)));
 
-        try {
-            restore(userIdCriIdPairs);
-            LOGGER.info(
-                    LogHelper.buildLogMessage(
-                            String.format(
-                                    "Finished attempt to restore %s VCs.",
-                                    userIdCriIdPairs.size())));
-        } catch (SqsException e) {
-            LOGGER.error(
-                    LogHelper.buildErrorMessage(
-                            "Stopped restoring VCs because of failure to send audit event", e));
-        }
+        var report =
+                bulkVcsActionService.run(
+                        runId, userIdCriIdPairs, this::restore, () -> isOutOfTime(context));
+        LOGGER.info(
+                LogHelper.buildLogMessage(
+                        String.format(
+                                "Finished attempt to restore %s VCs: %s",
+                                userIdCriIdPairs.size(), report.getTotals())));
+        objectMapper.writeValue(outputStream, report);
     }
 
-    private void restore(List<UserIdCriIdPair> userIdCriIdPairs) throws SqsException {
-        var numberOfVcs = userIdCriIdPairs.size();
-
-        // Iterate over each VC
-        for (int i = 0; i < numberOfVcs; i++) {
-            var userIdCriIdPair = userIdCriIdPairs.get(i);
-            LOGGER.info(
-                    LogHelper.buildLogMessage(
-                            String.format("Restoring VC (%s / %s)", i + 1, numberOfVcs)));
-
-            try {
-                restore(userIdCriIdPair);
-                LOGGER.info(
-                        LogHelper.buildLogMessage(
-                                String.format(
-                                        "Successfully restored VC (%s / %s)", i + 1, numberOfVcs)));
-            } catch (SqsException e) {
-                throw new SqsException(
-                        String.format(
-                                "Failed to send audit event IPV_VC_RESTORED (%s / %s): %s",
-                                i + 1, numberOfVcs, e.getMessage()));
-            } catch (CredentialAlreadyExistsException e) {
-                LOGGER.info(
-                        LogHelper.buildErrorMessage(
-                                String.format(
-                                        "Skipped overwrite of existing VC (%s / %s)",
-                                        i + 1, numberOfVcs),
-                                e));
-            } catch (Exception e) {
-                LOGGER.error(
-                        LogHelper.buildErrorMessage(
-                                String.format(
-                                        "Unexpected error occurred (%s / %s)", i + 1, numberOfVcs),
-                                e));
-            }
-        }
+    // Leaves time for VCs being restored to finish and the report to be written
+    private boolean isOutOfTime(Context context) {
+        return context != null && context.getRemainingTimeInMillis() < STOP_BEFORE_TIMEOUT_MILLIS;
     }
 
-    private void restore(UserIdCriIdPair userIdCriIdPair)
-            throws VerifiableCredentialException, CredentialAlreadyExistsException, SqsException,
-                    RestoreVcException, UnrecognisedVotException, CredentialParseException {
+    private BulkVcsActionStatus restore(UserIdCriIdPair userIdCriIdPair)
+            throws VerifiableCredentialException, SqsException, RestoreVcException,
+                    UnrecognisedVotException, CredentialParseException {
         // Read VC with userId and CriId
         var archivedVc =
                 archivedVcDataStore.getItem(
                         userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
 
-        if (archivedVc != null) {
+        if (archivedVc == null) {
+            // An earlier run restored the VC and deleted it from the archive table
+            var restoredVc =
+                    vcDataStore.getItem(userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
+            if (restoredVc != null) {
+                return BulkVcsActionStatus.SKIPPED;
+            }
+            throw new RestoreVcException("VC cannot be found");
+        }
+
+        try {
             // Restore VC if empty
             createVcStoreItemIfNotExists(archivedVc);
+        } catch (CredentialAlreadyExistsException e) {
+            var existingVc =
+                    vcDataStore.getItem(userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
+            if (existingVc == null
+                    || !archivedVc.getCredential().equals(existingVc.getCredential())) {
+                LOGGER.info(LogHelper.buildErrorMessage("Skipped overwrite of existing VC", e));
+                return BulkVcsActionStatus.SKIPPED;
+            }
+            // An earlier run restored this VC but stopped before deleting it from the archive
+        }
 
-            // Send audit event
-            sendVcRestoredAuditEvent(userIdCriIdPair.getUserId(), archivedVc);
+        // Send audit event
+        sendVcRestoredAuditEvent(userIdCriIdPair.getUserId(), archivedVc);
 
-            // Delete VC from the archive table
-            archivedVcDataStore.delete(userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
-        } else {
-            throw new RestoreVcException("VC cannot be found");
-        }
+        // Delete VC from the archive table
+        archivedVcDataStore.delete(userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
+        return BulkVcsActionStatus.SUCCEEDED;
     }
 
     public void createVcStoreItemIfNotExists(
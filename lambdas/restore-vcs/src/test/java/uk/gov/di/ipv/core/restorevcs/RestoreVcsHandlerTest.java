@@ -1,63 +1,252 @@
 package uk.gov.di.ipv.core.restorevcs;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.core.library.auditing.AuditEvent;
 import uk.gov.di.ipv.core.library.auditing.AuditEventTypes;
-import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
+import uk.gov.di.ipv.core.library.domain.VcsActionRequest;
+import uk.gov.di.ipv.core.library.exceptions.SqsException;
+import uk.gov.di.ipv.core.library.persistence.FaultyDataStore;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.BulkVcsActionItem;
 import uk.gov.di.ipv.core.library.persistence.item.VcStoreItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
+import uk.gov.di.ipv.core.library.service.BulkVcsActionService;
 import uk.gov.di.ipv.core.library.service.ConfigService;
-import uk.gov.di.ipv.core.library.verifiablecredential.service.VerifiableCredentialService;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.PASSPORT_NON_DCMAW_SUCCESSFUL_VC;
+import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.VC_ADDRESS;
+import static uk.gov.di.ipv.core.library.persistence.FaultyDataStore.Operation.CREATE_IF_NOT_EXISTS;
 
 @ExtendWith(MockitoExtension.class)
 class RestoreVcsHandlerTest {
+    private static final String TEST_USER_ID = "urn:uuid:0369ce52-b72d-42f5-83d4-ab561fa01fd7";
+    private static final String TEST_VC = PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getVcString();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     @Mock private ConfigService mockConfigService;
-    @Mock private DataStore<VcStoreItem> mockVcDataStore;
-    @Mock private VerifiableCredentialService mockVerifiableCredentialService;
     @Mock private AuditService mockAuditService;
-    @InjectMocks private RestoreVcsHandler restoreVcsHandler;
     @Captor private ArgumentCaptor<AuditEvent> auditEventArgumentCaptor;
+    private FaultyDataStore<VcStoreItem> vcDataStore;
+    private InMemoryDataStore<VcStoreItem> archivedVcDataStore;
+    private RestoreVcsHandler restoreVcsHandler;
+
+    @BeforeEach
+    void setUp() {
+        vcDataStore = new FaultyDataStore<>(VcStoreItem.class);
+        archivedVcDataStore = new InMemoryDataStore<>(VcStoreItem.class);
+        restoreVcsHandler =
+                new RestoreVcsHandler(
+                        mockConfigService,
+                        vcDataStore,
+                        archivedVcDataStore,
+                        mockAuditService,
+                        new BulkVcsActionService(
+                                new InMemoryDataStore<>(BulkVcsActionItem.class), 10));
+    }
 
     @Test
     void shouldRestoreVc() throws Exception {
         // Arrange
         InputStream inputStream =
                 RestoreVcsHandlerTest.class.getResourceAsStream("/testRestoreVcsRequest.json");
-        String TEST_USER_ID = "urn:uuid:0369ce52-b72d-42f5-83d4-ab561fa01fd7";
-        VcStoreItem testKbvVc =
-                new VcStoreItem(
-                        TEST_USER_ID,
-                        "kbv",
-                        PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getVcString(),
-                        Instant.now(),
-                        Instant.now());
-        when(mockVcDataStore.getItem(TEST_USER_ID, "kbv")).thenReturn(testKbvVc);
+        archivedVcDataStore.create(createVcStoreItem(TEST_USER_ID, TEST_VC));
 
         // Act
-        restoreVcsHandler.handleRequest(inputStream, null, null);
+        var report = handleRequest(inputStream);
 
         // Assert
-        verify(mockVcDataStore).createIfNotExists(testKbvVc);
-        verify(mockAuditService).sendAuditEvent(auditEventArgumentCaptor.capture());
+        assertEquals(TEST_VC, vcDataStore.getItem(TEST_USER_ID, "kbv").getCredential());
+        assertNull(archivedVcDataStore.getItem(TEST_USER_ID, "kbv"));
 
+        verify(mockAuditService).sendAuditEvent(auditEventArgumentCaptor.capture());
         var auditEvent = auditEventArgumentCaptor.getValue();
         assertEquals(AuditEventTypes.IPV_VC_RESTORED, auditEvent.getEventName());
         assertEquals(TEST_USER_ID, auditEvent.getUser().getUserId());
 
-        verify(mockVcDataStore).delete(TEST_USER_ID, "kbv");
+        assertEquals("SUCCEEDED", report.get("results").get(0).get("status").asText());
+    }
+
+    @Test
+    void shouldNotOverwriteDifferentVc() throws Exception {
+        // Arrange
+        InputStream inputStream =
+                RestoreVcsHandlerTest.class.getResourceAsStream("/testRestoreVcsRequest.json");
+        archivedVcDataStore.create(createVcStoreItem(TEST_USER_ID, TEST_VC));
+        vcDataStore.create(createVcStoreItem(TEST_USER_ID, VC_ADDRESS.getVcString()));
+
+        // Act
+        var report = handleRequest(inputStream);
+
+        // Assert
+        assertEquals(
+                VC_ADDRESS.getVcString(), vcDataStore.getItem(TEST_USER_ID, "kbv").getCredential());
+        assertNotNull(archivedVcDataStore.getItem(TEST_USER_ID, "kbv"));
+        verify(mockAuditService, never()).sendAuditEvent(any(AuditEvent.class));
+        assertEquals("SKIPPED", report.get("results").get(0).get("status").asText());
+    }
+
+    @Test
+    void shouldFinishRestoringVcPartlyRestoredByEarlierRun() throws Exception {
+        // Arrange
+        InputStream inputStream =
+                RestoreVcsHandlerTest.class.getResourceAsStream("/testRestoreVcsRequest.json");
+        var testKbvVc = createVcStoreItem(TEST_USER_ID, TEST_VC);
+        archivedVcDataStore.create(testKbvVc);
+        vcDataStore.create(testKbvVc);
+
+        // Act
+        var report = handleRequest(inputStream);
+
+        // Assert
+        assertNull(archivedVcDataStore.getItem(TEST_USER_ID, "kbv"));
+        verify(mockAuditService).sendAuditEvent(any(AuditEvent.class));
+        assertEquals("SUCCEEDED", report.get("results").get(0).get("status").asText());
+    }
+
+    @Test
+    void shouldSkipVcRestoredByEarlierRun() throws Exception {
+        // Arrange
+        InputStream inputStream =
+                RestoreVcsHandlerTest.class.getResourceAsStream("/testRestoreVcsRequest.json");
+        vcDataStore.create(createVcStoreItem(TEST_USER_ID, TEST_VC));
+
+        // Act
+        var report = handleRequest(inputStream);
+
+        // Assert
+        verify(mockAuditService, never()).sendAuditEvent(any(AuditEvent.class));
+        assertEquals("SKIPPED", report.get("results").get(0).get("status").asText());
+    }
+
+    @Test
+    void shouldNotRestoreVcIfDoesNotExist() throws Exception {
+        // Arrange
+        InputStream inputStream =
+                RestoreVcsHandlerTest.class.getResourceAsStream("/testRestoreVcsRequest.json");
+
+        // Act
+        var report = handleRequest(inputStream);
+
+        // Assert
+        verify(mockAuditService, never()).sendAuditEvent(any(AuditEvent.class));
+        var result = report.get("results").get(0);
+        assertEquals("FAILED", result.get("status").asText());
+        assertEquals("VC cannot be found", result.get("errorMessage").asText());
+    }
+
+    @Test
+    void shouldRestoreThousandsOfVcsAndResumeAfterFailures() throws Exception {
+        // Arrange
+        var pairs = createPairs(2000);
+        pairs.forEach(
+                pair -> archivedVcDataStore.create(createVcStoreItem(pair.getUserId(), TEST_VC)));
+        var failingUserIds =
+                IntStream.range(0, 2000)
+                        .filter(i -> i % 10 == 7)
+                        .mapToObj(i -> "user-" + i)
+                        .collect(Collectors.toSet());
+        vcDataStore.failWhen(
+                CREATE_IF_NOT_EXISTS, item -> failingUserIds.contains(item.getUserId()));
+
+        // Act
+        var report = handleRequest(createRequest(pairs, null));
+
+        // Assert
+        var totals = report.get("totals");
+        assertEquals(1800, totals.get("SUCCEEDED").asInt());
+        assertEquals(200, totals.get("FAILED").asInt());
+        assertEquals("FAILED", report.get("results").get(7).get("status").asText());
+        assertNotNull(archivedVcDataStore.getItem("user-7", "kbv"));
+        assertNull(archivedVcDataStore.getItem("user-8", "kbv"));
+
+        // Act
+        vcDataStore.stopFailing();
+        var resumedReport = handleRequest(createRequest(pairs, report.get("runId").asText()));
+
+        // Assert
+        assertEquals(2000, resumedReport.get("totals").get("SUCCEEDED").asInt());
+        assertTrue(
+                pairs.stream()
+                        .allMatch(
+                                pair ->
+                                        vcDataStore.getItem(pair.getUserId(), "kbv") != null
+                                                && archivedVcDataStore.getItem(
+                                                                pair.getUserId(), "kbv")
+                                                        == null));
+        verify(mockAuditService, times(2000)).sendAuditEvent(any(AuditEvent.class));
+    }
+
+    @Test
+    void shouldStopRestoringVcsWhenAuditEventCannotBeSent() throws Exception {
+        // Arrange
+        var pairs = createPairs(100);
+        pairs.forEach(
+                pair -> archivedVcDataStore.create(createVcStoreItem(pair.getUserId(), TEST_VC)));
+        doThrow(new SqsException("Audit queue unavailable"))
+                .when(mockAuditService)
+                .sendAuditEvent(any(AuditEvent.class));
+
+        // Act
+        var report = handleRequest(createRequest(pairs, null));
+
+        // Assert
+        var totals = report.get("totals");
+        assertEquals(0, totals.get("SUCCEEDED").asInt());
+        assertTrue(totals.get("FAILED").asInt() <= 10);
+        assertEquals(100, totals.get("FAILED").asInt() + totals.get("NOT_ATTEMPTED").asInt());
+        assertTrue(
+                pairs.stream()
+                        .allMatch(
+                                pair ->
+                                        archivedVcDataStore.getItem(pair.getUserId(), "kbv")
+                                                != null));
+    }
+
+    private JsonNode handleRequest(InputStream inputStream) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        restoreVcsHandler.handleRequest(inputStream, outputStream, null);
+        return OBJECT_MAPPER.readTree(outputStream.toByteArray());
+    }
+
+    private static InputStream createRequest(List<UserIdCriIdPair> pairs, String runId)
+            throws IOException {
+        return new ByteArrayInputStream(
+                OBJECT_MAPPER.writeValueAsBytes(new VcsActionRequest(pairs, runId)));
+    }
+
+    private static List<UserIdCriIdPair> createPairs(int numberOfPairs) {
+        return IntStream.range(0, numberOfPairs)
+                .mapToObj(i -> new UserIdCriIdPair("user-" + i, "kbv"))
+                .toList();
+    }
+
+    private static VcStoreItem createVcStoreItem(String userId, String credential) {
+        return new VcStoreItem(userId, "kbv", credential, Instant.now(), Instant.now());
     }
 }
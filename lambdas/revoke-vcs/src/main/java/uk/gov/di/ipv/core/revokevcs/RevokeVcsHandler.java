@@ -16,6 +16,7 @@ import uk.gov.di.ipv.core.library.auditing.extension.AuditExtensionCriId;
 import uk.gov.di.ipv.core.library.auditing.extension.AuditExtensionsVcEvidence;
 import uk.gov.di.ipv.core.library.config.ConfigurationVariable;
 import uk.gov.di.ipv.core.library.config.EnvironmentVariable;
+import uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus;
 import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
 import uk.gov.di.ipv.core.library.domain.VcsActionRequest;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
@@ -26,15 +27,16 @@ import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
 import uk.gov.di.ipv.core.library.persistence.item.VcStoreItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
+import uk.gov.di.ipv.core.library.service.BulkVcsActionService;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 import uk.gov.di.ipv.core.library.verifiablecredential.service.VerifiableCredentialService;
-import uk.gov.di.ipv.core.revokevcs.domain.RevokeVcsResult;
 import uk.gov.di.ipv.core.revokevcs.exceptions.RevokeVcException;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import static uk.gov.di.ipv.core.library.auditing.helpers.AuditExtensionsHelper.getExtensionsForAudit;
 
@@ -42,11 +44,15 @@ import static uk.gov.di.ipv.core.library.auditing.helpers.AuditExtensionsHelper.
 @SuppressWarnings("unused") // Temporarily disable to pass sonarqube
 public class RevokeVcsHandler implements RequestStreamHandler {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper objectMapper =
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int MAX_CONCURRENT_VCS = 10;
+    private static final int STOP_BEFORE_TIMEOUT_MILLIS = 30_000;
     private final ConfigService configService;
     private final DataStore<VcStoreItem> vcDataStore;
     private final DataStore<VcStoreItem> archivedVcDataStore;
     private final AuditService auditService;
+    private final BulkVcsActionService bulkVcsActionService;
 
     @SuppressWarnings("unused") // Used through dependency injection
     public RevokeVcsHandler(
@@ -54,11 +60,13 @@ public class RevokeVcsHandler implements RequestStreamHandler {
             VerifiableCredentialService verifiableCredentialService,
             DataStore<VcStoreItem> vcDataStore,
             DataStore<VcStoreItem> archivedVcDataStore,
-            AuditService auditService) {
+            AuditService auditService,
+            BulkVcsActionService bulkVcsActionService) {
         this.configService = configService;
         this.vcDataStore = vcDataStore;
         this.archivedVcDataStore = archivedVcDataStore;
         this.auditService = auditService;
+        this.bulkVcsActionService = bulkVcsActionService;
     }
 
     @SuppressWarnings("unused") // Used by AWS
@@ -79,6 +87,7 @@ public class RevokeVcsHandler implements RequestStreamHandler {
                         DataStore.getClient(),
                         configService);
         this.auditService = new AuditService(AuditService.getSqsClient(), configService);
+        this.bulkVcsActionService = new BulkVcsActionService(configService, MAX_CONCURRENT_VCS);
     }
 
     @Override
@@ -87,82 +96,75 @@ public class RevokeVcsHandler implements RequestStreamHandler {
     public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context)
             throws IOException {
         LogHelper.attachComponentId(configService);
-        var userIdCriIdPairs =
-                new ObjectMapper()
-                        .readValue(inputStream, VcsActionRequest.class)
-                        .getUserIdCriIdPairs();
-        var result = new RevokeVcsResult();
+        var request = objectMapper.readValue(inputStream, VcsActionRequest.class);
+        var runId =
+                Optional.ofNullable(request.getRunId())
+                        .orElseGet(() -> UUID.randomUUID().toString());
+        var userIdCriIdPairs = request.getUserIdCriIdPairs();
         LOGGER.info(
                 LogHelper.buildLogMessage(
-                        String.format("Revoking %s VCs.", userIdCriIdPairs.size())));
+                        String.format(
+                                "Revoking %s VCs in run %s.", userIdCriIdPairs.size(), runId)));
 
-        try {
-            revoke(userIdCriIdPairs, result);
-            LOGGER.info(
-                    LogHelper.buildLogMessage(
-                            String.format(
-                                    "Finished attempt to revoke %s VCs.",
-                                    userIdCriIdPairs.size())));
-        } catch (SqsException e) {
-            LOGGER.error(
-                    LogHelper.buildErrorMessage(
-                            "Stopped revoking VCs because of failure to send audit event.", e));
-        } finally {
-            objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-            objectMapper.writeValue(outputStream, result);
-        }
+        var report =
+                bulkVcsActionService.run(
+                        runId, userIdCriIdPairs, this::revoke, () -> isOutOfTime(context));
+        LOGGER.info(
+                LogHelper.buildLogMessage(
+                        String.format(
+                                "Finished attempt to revoke %s VCs: %s",
+                                userIdCriIdPairs.size(), report.getTotals())));
+        objectMapper.writeValue(outputStream, report);
     }
 
-    private void revoke(List<UserIdCriIdPair> userIdCriIdPairs, RevokeVcsResult result)
-            throws SqsException {
-        var numberOfVcs = userIdCriIdPairs.size();
-
-        // Iterate over each VC
-        for (int i = 0; i < numberOfVcs; i++) {
-            var userIdCriIdPair = userIdCriIdPairs.get(i);
-            LOGGER.info(
-                    LogHelper.buildLogMessage(
-                            String.format("Revoking VC (%s / %s)", i + 1, numberOfVcs)));
-
-            try {
-                revoke(userIdCriIdPair);
-                LOGGER.info(
-                        LogHelper.buildLogMessage(
-                                String.format(
-                                        "Successfully revoked VC (%s / %s)", i + 1, numberOfVcs)));
-                result.addSuccess(userIdCriIdPair);
-            } catch (Exception e) {
-                LOGGER.error(
-                        LogHelper.buildErrorMessage(
-                                String.format(
-                                        "Unexpected error occurred (%s / %s)", i + 1, numberOfVcs),
-                                e));
-                result.addFailure(userIdCriIdPair, e);
-                sendRevokedFailureAuditEvent(
-                        userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId(), i, numberOfVcs);
-            }
-        }
+    // Leaves time for VCs being revoked to finish and the report to be written
+    private boolean isOutOfTime(Context context) {
+        return context != null && context.getRemainingTimeInMillis() < STOP_BEFORE_TIMEOUT_MILLIS;
     }
 
-    private void revoke(UserIdCriIdPair userIdCriIdPair)
+    private BulkVcsActionStatus revoke(UserIdCriIdPair userIdCriIdPair)
             throws SqsException, RevokeVcException, UnrecognisedVotException,
                     CredentialParseException {
+        try {
+            return revokeVc(userIdCriIdPair);
+        } catch (Exception e) {
+            sendRevokedFailureAuditEvent(userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
+            throw e;
+        }
+    }
+
+    private BulkVcsActionStatus revokeVc(UserIdCriIdPair userIdCriIdPair)
+            throws RevokeVcException, UnrecognisedVotException, CredentialParseException {
         // Read VC with userId and CriId
         var vcStoreItem =
                 vcDataStore.getItem(userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
 
-        if (vcStoreItem != null) {
-            // Archive VC
-            archivedVcDataStore.create(vcStoreItem);
+        if (vcStoreItem == null) {
+            // An earlier run archived the VC and deleted it from the main table
+            var archivedVc =
+                    archivedVcDataStore.getItem(
+                            userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
+            if (archivedVc != null) {
+                return BulkVcsActionStatus.SKIPPED;
+            }
+            throw new RevokeVcException("VC cannot be found");
+        }
 
-            // Send audit event
-            sendVcRevokedAuditEvent(userIdCriIdPair.getUserId(), vcStoreItem);
+        // Archive VC, replacing any copy archived by an earlier run
+        archivedVcDataStore.create(vcStoreItem);
 
-            // Delete VC from the main table
-            vcDataStore.delete(userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
-        } else {
-            throw new RevokeVcException("VC cannot be found");
+        // Send audit event. The VC stays in the main table if this fails, so the pair is reported
+        // as failed rather than stopping the run, and is revoked again if the run is resumed.
+        try {
+            sendVcRevokedAuditEvent(userIdCriIdPair.getUserId(), vcStoreItem);
+        } catch (SqsException e) {
+            throw new RevokeVcException(
+                    "Failed to send audit event IPV_VC_REVOKED: " + e.getMessage());
         }
+
+        // Delete VC from the main table
+        vcDataStore.delete(userIdCriIdPair.getUserId(), userIdCriIdPair.getCriId());
+        return BulkVcsActionStatus.SUCCEEDED;
     }
 
     private void sendVcRevokedAuditEvent(String userId, VcStoreItem vcStoreItem)
@@ -180,8 +182,7 @@ public class RevokeVcsHandler implements RequestStreamHandler {
         auditService.sendAuditEvent(auditEvent);
     }
 
-    private void sendRevokedFailureAuditEvent(String userId, String criId, int i, int numberOfVcs)
-            throws SqsException {
+    private void sendRevokedFailureAuditEvent(String userId, String criId) throws SqsException {
         var auditEventUser = new AuditEventUser(userId, null, null, null);
 
         var auditExtensions = new AuditExtensionCriId(criId);
@@ -195,9 +196,7 @@ public class RevokeVcsHandler implements RequestStreamHandler {
             auditService.sendAuditEvent(auditEvent);
         } catch (SqsException e) {
             throw new SqsException(
-                    String.format(
-                            "Failed to send audit event IPV_VC_REVOKED_FAILURE (%s / %s): %s",
-                            i + 1, numberOfVcs, e.getMessage()));
+                    "Failed to send audit event IPV_VC_REVOKED_FAILURE: " + e.getMessage());
         }
     }
 }
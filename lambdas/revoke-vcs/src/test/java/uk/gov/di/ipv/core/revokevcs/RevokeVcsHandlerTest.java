@@ -1,92 +1,127 @@
 package uk.gov.di.ipv.core.revokevcs;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.core.library.auditing.AuditEvent;
 import uk.gov.di.ipv.core.library.auditing.AuditEventTypes;
-import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
+import uk.gov.di.ipv.core.library.domain.VcsActionRequest;
 import uk.gov.di.ipv.core.library.exceptions.SqsException;
-import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.FaultyDataStore;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.BulkVcsActionItem;
 import uk.gov.di.ipv.core.library.persistence.item.VcStoreItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
+import uk.gov.di.ipv.core.library.service.BulkVcsActionService;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 import uk.gov.di.ipv.core.library.verifiablecredential.service.VerifiableCredentialService;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.any;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.PASSPORT_NON_DCMAW_SUCCESSFUL_VC;
+import static uk.gov.di.ipv.core.library.persistence.FaultyDataStore.INJECTED_FAILURE;
+import static uk.gov.di.ipv.core.library.persistence.FaultyDataStore.Operation.CREATE;
 
 @ExtendWith(MockitoExtension.class)
 class RevokeVcsHandlerTest {
-    private final String TEST_USER_ID = "urn:uuid:0369ce52-b72d-42f5-83d4-ab561fa01fd7";
-    @Mock private OutputStream outputStream;
+    private static final String TEST_USER_ID = "urn:uuid:0369ce52-b72d-42f5-83d4-ab561fa01fd7";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     @Mock private ConfigService mockConfigService;
-    @Mock private DataStore<VcStoreItem> mockDataStore;
     @Mock private VerifiableCredentialService mockVerifiableCredentialService;
     @Mock private AuditService mockAuditService;
-    @InjectMocks private RevokeVcsHandler revokeVcsHandler;
     @Captor private ArgumentCaptor<AuditEvent> auditEventArgumentCaptor;
+    private InMemoryDataStore<VcStoreItem> vcDataStore;
+    private FaultyDataStore<VcStoreItem> archivedVcDataStore;
+    private RevokeVcsHandler revokeVcsHandler;
+
+    @BeforeEach
+    void setUp() {
+        vcDataStore = new InMemoryDataStore<>(VcStoreItem.class);
+        archivedVcDataStore = new FaultyDataStore<>(VcStoreItem.class);
+        revokeVcsHandler =
+                new RevokeVcsHandler(
+                        mockConfigService,
+                        mockVerifiableCredentialService,
+                        vcDataStore,
+                        archivedVcDataStore,
+                        mockAuditService,
+                        new BulkVcsActionService(
+                                new InMemoryDataStore<>(BulkVcsActionItem.class), 10));
+    }
 
     @Test
     void shouldRevokeVc() throws Exception {
         // Arrange
         InputStream inputStream =
                 RevokeVcsHandlerTest.class.getResourceAsStream("/testRevokeVcsRequest.json");
-        var testKbvVcStoreItem =
-                new VcStoreItem(
-                        TEST_USER_ID,
-                        "kbv",
-                        PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getVcString(),
-                        Instant.now(),
-                        Instant.now());
-        when(mockDataStore.getItem(TEST_USER_ID, "kbv")).thenReturn(testKbvVcStoreItem);
+        var testKbvVcStoreItem = createVcStoreItem(TEST_USER_ID, "kbv");
+        vcDataStore.create(testKbvVcStoreItem);
 
         // Act
-        revokeVcsHandler.handleRequest(inputStream, outputStream, null);
+        var report = handleRequest(inputStream);
 
         // Assert
-        verify(mockDataStore).create(testKbvVcStoreItem);
-        verify(mockAuditService).sendAuditEvent(auditEventArgumentCaptor.capture());
+        assertEquals(
+                testKbvVcStoreItem.getCredential(),
+                archivedVcDataStore.getItem(TEST_USER_ID, "kbv").getCredential());
+        assertNull(vcDataStore.getItem(TEST_USER_ID, "kbv"));
 
+        verify(mockAuditService).sendAuditEvent(auditEventArgumentCaptor.capture());
         var auditEvent = auditEventArgumentCaptor.getValue();
         assertEquals(AuditEventTypes.IPV_VC_REVOKED, auditEvent.getEventName());
         assertEquals(TEST_USER_ID, auditEvent.getUser().getUserId());
 
-        verify(mockDataStore).delete(TEST_USER_ID, "kbv");
+        assertNotNull(report.get("runId").asText());
+        var result = report.get("results").get(0);
+        assertEquals(TEST_USER_ID, result.get("userIdCriIdPair").get("userId").asText());
+        assertEquals("SUCCEEDED", result.get("status").asText());
     }
 
     @Test
-    void shouldNotRevokeVcIfDoesNotExist()
-            throws IOException, SqsException, CredentialParseException {
+    void shouldNotRevokeVcIfDoesNotExist() throws Exception {
         // Arrange
         InputStream inputStream =
                 RevokeVcsHandlerTest.class.getResourceAsStream("/testRevokeVcsRequest.json");
-        when(mockDataStore.getItem(TEST_USER_ID, "kbv")).thenReturn(null);
 
         // Act
-        revokeVcsHandler.handleRequest(inputStream, outputStream, null);
+        var report = handleRequest(inputStream);
 
         // Assert
-        verify(mockDataStore, times(0)).create(any(VcStoreItem.class));
+        assertNull(archivedVcDataStore.getItem(TEST_USER_ID, "kbv"));
         verify(mockAuditService).sendAuditEvent(auditEventArgumentCaptor.capture());
 
         var auditEvent = auditEventArgumentCaptor.getValue();
         assertEquals(AuditEventTypes.IPV_VC_REVOKED_FAILURE, auditEvent.getEventName());
         assertEquals(TEST_USER_ID, auditEvent.getUser().getUserId());
+
+        var result = report.get("results").get(0);
+        assertEquals("FAILED", result.get("status").asText());
+        assertEquals("VC cannot be found", result.get("errorMessage").asText());
     }
 
     @Test
@@ -94,26 +129,176 @@ class RevokeVcsHandlerTest {
         // Arrange
         InputStream inputStream =
                 RevokeVcsHandlerTest.class.getResourceAsStream("/testRevokeVcsRequest.json");
-        VcStoreItem testKbvVcStoreItem =
-                new VcStoreItem(
-                        TEST_USER_ID,
-                        "kbv",
-                        PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getVcString(),
-                        Instant.now(),
-                        Instant.now());
-        when(mockDataStore.getItem(TEST_USER_ID, "kbv")).thenReturn(testKbvVcStoreItem);
-        doThrow(new RuntimeException("Some error"))
-                .when(mockDataStore)
-                .create(any(VcStoreItem.class));
+        vcDataStore.create(createVcStoreItem(TEST_USER_ID, "kbv"));
+        archivedVcDataStore.failWhen(CREATE, item -> TEST_USER_ID.equals(item.getUserId()));
 
         // Act
-        revokeVcsHandler.handleRequest(inputStream, outputStream, null);
+        var report = handleRequest(inputStream);
 
         // Assert
+        assertNotNull(vcDataStore.getItem(TEST_USER_ID, "kbv"));
         verify(mockAuditService).sendAuditEvent(auditEventArgumentCaptor.capture());
 
         var auditEvent = auditEventArgumentCaptor.getValue();
         assertEquals(AuditEventTypes.IPV_VC_REVOKED_FAILURE, auditEvent.getEventName());
         assertEquals(TEST_USER_ID, auditEvent.getUser().getUserId());
+
+        var result = report.get("results").get(0);
+        assertEquals("FAILED", result.get("status").asText());
+        assertEquals(INJECTED_FAILURE, result.get("errorMessage").asText());
+    }
+
+    @Test
+    void shouldSkipVcRevokedByEarlierRun() throws Exception {
+        // Arrange
+        InputStream inputStream =
+                RevokeVcsHandlerTest.class.getResourceAsStream("/testRevokeVcsRequest.json");
+        archivedVcDataStore.create(createVcStoreItem(TEST_USER_ID, "kbv"));
+
+        // Act
+        var report = handleRequest(inputStream);
+
+        // Assert
+        verify(mockAuditService, never()).sendAuditEvent(any(AuditEvent.class));
+        assertEquals("SKIPPED", report.get("results").get(0).get("status").asText());
+    }
+
+    @Test
+    void shouldRevokeThousandsOfVcsAndResumeAfterFailures() throws Exception {
+        // Arrange
+        var pairs = createPairs(2000);
+        pairs.forEach(pair -> vcDataStore.create(createVcStoreItem(pair.getUserId(), "kbv")));
+        var failingUserIds =
+                IntStream.range(0, 2000)
+                        .filter(i -> i % 10 == 3)
+                        .mapToObj(i -> "user-" + i)
+                        .collect(Collectors.toSet());
+        archivedVcDataStore.failWhen(CREATE, item -> failingUserIds.contains(item.getUserId()));
+
+        // Act
+        var report = handleRequest(createRequest(pairs, null));
+
+        // Assert
+        var totals = report.get("totals");
+        assertEquals(1800, totals.get("SUCCEEDED").asInt());
+        assertEquals(200, totals.get("FAILED").asInt());
+        assertEquals("FAILED", report.get("results").get(3).get("status").asText());
+        assertNotNull(vcDataStore.getItem("user-3", "kbv"));
+        assertNull(vcDataStore.getItem("user-4", "kbv"));
+
+        // Act
+        archivedVcDataStore.stopFailing();
+        var resumedReport = handleRequest(createRequest(pairs, report.get("runId").asText()));
+
+        // Assert
+        assertEquals(2000, resumedReport.get("totals").get("SUCCEEDED").asInt());
+        assertTrue(
+                pairs.stream()
+                        .allMatch(
+                                pair ->
+                                        vcDataStore.getItem(pair.getUserId(), "kbv") == null
+                                                && archivedVcDataStore.getItem(
+                                                                pair.getUserId(), "kbv")
+                                                        != null));
+
+        verify(mockAuditService, times(2200)).sendAuditEvent(auditEventArgumentCaptor.capture());
+        var revokedEvents =
+                auditEventArgumentCaptor.getAllValues().stream()
+                        .filter(event -> event.getEventName() == AuditEventTypes.IPV_VC_REVOKED)
+                        .count();
+        assertEquals(2000, revokedEvents);
+    }
+
+    @Test
+    void shouldStopRevokingVcsWhenAuditEventCannotBeSent() throws Exception {
+        // Arrange
+        var pairs = createPairs(100);
+        pairs.forEach(pair -> vcDataStore.create(createVcStoreItem(pair.getUserId(), "kbv")));
+        doThrow(new SqsException("Audit queue unavailable"))
+                .when(mockAuditService)
+                .sendAuditEvent(any(AuditEvent.class));
+
+        // Act
+        var report = handleRequest(createRequest(pairs, null));
+
+        // Assert
+        var totals = report.get("totals");
+        assertEquals(0, totals.get("SUCCEEDED").asInt());
+        assertTrue(totals.get("FAILED").asInt() <= 10);
+        assertEquals(100, totals.get("FAILED").asInt() + totals.get("NOT_ATTEMPTED").asInt());
+        assertTrue(
+                pairs.stream()
+                        .allMatch(pair -> vcDataStore.getItem(pair.getUserId(), "kbv") != null));
+    }
+
+    @Test
+    void shouldReportVcAsFailedAndCarryOnWhenRevokedAuditEventCannotBeSent() throws Exception {
+        // Arrange
+        var pairs = createPairs(100);
+        pairs.forEach(pair -> vcDataStore.create(createVcStoreItem(pair.getUserId(), "kbv")));
+        var auditQueueAvailable = new AtomicBoolean();
+        doAnswer(
+                        invocation -> {
+                            AuditEvent event = invocation.getArgument(0);
+                            if (!auditQueueAvailable.get()
+                                    && event.getEventName() == AuditEventTypes.IPV_VC_REVOKED
+                                    && "user-3".equals(event.getUser().getUserId())) {
+                                throw new SqsException("Audit queue unavailable");
+                            }
+                            return null;
+                        })
+                .when(mockAuditService)
+                .sendAuditEvent(any(AuditEvent.class));
+
+        // Act
+        var report = handleRequest(createRequest(pairs, null));
+
+        // Assert
+        var totals = report.get("totals");
+        assertEquals(99, totals.get("SUCCEEDED").asInt());
+        assertEquals(1, totals.get("FAILED").asInt());
+        var result = report.get("results").get(3);
+        assertEquals("FAILED", result.get("status").asText());
+        assertEquals(
+                "Failed to send audit event IPV_VC_REVOKED: Audit queue unavailable",
+                result.get("errorMessage").asText());
+        assertNotNull(vcDataStore.getItem("user-3", "kbv"));
+        assertNotNull(archivedVcDataStore.getItem("user-3", "kbv"));
+
+        // Act
+        auditQueueAvailable.set(true);
+        var resumedReport = handleRequest(createRequest(pairs, report.get("runId").asText()));
+
+        // Assert
+        assertEquals(100, resumedReport.get("totals").get("SUCCEEDED").asInt());
+        assertNull(vcDataStore.getItem("user-3", "kbv"));
+        assertNotNull(archivedVcDataStore.getItem("user-3", "kbv"));
+    }
+
+    private JsonNode handleRequest(InputStream inputStream) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        revokeVcsHandler.handleRequest(inputStream, outputStream, null);
+        return OBJECT_MAPPER.readTree(outputStream.toByteArray());
+    }
+
+    private static InputStream createRequest(List<UserIdCriIdPair> pairs, String runId)
+            throws IOException {
+        return new ByteArrayInputStream(
+                OBJECT_MAPPER.writeValueAsBytes(new VcsActionRequest(pairs, runId)));
+    }
+
+    private static List<UserIdCriIdPair> createPairs(int numberOfPairs) {
+        return IntStream.range(0, numberOfPairs)
+                .mapToObj(i -> new UserIdCriIdPair("user-" + i, "kbv"))
+                .toList();
+    }
+
+    private static VcStoreItem createVcStoreItem(String userId, String criId) {
+        return new VcStoreItem(
+                userId,
+                criId,
+                PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getVcString(),
+                Instant.now(),
+                Instant.now());
     }
 }
@@ -2,39 +2,92 @@ package uk.gov.di.ipv.core.library.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 import uk.gov.di.ipv.core.library.auditing.AuditEvent;
 import uk.gov.di.ipv.core.library.auditing.AuditEventTypes;
 import uk.gov.di.ipv.core.library.auditing.AuditEventUser;
 import uk.gov.di.ipv.core.library.auditing.extension.AuditExtensions;
 import uk.gov.di.ipv.core.library.exceptions.SqsException;
+import uk.gov.di.ipv.core.library.metrics.DependencyMetricsInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static software.amazon.awssdk.regions.Region.EU_WEST_2;
 import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.SQS_AUDIT_EVENT_QUEUE_URL;
 
 public class AuditService {
+    // Limits on a single SendMessageBatch call
+    static final int MAX_BATCH_ENTRIES = 10;
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+    static final int MAX_BATCH_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 50;
+
     private final SqsClient sqs;
     private final String queueUrl;
     private final ObjectMapper objectMapper;
+    private final boolean buffered;
+    private final List<String> pendingMessages = new ArrayList<>();
 
     public AuditService(SqsClient sqs, ConfigService configService) {
-        this.sqs = sqs;
-        this.queueUrl = configService.getEnvironmentVariable(SQS_AUDIT_EVENT_QUEUE_URL);
-        this.objectMapper = new ObjectMapper();
+        this(sqs, configService, new ObjectMapper(), false);
     }
 
     public AuditService(SqsClient sqs, ConfigService configService, ObjectMapper objectMapper) {
+        this(sqs, configService, objectMapper, false);
+    }
+
+    private AuditService(
+            SqsClient sqs,
+            ConfigService configService,
+            ObjectMapper objectMapper,
+            boolean buffered) {
+        this(
+                sqs,
+                configService.getEnvironmentVariable(SQS_AUDIT_EVENT_QUEUE_URL),
+                objectMapper,
+                buffered);
+    }
+
+    private AuditService(
+            SqsClient sqs, String queueUrl, ObjectMapper objectMapper, boolean buffered) {
         this.sqs = sqs;
-        this.queueUrl = configService.getEnvironmentVariable(SQS_AUDIT_EVENT_QUEUE_URL);
+        this.queueUrl = queueUrl;
         this.objectMapper = objectMapper;
+        this.buffered = buffered;
+    }
+
+    /**
+     * An audit service that holds events until a full batch is ready or {@link #flush()} is called,
+     * and sends them with SendMessageBatch. Handlers using it must flush before they return,
+     * including when they fail, or buffered events will be lost.
+     */
+    public static AuditService buffered(SqsClient sqs, ConfigService configService) {
+        return new AuditService(sqs, configService, new ObjectMapper(), true);
+    }
+
+    /**
+     * A buffered audit service that sends to the same queue as this one, but holds its own events.
+     * Work done concurrently can each use one, so a flush only sends, and only fails for, the
+     * events that work raised.
+     */
+    public AuditService withSeparateBuffer() {
+        return new AuditService(sqs, queueUrl, objectMapper, true);
     }
 
     public static SqsClient getSqsClient() {
         return SqsClient.builder()
                 .region(EU_WEST_2)
                 .httpClientBuilder(UrlConnectionHttpClient.builder())
+                .overrideConfiguration(DependencyMetricsInterceptor.clientConfiguration())
                 .build();
     }
 
@@ -55,14 +108,154 @@ public class AuditService {
     }
 
     public void sendAuditEvent(AuditEvent auditEvent) throws SqsException {
+        String messageBody;
         try {
+            messageBody = objectMapper.writeValueAsString(auditEvent);
+        } catch (JsonProcessingException e) {
+            throw new SqsException(e);
+        }
+
+        if (!buffered) {
             sqs.sendMessage(
                     SendMessageRequest.builder()
                             .queueUrl(queueUrl)
-                            .messageBody(objectMapper.writeValueAsString(auditEvent))
+                            .messageBody(messageBody)
                             .build());
-        } catch (JsonProcessingException e) {
-            throw new SqsException(e);
+            return;
+        }
+
+        // The batch is taken under the lock and sent after releasing it, so other threads can
+        // keep raising events while it is with SQS
+        List<String> fullBatch = null;
+        synchronized (pendingMessages) {
+            pendingMessages.add(messageBody);
+            if (pendingMessages.size() >= MAX_BATCH_ENTRIES) {
+                fullBatch = takePendingMessages();
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+    }
+
+    /**
+     * Sends any buffered events, in the order they were raised. Entries that fail are retried
+     * unless SQS reports them as a sender fault. Events that still fail are dropped and reported
+     * in the exception. Does nothing if the service is not buffered or has nothing to send.
+     */
+    public void flush() throws SqsException {
+        List<String> messages;
+        synchronized (pendingMessages) {
+            if (pendingMessages.isEmpty()) {
+                return;
+            }
+            messages = takePendingMessages();
+        }
+        send(messages);
+    }
+
+    // Callers must hold the lock on pendingMessages
+    private List<String> takePendingMessages() {
+        var messages = new ArrayList<>(pendingMessages);
+        pendingMessages.clear();
+        return messages;
+    }
+
+    private void send(List<String> messages) throws SqsException {
+        var failures = new ArrayList<String>();
+        for (var batch : toBatches(messages)) {
+            failures.addAll(sendBatch(batch));
+        }
+
+        if (!failures.isEmpty()) {
+            throw new SqsException(
+                    String.format(
+                            "Failed to send %d of %d audit events: %s",
+                            failures.size(), messages.size(), String.join(", ", failures)));
+        }
+    }
+
+    private static List<List<String>> toBatches(List<String> messages) {
+        var batches = new ArrayList<List<String>>();
+        var batch = new ArrayList<String>();
+        var batchBytes = 0;
+        for (var message : messages) {
+            var messageBytes = message.getBytes(StandardCharsets.UTF_8).length;
+            if (!batch.isEmpty()
+                    && (batch.size() == MAX_BATCH_ENTRIES
+                            || batchBytes + messageBytes > MAX_BATCH_BYTES)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+            batch.add(message);
+            batchBytes += messageBytes;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    // Returns a description of each message that could not be sent
+    private List<String> sendBatch(List<String> messages) {
+        Map<String, String> remaining = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            remaining.put(String.valueOf(i), messages.get(i));
+        }
+
+        var failures = new ArrayList<String>();
+        var lastError = "not sent";
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS && !remaining.isEmpty(); attempt++) {
+            if (attempt > 1 && !backOff(attempt)) {
+                break;
+            }
+            try {
+                var response =
+                        sqs.sendMessageBatch(
+                                SendMessageBatchRequest.builder()
+                                        .queueUrl(queueUrl)
+                                        .entries(toBatchEntries(remaining))
+                                        .build());
+
+                response.successful().forEach(entry -> remaining.remove(entry.id()));
+                for (var failed : response.failed()) {
+                    lastError = failed.code();
+                    // Sender faults, such as an oversized message, will fail again
+                    if (Boolean.TRUE.equals(failed.senderFault())
+                            && remaining.remove(failed.id()) != null) {
+                        failures.add(failed.code());
+                    }
+                }
+            } catch (SdkException e) {
+                lastError = e.getMessage();
+            }
+        }
+
+        for (int i = 0; i < remaining.size(); i++) {
+            failures.add(lastError);
+        }
+        return failures;
+    }
+
+    private static List<SendMessageBatchRequestEntry> toBatchEntries(Map<String, String> messages) {
+        return messages.entrySet().stream()
+                .map(
+                        entry ->
+                                SendMessageBatchRequestEntry.builder()
+                                        .id(entry.getKey())
+                                        .messageBody(entry.getValue())
+                                        .build())
+                .toList();
+    }
+
+    private static boolean backOff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS << (attempt - 2));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -20,11 +21,17 @@ import uk.gov.di.ipv.core.library.domain.AuditEventReturnCode;
 import uk.gov.di.ipv.core.library.enums.Vot;
 import uk.gov.di.ipv.core.library.exceptions.SqsException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -214,4 +221,222 @@ class AuditServiceTest {
                                         "{\\}",
                                         new AuditEventUser("1234", "1234", "1234", "1.1.1.1"))));
     }
+
+    @Nested
+    class Buffered {
+        private InMemorySqsClient sqs;
+        private AuditService bufferedAuditService;
+
+        @BeforeEach
+        void setup() {
+            sqs = new InMemorySqsClient();
+            bufferedAuditService = AuditService.buffered(sqs, mockConfigService);
+        }
+
+        @Test
+        void shouldHoldEventsUntilFlushed() throws Exception {
+            bufferedAuditService.sendAuditEvent(AuditEventTypes.IPV_JOURNEY_START);
+            bufferedAuditService.sendAuditEvent(AuditEventTypes.IPV_JOURNEY_END);
+
+            assertTrue(sqs.delivered().isEmpty());
+
+            bufferedAuditService.flush();
+
+            assertEquals(List.of(2), sqs.batchSizes());
+            assertEquals(
+                    List.of("IPV_JOURNEY_START", "IPV_JOURNEY_END"), deliveredEventNames());
+        }
+
+        @Test
+        void shouldSendFullBatchWithoutWaitingForFlush() throws Exception {
+            sendNumberedEvents(AuditService.MAX_BATCH_ENTRIES);
+
+            assertEquals(List.of(AuditService.MAX_BATCH_ENTRIES), sqs.batchSizes());
+        }
+
+        @Test
+        void shouldSendEventsInOrderAcrossBatches() throws Exception {
+            sendNumberedEvents(23);
+
+            bufferedAuditService.flush();
+
+            assertEquals(List.of(10, 10, 3), sqs.batchSizes());
+            assertEquals(
+                    IntStream.range(0, 23).mapToObj(i -> "event-" + i + ";").toList(),
+                    deliveredErrorDescriptions());
+        }
+
+        @Test
+        void shouldSplitBatchesThatWouldExceedSizeLimit() throws Exception {
+            var largeDescription = "x".repeat(100 * 1024);
+            for (int i = 0; i < 5; i++) {
+                sendErrorEvent(largeDescription);
+            }
+
+            bufferedAuditService.flush();
+
+            assertEquals(List.of(2, 2, 1), sqs.batchSizes());
+            assertEquals(5, sqs.delivered().size());
+        }
+
+        @Test
+        void shouldRetryFailedEntries() throws Exception {
+            sqs.failEntries("event-1;", 2, false);
+            sendNumberedEvents(3);
+
+            bufferedAuditService.flush();
+
+            assertEquals(List.of(3, 1, 1), sqs.batchSizes());
+            assertEquals(
+                    List.of("event-0;", "event-2;", "event-1;"), deliveredErrorDescriptions());
+        }
+
+        @Test
+        void shouldRetryWholeRequestFailures() throws Exception {
+            sqs.failRequests(1);
+            sendNumberedEvents(3);
+
+            bufferedAuditService.flush();
+
+            assertEquals(List.of(3, 3), sqs.batchSizes());
+            assertEquals(3, sqs.delivered().size());
+        }
+
+        @Test
+        void shouldNotRetrySenderFaults() throws Exception {
+            sqs.failEntries("event-1;", 1, true);
+            sendNumberedEvents(3);
+
+            var thrown = assertThrows(SqsException.class, () -> bufferedAuditService.flush());
+
+            assertEquals(
+                    "Failed to send 1 of 3 audit events: InvalidMessageContents",
+                    thrown.getMessage());
+            assertEquals(List.of(3), sqs.batchSizes());
+            assertEquals(List.of("event-0;", "event-2;"), deliveredErrorDescriptions());
+        }
+
+        @Test
+        void shouldGiveUpAfterMaxAttempts() throws Exception {
+            sqs.failEntries("event-0;", Integer.MAX_VALUE, false);
+            sendNumberedEvents(2);
+
+            var thrown = assertThrows(SqsException.class, () -> bufferedAuditService.flush());
+
+            assertEquals("Failed to send 1 of 2 audit events: Throttled", thrown.getMessage());
+            assertEquals(List.of(2, 1, 1), sqs.batchSizes());
+            assertEquals(List.of("event-1;"), deliveredErrorDescriptions());
+
+            // The failed event is dropped rather than sent again on the next flush
+            bufferedAuditService.flush();
+            assertEquals(3, sqs.batchSizes().size());
+        }
+
+        @Test
+        void shouldSendEventsRaisedBeforeAFailureWhenFlushedInFinally() throws Exception {
+            try {
+                bufferedAuditService.sendAuditEvent(AuditEventTypes.IPV_JOURNEY_START);
+                throw new IllegalStateException("Handler failed");
+            } catch (IllegalStateException e) {
+                // Handlers report the failure and still flush
+            } finally {
+                bufferedAuditService.flush();
+            }
+
+            assertEquals(List.of("IPV_JOURNEY_START"), deliveredEventNames());
+        }
+
+        @Test
+        void separateBufferShouldOnlyFlushItsOwnEvents() throws Exception {
+            var separateAuditService = bufferedAuditService.withSeparateBuffer();
+            bufferedAuditService.sendAuditEvent(AuditEventTypes.IPV_JOURNEY_START);
+            separateAuditService.sendAuditEvent(AuditEventTypes.IPV_JOURNEY_END);
+
+            separateAuditService.flush();
+
+            assertEquals(List.of("IPV_JOURNEY_END"), deliveredEventNames());
+
+            bufferedAuditService.flush();
+
+            assertEquals(List.of("IPV_JOURNEY_END", "IPV_JOURNEY_START"), deliveredEventNames());
+        }
+
+        @Test
+        void shouldAcceptEventsWhileAFullBatchIsBeingSent() throws Exception {
+            var batchStarted = new CountDownLatch(1);
+            var releaseBatches = new CountDownLatch(1);
+            sqs.holdBatches(batchStarted, releaseBatches);
+            var executor = Executors.newFixedThreadPool(2);
+            try {
+                var fullBatchSent =
+                        executor.submit(
+                                () -> {
+                                    sendNumberedEvents(AuditService.MAX_BATCH_ENTRIES);
+                                    return null;
+                                });
+                assertTrue(batchStarted.await(5, TimeUnit.SECONDS));
+
+                // Times out, as the batch is never released, if sending holds the buffer's lock
+                executor.submit(
+                                () -> {
+                                    sendErrorEvent("event-10;");
+                                    return null;
+                                })
+                        .get(5, TimeUnit.SECONDS);
+
+                releaseBatches.countDown();
+                fullBatchSent.get(5, TimeUnit.SECONDS);
+            } finally {
+                releaseBatches.countDown();
+                executor.shutdownNow();
+            }
+            bufferedAuditService.flush();
+
+            assertEquals(List.of(AuditService.MAX_BATCH_ENTRIES, 1), sqs.batchSizes());
+            assertEquals(AuditService.MAX_BATCH_ENTRIES + 1, sqs.delivered().size());
+        }
+
+        @Test
+        void shouldDoNothingWhenFlushingWithNothingPending() throws Exception {
+            bufferedAuditService.flush();
+
+            assertTrue(sqs.batchSizes().isEmpty());
+        }
+
+        private void sendNumberedEvents(int count) throws SqsException {
+            for (int i = 0; i < count; i++) {
+                sendErrorEvent("event-" + i + ";");
+            }
+        }
+
+        private void sendErrorEvent(String errorDescription) throws SqsException {
+            bufferedAuditService.sendAuditEvent(
+                    AuditEventTypes.IPV_JOURNEY_START,
+                    new AuditExtensionErrorParams.Builder()
+                            .setErrorCode("server_error")
+                            .setErrorDescription(errorDescription)
+                            .build());
+        }
+
+        private List<String> deliveredEventNames() throws JsonProcessingException {
+            var eventNames = new ArrayList<String>();
+            for (var body : sqs.delivered()) {
+                eventNames.add(OBJECT_MAPPER.readTree(body).get("event_name").asText());
+            }
+            return eventNames;
+        }
+
+        private List<String> deliveredErrorDescriptions() throws JsonProcessingException {
+            var descriptions = new ArrayList<String>();
+            for (var body : sqs.delivered()) {
+                descriptions.add(
+                        OBJECT_MAPPER
+                                .readTree(body)
+                                .get("extensions")
+                                .get("error_description")
+                                .asText());
+            }
+            return descriptions;
+        }
+    }
 }
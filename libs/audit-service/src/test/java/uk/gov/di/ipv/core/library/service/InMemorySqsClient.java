@@ -0,0 +1,135 @@
+package uk.gov.di.ipv.core.library.service;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * An in-process stand-in for SQS that keeps every delivered message body in order. Entries can be
+ * made to fail a number of times, and whole requests can be made to fail, to exercise retries.
+ */
+class InMemorySqsClient implements SqsClient {
+    private final List<String> delivered = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final Map<String, Failure> entryFailures = new HashMap<>();
+    private int requestFailures;
+    private CountDownLatch batchStarted;
+    private CountDownLatch releaseBatches;
+
+    // Fails entries whose body contains the text, the given number of times
+    InMemorySqsClient failEntries(String bodyContains, int times, boolean senderFault) {
+        entryFailures.put(bodyContains, new Failure(times, senderFault));
+        return this;
+    }
+
+    InMemorySqsClient failRequests(int times) {
+        requestFailures = times;
+        return this;
+    }
+
+    // Holds each batch request until releaseBatches is counted down, signalling batchStarted first
+    InMemorySqsClient holdBatches(CountDownLatch batchStarted, CountDownLatch releaseBatches) {
+        this.batchStarted = batchStarted;
+        this.releaseBatches = releaseBatches;
+        return this;
+    }
+
+    List<String> delivered() {
+        return delivered;
+    }
+
+    List<Integer> batchSizes() {
+        return batchSizes;
+    }
+
+    @Override
+    public SendMessageResponse sendMessage(SendMessageRequest request) {
+        delivered.add(request.messageBody());
+        return SendMessageResponse.builder().messageId(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public SendMessageBatchResponse sendMessageBatch(SendMessageBatchRequest request) {
+        if (releaseBatches != null) {
+            batchStarted.countDown();
+            try {
+                releaseBatches.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw SdkClientException.create("Interrupted while held");
+            }
+        }
+        if (request.entries().size() > AuditService.MAX_BATCH_ENTRIES) {
+            throw SdkClientException.create("Too many entries in batch");
+        }
+        batchSizes.add(request.entries().size());
+        if (requestFailures > 0) {
+            requestFailures--;
+            throw SdkClientException.create("Request failed");
+        }
+
+        var successful = new ArrayList<SendMessageBatchResultEntry>();
+        var failed = new ArrayList<BatchResultErrorEntry>();
+        for (var entry : request.entries()) {
+            var failure = takeFailure(entry.messageBody());
+            if (failure != null) {
+                failed.add(
+                        BatchResultErrorEntry.builder()
+                                .id(entry.id())
+                                .code(failure.senderFault ? "InvalidMessageContents" : "Throttled")
+                                .senderFault(failure.senderFault)
+                                .build());
+            } else {
+                delivered.add(entry.messageBody());
+                successful.add(
+                        SendMessageBatchResultEntry.builder()
+                                .id(entry.id())
+                                .messageId(UUID.randomUUID().toString())
+                                .build());
+            }
+        }
+        return SendMessageBatchResponse.builder().successful(successful).failed(failed).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    private Failure takeFailure(String messageBody) {
+        for (var failure : entryFailures.entrySet()) {
+            if (messageBody.contains(failure.getKey()) && failure.getValue().remaining > 0) {
+                failure.getValue().remaining--;
+                return failure.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static class Failure {
+        private int remaining;
+        private final boolean senderFault;
+
+        private Failure(int remaining, boolean senderFault) {
+            this.remaining = remaining;
+            this.senderFault = senderFault;
+        }
+    }
+}
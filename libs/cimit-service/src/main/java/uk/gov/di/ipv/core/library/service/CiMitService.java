@@ -2,7 +2,6 @@ package uk.gov.di.ipv.core.library.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.nimbusds.jose.jwk.ECKey;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.StringMapMessage;
@@ -31,6 +30,8 @@ import uk.gov.di.ipv.core.library.domain.cimitvc.CiMitVc;
 import uk.gov.di.ipv.core.library.domain.cimitvc.EvidenceItem;
 import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.helpers.VerifierRegistry;
+import uk.gov.di.ipv.core.library.metrics.DependencyMetricsInterceptor;
 import uk.gov.di.ipv.core.library.verifiablecredential.validator.VerifiableCredentialValidator;
 
 import java.text.ParseException;
@@ -64,6 +65,7 @@ public class CiMitService {
                 LambdaClient.builder()
                         .region(EU_WEST_2)
                         .httpClientBuilder(UrlConnectionHttpClient.builder())
+                        .overrideConfiguration(DependencyMetricsInterceptor.clientConfiguration())
                         .build();
         this.configService = configService;
         this.verifiableCredentialValidator = new VerifiableCredentialValidator(configService);
@@ -229,7 +231,7 @@ public class CiMitService {
                     null,
                     contraIndicatorsVC,
                     VerifiableCredentialConstants.SECURITY_CHECK_CREDENTIAL_TYPE,
-                    ECKey.parse(cimitSigningKey),
+                    VerifierRegistry.getInstance().getKey(cimitSigningKey),
                     cimitComponentId,
                     false);
         } catch (ParseException e) {
@@ -6,7 +6,8 @@ public enum CoreFeatureFlag implements FeatureFlag {
     INHERITED_IDENTITY("inheritedIdentity"),
     REPROVE_IDENTITY_ENABLED("reproveIdentityEnabled"),
     REPEAT_FRAUD_CHECK("repeatFraudCheckEnabled"),
-    TICF_CRI_BETA("ticfCriBeta");
+    TICF_CRI_BETA("ticfCriBeta"),
+    REJECT_REUSED_CLIENT_AUTH_JWT_ID("rejectReusedClientAuthJwtId");
 
     private final String name;
 
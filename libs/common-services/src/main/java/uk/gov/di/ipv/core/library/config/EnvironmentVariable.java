@@ -1,7 +1,9 @@
 package uk.gov.di.ipv.core.library.config;
 
 public enum EnvironmentVariable {
+    ACCESS_TOKENS_TABLE_NAME,
     BEARER_TOKEN_TTL,
+    BULK_VCS_ACTIONS_TABLE_NAME,
     CIMIT_GET_CONTRAINDICATORS_LAMBDA_ARN,
     CI_STORAGE_POST_MITIGATIONS_LAMBDA_ARN,
     CI_STORAGE_PUT_LAMBDA_ARN,
@@ -12,6 +14,8 @@ public enum EnvironmentVariable {
     CRI_RESPONSE_TABLE_NAME,
     ENVIRONMENT,
     IPV_SESSIONS_TABLE_NAME,
+    JOURNEY_TRANSITIONS_TABLE_NAME,
+    MAX_IN_FLIGHT_CIMIT_INVOCATIONS,
     REVOKED_USER_CREDENTIALS_TABLE_NAME,
     SESSION_CREDENTIALS_TABLE_NAME,
     SIGNING_KEY_ID_PARAM,
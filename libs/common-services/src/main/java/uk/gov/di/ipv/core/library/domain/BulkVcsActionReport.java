@@ -0,0 +1,30 @@
+package uk.gov.di.ipv.core.library.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonIgnoreProperties(value = "totals", allowGetters = true)
+@JsonPropertyOrder({"runId", "totals", "results"})
+public class BulkVcsActionReport {
+    private String runId;
+    private List<BulkVcsActionResult> results;
+
+    public Map<BulkVcsActionStatus, Integer> getTotals() {
+        var totals = new EnumMap<BulkVcsActionStatus, Integer>(BulkVcsActionStatus.class);
+        for (var status : BulkVcsActionStatus.values()) {
+            totals.put(status, 0);
+        }
+        results.forEach(result -> totals.merge(result.getStatus(), 1, Integer::sum));
+        return totals;
+    }
+}
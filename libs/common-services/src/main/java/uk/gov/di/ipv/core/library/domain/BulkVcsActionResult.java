@@ -0,0 +1,16 @@
+package uk.gov.di.ipv.core.library.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkVcsActionResult {
+    private UserIdCriIdPair userIdCriIdPair;
+    private BulkVcsActionStatus status;
+    private String errorMessage;
+}
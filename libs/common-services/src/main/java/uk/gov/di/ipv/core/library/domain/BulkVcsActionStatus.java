@@ -0,0 +1,13 @@
+package uk.gov.di.ipv.core.library.domain;
+
+public enum BulkVcsActionStatus {
+    SUCCEEDED,
+    SKIPPED,
+    FAILED,
+    NOT_ATTEMPTED;
+
+    // Pairs that are done are not acted on again when their run is resumed
+    public boolean isDone() {
+        return this == SUCCEEDED || this == SKIPPED;
+    }
+}
@@ -0,0 +1,14 @@
+package uk.gov.di.ipv.core.library.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+
+@ExcludeFromGeneratedCoverageReport
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DrivingPermitDetails(
+        String personalNumber,
+        String expiryDate,
+        String issueDate,
+        String issueNumber,
+        String issuedBy,
+        String fullAddress) {}
@@ -0,0 +1,9 @@
+package uk.gov.di.ipv.core.library.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+
+// Also used for residence permits, which carry the same document details
+@ExcludeFromGeneratedCoverageReport
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PassportDetails(String documentNumber, String expiryDate, String icaoIssuerCode) {}
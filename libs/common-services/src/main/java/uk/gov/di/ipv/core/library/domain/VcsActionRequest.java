@@ -15,4 +15,6 @@ import java.util.List;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class VcsActionRequest {
     private List<UserIdCriIdPair> userIdCriIdPairs;
+    // Set to resume an earlier run, which then skips the pairs it has already done
+    private String runId;
 }
@@ -13,13 +13,14 @@ import java.time.Instant;
 import java.util.Date;
 
 @Getter
-@EqualsAndHashCode(exclude = "signedJwt")
+@EqualsAndHashCode(exclude = {"signedJwt", "claims"})
 public class VerifiableCredential {
     private final String userId;
     private final String criId;
     private final String vcString;
     private final JWTClaimsSet claimsSet;
     private final SignedJWT signedJwt;
+    private volatile VerifiableCredentialClaims claims;
 
     private VerifiableCredential(String userId, String criId, SignedJWT signedJwt)
             throws CredentialParseException {
@@ -86,6 +87,17 @@ public class VerifiableCredential {
         }
     }
 
+    // Decoded on first use and then shared by every caller. Two threads racing here may both decode
+    // the claims, but they get equivalent views.
+    public VerifiableCredentialClaims getClaims() throws CredentialParseException {
+        var result = claims;
+        if (result == null) {
+            result = VerifiableCredentialClaims.from(signedJwt, claimsSet.getIssuer());
+            claims = result;
+        }
+        return result;
+    }
+
     public SessionCredentialItem toSessionCredentialItem(
             String ipvSessionId, boolean receivedThisSession) {
         return new SessionCredentialItem(ipvSessionId, criId, signedJwt, receivedThisSession);
@@ -0,0 +1,175 @@
+package uk.gov.di.ipv.core.library.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jwt.SignedJWT;
+import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
+import uk.gov.di.ipv.core.library.gpg45.domain.CredentialEvidenceItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_BIRTH_DATE;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CLAIM;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CREDENTIAL_SUBJECT;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_DRIVING_PERMIT;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_EVIDENCE;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_EVIDENCE_TXN;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_NAME;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_PASSPORT;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_RESIDENCE_PERMIT;
+import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_SOCIAL_SECURITY_RECORD;
+
+/**
+ * Typed, read-only view of the credential subject and evidence of a verifiable credential. The JWT
+ * payload is decoded once, when the view is first requested from {@link VerifiableCredential}.
+ *
+ * <p>Each typed claim is converted up front. A claim that cannot be converted only fails when it is
+ * asked for, so a malformed claim does not stop callers reading the rest of the credential.
+ */
+public class VerifiableCredentialClaims {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String ADDRESS = "address";
+
+    private final JsonNode credentialSubject;
+    private final boolean hasEvidence;
+    private final List<String> evidenceTxns;
+    private final Claim<List<Name>> names;
+    private final Claim<List<BirthDate>> birthDates;
+    private final Claim<List<Address>> addresses;
+    private final Claim<List<PassportDetails>> passports;
+    private final Claim<List<PassportDetails>> residencePermits;
+    private final Claim<List<DrivingPermitDetails>> drivingPermits;
+    private final Claim<List<SocialSecurityRecord>> socialSecurityRecords;
+    private final Claim<List<CredentialEvidenceItem>> evidence;
+
+    private VerifiableCredentialClaims(JsonNode vcClaim, String issuer) {
+        credentialSubject = vcClaim.path(VC_CREDENTIAL_SUBJECT);
+        names = convert(credentialSubject.path(VC_NAME), Name.class);
+        birthDates = convert(credentialSubject.path(VC_BIRTH_DATE), BirthDate.class);
+        addresses = convert(credentialSubject.path(ADDRESS), Address.class);
+        passports = convert(credentialSubject.path(VC_PASSPORT), PassportDetails.class);
+        residencePermits =
+                convert(credentialSubject.path(VC_RESIDENCE_PERMIT), PassportDetails.class);
+        drivingPermits =
+                convert(credentialSubject.path(VC_DRIVING_PERMIT), DrivingPermitDetails.class);
+        socialSecurityRecords =
+                convert(
+                        credentialSubject.path(VC_SOCIAL_SECURITY_RECORD),
+                        SocialSecurityRecord.class);
+
+        var evidenceArray = vcClaim.path(VC_EVIDENCE);
+        hasEvidence = !evidenceArray.isMissingNode() && !evidenceArray.isEmpty();
+        var parsedEvidence = convert(evidenceArray, CredentialEvidenceItem.class);
+        evidence =
+                parsedEvidence.value == null
+                        ? parsedEvidence
+                        : new Claim<>(
+                                parsedEvidence.value.stream()
+                                        .map(item -> item.withCredentialIss(issuer))
+                                        .toList(),
+                                null);
+
+        var txns = new ArrayList<String>();
+        if (evidenceArray.isArray()) {
+            evidenceArray.forEach(item -> txns.add(item.path(VC_EVIDENCE_TXN).asText()));
+        }
+        evidenceTxns = Collections.unmodifiableList(txns);
+    }
+
+    static VerifiableCredentialClaims from(SignedJWT signedJwt, String issuer)
+            throws CredentialParseException {
+        try {
+            return new VerifiableCredentialClaims(
+                    OBJECT_MAPPER.readTree(signedJwt.getPayload().toString()).path(VC_CLAIM),
+                    issuer);
+        } catch (JsonProcessingException e) {
+            throw new CredentialParseException("Unable to read verifiable credential claims", e);
+        }
+    }
+
+    public List<Name> getNames() throws CredentialParseException {
+        return names.get();
+    }
+
+    public List<BirthDate> getBirthDates() throws CredentialParseException {
+        return birthDates.get();
+    }
+
+    public List<Address> getAddresses() throws CredentialParseException {
+        return addresses.get();
+    }
+
+    public List<PassportDetails> getPassports() throws CredentialParseException {
+        return passports.get();
+    }
+
+    public List<PassportDetails> getResidencePermits() throws CredentialParseException {
+        return residencePermits.get();
+    }
+
+    public List<DrivingPermitDetails> getDrivingPermits() throws CredentialParseException {
+        return drivingPermits.get();
+    }
+
+    public List<SocialSecurityRecord> getSocialSecurityRecords() throws CredentialParseException {
+        return socialSecurityRecords.get();
+    }
+
+    // Empty if the credential has no evidence block
+    public List<CredentialEvidenceItem> getEvidence() throws CredentialParseException {
+        return evidence.get();
+    }
+
+    public boolean hasEvidence() {
+        return hasEvidence;
+    }
+
+    public List<String> getEvidenceTxns() {
+        return evidenceTxns;
+    }
+
+    public boolean hasCredentialSubject() {
+        return !credentialSubject.isMissingNode();
+    }
+
+    // True if the credential subject has a non-null value for the property, even an empty one
+    public boolean hasCredentialSubjectProperty(String propertyName) {
+        return credentialSubject.hasNonNull(propertyName);
+    }
+
+    // Returns a copy of the raw JSON for a credential subject property, or a missing node if the
+    // credential does not have it. Used where a claim is passed on as it was issued.
+    public JsonNode getCredentialSubjectProperty(String propertyName) {
+        return credentialSubject.path(propertyName).deepCopy();
+    }
+
+    private static <T> Claim<List<T>> convert(JsonNode node, Class<T> elementType) {
+        if (node.isMissingNode()) {
+            return new Claim<>(List.of(), null);
+        }
+        JavaType listType =
+                OBJECT_MAPPER.getTypeFactory().constructCollectionType(List.class, elementType);
+        try {
+            List<T> value = OBJECT_MAPPER.treeToValue(node, listType);
+            return new Claim<>(value == null ? null : Collections.unmodifiableList(value), null);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return new Claim<>(
+                    null,
+                    new CredentialParseException(
+                            "Unable to parse " + elementType.getSimpleName() + " claim", e));
+        }
+    }
+
+    private record Claim<T>(T value, CredentialParseException error) {
+        T get() throws CredentialParseException {
+            if (error != null) {
+                throw error;
+            }
+            return value;
+        }
+    }
+}
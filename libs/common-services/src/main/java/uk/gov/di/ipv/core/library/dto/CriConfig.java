@@ -1,6 +1,7 @@
 package uk.gov.di.ipv.core.library.dto;
 
 import com.nimbusds.jose.jwk.ECKey;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -18,7 +19,10 @@ public class CriConfig {
     private String componentId;
     private String signingKey;
 
+    @Getter(AccessLevel.NONE)
+    private final transient ParsedJwk<ECKey> parsedSigningKey = new ParsedJwk<>();
+
     public ECKey getParsedSigningKey() throws ParseException {
-        return ECKey.parse(signingKey);
+        return parsedSigningKey.get(signingKey, ECKey::parse);
     }
 }
@@ -1,6 +1,7 @@
 package uk.gov.di.ipv.core.library.dto;
 
 import com.nimbusds.jose.jwk.RSAKey;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,7 +26,10 @@ public class OauthCriConfig extends RestCriConfig {
     private URI clientCallbackUrl;
     private boolean requiresAdditionalEvidence;
 
+    @Getter(AccessLevel.NONE)
+    private final transient ParsedJwk<RSAKey> parsedEncryptionKey = new ParsedJwk<>();
+
     public RSAKey getParsedEncryptionKey() throws ParseException {
-        return RSAKey.parse(encryptionKey);
+        return parsedEncryptionKey.get(encryptionKey, RSAKey::parse);
     }
 }
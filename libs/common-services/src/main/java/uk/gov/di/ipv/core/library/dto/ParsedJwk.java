@@ -0,0 +1,30 @@
+package uk.gov.di.ipv.core.library.dto;
+
+import com.nimbusds.jose.jwk.JWK;
+
+import java.text.ParseException;
+
+/**
+ * Remembers the key parsed from a JWK string. Config objects are shared for the lifetime of a
+ * config snapshot, so this stops the key being parsed again every time it is used. The JWK string
+ * is kept with the parsed key so that a changed value is parsed again.
+ */
+final class ParsedJwk<K extends JWK> {
+    private volatile Parsed<K> parsed;
+
+    K get(String jwk, JwkParser<K> parser) throws ParseException {
+        var current = parsed;
+        if (current == null || !current.jwk().equals(jwk)) {
+            current = new Parsed<>(jwk, parser.parse(jwk));
+            parsed = current;
+        }
+        return current.key();
+    }
+
+    @FunctionalInterface
+    interface JwkParser<K> {
+        K parse(String jwk) throws ParseException;
+    }
+
+    private record Parsed<K>(String jwk, K key) {}
+}
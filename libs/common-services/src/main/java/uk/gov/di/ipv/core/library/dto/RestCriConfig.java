@@ -14,4 +14,7 @@ import java.net.URI;
 public class RestCriConfig extends CriConfig {
     private URI credentialUrl;
     private boolean requiresApiKey;
+    // Optional, a default is used when these aren't configured
+    private Long connectTimeoutMillis;
+    private Long readTimeoutMillis;
 }
@@ -0,0 +1,7 @@
+package uk.gov.di.ipv.core.library.exceptions;
+
+public class NoConfigForClientException extends RuntimeException {
+    public NoConfigForClientException(String message) {
+        super(message);
+    }
+}
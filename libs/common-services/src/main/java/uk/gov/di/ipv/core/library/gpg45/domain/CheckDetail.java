@@ -2,11 +2,9 @@ package uk.gov.di.ipv.core.library.gpg45.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Getter;
-import lombok.Setter;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
 
 @Getter
-@Setter
 @ExcludeFromGeneratedCoverageReport
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CheckDetail {
@@ -8,6 +8,8 @@ import lombok.NoArgsConstructor;
 import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores;
 import uk.gov.di.ipv.core.library.gpg45.exception.UnknownEvidenceTypeException;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
@@ -189,7 +191,23 @@ public class CredentialEvidenceItem {
         }
     }
 
-    public void setCredentialIss(String credentialIss) {
-        this.credentialIss = credentialIss;
+    // Returns a copy issued by credentialIss, with its lists made read-only so the copy can be
+    // shared between callers
+    public CredentialEvidenceItem withCredentialIss(String credentialIss) {
+        return new CredentialEvidenceItem(
+                credentialIss,
+                activityHistoryScore,
+                identityFraudScore,
+                strengthScore,
+                validityScore,
+                verificationScore,
+                readOnlyCopy(checkDetails),
+                readOnlyCopy(failedCheckDetails),
+                readOnlyCopy(ci),
+                type);
+    }
+
+    private static <T> List<T> readOnlyCopy(List<T> list) {
+        return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
     }
 }
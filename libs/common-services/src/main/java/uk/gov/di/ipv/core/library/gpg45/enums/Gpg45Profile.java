@@ -2,8 +2,8 @@ package uk.gov.di.ipv.core.library.gpg45.enums;
 
 import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores;
 import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores.Evidence;
-import uk.gov.di.ipv.core.library.helpers.ListHelper;
 
+import java.util.Arrays;
 import java.util.List;
 
 /** Enumeration of all GPG 45 profiles along with their reference Gpg45Scores value. */
@@ -76,6 +76,9 @@ public enum Gpg45Profile {
                 && (scores.getVerification() <= achievedScores.getVerification());
     }
 
+    // Each required evidence must be met by a different achieved evidence. This is a bipartite
+    // matching problem, solved here with augmenting paths so the cost stays polynomial in the number
+    // of evidences a user holds rather than trying every ordering of them.
     private boolean evidenceIsSatisfactory(Gpg45Scores achievedScores) {
         var requiredEvidences = scores.getEvidences();
         var achievedEvidences = achievedScores.getEvidences();
@@ -84,31 +87,52 @@ public enum Gpg45Profile {
             return false;
         }
 
-        // No profile needs more than 3 pieces of evidence so calling getPermutations should be
-        // safe.
-        var achievedEvidencePermutations = ListHelper.getPermutations(achievedEvidences);
-
-        for (List<Evidence> achievedEvidencePermutation : achievedEvidencePermutations) {
-            if (evidencePermutationIsSatisfactory(requiredEvidences, achievedEvidencePermutation)) {
-                return true;
+        // matchedRequirement[a] is the index of the required evidence that achieved evidence a is
+        // currently assigned to, or -1 if it is unassigned.
+        var matchedRequirement = new int[achievedEvidences.size()];
+        Arrays.fill(matchedRequirement, -1);
+
+        for (int required = 0; required < requiredEvidences.size(); required++) {
+            if (!assign(
+                    required,
+                    requiredEvidences,
+                    achievedEvidences,
+                    matchedRequirement,
+                    new boolean[achievedEvidences.size()])) {
+                return false;
             }
         }
 
-        return false;
+        return true;
     }
 
-    private boolean evidencePermutationIsSatisfactory(
-            List<Evidence> requiredEvidences, List<Evidence> achievedEvidences) {
-        for (int i = 0; i < requiredEvidences.size(); i++) {
-            var requiredEvidence = requiredEvidences.get(i);
-            var achievedEvidence = achievedEvidences.get(i);
-
-            if ((achievedEvidence.getStrength() < requiredEvidence.getStrength())
-                    || (achievedEvidence.getValidity() < requiredEvidence.getValidity())) {
-                return false;
+    private boolean assign(
+            int required,
+            List<Evidence> requiredEvidences,
+            List<Evidence> achievedEvidences,
+            int[] matchedRequirement,
+            boolean[] visited) {
+        var requiredEvidence = requiredEvidences.get(required);
+
+        for (int achieved = 0; achieved < achievedEvidences.size(); achieved++) {
+            if (visited[achieved] || !achievedEvidences.get(achieved).satisfies(requiredEvidence)) {
+                continue;
+            }
+            visited[achieved] = true;
+
+            // Take an unassigned evidence, or move its current requirement onto another one
+            if (matchedRequirement[achieved] == -1
+                    || assign(
+                            matchedRequirement[achieved],
+                            requiredEvidences,
+                            achievedEvidences,
+                            matchedRequirement,
+                            visited)) {
+                matchedRequirement[achieved] = required;
+                return true;
             }
         }
 
-        return true;
+        return false;
     }
 }
@@ -0,0 +1,49 @@
+package uk.gov.di.ipv.core.library.helpers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe map that holds at most a fixed number of entries, evicting the least recently used
+ * one to make room. It is meant for things that are expensive to build from key material, such as
+ * parsed keys and the verifiers and encrypters built from them. Rotating a key changes its
+ * material, so the new key simply misses and the old entry is evicted once it is the least
+ * recently used, without the cache needing to know about rotation.
+ */
+public class BoundedCache<K, V> {
+    private final Map<K, V> entries;
+
+    @FunctionalInterface
+    public interface Loader<K, V, E extends Exception> {
+        V load(K key) throws E;
+    }
+
+    public BoundedCache(int maxEntries) {
+        this.entries =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                        return size() > maxEntries;
+                    }
+                };
+    }
+
+    /**
+     * Returns the entry for a key, loading it if it isn't held. The lock isn't held while loading,
+     * so a slow load doesn't hold up other keys. Two threads missing on the same key can both load
+     * it, but both get the entry that was stored first. A load that throws stores nothing.
+     */
+    public <E extends Exception> V computeIfAbsent(K key, Loader<K, V, E> loader) throws E {
+        synchronized (entries) {
+            var value = entries.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        var loaded = loader.load(key);
+        synchronized (entries) {
+            var stored = entries.putIfAbsent(key, loaded);
+            return stored == null ? loaded : stored;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package uk.gov.di.ipv.core.library.helpers;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.RSAEncrypter;
+import com.nimbusds.jose.jwk.RSAKey;
+import lombok.Getter;
+
+/**
+ * Holds RSA encrypters for the keys CRIs publish for encrypting requests to them, so that an
+ * encrypter is built once per key rather than once per request. Encrypters are looked up by the
+ * public key (modulus and exponent).
+ */
+@SuppressWarnings("java:S6548") // The Singleton design pattern should be used with care
+public class EncrypterRegistry {
+    static final int MAX_ENTRIES = 32;
+
+    @Getter private static final EncrypterRegistry instance = new EncrypterRegistry(MAX_ENTRIES);
+
+    private final BoundedCache<String, RSAEncrypter> encrypters;
+
+    EncrypterRegistry(int maxEntries) {
+        this.encrypters = new BoundedCache<>(maxEntries);
+    }
+
+    public RSAEncrypter getEncrypter(RSAKey key) throws JOSEException {
+        var fingerprint = key.getModulus() + "." + key.getPublicExponent();
+        return encrypters.computeIfAbsent(fingerprint, k -> new RSAEncrypter(key));
+    }
+}
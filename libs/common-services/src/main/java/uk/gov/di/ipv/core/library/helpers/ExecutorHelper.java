@@ -0,0 +1,65 @@
+package uk.gov.di.ipv.core.library.helpers;
+
+import org.apache.logging.log4j.ThreadContext;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.core.library.persistence.RequestScopedReadCache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExecutorHelper {
+    private static final Map<String, AtomicInteger> THREAD_COUNTS = new ConcurrentHashMap<>();
+
+    @ExcludeFromGeneratedCoverageReport
+    private ExecutorHelper() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    // A fixed pool of daemon threads named after the pool, so an idle pool never keeps a JVM
+    // alive. Tasks run with the log context and read cache of the thread that handed them over.
+    public static ExecutorService newFixedDaemonThreadPool(String name, int threads) {
+        var threadCount = THREAD_COUNTS.computeIfAbsent(name, key -> new AtomicInteger());
+        return new ContextCarryingThreadPool(
+                threads,
+                runnable -> {
+                    var thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Every way of handing a task to the pool, including CompletableFuture's async stages, goes
+    // through execute on the handing thread, so that is where the context is captured
+    private static class ContextCarryingThreadPool extends ThreadPoolExecutor {
+        private ContextCarryingThreadPool(int threads, ThreadFactory threadFactory) {
+            super(
+                    threads,
+                    threads,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    threadFactory);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            var logContext = ThreadContext.getImmutableContext();
+            super.execute(
+                    RequestScopedReadCache.propagate(
+                            () -> {
+                                ThreadContext.putAll(logContext);
+                                try {
+                                    command.run();
+                                } finally {
+                                    ThreadContext.clearMap();
+                                }
+                            }));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package uk.gov.di.ipv.core.library.helpers;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import lombok.Getter;
+
+import java.text.ParseException;
+
+/**
+ * Holds parsed EC keys and their ECDSA verifiers so that they are built once per key rather than
+ * once per signature check.
+ *
+ * <p>Keys are looked up by their JWK string and verifiers by the public key fingerprint (curve and
+ * point), so a key held in config and the same key parsed elsewhere share a verifier.
+ */
+@SuppressWarnings("java:S6548") // The Singleton design pattern should be used with care
+public class VerifierRegistry {
+    static final int MAX_ENTRIES = 64;
+
+    @Getter private static final VerifierRegistry instance = new VerifierRegistry(MAX_ENTRIES);
+
+    private final BoundedCache<String, ECKey> keys;
+    private final BoundedCache<String, ECDSAVerifier> verifiers;
+
+    VerifierRegistry(int maxEntries) {
+        this.keys = new BoundedCache<>(maxEntries);
+        this.verifiers = new BoundedCache<>(maxEntries);
+    }
+
+    public ECKey getKey(String keyMaterial) throws ParseException {
+        return keys.computeIfAbsent(keyMaterial, ECKey::parse);
+    }
+
+    public ECDSAVerifier getVerifier(String keyMaterial) throws ParseException, JOSEException {
+        return getVerifier(getKey(keyMaterial));
+    }
+
+    public ECDSAVerifier getVerifier(ECKey key) throws JOSEException {
+        return verifiers.computeIfAbsent(
+                fingerprint(key), k -> new ECDSAVerifier(key.toECPublicKey()));
+    }
+
+    private static String fingerprint(ECKey key) {
+        return key.getCurve().getName() + "." + key.getX() + "." + key.getY();
+    }
+}
@@ -0,0 +1,177 @@
+package uk.gov.di.ipv.core.library.http;
+
+import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
+import lombok.Getter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.core.library.dto.RestCriConfig;
+import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.metrics.DependencyMetrics;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Sends requests to credential issuers. Connections are pooled and kept alive between requests to
+ * the same CRI, including across invocations of a warm Lambda, and each CRI's connection config can
+ * set its own connect and read timeouts.
+ *
+ * <p>A request is retried, a bounded number of times, when it failed before reaching the CRI.
+ * Requests that can be safely repeated are also retried after timeouts and gateway errors, but a
+ * POST that may have reached the CRI is not, as the CRI may have acted on it. Each call is recorded
+ * with {@link DependencyMetrics}, with any retries.
+ */
+@SuppressWarnings("java:S6548") // The Singleton design pattern should be used with care
+public class CriHttpClient {
+    private static final Logger LOGGER = LogManager.getLogger();
+    static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(10);
+    static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 50;
+    private static final Set<String> IDEMPOTENT_METHODS =
+            Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(502, 503, 504);
+    // Set by the HTTP client itself
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    @Getter private static final CriHttpClient instance = new CriHttpClient();
+
+    // One client per connect timeout, as the JDK client sets it for all its connections
+    private final Map<Duration, HttpClient> clients = new ConcurrentHashMap<>();
+    private final Function<Duration, HttpClient> clientFactory;
+    private final Sleeper sleeper;
+
+    @ExcludeFromGeneratedCoverageReport
+    private CriHttpClient() {
+        this(CriHttpClient::createHttpClient, Thread::sleep);
+    }
+
+    public CriHttpClient(HttpClient httpClient) {
+        this(connectTimeout -> httpClient, Thread::sleep);
+    }
+
+    CriHttpClient(Function<Duration, HttpClient> clientFactory, Sleeper sleeper) {
+        this.clientFactory = clientFactory;
+        this.sleeper = sleeper;
+    }
+
+    public HttpResponse<String> send(
+            String criId, String operation, HttpRequest request, RestCriConfig criConfig)
+            throws IOException, InterruptedException {
+        var httpClient =
+                clients.computeIfAbsent(
+                        timeout(criConfig.getConnectTimeoutMillis(), DEFAULT_CONNECT_TIMEOUT),
+                        clientFactory);
+        var timedRequest =
+                HttpRequest.newBuilder(request, (name, value) -> true)
+                        .timeout(timeout(criConfig.getReadTimeoutMillis(), DEFAULT_READ_TIMEOUT))
+                        .build();
+        var idempotent = IDEMPOTENT_METHODS.contains(request.method());
+
+        var startNanos = System.nanoTime();
+        var attempt = 1;
+        while (true) {
+            try {
+                var response = httpClient.send(timedRequest, HttpResponse.BodyHandlers.ofString());
+                if (attempt < MAX_ATTEMPTS
+                        && idempotent
+                        && RETRYABLE_STATUS_CODES.contains(response.statusCode())) {
+                    LOGGER.warn(
+                            LogHelper.buildErrorMessage(
+                                    "Retrying request to CRI",
+                                    "Gateway error",
+                                    response.statusCode()));
+                } else {
+                    DependencyMetrics.recordCall(
+                            criId,
+                            operation,
+                            System.nanoTime() - startNanos,
+                            attempt - 1,
+                            DependencyMetrics.httpErrorCode(response.statusCode()));
+                    return response;
+                }
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS || !(idempotent || isNotSent(e))) {
+                    DependencyMetrics.recordCall(
+                            criId,
+                            operation,
+                            System.nanoTime() - startNanos,
+                            attempt - 1,
+                            e.getClass().getSimpleName());
+                    throw e;
+                }
+                LOGGER.warn(LogHelper.buildErrorMessage("Retrying request to CRI", e));
+            }
+            sleeper.sleep(RETRY_BACKOFF_MILLIS << (attempt - 1));
+            attempt++;
+        }
+    }
+
+    // Sends a request built with the Nimbus SDK, such as an OAuth token request
+    public HTTPResponse send(
+            String criId, String operation, HTTPRequest request, RestCriConfig criConfig)
+            throws IOException, InterruptedException {
+        var body = request.getBody();
+        var requestBuilder =
+                HttpRequest.newBuilder(request.getURI())
+                        .method(
+                                request.getMethod().name(),
+                                body == null
+                                        ? HttpRequest.BodyPublishers.noBody()
+                                        : HttpRequest.BodyPublishers.ofString(body));
+        request.getHeaderMap()
+                .forEach(
+                        (name, values) -> {
+                            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                                values.stream()
+                                        .filter(Objects::nonNull)
+                                        .filter(value -> !value.isBlank())
+                                        .forEach(value -> requestBuilder.header(name, value));
+                            }
+                        });
+
+        var response = send(criId, operation, requestBuilder.build(), criConfig);
+
+        var httpResponse = new HTTPResponse(response.statusCode());
+        for (var header : response.headers().map().entrySet()) {
+            httpResponse.setHeader(header.getKey(), header.getValue().toArray(String[]::new));
+        }
+        httpResponse.setBody(response.body());
+        return httpResponse;
+    }
+
+    // The request never reached the CRI, so it's safe to send again
+    private static boolean isNotSent(IOException e) {
+        return e instanceof ConnectException || e instanceof HttpConnectTimeoutException;
+    }
+
+    private static Duration timeout(Long configuredMillis, Duration defaultTimeout) {
+        return configuredMillis == null ? defaultTimeout : Duration.ofMillis(configuredMillis);
+    }
+
+    @ExcludeFromGeneratedCoverageReport
+    private static HttpClient createHttpClient(Duration connectTimeout) {
+        // Connections to CRIs are kept alive over HTTP/1.1 rather than upgraded
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+}
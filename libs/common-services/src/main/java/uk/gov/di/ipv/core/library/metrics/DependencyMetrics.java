@@ -0,0 +1,122 @@
+package uk.gov.di.ipv.core.library.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.ipv.core.library.helpers.LogHelper;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Records the latency, retries and errors of calls to the services core depends on. Each call is
+ * written to stdout as a CloudWatch Embedded Metric Format record, which CloudWatch Logs turns into
+ * metrics, so recording a call never makes a call of its own. AWS SDK clients are instrumented with
+ * {@link DependencyMetricsInterceptor}; other calls can be wrapped with {@link #record}.
+ */
+public final class DependencyMetrics {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static final String NAMESPACE = "ipv-core-back/dependencies";
+    static final String DEPENDENCY = "Dependency";
+    static final String OPERATION = "Operation";
+    static final String LATENCY = "Latency";
+    static final String RETRIES = "Retries";
+    static final String ERRORS = "Errors";
+    static final String ERROR_CODE = "ErrorCode";
+
+    private static final Map<String, Object> METRIC_DIRECTIVE =
+            Map.of(
+                    "Namespace",
+                    NAMESPACE,
+                    "Dimensions",
+                    List.of(List.of(DEPENDENCY), List.of(DEPENDENCY, OPERATION)),
+                    "Metrics",
+                    List.of(
+                            Map.of("Name", LATENCY, "Unit", "Milliseconds"),
+                            Map.of("Name", RETRIES, "Unit", "Count"),
+                            Map.of("Name", ERRORS, "Unit", "Count")));
+
+    private DependencyMetrics() {}
+
+    @FunctionalInterface
+    public interface DependencyCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Makes a call and records it. A call that throws is recorded with the exception's class as its
+     * error code; otherwise {@code errorCode} can name an error from the result, such as an HTTP
+     * error status, or return null.
+     */
+    public static <T, E extends Exception> T record(
+            String dependency,
+            String operation,
+            DependencyCall<T, E> call,
+            Function<T, String> errorCode)
+            throws E {
+        var startNanos = System.nanoTime();
+        try {
+            var result = call.call();
+            emit(dependency, operation, System.nanoTime() - startNanos, 0, errorCode.apply(result));
+            return result;
+        } catch (Exception e) {
+            emit(
+                    dependency,
+                    operation,
+                    System.nanoTime() - startNanos,
+                    0,
+                    e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+
+    /**
+     * Records a call its caller has already made and timed, such as one that took several
+     * attempts, so the attempts are recorded as retries of one call.
+     */
+    public static void recordCall(
+            String dependency, String operation, long latencyNanos, int retries, String errorCode) {
+        emit(dependency, operation, latencyNanos, retries, errorCode);
+    }
+
+    public static String httpErrorCode(int statusCode) {
+        return statusCode >= 400 ? String.valueOf(statusCode) : null;
+    }
+
+    static void emit(
+            String dependency,
+            String operation,
+            long latencyNanos,
+            int retries,
+            String errorCode) {
+        var record = new LinkedHashMap<String, Object>();
+        record.put(
+                "_aws",
+                Map.of(
+                        "Timestamp",
+                        Instant.now().toEpochMilli(),
+                        "CloudWatchMetrics",
+                        List.of(METRIC_DIRECTIVE)));
+        record.put(DEPENDENCY, dependency);
+        record.put(OPERATION, operation);
+        record.put(LATENCY, latencyNanos / 1_000_000.0);
+        record.put(RETRIES, retries);
+        record.put(ERRORS, errorCode == null ? 0 : 1);
+        if (errorCode != null) {
+            record.put(ERROR_CODE, errorCode);
+        }
+
+        try {
+            // Read System.out on every call, so captured output in tests is respected
+            System.out.println(OBJECT_MAPPER.writeValueAsString(record));
+        } catch (JsonProcessingException e) {
+            LOGGER.warn(LogHelper.buildErrorMessage("Failed to write dependency metrics", e));
+        }
+    }
+}
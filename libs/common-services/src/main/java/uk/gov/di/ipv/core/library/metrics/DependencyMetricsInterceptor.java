@@ -0,0 +1,74 @@
+package uk.gov.di.ipv.core.library.metrics;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * Records every call made by an AWS SDK client with {@link DependencyMetrics}. The dependency is
+ * the service name, e.g. DynamoDb or Kms, and retries are the attempts the SDK made after the
+ * first. Add it to a client with {@link #clientConfiguration()}.
+ */
+public class DependencyMetricsInterceptor implements ExecutionInterceptor {
+    private static final ExecutionAttribute<Long> START_NANOS =
+            new ExecutionAttribute<>("DependencyMetricsStartNanos");
+    private static final ExecutionAttribute<Integer> ATTEMPTS =
+            new ExecutionAttribute<>("DependencyMetricsAttempts");
+
+    public static ClientOverrideConfiguration clientConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .addExecutionInterceptor(new DependencyMetricsInterceptor())
+                .build();
+    }
+
+    @Override
+    public void beforeExecution(
+            Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+        executionAttributes.putAttribute(ATTEMPTS, 0);
+    }
+
+    // Called once for each attempt, including retries
+    @Override
+    public void beforeTransmission(
+            Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        var attempts = executionAttributes.getAttribute(ATTEMPTS);
+        executionAttributes.putAttribute(ATTEMPTS, attempts == null ? 1 : attempts + 1);
+    }
+
+    @Override
+    public void afterExecution(
+            Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        emit(executionAttributes, null);
+    }
+
+    @Override
+    public void onExecutionFailure(
+            Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        emit(executionAttributes, errorCode(context.exception()));
+    }
+
+    static String errorCode(Throwable exception) {
+        if (exception instanceof AwsServiceException serviceException
+                && serviceException.awsErrorDetails() != null
+                && serviceException.awsErrorDetails().errorCode() != null) {
+            return serviceException.awsErrorDetails().errorCode();
+        }
+        return exception.getClass().getSimpleName();
+    }
+
+    private static void emit(ExecutionAttributes executionAttributes, String errorCode) {
+        var startNanos = executionAttributes.getAttribute(START_NANOS);
+        var attempts = executionAttributes.getAttribute(ATTEMPTS);
+        DependencyMetrics.emit(
+                executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME),
+                executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME),
+                startNanos == null ? 0 : System.nanoTime() - startNanos,
+                attempts == null ? 0 : Math.max(0, attempts - 1),
+                errorCode);
+    }
+}
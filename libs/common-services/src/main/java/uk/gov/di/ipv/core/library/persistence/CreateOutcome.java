@@ -0,0 +1,7 @@
+package uk.gov.di.ipv.core.library.persistence;
+
+/** Whether a conditional create wrote its item or found one with the same key already stored. */
+public enum CreateOutcome {
+    CREATED,
+    ALREADY_EXISTS
+}
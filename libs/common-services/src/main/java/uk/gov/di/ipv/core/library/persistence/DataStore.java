@@ -9,29 +9,49 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.PutItemEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.core.library.config.ConfigurationVariable;
+import uk.gov.di.ipv.core.library.metrics.DependencyMetricsInterceptor;
 import uk.gov.di.ipv.core.library.persistence.item.DynamodbItem;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static software.amazon.awssdk.regions.Region.EU_WEST_2;
 
 public class DataStore<T extends DynamodbItem> {
 
     private static final Logger LOGGER = LogManager.getLogger();
+    // DynamoDB limits on the number of items in a BatchWriteItem, BatchGetItem and
+    // TransactWriteItems call
+    static final int MAX_BATCH_WRITE_ITEMS = 25;
+    static final int MAX_BATCH_GET_ITEMS = 100;
+    static final int MAX_TRANSACTION_ITEMS = 100;
+    static final int MAX_BATCH_WRITE_ATTEMPTS = 5;
+    private static final long RETRY_BACKOFF_MILLIS = 50;
     private final Class<T> typeParameterClass;
     private final ConfigService configService;
+    private final DynamoDbEnhancedClient client;
     private final DynamoDbTable<T> table;
+    private final String partitionKey;
 
     public DataStore(
             String tableName,
@@ -40,7 +60,19 @@ public class DataStore<T extends DynamodbItem> {
             ConfigService configService) {
         this.typeParameterClass = typeParameterClass;
         this.configService = configService;
-        this.table = client.table(tableName, TableSchema.fromBean(this.typeParameterClass));
+        this.client = client;
+        var schema = TableSchema.fromBean(this.typeParameterClass);
+        this.table = client.table(tableName, schema);
+        this.partitionKey = schema.tableMetadata().primaryPartitionKey();
+    }
+
+    // For stores that keep items somewhere other than a DynamoDB table
+    protected DataStore(Class<T> typeParameterClass, ConfigService configService) {
+        this.typeParameterClass = typeParameterClass;
+        this.configService = configService;
+        this.client = null;
+        this.table = null;
+        this.partitionKey = null;
     }
 
     @ExcludeFromGeneratedCoverageReport
@@ -49,34 +81,132 @@ public class DataStore<T extends DynamodbItem> {
                 DynamoDbClient.builder()
                         .region(EU_WEST_2)
                         .httpClient(UrlConnectionHttpClient.create())
+                        .overrideConfiguration(DependencyMetricsInterceptor.clientConfiguration())
                         .build();
 
         return DynamoDbEnhancedClient.builder().dynamoDbClient(client).build();
     }
 
     public void create(T item, ConfigurationVariable tableTtl) {
-        item.setTtl(
-                Instant.now()
-                        .plusSeconds(Long.parseLong(configService.getSsmParameter(tableTtl)))
-                        .getEpochSecond());
+        item.setTtl(getTtl(tableTtl));
         create(item);
     }
 
+    // Writes in batches of up to 25 items, retrying any that DynamoDB leaves unprocessed
+    public void createAll(List<T> items, ConfigurationVariable tableTtl) {
+        var ttl = getTtl(tableTtl);
+        items.forEach(item -> item.setTtl(ttl));
+        writeBatches(items, List.of());
+    }
+
+    // All the items are written, or none are
+    public void writeTransaction(List<T> itemsToCreate, List<T> itemsToDelete) {
+        if (itemsToCreate.size() + itemsToDelete.size() > MAX_TRANSACTION_ITEMS) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "A transaction can write at most %d items", MAX_TRANSACTION_ITEMS));
+        }
+        var request = TransactWriteItemsEnhancedRequest.builder();
+        itemsToCreate.forEach(item -> request.addPutItem(table, item));
+        itemsToDelete.forEach(item -> request.addDeleteItem(table, item));
+        try {
+            client.transactWriteItems(request.build());
+        } finally {
+            forgetCachedReads();
+        }
+    }
+
+    /**
+     * A put or update of one item, to be written in the same transaction as writes to other tables
+     * by {@link #writeTransaction(List)}.
+     */
+    public record TransactionWrite<T extends DynamodbItem>(
+            DataStore<T> store, T item, boolean update) {}
+
+    // Sets the item's TTL, as create does
+    public TransactionWrite<T> putInTransaction(T item, ConfigurationVariable tableTtl) {
+        item.setTtl(getTtl(tableTtl));
+        return new TransactionWrite<>(this, item, false);
+    }
+
+    public TransactionWrite<T> updateInTransaction(T item) {
+        return new TransactionWrite<>(this, item, true);
+    }
+
+    // All the writes are made, or none are, whichever tables they are for. The stores written to
+    // must share a client.
+    public static void writeTransaction(List<TransactionWrite<?>> writes) {
+        if (!writes.isEmpty()) {
+            writes.get(0).store().writeTransactionAcrossTables(writes);
+        }
+    }
+
+    protected void writeTransactionAcrossTables(List<TransactionWrite<?>> writes) {
+        if (writes.size() > MAX_TRANSACTION_ITEMS) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "A transaction can write at most %d items", MAX_TRANSACTION_ITEMS));
+        }
+        var request = TransactWriteItemsEnhancedRequest.builder();
+        for (var write : writes) {
+            if (write.store().client != client) {
+                throw new IllegalArgumentException(
+                        "Stores written in one transaction must share a client");
+            }
+            addToTransaction(request, write);
+        }
+        try {
+            client.transactWriteItems(request.build());
+        } finally {
+            writes.forEach(write -> write.store().forgetCachedReads());
+        }
+    }
+
+    private static <I extends DynamodbItem> void addToTransaction(
+            TransactWriteItemsEnhancedRequest.Builder request, TransactionWrite<I> write) {
+        if (write.update()) {
+            request.addUpdateItem(write.store().table, write.item());
+        } else {
+            request.addPutItem(write.store().table, write.item());
+        }
+    }
+
     public void create(T item) {
-        table.putItem(item);
+        try {
+            table.putItem(item);
+        } finally {
+            forgetCachedReads();
+        }
     }
 
+    // Throws a ConditionalCheckFailedException if an item with the same key is already stored
     public void createIfNotExists(T item) {
         PutItemEnhancedRequest<T> enhancedRequest =
                 PutItemEnhancedRequest.builder(typeParameterClass)
                         .item(item)
                         .conditionExpression(
                                 Expression.builder()
-                                        .expression("attribute_not_exists(userId)")
+                                        .expression("attribute_not_exists(#key)")
+                                        .putExpressionName("#key", partitionKey)
                                         .build())
                         .build();
 
-        table.putItem(enhancedRequest);
+        try {
+            table.putItem(enhancedRequest);
+        } finally {
+            forgetCachedReads();
+        }
+    }
+
+    // A single conditional put, so of several callers creating the same item only one succeeds
+    public CreateOutcome createIfNotExists(T item, ConfigurationVariable tableTtl) {
+        item.setTtl(getTtl(tableTtl));
+        try {
+            createIfNotExists(item);
+            return CreateOutcome.CREATED;
+        } catch (ConditionalCheckFailedException e) {
+            return CreateOutcome.ALREADY_EXISTS;
+        }
     }
 
     public T getItem(String partitionValue, String sortValue) {
@@ -93,6 +223,36 @@ public class DataStore<T extends DynamodbItem> {
         return getItemByKey(key, warnOnNull);
     }
 
+    // Sees every write that completed before the read, at twice the cost of a normal read
+    public T getItemWithConsistentRead(String partitionValue) {
+        return table.getItem(
+                GetItemEnhancedRequest.builder()
+                        .key(Key.builder().partitionValue(partitionValue).build())
+                        .consistentRead(true)
+                        .build());
+    }
+
+    // Reads the stored item with the key of each of the given items, in batches of up to 100.
+    // Keys with no stored item are left out, and the items are returned in no particular order.
+    public List<T> getAll(List<T> keyItems) {
+        // A batch can't ask for the same key twice
+        var keys = new ArrayList<Key>();
+        keyItems.stream().map(table::keyFrom).distinct().forEach(keys::add);
+        var items = new ArrayList<T>();
+        while (!keys.isEmpty()) {
+            var readBatch = ReadBatch.builder(typeParameterClass).mappedTableResource(table);
+            takeBatch(keys, MAX_BATCH_GET_ITEMS).forEach(readBatch::addGetItem);
+            // Pages include a request for any keys DynamoDB left unprocessed
+            client.batchGetItem(
+                            BatchGetItemEnhancedRequest.builder()
+                                    .readBatches(readBatch.build())
+                                    .build())
+                    .resultsForTable(table)
+                    .forEach(items::add);
+        }
+        return items;
+    }
+
     public T getItemByIndex(String indexName, String value) throws DynamoDbException {
         DynamoDbIndex<T> index = table.index(indexName);
         var key = Key.builder().partitionValue(value).build();
@@ -113,9 +273,20 @@ public class DataStore<T extends DynamodbItem> {
 
     public List<T> getItems(String partitionValue) {
         var key = Key.builder().partitionValue(partitionValue).build();
-        return table.query(QueryConditional.keyEqualTo(key)).stream()
-                .flatMap(page -> page.items().stream())
-                .toList();
+        var cache = RequestScopedReadCache.current();
+        if (cache == null) {
+            return queryPartition(key);
+        }
+        var schema = table.tableSchema();
+        List<Map<String, AttributeValue>> attributes =
+                cache.read(
+                        table.tableName(),
+                        List.of("items", partitionValue),
+                        () ->
+                                queryPartition(key).stream()
+                                        .map(item -> schema.itemToMap(item, true))
+                                        .toList());
+        return attributes.stream().map(schema::mapToItem).toList();
     }
 
     public List<T> getItemsWithBooleanAttribute(String partitionValue, String name, boolean value) {
@@ -146,24 +317,118 @@ public class DataStore<T extends DynamodbItem> {
     }
 
     public T update(T item) {
-        return table.updateItem(item);
+        try {
+            return table.updateItem(item);
+        } finally {
+            forgetCachedReads();
+        }
     }
 
     public T delete(String partitionValue, String sortValue) {
         var key = Key.builder().partitionValue(partitionValue).sortValue(sortValue).build();
-        return table.deleteItem(key);
+        try {
+            return table.deleteItem(key);
+        } finally {
+            forgetCachedReads();
+        }
     }
 
     public List<T> delete(List<T> items) {
-        return items.stream().map(table::deleteItem).toList();
+        try {
+            return items.stream().map(table::deleteItem).toList();
+        } finally {
+            forgetCachedReads();
+        }
+    }
+
+    // Deletes in batches of up to 25 items, retrying any that DynamoDB leaves unprocessed
+    public void deleteAll(List<T> items) {
+        writeBatches(List.of(), items);
     }
 
     public void deleteAllByPartition(String partitionValue) {
-        delete(getItems(partitionValue));
+        deleteAll(getItems(partitionValue));
+    }
+
+    protected long getTtl(ConfigurationVariable tableTtl) {
+        return Instant.now()
+                .plusSeconds(Long.parseLong(configService.getSsmParameter(tableTtl)))
+                .getEpochSecond();
+    }
+
+    private void writeBatches(List<T> itemsToPut, List<T> itemsToDelete) {
+        var puts = new ArrayList<>(itemsToPut);
+        var deletes = new ArrayList<Key>();
+        itemsToDelete.forEach(item -> deletes.add(table.keyFrom(item)));
+
+        try {
+            while (!puts.isEmpty() || !deletes.isEmpty()) {
+                var batchPuts = takeBatch(puts, MAX_BATCH_WRITE_ITEMS);
+                var batchDeletes = takeBatch(deletes, MAX_BATCH_WRITE_ITEMS - batchPuts.size());
+                writeBatch(batchPuts, batchDeletes);
+            }
+        } finally {
+            forgetCachedReads();
+        }
+    }
+
+    private void writeBatch(List<T> puts, List<Key> deletes) {
+        var unprocessedPuts = puts;
+        var unprocessedDeletes = deletes;
+        for (int attempt = 1;
+                !unprocessedPuts.isEmpty() || !unprocessedDeletes.isEmpty();
+                attempt++) {
+            if (attempt > MAX_BATCH_WRITE_ATTEMPTS) {
+                throw DynamoDbException.builder()
+                        .message(
+                                String.format(
+                                        "%d items left unprocessed after %d attempts",
+                                        unprocessedPuts.size() + unprocessedDeletes.size(),
+                                        MAX_BATCH_WRITE_ATTEMPTS))
+                        .build();
+            }
+            if (attempt > 1) {
+                backOff(attempt);
+            }
+
+            var writeBatch = WriteBatch.builder(typeParameterClass).mappedTableResource(table);
+            for (var item : unprocessedPuts) {
+                writeBatch.addPutItem(item);
+            }
+            for (var key : unprocessedDeletes) {
+                writeBatch.addDeleteItem(key);
+            }
+            var result =
+                    client.batchWriteItem(
+                            BatchWriteItemEnhancedRequest.builder()
+                                    .writeBatches(writeBatch.build())
+                                    .build());
+
+            unprocessedPuts = result.unprocessedPutItemsForTable(table);
+            unprocessedDeletes = result.unprocessedDeleteItemsForTable(table);
+        }
+    }
+
+    private static <E> List<E> takeBatch(List<E> items, int size) {
+        var batch = new ArrayList<>(items.subList(0, Math.min(size, items.size())));
+        items.subList(0, batch.size()).clear();
+        return batch;
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS << (attempt - 2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw DynamoDbException.builder()
+                    .message("Interrupted while retrying unprocessed items")
+                    .cause(e)
+                    .build();
+        }
     }
 
     private T getItemByKey(Key key, boolean warnOnNull) {
-        T result = table.getItem(key);
+        T result = getCachedItem(key);
         if (warnOnNull && result == null) {
             var message =
                     new StringMapMessage()
@@ -173,4 +438,37 @@ public class DataStore<T extends DynamodbItem> {
         }
         return result;
     }
+
+    // Items are cached as attributes, so callers changing an item can't change the cached one
+    private T getCachedItem(Key key) {
+        var cache = RequestScopedReadCache.current();
+        if (cache == null) {
+            return table.getItem(key);
+        }
+        var schema = table.tableSchema();
+        Optional<Map<String, AttributeValue>> attributes =
+                cache.read(
+                        table.tableName(),
+                        List.of(
+                                "item",
+                                key.partitionKeyValue().s(),
+                                key.sortKeyValue().map(AttributeValue::s).orElse("")),
+                        () ->
+                                Optional.ofNullable(table.getItem(key))
+                                        .map(item -> schema.itemToMap(item, true)));
+        return attributes.map(schema::mapToItem).orElse(null);
+    }
+
+    private List<T> queryPartition(Key key) {
+        return table.query(QueryConditional.keyEqualTo(key)).stream()
+                .flatMap(page -> page.items().stream())
+                .toList();
+    }
+
+    private void forgetCachedReads() {
+        var cache = RequestScopedReadCache.current();
+        if (cache != null) {
+            cache.invalidate(table.tableName());
+        }
+    }
 }
@@ -0,0 +1,87 @@
+package uk.gov.di.ipv.core.library.persistence;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers what a {@link DataStore} has read while a handler deals with one request, so reading
+ * the same key again, even through another service, doesn't call DynamoDB. Writes through a data
+ * store forget everything read from its table. A handler opens the cache when a request starts and
+ * closes it before returning, so nothing is kept between requests.
+ *
+ * <p>The cache is bound to the thread that opened it, so requests served at once by one process,
+ * as when running locally, each have their own. Work for the request on other threads uses it only
+ * if handed over with {@link #propagate(Runnable)}.
+ */
+public final class RequestScopedReadCache implements AutoCloseable {
+    private static final ThreadLocal<RequestScopedReadCache> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Map<List<String>, Object>> tables = new ConcurrentHashMap<>();
+    private final RequestScopedReadCache previous;
+
+    private RequestScopedReadCache(RequestScopedReadCache previous) {
+        this.previous = previous;
+    }
+
+    public static RequestScopedReadCache open() {
+        var cache = new RequestScopedReadCache(CURRENT.get());
+        CURRENT.set(cache);
+        return cache;
+    }
+
+    // Null when this thread has no cache open
+    static RequestScopedReadCache current() {
+        return CURRENT.get();
+    }
+
+    // Runs the task with the cache open on this thread, if any, wherever the task is run
+    public static Runnable propagate(Runnable task) {
+        var cache = CURRENT.get();
+        if (cache == null) {
+            return task;
+        }
+        return () -> {
+            var replaced = CURRENT.get();
+            CURRENT.set(cache);
+            try {
+                task.run();
+            } finally {
+                bind(replaced);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    <V> V read(String tableName, List<String> key, Supplier<V> reader) {
+        var entries = tables.computeIfAbsent(tableName, name -> new ConcurrentHashMap<>());
+        var cached = (V) entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        var value = reader.get();
+        // If the table was written to during the read, this goes into the forgotten entries
+        entries.put(key, value);
+        return value;
+    }
+
+    void invalidate(String tableName) {
+        tables.remove(tableName);
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            bind(previous);
+        }
+    }
+
+    private static void bind(RequestScopedReadCache cache) {
+        if (cache == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(cache);
+        }
+    }
+}
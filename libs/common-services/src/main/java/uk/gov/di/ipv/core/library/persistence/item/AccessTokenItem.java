@@ -0,0 +1,28 @@
+package uk.gov.di.ipv.core.library.persistence.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+
+/**
+ * Maps a hashed access token to the IPV session it was issued for, so the session can be found
+ * with a strongly consistent read rather than through the eventually consistent accessToken index.
+ */
+@DynamoDbBean
+@ExcludeFromGeneratedCoverageReport
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class AccessTokenItem implements DynamodbItem {
+    private String accessToken;
+    private String ipvSessionId;
+    private long ttl;
+
+    @DynamoDbPartitionKey
+    public String getAccessToken() {
+        return accessToken;
+    }
+}
@@ -0,0 +1,38 @@
+package uk.gov.di.ipv.core.library.persistence.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+
+/**
+ * The outcome of an admin action, such as revoking a VC, for one user ID and CRI ID pair in a bulk
+ * run. A run's items are its checkpoint, read back when the run is resumed.
+ */
+@DynamoDbBean
+@ExcludeFromGeneratedCoverageReport
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class BulkVcsActionItem implements DynamodbItem {
+    private String runId;
+    private String pairId;
+    private String userId;
+    private String criId;
+    private String status;
+    private String errorMessage;
+    private long ttl;
+
+    @DynamoDbPartitionKey
+    public String getRunId() {
+        return runId;
+    }
+
+    @DynamoDbSortKey
+    public String getPairId() {
+        return pairId;
+    }
+}
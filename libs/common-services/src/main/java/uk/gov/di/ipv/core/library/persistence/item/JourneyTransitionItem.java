@@ -0,0 +1,65 @@
+package uk.gov.di.ipv.core.library.persistence.item;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One journey event handled for an IPV session: where the user was, the event, and where the
+ * journey engine sent them. Transitions are never updated, so a session's items are its journey
+ * history in sort key order. The sort key ends with a random id, so transitions recorded at the
+ * same instant are kept as separate items.
+ */
+@ExcludeFromGeneratedCoverageReport
+@DynamoDbBean
+@Data
+@NoArgsConstructor
+public class JourneyTransitionItem implements DynamodbItem {
+    private static final String SORT_KEY_TEMPLATE = "%010d.%09d.%s";
+
+    private String ipvSessionId;
+    private String sortKey;
+    private String timestamp;
+    private String journeyType;
+    private String state;
+    private String event;
+    private String currentPage;
+    private List<String> featureSet;
+    private String targetJourneyType;
+    private String targetState;
+    private String error;
+    private long ttl;
+
+    public JourneyTransitionItem(String ipvSessionId, Instant timestamp) {
+        this.ipvSessionId = ipvSessionId;
+        this.sortKey =
+                String.format(
+                        SORT_KEY_TEMPLATE,
+                        timestamp.getEpochSecond(),
+                        timestamp.getNano(),
+                        UUID.randomUUID());
+        this.timestamp = timestamp.toString();
+    }
+
+    @DynamoDbPartitionKey
+    public String getIpvSessionId() {
+        return ipvSessionId;
+    }
+
+    @DynamoDbSortKey
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    @Override
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+}
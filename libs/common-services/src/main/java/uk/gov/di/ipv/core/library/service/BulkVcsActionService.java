@@ -0,0 +1,196 @@
+package uk.gov.di.ipv.core.library.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.core.library.domain.BulkVcsActionReport;
+import uk.gov.di.ipv.core.library.domain.BulkVcsActionResult;
+import uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
+import uk.gov.di.ipv.core.library.exceptions.SqsException;
+import uk.gov.di.ipv.core.library.helpers.ExecutorHelper;
+import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.item.BulkVcsActionItem;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.BULK_VCS_ACTIONS_TABLE_NAME;
+import static uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus.FAILED;
+import static uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus.NOT_ATTEMPTED;
+
+/**
+ * Runs an admin action, such as revoking VCs, over many user ID and CRI ID pairs on a bounded pool.
+ * The outcome for each pair is checkpointed as soon as it is known, so a run that stops part-way
+ * can be resumed by sending the same pairs with its run ID. A resumed run reports the pairs it has
+ * already done from its checkpoint and retries the rest, so actions must be safe to repeat.
+ *
+ * <p>A run stops when an audit event can't be sent, as the audit trail for anything changed after
+ * that would be incomplete. Pairs not started when a run stops, or once the caller is out of time,
+ * are reported as not attempted.
+ */
+public class BulkVcsActionService {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Duration CHECKPOINT_TTL = Duration.ofDays(30);
+
+    private final DataStore<BulkVcsActionItem> dataStore;
+    private final ExecutorService executor;
+
+    public BulkVcsActionService(DataStore<BulkVcsActionItem> dataStore, int maxConcurrency) {
+        this.dataStore = dataStore;
+        this.executor = ExecutorHelper.newFixedDaemonThreadPool("bulk-vcs-actions", maxConcurrency);
+    }
+
+    @ExcludeFromGeneratedCoverageReport
+    public BulkVcsActionService(ConfigService configService, int maxConcurrency) {
+        this(
+                new DataStore<>(
+                        configService.getEnvironmentVariable(BULK_VCS_ACTIONS_TABLE_NAME),
+                        BulkVcsActionItem.class,
+                        DataStore.getClient(),
+                        configService),
+                maxConcurrency);
+    }
+
+    @FunctionalInterface
+    public interface VcsAction {
+        // Returns SUCCEEDED, or SKIPPED if there was nothing to do for the pair
+        BulkVcsActionStatus apply(UserIdCriIdPair userIdCriIdPair)
+                throws Exception; // NOSONAR - any failure is reported for its pair
+    }
+
+    public BulkVcsActionReport run(
+            String runId,
+            List<UserIdCriIdPair> userIdCriIdPairs,
+            VcsAction action,
+            BooleanSupplier outOfTime) {
+        // Acting on a pair twice at once could interleave the steps of the two actions
+        var pairs = List.copyOf(new LinkedHashSet<>(userIdCriIdPairs));
+        var donePairs = readCheckpoint(runId);
+        var stopped = new AtomicBoolean();
+
+        var futures = new ArrayList<Future<BulkVcsActionResult>>();
+        for (var i = 0; i < pairs.size(); i++) {
+            var pair = pairs.get(i);
+            var doneResult = donePairs.get(pair);
+            if (doneResult != null) {
+                futures.add(CompletableFuture.completedFuture(doneResult));
+                continue;
+            }
+            var progress = String.format("(%s / %s)", i + 1, pairs.size());
+            futures.add(
+                    executor.submit(
+                            () -> act(runId, pair, action, stopped, outOfTime, progress)));
+        }
+
+        var results = new ArrayList<BulkVcsActionResult>();
+        try {
+            for (var i = 0; i < pairs.size(); i++) {
+                results.add(awaitResult(futures.get(i), pairs.get(i), stopped));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return new BulkVcsActionReport(runId, results);
+    }
+
+    private BulkVcsActionResult act(
+            String runId,
+            UserIdCriIdPair pair,
+            VcsAction action,
+            AtomicBoolean stopped,
+            BooleanSupplier outOfTime,
+            String progress) {
+        if (stopped.get() || outOfTime.getAsBoolean()) {
+            return new BulkVcsActionResult(pair, NOT_ATTEMPTED, null);
+        }
+
+        BulkVcsActionResult result;
+        try {
+            result = new BulkVcsActionResult(pair, action.apply(pair), null);
+            LOGGER.info(
+                    LogHelper.buildLogMessage(
+                            String.format("VC action %s %s", result.getStatus(), progress)));
+        } catch (SqsException e) {
+            stopped.set(true);
+            LOGGER.error(
+                    LogHelper.buildErrorMessage(
+                            String.format(
+                                    "Stopping run because of failure to send audit event %s",
+                                    progress),
+                            e));
+            result = new BulkVcsActionResult(pair, FAILED, e.getMessage());
+        } catch (Exception e) {
+            LOGGER.error(
+                    LogHelper.buildErrorMessage(
+                            String.format("Unexpected error occurred %s", progress), e));
+            result = new BulkVcsActionResult(pair, FAILED, e.getMessage());
+        }
+        checkpoint(runId, result);
+        return result;
+    }
+
+    private BulkVcsActionResult awaitResult(
+            Future<BulkVcsActionResult> future, UserIdCriIdPair pair, AtomicBoolean stopped) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Unexpected failure from VC action", e.getCause());
+        } catch (InterruptedException e) {
+            stopped.set(true);
+            Thread.currentThread().interrupt();
+            return new BulkVcsActionResult(pair, NOT_ATTEMPTED, null);
+        }
+    }
+
+    private Map<UserIdCriIdPair, BulkVcsActionResult> readCheckpoint(String runId) {
+        var donePairs = new HashMap<UserIdCriIdPair, BulkVcsActionResult>();
+        for (var item : dataStore.getItems(runId)) {
+            var status = BulkVcsActionStatus.valueOf(item.getStatus());
+            if (status.isDone()) {
+                var pair = new UserIdCriIdPair(item.getUserId(), item.getCriId());
+                donePairs.put(pair, new BulkVcsActionResult(pair, status, null));
+            }
+        }
+        if (!donePairs.isEmpty()) {
+            LOGGER.info(
+                    LogHelper.buildLogMessage(
+                            String.format(
+                                    "Resuming run with %s VCs already done.", donePairs.size())));
+        }
+        return donePairs;
+    }
+
+    private void checkpoint(String runId, BulkVcsActionResult result) {
+        var pair = result.getUserIdCriIdPair();
+        try {
+            dataStore.create(
+                    new BulkVcsActionItem(
+                            runId,
+                            pair.getUserId() + "#" + pair.getCriId(),
+                            pair.getUserId(),
+                            pair.getCriId(),
+                            result.getStatus().name(),
+                            result.getErrorMessage(),
+                            Instant.now().plus(CHECKPOINT_TTL).getEpochSecond()));
+        } catch (Exception e) {
+            // Without a checkpoint the pair is acted on again if the run is resumed
+            LOGGER.error(LogHelper.buildErrorMessage("Failed to checkpoint VC action", e));
+        }
+    }
+}
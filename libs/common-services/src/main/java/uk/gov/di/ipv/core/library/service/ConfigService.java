@@ -3,6 +3,8 @@ package uk.gov.di.ipv.core.library.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.StringMapMessage;
@@ -29,11 +31,18 @@ import uk.gov.di.ipv.core.library.dto.OauthCriConfig;
 import uk.gov.di.ipv.core.library.dto.RestCriConfig;
 import uk.gov.di.ipv.core.library.exceptions.ConfigException;
 import uk.gov.di.ipv.core.library.exceptions.ConfigParseException;
+import uk.gov.di.ipv.core.library.exceptions.NoConfigForClientException;
 import uk.gov.di.ipv.core.library.exceptions.NoConfigForConnectionException;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.helpers.VerifierRegistry;
+import uk.gov.di.ipv.core.library.metrics.DependencyMetricsInterceptor;
 import uk.gov.di.ipv.core.library.persistence.item.CriOAuthSessionItem;
+import uk.gov.di.ipv.core.library.validation.ClientAuthPolicy;
 
 import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -42,10 +51,14 @@ import java.util.Map;
 import java.util.Optional;
 
 import static java.time.temporal.ChronoUnit.MINUTES;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.CLIENT_ISSUER;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.MAX_ALLOWED_AUTH_CLIENT_TTL;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY;
 import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.BEARER_TOKEN_TTL;
 import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.CONFIG_SERVICE_CACHE_DURATION_MINUTES;
 import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.ENVIRONMENT;
 import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.SIGNING_KEY_ID_PARAM;
+import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_CLIENT_ID;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_CONNECTION;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_CRI_ID;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_FEATURE_SET;
@@ -61,16 +74,37 @@ public class ConfigService {
     private static final String CLIENT_REDIRECT_URL_SEPARATOR = ",";
     private static final String API_KEY = "apiKey";
     private static final String CORE_BASE_PATH = "/%s/core/";
+    private static final String CONTRA_INDICATOR_CONFIG = "contraIndicatorConfig";
+    private static final String CIMIT_CONFIG = "cimitConfig";
     private static final Logger LOGGER = LogManager.getLogger();
     private final SSMProvider ssmProvider;
     private final SecretsProvider secretsProvider;
+    private final Clock clock;
+    private final Duration refreshInterval;
 
     private List<String> featureSet;
+    private volatile ConfigSnapshot snapshot;
 
     public ConfigService(
             SSMProvider ssmProvider, SecretsProvider secretsProvider, List<String> featureSet) {
+        this(
+                ssmProvider,
+                secretsProvider,
+                featureSet,
+                Clock.systemUTC(),
+                Duration.ofMinutes(DEFAULT_CACHE_DURATION_MINUTES));
+    }
+
+    ConfigService(
+            SSMProvider ssmProvider,
+            SecretsProvider secretsProvider,
+            List<String> featureSet,
+            Clock clock,
+            Duration refreshInterval) {
         this.ssmProvider = ssmProvider;
         this.secretsProvider = secretsProvider;
+        this.clock = clock;
+        this.refreshInterval = refreshInterval;
         setFeatureSet(featureSet);
     }
 
@@ -90,6 +124,8 @@ public class ConfigService {
                 ParamManager.getSsmProvider(
                                 SsmClient.builder()
                                         .httpClient(UrlConnectionHttpClient.create())
+                                        .overrideConfiguration(
+                                                DependencyMetricsInterceptor.clientConfiguration())
                                         .build())
                         .defaultMaxAge(cacheDuration, MINUTES);
 
@@ -97,8 +133,13 @@ public class ConfigService {
                 ParamManager.getSecretsProvider(
                                 SecretsManagerClient.builder()
                                         .httpClient(UrlConnectionHttpClient.create())
+                                        .overrideConfiguration(
+                                                DependencyMetricsInterceptor.clientConfiguration())
                                         .build())
                         .defaultMaxAge(cacheDuration, MINUTES);
+
+        this.clock = Clock.systemUTC();
+        this.refreshInterval = Duration.ofMinutes(cacheDuration);
     }
 
     public List<String> getFeatureSet() {
@@ -118,14 +159,28 @@ public class ConfigService {
         return getSsmParameterWithOverride(configurationVariable.getPath(), pathProperties);
     }
 
+    // Config is served from a snapshot that is replaced once it is older than the refresh interval,
+    // so that warm invocations do not go back to the providers or re-parse unchanged JSON
+    private ConfigSnapshot getSnapshot() {
+        var now = clock.instant();
+        var current = snapshot;
+        if (current == null || current.isExpired(now)) {
+            current = new ConfigSnapshot(now.plus(refreshInterval));
+            snapshot = current;
+        }
+        return current;
+    }
+
     private String getSsmParameterWithOverride(String templatePath, String... pathProperties) {
+        var config = getSnapshot();
         if (this.featureSet != null) {
             for (String fs : this.featureSet) {
                 final Path featureSetPath =
                         Path.of(resolveFeatureSetPath(fs, templatePath, pathProperties));
                 final String terminal = featureSetPath.getFileName().toString();
                 final String basePath = featureSetPath.getParent().toString();
-                final Map<String, String> overrides = ssmProvider.getMultiple(basePath);
+                final Map<String, String> overrides =
+                        config.getParametersByPath(basePath, ssmProvider::getMultiple);
                 if (overrides.containsKey(terminal)) {
                     return overrides.get(terminal);
                 } else {
@@ -139,7 +194,7 @@ public class ConfigService {
                 }
             }
         }
-        return ssmProvider.get(resolvePath(templatePath, pathProperties));
+        return config.getParameter(resolvePath(templatePath, pathProperties), ssmProvider::get);
     }
 
     private String resolveBasePath() {
@@ -163,7 +218,8 @@ public class ConfigService {
     }
 
     public String getSigningKeyId() {
-        return ssmProvider.get(getEnvironmentVariable(SIGNING_KEY_ID_PARAM));
+        return getSnapshot()
+                .getParameter(getEnvironmentVariable(SIGNING_KEY_ID_PARAM), ssmProvider::get);
     }
 
     public List<String> getClientRedirectUrls(String clientId) {
@@ -172,6 +228,48 @@ public class ConfigService {
         return Arrays.asList(redirectUrlStrings.split(CLIENT_REDIRECT_URL_SEPARATOR));
     }
 
+    // Built once per snapshot and feature set, so warm requests from a client share it. Throws
+    // ParameterNotFoundException for unknown clients, and NoConfigForClientException for known
+    // clients missing other config. Neither is remembered.
+    public ClientAuthPolicy getClientAuthPolicy(String clientId) {
+        return getSnapshot()
+                .getBuilt(
+                        String.format("clientAuthPolicy/%s/%s", featureSet, clientId),
+                        key -> buildClientAuthPolicy(clientId));
+    }
+
+    private ClientAuthPolicy buildClientAuthPolicy(String clientId) {
+        // Only a client without an issuer is unknown
+        var issuer = getSsmParameter(CLIENT_ISSUER, clientId);
+        try {
+            return new ClientAuthPolicy(
+                    clientId,
+                    issuer,
+                    getClientVerifier(clientId),
+                    getClientRedirectUrls(clientId),
+                    Duration.ofSeconds(
+                            Long.parseLong(getSsmParameter(MAX_ALLOWED_AUTH_CLIENT_TTL))));
+        } catch (ParameterNotFoundException e) {
+            LOGGER.error(
+                    LogHelper.buildErrorMessage("Missing config for client", e)
+                            .with(LOG_CLIENT_ID.getFieldName(), clientId));
+            throw new NoConfigForClientException(
+                    String.format("Missing config for client: '%s'", clientId));
+        }
+    }
+
+    private ECDSAVerifier getClientVerifier(String clientId) {
+        try {
+            return VerifierRegistry.getInstance()
+                    .getVerifier(getSsmParameter(PUBLIC_KEY_MATERIAL_FOR_CORE_TO_VERIFY, clientId));
+        } catch (ParseException | JOSEException e) {
+            LOGGER.error(
+                    LogHelper.buildErrorMessage("Failed to parse client public key", e)
+                            .with(LOG_CLIENT_ID.getFieldName(), clientId));
+            return null;
+        }
+    }
+
     public String getCriPrivateApiKeyForActiveConnection(String criId) {
         return getApiKeyFromSecretManager(criId, getActiveConnection(criId));
     }
@@ -229,13 +327,11 @@ public class ConfigService {
     public Map<String, ContraIndicatorConfig> getContraIndicatorConfigMap() {
         try {
             String secretValue = getCoreSecretValue(ConfigurationVariable.CI_CONFIG);
-            List<ContraIndicatorConfig> configList =
-                    OBJECT_MAPPER.readValue(secretValue, new TypeReference<>() {});
-            Map<String, ContraIndicatorConfig> configMap = new HashMap<>();
-            for (ContraIndicatorConfig config : configList) {
-                configMap.put(config.getCi(), config);
-            }
-            return configMap;
+            return getSnapshot()
+                    .getParsed(
+                            CONTRA_INDICATOR_CONFIG,
+                            secretValue,
+                            ConfigService::parseContraIndicatorConfig);
         } catch (JsonProcessingException e) {
             LOGGER.error(LogHelper.buildLogMessage("Failed to parse contra-indicator config"));
             return Collections.emptyMap();
@@ -245,13 +341,32 @@ public class ConfigService {
     public Map<String, List<MitigationRoute>> getCimitConfig() throws ConfigException {
         final String cimitConfig = getSsmParameter(ConfigurationVariable.CIMIT_CONFIG);
         try {
-            return OBJECT_MAPPER.readValue(
-                    cimitConfig, new TypeReference<HashMap<String, List<MitigationRoute>>>() {});
+            return getSnapshot()
+                    .getParsed(CIMIT_CONFIG, cimitConfig, ConfigService::parseCimitConfig);
         } catch (JsonProcessingException e) {
             throw new ConfigException("Failed to parse CIMit configuration");
         }
     }
 
+    private static Map<String, ContraIndicatorConfig> parseContraIndicatorConfig(
+            String secretValue) throws JsonProcessingException {
+        List<ContraIndicatorConfig> configList =
+                OBJECT_MAPPER.readValue(secretValue, new TypeReference<>() {});
+        Map<String, ContraIndicatorConfig> configMap = new HashMap<>();
+        for (ContraIndicatorConfig config : configList) {
+            configMap.put(config.getCi(), config);
+        }
+        return Collections.unmodifiableMap(configMap);
+    }
+
+    private static Map<String, List<MitigationRoute>> parseCimitConfig(String cimitConfig)
+            throws JsonProcessingException {
+        return Collections.unmodifiableMap(
+                OBJECT_MAPPER.readValue(
+                        cimitConfig,
+                        new TypeReference<HashMap<String, List<MitigationRoute>>>() {}));
+    }
+
     public boolean enabled(FeatureFlag featureFlag) {
         return Boolean.parseBoolean(
                 getSsmParameter(ConfigurationVariable.FEATURE_FLAGS, featureFlag.getName()));
@@ -269,7 +384,7 @@ public class ConfigService {
 
     private String getSecretValue(String secretId) {
         try {
-            return secretsProvider.get(secretId);
+            return getSnapshot().getSecret(secretId, secretsProvider::get);
         } catch (DecryptionFailureException e) {
             LOGGER.error(
                     LogHelper.buildErrorMessage(
@@ -331,8 +446,14 @@ public class ConfigService {
         final String pathTemplate =
                 ConfigurationVariable.CREDENTIAL_ISSUERS.getPath() + "/%s/connections/%s";
         try {
-            String parameter = ssmProvider.get(resolvePath(pathTemplate, criId, connection));
-            return OBJECT_MAPPER.readValue(parameter, configType);
+            var config = getSnapshot();
+            String parameter =
+                    config.getParameter(
+                            resolvePath(pathTemplate, criId, connection), ssmProvider::get);
+            return config.getParsed(
+                    configType.getName(),
+                    parameter,
+                    source -> OBJECT_MAPPER.readValue(source, configType));
         } catch (ParameterNotFoundException e) {
             throw new NoConfigForConnectionException(
                     String.format(
@@ -0,0 +1,106 @@
+package uk.gov.di.ipv.core.library.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The config read from SSM and Secrets Manager during one refresh interval, along with the typed
+ * objects parsed from it. Each parameter, feature set overlay and secret is fetched at most once
+ * per snapshot, and each distinct JSON document is parsed at most once per target type.
+ *
+ * <p>A snapshot is never refreshed in place. Once it has expired {@link ConfigService} replaces it
+ * with an empty one, so callers always see values that were read within the same interval. Parsed
+ * objects are shared between callers and must not be modified.
+ *
+ * <p>Lookups that fail, or that return null, are not remembered and go back to the provider the
+ * next time they are asked for.
+ */
+final class ConfigSnapshot {
+    private final Instant expiresAt;
+    private final Map<String, String> parameters = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> parametersByPath = new ConcurrentHashMap<>();
+    private final Map<String, String> secrets = new ConcurrentHashMap<>();
+    private final Map<ParsedKey, Object> parsed = new ConcurrentHashMap<>();
+    private final Map<String, Object> built = new ConcurrentHashMap<>();
+
+    ConfigSnapshot(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    String getParameter(String path, Function<String, String> loader) {
+        return memoise(parameters, path, loader);
+    }
+
+    // The overlay for a feature set path, keyed by the terminal name of each parameter under it
+    Map<String, String> getParametersByPath(
+            String path, Function<String, Map<String, String>> loader) {
+        return memoise(
+                parametersByPath,
+                path,
+                key -> {
+                    var values = loader.apply(key);
+                    return values == null
+                            ? null
+                            : Collections.unmodifiableMap(new HashMap<>(values));
+                });
+    }
+
+    String getSecret(String secretId, Function<String, String> loader) {
+        return memoise(secrets, secretId, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T getParsed(String type, String source, Parser<T> parser) throws JsonProcessingException {
+        if (source == null) {
+            return parser.parse(null);
+        }
+        var key = new ParsedKey(type, source);
+        var cached = (T) parsed.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        var value = parser.parse(source);
+        if (value == null) {
+            return null;
+        }
+        var existing = (T) parsed.putIfAbsent(key, value);
+        return existing == null ? value : existing;
+    }
+
+    // An object built from several values in this snapshot, such as a client's auth policy
+    @SuppressWarnings("unchecked")
+    <T> T getBuilt(String key, Function<String, T> builder) {
+        return (T) memoise(built, key, builder::apply);
+    }
+
+    // Loads outside of the map so that a slow backend call does not block other keys
+    private static <V> V memoise(Map<String, V> cache, String key, Function<String, V> loader) {
+        var cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        var value = loader.apply(key);
+        if (value == null) {
+            return null;
+        }
+        var existing = cache.putIfAbsent(key, value);
+        return existing == null ? value : existing;
+    }
+
+    @FunctionalInterface
+    interface Parser<T> {
+        T parse(String source) throws JsonProcessingException;
+    }
+
+    private record ParsedKey(String type, String source) {}
+}
@@ -14,12 +14,15 @@ import uk.gov.di.ipv.core.library.enums.Vot;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
 import uk.gov.di.ipv.core.library.helpers.SecureTokenHelper;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.ACCESS_TOKENS_TABLE_NAME;
 import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.IPV_SESSIONS_TABLE_NAME;
 
 public class IpvSessionService {
@@ -27,20 +30,43 @@ public class IpvSessionService {
     private static final String START_STATE = "START";
     private static final String ERROR_STATE = "ERROR";
 
+    private static final int MAX_ACCESS_TOKEN_INDEX_READS = 7;
+    private static final long ACCESS_TOKEN_INDEX_BACKOFF_MILLIS = 10;
+
     private final DataStore<IpvSessionItem> dataStore;
+    private final DataStore<AccessTokenItem> accessTokenDataStore;
+    private final Sleeper sleeper;
+
+    public IpvSessionService(
+            DataStore<IpvSessionItem> dataStore, DataStore<AccessTokenItem> accessTokenDataStore) {
+        this(dataStore, accessTokenDataStore, Thread::sleep);
+    }
 
-    public IpvSessionService(DataStore<IpvSessionItem> dataStore) {
+    IpvSessionService(
+            DataStore<IpvSessionItem> dataStore,
+            DataStore<AccessTokenItem> accessTokenDataStore,
+            Sleeper sleeper) {
         this.dataStore = dataStore;
+        this.accessTokenDataStore = accessTokenDataStore;
+        this.sleeper = sleeper;
     }
 
     @ExcludeFromGeneratedCoverageReport
     public IpvSessionService(ConfigService configService) {
+        var client = DataStore.getClient();
         dataStore =
                 new DataStore<>(
                         configService.getEnvironmentVariable(IPV_SESSIONS_TABLE_NAME),
                         IpvSessionItem.class,
-                        DataStore.getClient(),
+                        client,
                         configService);
+        accessTokenDataStore =
+                new DataStore<>(
+                        configService.getEnvironmentVariable(ACCESS_TOKENS_TABLE_NAME),
+                        AccessTokenItem.class,
+                        client,
+                        configService);
+        sleeper = Thread::sleep;
     }
 
     public IpvSessionItem getIpvSession(String ipvSessionId) {
@@ -55,19 +81,35 @@ public class IpvSessionService {
     }
 
     public Optional<IpvSessionItem> getIpvSessionByAccessToken(String accessToken) {
+        var hashedAccessToken = DigestUtils.sha256Hex(accessToken);
+
+        var accessTokenItem = accessTokenDataStore.getItemWithConsistentRead(hashedAccessToken);
+        if (accessTokenItem == null) {
+            return getIpvSessionByAccessTokenIndex(hashedAccessToken);
+        }
+
+        // The session may have been given a newer access token since
+        var ipvSessionItem =
+                dataStore.getItemWithConsistentRead(accessTokenItem.getIpvSessionId());
+        return Optional.ofNullable(ipvSessionItem)
+                .filter(item -> hashedAccessToken.equals(item.getAccessToken()));
+    }
+
+    // Sessions given an access token before the access tokens table was written to are only
+    // findable through the accessToken index, which can lag behind the sessions table
+    private Optional<IpvSessionItem> getIpvSessionByAccessTokenIndex(String hashedAccessToken) {
 
         IpvSessionItem ipvSessionItem = null;
 
         // Simple back off and retry
         var attempts = 0;
-        while (attempts < 7) {
-            ipvSessionItem =
-                    dataStore.getItemByIndex("accessToken", DigestUtils.sha256Hex(accessToken));
+        while (attempts < MAX_ACCESS_TOKEN_INDEX_READS) {
+            ipvSessionItem = dataStore.getItemByIndex("accessToken", hashedAccessToken);
 
             if (ipvSessionItem == null) {
-                var backoff = (long) (10 * Math.pow(2, attempts++));
+                var backoff = ACCESS_TOKEN_INDEX_BACKOFF_MILLIS << attempts++;
                 try {
-                    Thread.sleep(backoff);
+                    sleeper.sleep(backoff);
                 } catch (InterruptedException e) {
                     LOGGER.warn(
                             LogHelper.buildLogMessage(
@@ -130,9 +172,17 @@ public class IpvSessionService {
         AccessTokenMetadata accessTokenMetadata = new AccessTokenMetadata();
         accessTokenMetadata.setCreationDateTime(Instant.now().toString());
         accessTokenMetadata.setExpiryDateTime(toExpiryDateTime(accessToken.getLifetime()));
-        ipvSessionItem.setAccessToken(DigestUtils.sha256Hex(accessToken.getValue()));
+        var hashedAccessToken = DigestUtils.sha256Hex(accessToken.getValue());
+        ipvSessionItem.setAccessToken(hashedAccessToken);
         ipvSessionItem.setAccessTokenMetadata(accessTokenMetadata);
-        updateIpvSession(ipvSessionItem);
+        // Written together, so a token item is never left behind for a session without the token
+        DataStore.writeTransaction(
+                List.of(
+                        accessTokenDataStore.putInTransaction(
+                                new AccessTokenItem(
+                                        hashedAccessToken, ipvSessionItem.getIpvSessionId(), 0),
+                                BACKEND_SESSION_TTL),
+                        dataStore.updateInTransaction(ipvSessionItem)));
     }
 
     public void revokeAccessToken(IpvSessionItem ipvSessionItem) throws IllegalArgumentException {
@@ -151,4 +201,8 @@ public class IpvSessionService {
     private String toExpiryDateTime(long expirySeconds) {
         return Instant.now().plusSeconds(expirySeconds).toString();
     }
+
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
 }
@@ -0,0 +1,51 @@
+package uk.gov.di.ipv.core.library.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import software.amazon.awssdk.core.exception.SdkException;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
+
+import java.util.List;
+
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+import static uk.gov.di.ipv.core.library.config.EnvironmentVariable.JOURNEY_TRANSITIONS_TABLE_NAME;
+
+/**
+ * Append-only log of the journey transitions made for each IPV session, kept for as long as the
+ * session itself. The log is for diagnosing journeys, so failing to write to it never fails the
+ * journey.
+ */
+public class JourneyTransitionLogService {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final DataStore<JourneyTransitionItem> dataStore;
+
+    public JourneyTransitionLogService(DataStore<JourneyTransitionItem> dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    @ExcludeFromGeneratedCoverageReport
+    public JourneyTransitionLogService(ConfigService configService) {
+        dataStore =
+                new DataStore<>(
+                        configService.getEnvironmentVariable(JOURNEY_TRANSITIONS_TABLE_NAME),
+                        JourneyTransitionItem.class,
+                        DataStore.getClient(),
+                        configService);
+    }
+
+    public void recordTransition(JourneyTransitionItem transition) {
+        try {
+            dataStore.create(transition, BACKEND_SESSION_TTL);
+        } catch (SdkException e) {
+            LOGGER.warn(LogHelper.buildErrorMessage("Failed to record journey transition", e));
+        }
+    }
+
+    public List<JourneyTransitionItem> getTransitions(String ipvSessionId) {
+        return dataStore.getItems(ipvSessionId);
+    }
+}
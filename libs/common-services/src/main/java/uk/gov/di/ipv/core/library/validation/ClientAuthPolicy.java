@@ -0,0 +1,89 @@
+package uk.gov.di.ipv.core.library.validation;
+
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import lombok.Getter;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * What core accepts from one client's authorisation requests: the issuer of its JARs, the key they
+ * are signed with, where the user may be returned to and how long a JAR may live for. Built from
+ * config once per config refresh by {@link ConfigService#getClientAuthPolicy}, and shared by every
+ * request from the client until then.
+ *
+ * <p>Redirect URLs are compared after normalising them, so that URLs that only differ in the case
+ * of their scheme or host, a default port or an empty path still match.
+ */
+public final class ClientAuthPolicy {
+    private static final Map<String, Integer> DEFAULT_PORTS = Map.of("http", 80, "https", 443);
+
+    @Getter private final String clientId;
+    @Getter private final String issuer;
+    @Getter private final Duration maxJarTtl;
+    private final Set<String> redirectUrls;
+    // Null if the client's public key is not valid
+    private final ECDSAVerifier verifier;
+
+    public ClientAuthPolicy(
+            String clientId,
+            String issuer,
+            ECDSAVerifier verifier,
+            Collection<String> redirectUrls,
+            Duration maxJarTtl) {
+        this.clientId = clientId;
+        this.issuer = issuer;
+        this.verifier = verifier;
+        this.redirectUrls =
+                redirectUrls.stream()
+                        .map(ClientAuthPolicy::normalise)
+                        .collect(Collectors.toUnmodifiableSet());
+        this.maxJarTtl = maxJarTtl;
+    }
+
+    public Optional<ECDSAVerifier> getVerifier() {
+        return Optional.ofNullable(verifier);
+    }
+
+    public boolean isAllowedRedirectUrl(String redirectUrl) {
+        return redirectUrl != null && redirectUrls.contains(normalise(redirectUrl));
+    }
+
+    // URLs that can't be parsed are left as they are, so they only match exactly
+    static String normalise(String url) {
+        var trimmed = url.trim();
+        try {
+            var uri = new URI(trimmed).normalize();
+            if (uri.getScheme() == null || uri.getHost() == null || uri.getRawUserInfo() != null) {
+                return trimmed;
+            }
+            var scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            var port = uri.getPort() == DEFAULT_PORTS.getOrDefault(scheme, -1) ? -1 : uri.getPort();
+            var path = uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+            var normalised = new StringBuilder(scheme).append("://");
+            normalised.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                normalised.append(':').append(port);
+            }
+            normalised.append(path);
+            if (uri.getRawQuery() != null) {
+                normalised.append('?').append(uri.getRawQuery());
+            }
+            if (uri.getRawFragment() != null) {
+                normalised.append('#').append(uri.getRawFragment());
+            }
+            return normalised.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+}
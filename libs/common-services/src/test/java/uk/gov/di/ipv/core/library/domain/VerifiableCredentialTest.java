@@ -1,5 +1,6 @@
 package uk.gov.di.ipv.core.library.domain;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.nimbusds.jwt.SignedJWT;
 import org.junit.jupiter.api.Test;
 import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
@@ -8,12 +9,19 @@ import uk.gov.di.ipv.core.library.persistence.item.VcStoreItem;
 
 import java.text.ParseException;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.PASSPORT_NON_DCMAW_SUCCESSFUL_VC;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcDrivingPermit;
+import static uk.gov.di.ipv.core.library.helpers.VerifiableCredentialGenerator.generateVerifiableCredential;
+import static uk.gov.di.ipv.core.library.helpers.VerifiableCredentialGenerator.vcClaim;
 
 class VerifiableCredentialTest {
     private static final String USER_ID = "a-user-id";
@@ -136,4 +144,95 @@ class VerifiableCredentialTest {
         assertEquals(
                 expected.isReceivedThisSession(), sessionCredentialItem.isReceivedThisSession());
     }
+
+    @Test
+    void getClaimsShouldDecodeCredentialOnce() throws Exception {
+        var vc =
+                VerifiableCredential.fromValidJwt(
+                        USER_ID, CRI_ID, SignedJWT.parse(vcFixture.getVcString()));
+
+        assertSame(vc.getClaims(), vc.getClaims());
+    }
+
+    @Test
+    void getClaimsShouldReturnTypedCredentialSubject() throws Exception {
+        var claims = vcFixture.getClaims();
+
+        assertEquals("KENNETH DECERQUEIRA", claims.getNames().get(0).getFullName());
+        assertEquals("1965-07-08", claims.getBirthDates().get(0).getValue());
+        assertEquals(1, claims.getAddresses().size());
+        assertEquals("DVA", claims.getDrivingPermits().get(0).issuedBy());
+        assertEquals("123456", claims.getDrivingPermits().get(0).issueNumber());
+        assertTrue(claims.getPassports().isEmpty());
+        assertTrue(claims.getSocialSecurityRecords().isEmpty());
+        assertTrue(claims.getCredentialSubjectProperty("passport").isMissingNode());
+    }
+
+    @Test
+    void getClaimsShouldReturnEvidenceWithIssuer() throws Exception {
+        var claims = PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getClaims();
+
+        assertTrue(claims.hasEvidence());
+        assertEquals(1, claims.getEvidence().size());
+        assertEquals(4, claims.getEvidence().get(0).getStrengthScore().intValue());
+        assertEquals(
+                PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getClaimsSet().getIssuer(),
+                claims.getEvidence().get(0).getCredentialIss());
+        assertEquals(List.of("1c04edf0-a205-4585-8877-be6bd1776a39"), claims.getEvidenceTxns());
+        assertEquals("GBR", claims.getPassports().get(0).icaoIssuerCode());
+    }
+
+    @Test
+    void getClaimsShouldNotLetCallersChangeSharedEvidence() throws Exception {
+        var vc =
+                generateVerifiableCredential(
+                        USER_ID,
+                        CRI_ID,
+                        Map.of(
+                                "type",
+                                new String[] {"VerifiableCredential"},
+                                "evidence",
+                                List.of(
+                                        Map.of(
+                                                "strengthScore",
+                                                4,
+                                                "validityScore",
+                                                2,
+                                                "ci",
+                                                List.of("D02")))));
+        var evidence = vc.getClaims().getEvidence();
+
+        assertThrows(UnsupportedOperationException.class, () -> evidence.get(0).getCi().add("V03"));
+        assertThrows(UnsupportedOperationException.class, evidence::clear);
+        assertEquals(List.of("D02"), vc.getClaims().getEvidence().get(0).getCi());
+    }
+
+    @Test
+    void getClaimsShouldOnlyFailForMalformedClaim() throws Exception {
+        var vc =
+                generateVerifiableCredential(
+                        USER_ID,
+                        CRI_ID,
+                        vcClaim(
+                                Map.of(
+                                        "name",
+                                        "not a list of names",
+                                        "birthDate",
+                                        List.of(Map.of("value", "1965-07-08")))));
+        var claims = vc.getClaims();
+
+        assertThrows(CredentialParseException.class, claims::getNames);
+        assertEquals("1965-07-08", claims.getBirthDates().get(0).getValue());
+        assertEquals(List.of("DSJJSEE29392"), claims.getEvidenceTxns());
+    }
+
+    @Test
+    void getCredentialSubjectPropertyShouldReturnCopy() throws Exception {
+        var claims = vcFixture.getClaims();
+
+        ((ObjectNode) claims.getCredentialSubjectProperty("drivingPermit").get(0))
+                .remove("issueDate");
+
+        assertTrue(claims.getCredentialSubjectProperty("drivingPermit").get(0).has("issueDate"));
+    }
 }
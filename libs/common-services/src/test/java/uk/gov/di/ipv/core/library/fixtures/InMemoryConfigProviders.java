@@ -0,0 +1,101 @@
+package uk.gov.di.ipv.core.library.fixtures;
+
+import org.mockito.invocation.InvocationOnMock;
+import software.amazon.awssdk.services.secretsmanager.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+import software.amazon.lambda.powertools.parameters.SSMProvider;
+import software.amazon.lambda.powertools.parameters.SecretsProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * SSM and Secrets Manager providers backed by in-memory maps, which count every call that would
+ * have gone to AWS. Missing parameters and secrets fail in the same way as the real services.
+ */
+public class InMemoryConfigProviders {
+    private final Map<String, String> parameters = new ConcurrentHashMap<>();
+    private final Map<String, String> secrets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    public InMemoryConfigProviders withParameter(String path, String value) {
+        parameters.put(path, value);
+        return this;
+    }
+
+    public InMemoryConfigProviders withSecret(String secretId, String value) {
+        secrets.put(secretId, value);
+        return this;
+    }
+
+    public SSMProvider ssmProvider() {
+        return mock(SSMProvider.class, this::answerSsm);
+    }
+
+    public SecretsProvider secretsProvider() {
+        return mock(SecretsProvider.class, this::answerSecrets);
+    }
+
+    // Number of calls made to one provider method, e.g. calls("getMultiple", "/test/core/path")
+    public int calls(String method, String key) {
+        var count = calls.get(method + ":" + key);
+        return count == null ? 0 : count.get();
+    }
+
+    public int totalCalls() {
+        return calls.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    private Object answerSsm(InvocationOnMock invocation) throws Throwable {
+        return switch (invocation.getMethod().getName()) {
+            case "get" -> getParameter(record(invocation));
+            case "getMultiple" -> getParametersByPath(record(invocation));
+            default -> RETURNS_DEFAULTS.answer(invocation);
+        };
+    }
+
+    private Object answerSecrets(InvocationOnMock invocation) throws Throwable {
+        if (invocation.getMethod().getName().equals("get")) {
+            var secretId = record(invocation);
+            var value = secrets.get(secretId);
+            if (value == null) {
+                throw ResourceNotFoundException.builder().message(secretId).build();
+            }
+            return value;
+        }
+        return RETURNS_DEFAULTS.answer(invocation);
+    }
+
+    private String record(InvocationOnMock invocation) {
+        String key = invocation.getArgument(0);
+        calls.computeIfAbsent(
+                        invocation.getMethod().getName() + ":" + key, k -> new AtomicInteger())
+                .incrementAndGet();
+        return key;
+    }
+
+    private String getParameter(String path) {
+        var value = parameters.get(path);
+        if (value == null) {
+            throw ParameterNotFoundException.builder().message(path).build();
+        }
+        return value;
+    }
+
+    private Map<String, String> getParametersByPath(String path) {
+        var prefix = path + "/";
+        var values = new HashMap<String, String>();
+        parameters.forEach(
+                (key, value) -> {
+                    if (key.startsWith(prefix) && key.indexOf('/', prefix.length()) < 0) {
+                        values.put(key.substring(prefix.length()), value);
+                    }
+                });
+        return values;
+    }
+}
@@ -7,6 +7,7 @@ import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores;
 import uk.gov.di.ipv.core.library.gpg45.domain.CredentialEvidenceItem.EvidenceType;
 import uk.gov.di.ipv.core.library.gpg45.exception.UnknownEvidenceTypeException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -424,10 +425,15 @@ class CredentialEvidenceItemTest {
     }
 
     @Test
-    void shouldSetCredentialIss() {
+    void withCredentialIssShouldReturnReadOnlyCopy() {
         CredentialEvidenceItem credentialEvidenceItem =
-                new CredentialEvidenceItem(10, 20, Collections.emptyList());
-        credentialEvidenceItem.setCredentialIss("someIss");
-        assertEquals("someIss", credentialEvidenceItem.getCredentialIss());
+                new CredentialEvidenceItem(10, 20, new ArrayList<>(List.of("contra1")));
+        var issued = credentialEvidenceItem.withCredentialIss("someIss");
+
+        assertEquals("someIss", issued.getCredentialIss());
+        assertNull(credentialEvidenceItem.getCredentialIss());
+        assertEquals(List.of("contra1"), issued.getCi());
+        assertEquals(10, issued.getStrengthScore());
+        assertThrows(UnsupportedOperationException.class, () -> issued.getCi().add("contra2"));
     }
 }
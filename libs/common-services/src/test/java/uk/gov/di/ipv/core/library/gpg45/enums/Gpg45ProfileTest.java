@@ -9,6 +9,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores;
 import uk.gov.di.ipv.core.library.gpg45.Gpg45Scores.Evidence;
+import uk.gov.di.ipv.core.library.helpers.ListHelper;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -17,6 +18,7 @@ import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static uk.gov.di.ipv.core.library.gpg45.Gpg45Scores.EV_11;
@@ -144,6 +146,86 @@ class Gpg45ProfileTest {
         assertFalse(Gpg45Profile.V2A.isSatisfiedBy(new Gpg45Scores(EV_33, 3, 2, 3)));
     }
 
+    @Test
+    void shouldMatchWhenOnlyOneAssignmentOfEvidenceWorks() {
+        // M2B needs 32 and 22. The 23 can only meet the 22, so the 42 has to be used for the 32.
+        assertTrue(
+                Gpg45Profile.M2B.isSatisfiedBy(
+                        new Gpg45Scores(new Evidence(2, 3), EV_42, 1, 1, 2)));
+        assertFalse(
+                Gpg45Profile.M2B.isSatisfiedBy(
+                        new Gpg45Scores(new Evidence(2, 3), EV_22, 1, 1, 2)));
+    }
+
+    @Test
+    void shouldMatchSameProfilesAsPermutationSearchForAllEvidenceCombinations() {
+        var maxEvidences = 4;
+        var allEvidences = new ArrayList<Evidence>();
+        for (int strength = 0; strength <= 4; strength++) {
+            for (int validity = 0; validity <= 4; validity++) {
+                allEvidences.add(new Evidence(strength, validity));
+            }
+        }
+
+        var combinations = new ArrayList<List<Evidence>>();
+        addCombinations(allEvidences, 0, new ArrayList<>(), maxEvidences, combinations);
+
+        for (var evidences : combinations) {
+            // Max out the other scores so only the evidence decides the match
+            var scores = new Gpg45Scores(evidences, 4, 4, 4);
+            for (var profile : Gpg45Profile.values()) {
+                assertEquals(
+                        isSatisfiedByPermutationSearch(profile, scores),
+                        profile.isSatisfiedBy(scores),
+                        profile + " " + scores);
+            }
+        }
+    }
+
+    // Builds every multiset of evidence up to the max size
+    private static void addCombinations(
+            List<Evidence> allEvidences,
+            int from,
+            List<Evidence> current,
+            int maxSize,
+            List<List<Evidence>> combinations) {
+        combinations.add(List.copyOf(current));
+        if (current.size() == maxSize) {
+            return;
+        }
+        for (int i = from; i < allEvidences.size(); i++) {
+            current.add(allEvidences.get(i));
+            addCombinations(allEvidences, i, current, maxSize, combinations);
+            current.remove(current.size() - 1);
+        }
+    }
+
+    // The original implementation, which tried every ordering of the achieved evidence
+    private static boolean isSatisfiedByPermutationSearch(
+            Gpg45Profile profile, Gpg45Scores achievedScores) {
+        var requiredEvidences = profile.getScores().getEvidences();
+        var achievedEvidences = achievedScores.getEvidences();
+
+        if (requiredEvidences.size() > achievedEvidences.size()) {
+            return false;
+        }
+
+        for (var permutation : ListHelper.getPermutations(achievedEvidences)) {
+            var satisfied = true;
+            for (int i = 0; i < requiredEvidences.size(); i++) {
+                if (!permutation.get(i).satisfies(requiredEvidences.get(i))) {
+                    satisfied = false;
+                    break;
+                }
+            }
+            if (satisfied) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @Test
     void testAllPossibleCombinations() {
         assertDoesNotThrow(
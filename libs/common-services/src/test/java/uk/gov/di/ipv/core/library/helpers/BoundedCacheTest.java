@@ -0,0 +1,85 @@
+package uk.gov.di.ipv.core.library.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTest {
+    private final BoundedCache<String, Object> cache = new BoundedCache<>(2);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void computeIfAbsentShouldLoadEachKeyOnce() {
+        var value = cache.computeIfAbsent("a", this::load);
+
+        assertSame(value, cache.computeIfAbsent("a", this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void computeIfAbsentShouldEvictLeastRecentlyUsedEntries() {
+        var a = cache.computeIfAbsent("a", this::load);
+        var b = cache.computeIfAbsent("b", this::load);
+        cache.computeIfAbsent("a", this::load);
+        cache.computeIfAbsent("c", this::load);
+
+        assertSame(a, cache.computeIfAbsent("a", this::load));
+        assertNotSame(b, cache.computeIfAbsent("b", this::load));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void computeIfAbsentShouldNotStoreFailedLoads() {
+        assertThrows(
+                IOException.class,
+                () ->
+                        cache.computeIfAbsent(
+                                "a",
+                                k -> {
+                                    throw new IOException("Failed to load");
+                                }));
+
+        cache.computeIfAbsent("a", this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void computeIfAbsentShouldGiveRacingLoadersTheSameValue() throws Exception {
+        var bothLoading = new CountDownLatch(2);
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<Object> racingLoad =
+                    () -> cache.computeIfAbsent("a", k -> loadWhenBoth(bothLoading));
+            var first = executor.submit(racingLoad);
+            var second = executor.submit(racingLoad);
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(2, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Object load(String key) {
+        loads.incrementAndGet();
+        return new Object();
+    }
+
+    private Object loadWhenBoth(CountDownLatch bothLoading) throws InterruptedException {
+        bothLoading.countDown();
+        assertTrue(bothLoading.await(5, TimeUnit.SECONDS));
+        return load("a");
+    }
+}
@@ -0,0 +1,34 @@
+package uk.gov.di.ipv.core.library.helpers;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.RSA_ENCRYPTION_PUBLIC_JWK;
+
+class EncrypterRegistryTest {
+    private final EncrypterRegistry registry = new EncrypterRegistry(1);
+
+    @Test
+    void getEncrypterShouldShareEncrypterBetweenParsesOfTheSameKey() throws Exception {
+        var encrypter = registry.getEncrypter(RSAKey.parse(RSA_ENCRYPTION_PUBLIC_JWK));
+
+        assertSame(encrypter, registry.getEncrypter(RSAKey.parse(RSA_ENCRYPTION_PUBLIC_JWK)));
+        assertEquals(
+                RSAKey.parse(RSA_ENCRYPTION_PUBLIC_JWK).toRSAPublicKey(),
+                encrypter.getPublicKey());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries() throws Exception {
+        var first = registry.getEncrypter(RSAKey.parse(RSA_ENCRYPTION_PUBLIC_JWK));
+        var rotated = new RSAKeyGenerator(2048).generate().toPublicJWK();
+        var second = registry.getEncrypter(rotated);
+
+        assertNotSame(first, second);
+        assertNotSame(first, registry.getEncrypter(RSAKey.parse(RSA_ENCRYPTION_PUBLIC_JWK)));
+    }
+}
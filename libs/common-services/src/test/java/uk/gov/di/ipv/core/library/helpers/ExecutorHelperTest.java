@@ -0,0 +1,48 @@
+package uk.gov.di.ipv.core.library.helpers;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutorHelperTest {
+    private final ExecutorService executor =
+            ExecutorHelper.newFixedDaemonThreadPool("executor-helper-test", 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        ThreadContext.clearMap();
+    }
+
+    @Test
+    void shouldRunTasksOnNamedDaemonThreads() throws Exception {
+        var thread = executor.submit(Thread::currentThread).get(5, SECONDS);
+
+        assertTrue(thread.isDaemon());
+        assertTrue(thread.getName().startsWith("executor-helper-test-"));
+    }
+
+    @Test
+    void shouldRunTasksWithTheLogContextOfTheSubmittingThread() throws Exception {
+        ThreadContext.put("ipvSessionId", "first-session");
+        var first = executor.submit(ThreadContext::getImmutableContext).get(5, SECONDS);
+        ThreadContext.put("ipvSessionId", "second-session");
+        var second =
+                CompletableFuture.supplyAsync(ThreadContext::getImmutableContext, executor)
+                        .get(5, SECONDS);
+        ThreadContext.clearMap();
+        var cleared = executor.submit(ThreadContext::getImmutableContext).get(5, SECONDS);
+
+        assertEquals(Map.of("ipvSessionId", "first-session"), first);
+        assertEquals(Map.of("ipvSessionId", "second-session"), second);
+        assertEquals(Map.of(), cleared);
+    }
+}
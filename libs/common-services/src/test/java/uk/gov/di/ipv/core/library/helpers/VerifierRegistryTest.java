@@ -0,0 +1,71 @@
+package uk.gov.di.ipv.core.library.helpers;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+
+import static com.nimbusds.jose.JWSAlgorithm.ES256;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PRIVATE_KEY_JWK;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PUBLIC_JWK;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PUBLIC_JWK_2;
+
+class VerifierRegistryTest {
+    private final VerifierRegistry registry = new VerifierRegistry(2);
+
+    @Test
+    void getKeyShouldParseKeyMaterialOnce() throws Exception {
+        var key = registry.getKey(EC_PUBLIC_JWK);
+
+        assertSame(key, registry.getKey(EC_PUBLIC_JWK));
+        assertNotSame(key, registry.getKey(EC_PUBLIC_JWK_2));
+    }
+
+    @Test
+    void getVerifierShouldShareVerifierBetweenFormsOfTheSameKey() throws Exception {
+        var verifier = registry.getVerifier(EC_PUBLIC_JWK);
+
+        assertSame(verifier, registry.getVerifier(EC_PRIVATE_KEY_JWK));
+        assertSame(verifier, registry.getVerifier(ECKey.parse(EC_PUBLIC_JWK)));
+        assertNotSame(verifier, registry.getVerifier(EC_PUBLIC_JWK_2));
+    }
+
+    @Test
+    void getVerifierShouldVerifySignaturesFromItsKeyOnly() throws Exception {
+        var jwt =
+                new SignedJWT(
+                        new JWSHeader.Builder(ES256).type(JOSEObjectType.JWT).build(),
+                        new JWTClaimsSet.Builder().subject("test-subject").build());
+        jwt.sign(new ECDSASigner(ECKey.parse(EC_PRIVATE_KEY_JWK)));
+
+        assertTrue(jwt.verify(registry.getVerifier(EC_PUBLIC_JWK)));
+        assertFalse(jwt.verify(registry.getVerifier(EC_PUBLIC_JWK_2)));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries() throws Exception {
+        var first = registry.getKey(EC_PUBLIC_JWK);
+        var second = registry.getKey(EC_PUBLIC_JWK_2);
+        registry.getKey(EC_PUBLIC_JWK);
+        registry.getKey(EC_PRIVATE_KEY_JWK);
+
+        assertSame(first, registry.getKey(EC_PUBLIC_JWK));
+        assertNotSame(second, registry.getKey(EC_PUBLIC_JWK_2));
+    }
+
+    @Test
+    void getKeyShouldNotRememberInvalidKeyMaterial() {
+        assertThrows(ParseException.class, () -> registry.getKey("not a key"));
+        assertThrows(ParseException.class, () -> registry.getKey("not a key"));
+    }
+}
@@ -0,0 +1,249 @@
+package uk.gov.di.ipv.core.library.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import uk.gov.di.ipv.core.library.dto.RestCriConfig;
+import uk.org.webcompere.systemstubs.jupiter.SystemStub;
+import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
+import uk.org.webcompere.systemstubs.stream.SystemOut;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SystemStubsExtension.class)
+class CriHttpClientTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String CRI_ID = "test-cri";
+    private static final RestCriConfig CRI_CONFIG = RestCriConfig.builder().build();
+
+    @SystemStub private SystemOut systemOut;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+    private final List<Long> backoffs = new ArrayList<>();
+    private HttpServer server;
+    private CriHttpClient criHttpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+        criHttpClient =
+                new CriHttpClient(
+                        connectTimeout ->
+                                HttpClient.newBuilder()
+                                        .version(HttpClient.Version.HTTP_1_1)
+                                        .connectTimeout(connectTimeout)
+                                        .build(),
+                        backoffs::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendShouldReuseConnectionsToTheSameCri() throws Exception {
+        respondWith("/credential", 200);
+
+        for (int i = 0; i < 5; i++) {
+            var response =
+                    criHttpClient.send(
+                            CRI_ID, "FetchVerifiableCredential", post("/credential"), CRI_CONFIG);
+            assertEquals(200, response.statusCode());
+        }
+
+        assertEquals(5, requests.get());
+        assertEquals(1, clientAddresses.size());
+    }
+
+    @Test
+    void sendShouldTimeOutSlowCrisWithTheirConfiguredReadTimeout() throws Exception {
+        server.createContext(
+                "/slow",
+                exchange -> {
+                    requests.incrementAndGet();
+                    try {
+                        Thread.sleep(2000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, 200, "too late");
+                });
+        var criConfig = RestCriConfig.builder().readTimeoutMillis(200L).build();
+
+        assertThrows(
+                HttpTimeoutException.class,
+                () -> criHttpClient.send(CRI_ID, "FetchAccessToken", post("/slow"), criConfig));
+
+        // The CRI may have acted on the POST, so it isn't sent again
+        assertEquals(1, requests.get());
+        assertEquals(List.of(), backoffs);
+        var metric = getMetricRecords().get(0);
+        assertEquals("HttpTimeoutException", metric.get("ErrorCode").asText());
+        assertEquals(0, metric.get("Retries").asInt());
+    }
+
+    @Test
+    void sendShouldRetryIdempotentRequestsAfterGatewayErrors() throws Exception {
+        server.createContext(
+                "/flaky",
+                exchange -> {
+                    var status = requests.incrementAndGet() < 3 ? 503 : 200;
+                    respond(exchange, status, "attempt " + requests.get());
+                });
+
+        var response = criHttpClient.send(CRI_ID, "GetStatus", get("/flaky"), CRI_CONFIG);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("attempt 3", response.body());
+        assertEquals(List.of(50L, 100L), backoffs);
+        var metric = getMetricRecords().get(0);
+        assertEquals(2, metric.get("Retries").asInt());
+        assertEquals(0, metric.get("Errors").asInt());
+    }
+
+    @Test
+    void sendShouldStopRetryingAfterMaxAttempts() throws Exception {
+        respondWith("/down", 503);
+
+        var response = criHttpClient.send(CRI_ID, "GetStatus", get("/down"), CRI_CONFIG);
+
+        assertEquals(503, response.statusCode());
+        assertEquals(CriHttpClient.MAX_ATTEMPTS, requests.get());
+        var metric = getMetricRecords().get(0);
+        assertEquals(CriHttpClient.MAX_ATTEMPTS - 1, metric.get("Retries").asInt());
+        assertEquals("503", metric.get("ErrorCode").asText());
+    }
+
+    @Test
+    void sendShouldNotRetryPostsAfterGatewayErrors() throws Exception {
+        respondWith("/token", 503);
+
+        var response = criHttpClient.send(CRI_ID, "FetchAccessToken", post("/token"), CRI_CONFIG);
+
+        assertEquals(503, response.statusCode());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void sendShouldRetryPostsThatNeverReachedTheCri() throws Exception {
+        URI closedPort;
+        try (var socket = new ServerSocket(0)) {
+            closedPort = URI.create("http://localhost:" + socket.getLocalPort() + "/token");
+        }
+        var request =
+                HttpRequest.newBuilder(closedPort)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+
+        assertThrows(
+                ConnectException.class,
+                () -> criHttpClient.send(CRI_ID, "FetchAccessToken", request, CRI_CONFIG));
+
+        assertEquals(List.of(50L, 100L), backoffs);
+        var metric = getMetricRecords().get(0);
+        assertEquals(CriHttpClient.MAX_ATTEMPTS - 1, metric.get("Retries").asInt());
+        assertEquals("ConnectException", metric.get("ErrorCode").asText());
+    }
+
+    @Test
+    void sendShouldSendAndParseNimbusRequests() throws Exception {
+        server.createContext(
+                "/token",
+                exchange -> {
+                    requests.incrementAndGet();
+                    var requestBody =
+                            new String(
+                                    exchange.getRequestBody().readAllBytes(),
+                                    StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders()
+                            .add("Content-Type", "application/json; charset=UTF-8");
+                    respond(
+                            exchange,
+                            200,
+                            String.format(
+                                    "{\"body\":\"%s\",\"apiKey\":\"%s\"}",
+                                    requestBody,
+                                    exchange.getRequestHeaders().getFirst("x-api-key")));
+                });
+        var request = new HTTPRequest(HTTPRequest.Method.POST, uri("/token"));
+        request.setHeader("Content-Type", "application/x-www-form-urlencoded");
+        request.setHeader("x-api-key", "test-api-key");
+        request.setBody("grant_type=authorization_code");
+
+        var response = criHttpClient.send(CRI_ID, "FetchAccessToken", request, CRI_CONFIG);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("application/json; charset=UTF-8", response.getHeaderValue("Content-Type"));
+        var body = OBJECT_MAPPER.readTree(response.getBody());
+        assertEquals("grant_type=authorization_code", body.get("body").asText());
+        assertEquals("test-api-key", body.get("apiKey").asText());
+    }
+
+    private void respondWith(String path, int status) {
+        server.createContext(
+                path,
+                exchange -> {
+                    requests.incrementAndGet();
+                    respond(exchange, status, "");
+                });
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        clientAddresses.add(exchange.getRemoteAddress());
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getRequestBody().readAllBytes();
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (var responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().timeout(Duration.ofSeconds(5)).build();
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+    }
+
+    private List<JsonNode> getMetricRecords() throws IOException {
+        var metrics = new ArrayList<JsonNode>();
+        var lines = systemOut.getLines().filter(line -> line.startsWith("{\"_aws\"")).toList();
+        for (var line : lines) {
+            metrics.add(OBJECT_MAPPER.readTree(line));
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,89 @@
+package uk.gov.di.ipv.core.library.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import uk.org.webcompere.systemstubs.jupiter.SystemStub;
+import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
+import uk.org.webcompere.systemstubs.stream.SystemOut;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(SystemStubsExtension.class)
+class DependencyMetricsInterceptorTest {
+    @SystemStub private SystemOut systemOut;
+    @Mock private Context.BeforeExecution mockBeforeExecution;
+    @Mock private Context.BeforeTransmission mockBeforeTransmission;
+    @Mock private Context.AfterExecution mockAfterExecution;
+    @Mock private Context.FailedExecution mockFailedExecution;
+
+    private final DependencyMetricsInterceptor interceptor = new DependencyMetricsInterceptor();
+    private ExecutionAttributes executionAttributes;
+
+    @BeforeEach
+    void setUp() {
+        executionAttributes =
+                ExecutionAttributes.builder()
+                        .put(SdkExecutionAttribute.SERVICE_NAME, "DynamoDb")
+                        .put(SdkExecutionAttribute.OPERATION_NAME, "GetItem")
+                        .build();
+    }
+
+    @Test
+    void shouldEmitMetricForSuccessfulCall() throws Exception {
+        interceptor.beforeExecution(mockBeforeExecution, executionAttributes);
+        interceptor.beforeTransmission(mockBeforeTransmission, executionAttributes);
+        interceptor.afterExecution(mockAfterExecution, executionAttributes);
+
+        var metrics = DependencyMetricsTest.getMetricRecords(systemOut);
+        assertEquals(1, metrics.size());
+        var metric = metrics.get(0);
+        assertEquals("DynamoDb", metric.get("Dependency").asText());
+        assertEquals("GetItem", metric.get("Operation").asText());
+        assertEquals(0, metric.get("Retries").asInt());
+        assertEquals(0, metric.get("Errors").asInt());
+        assertFalse(metric.has("ErrorCode"));
+    }
+
+    @Test
+    void shouldEmitRetriesAndServiceErrorCodeForFailedCall() throws Exception {
+        when(mockFailedExecution.exception())
+                .thenReturn(
+                        AwsServiceException.builder()
+                                .awsErrorDetails(
+                                        AwsErrorDetails.builder()
+                                                .errorCode("ThrottlingException")
+                                                .build())
+                                .build());
+
+        interceptor.beforeExecution(mockBeforeExecution, executionAttributes);
+        interceptor.beforeTransmission(mockBeforeTransmission, executionAttributes);
+        interceptor.beforeTransmission(mockBeforeTransmission, executionAttributes);
+        interceptor.beforeTransmission(mockBeforeTransmission, executionAttributes);
+        interceptor.onExecutionFailure(mockFailedExecution, executionAttributes);
+
+        var metric = DependencyMetricsTest.getMetricRecords(systemOut).get(0);
+        assertEquals(2, metric.get("Retries").asInt());
+        assertEquals(1, metric.get("Errors").asInt());
+        assertEquals("ThrottlingException", metric.get("ErrorCode").asText());
+    }
+
+    @Test
+    void errorCodeShouldFallBackToExceptionClass() {
+        assertEquals(
+                "SdkClientException",
+                DependencyMetricsInterceptor.errorCode(
+                        SdkClientException.create("Unable to execute HTTP request")));
+    }
+}
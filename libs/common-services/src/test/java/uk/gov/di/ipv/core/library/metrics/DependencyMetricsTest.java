@@ -0,0 +1,111 @@
+package uk.gov.di.ipv.core.library.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import uk.org.webcompere.systemstubs.jupiter.SystemStub;
+import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
+import uk.org.webcompere.systemstubs.stream.SystemOut;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SystemStubsExtension.class)
+class DependencyMetricsTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @SystemStub private SystemOut systemOut;
+
+    @Test
+    void recordShouldEmitEmbeddedMetricForSuccessfulCall() throws Exception {
+        var result =
+                DependencyMetrics.record(
+                        "ticf", "FetchVerifiableCredential", () -> 200, status -> null);
+
+        assertEquals(200, result);
+        var metrics = getMetricRecords();
+        assertEquals(1, metrics.size());
+        var metric = metrics.get(0);
+        var directive = metric.get("_aws").get("CloudWatchMetrics").get(0);
+        assertEquals(DependencyMetrics.NAMESPACE, directive.get("Namespace").asText());
+        assertEquals(
+                "[[\"Dependency\"],[\"Dependency\",\"Operation\"]]",
+                directive.get("Dimensions").toString());
+        assertTrue(metric.get("_aws").get("Timestamp").isNumber());
+        assertEquals("ticf", metric.get("Dependency").asText());
+        assertEquals("FetchVerifiableCredential", metric.get("Operation").asText());
+        assertTrue(metric.get("Latency").asDouble() >= 0);
+        assertEquals(0, metric.get("Retries").asInt());
+        assertEquals(0, metric.get("Errors").asInt());
+        assertFalse(metric.has("ErrorCode"));
+    }
+
+    @Test
+    void recordShouldEmitErrorCodeFromResult() throws Exception {
+        DependencyMetrics.record(
+                "address", "FetchAccessToken", () -> 503, DependencyMetrics::httpErrorCode);
+
+        var metric = getMetricRecords().get(0);
+        assertEquals(1, metric.get("Errors").asInt());
+        assertEquals("503", metric.get("ErrorCode").asText());
+    }
+
+    @Test
+    void recordShouldEmitAndRethrowExceptionFromCall() throws Exception {
+        var exception =
+                assertThrows(
+                        IOException.class,
+                        () ->
+                                DependencyMetrics.record(
+                                        "address",
+                                        "FetchAccessToken",
+                                        () -> {
+                                            throw new IOException("Connection reset");
+                                        },
+                                        status -> null));
+
+        assertEquals("Connection reset", exception.getMessage());
+        var metric = getMetricRecords().get(0);
+        assertEquals(1, metric.get("Errors").asInt());
+        assertEquals("IOException", metric.get("ErrorCode").asText());
+    }
+
+    @Test
+    void recordCallShouldEmitRetries() throws Exception {
+        DependencyMetrics.recordCall("address", "FetchAccessToken", 5_000_000, 2, null);
+
+        var metric = getMetricRecords().get(0);
+        assertEquals(5.0, metric.get("Latency").asDouble());
+        assertEquals(2, metric.get("Retries").asInt());
+        assertEquals(0, metric.get("Errors").asInt());
+    }
+
+    @Test
+    void httpErrorCodeShouldOnlyReturnCodeForErrorStatuses() {
+        assertNull(DependencyMetrics.httpErrorCode(200));
+        assertNull(DependencyMetrics.httpErrorCode(302));
+        assertEquals("400", DependencyMetrics.httpErrorCode(400));
+        assertEquals("500", DependencyMetrics.httpErrorCode(500));
+    }
+
+    static List<JsonNode> getMetricRecords(SystemOut systemOut) throws IOException {
+        var metrics = new ArrayList<JsonNode>();
+        var lines = systemOut.getLines().filter(line -> line.startsWith("{\"_aws\"")).toList();
+        for (var line : lines) {
+            metrics.add(OBJECT_MAPPER.readTree(line));
+        }
+        return metrics;
+    }
+
+    private List<JsonNode> getMetricRecords() throws IOException {
+        return getMetricRecords(systemOut);
+    }
+}
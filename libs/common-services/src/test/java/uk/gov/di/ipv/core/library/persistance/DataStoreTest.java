@@ -16,21 +16,35 @@ import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.internal.conditional.BeginsWithConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.*;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import uk.gov.di.ipv.core.library.persistence.CreateOutcome;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.RequestScopedReadCache;
 import uk.gov.di.ipv.core.library.persistence.item.AuthorizationCodeItem;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
@@ -47,6 +61,7 @@ class DataStoreTest {
     @Mock private SdkIterable<Page<AuthorizationCodeItem>> mockIterable;
     @Mock private ConfigService mockConfigService;
     @Mock private BatchWriteResult mockBatchWriteResult;
+    @Mock private BatchGetResultPageIterable mockBatchGetResultPages;
 
     private AuthorizationCodeItem authorizationCodeItem;
     private DataStore<AuthorizationCodeItem> dataStore;
@@ -117,6 +132,36 @@ class DataStoreTest {
                 authorizationCodeItemArgumentCaptor.getValue().item().getIpvSessionId());
     }
 
+    @Test
+    void createIfNotExistsShouldOnlyPutAnItemWhoseKeyIsNotStored() {
+        when(mockConfigService.getSsmParameter(BACKEND_SESSION_TTL)).thenReturn("7200");
+
+        var outcome = dataStore.createIfNotExists(authorizationCodeItem, BACKEND_SESSION_TTL);
+
+        ArgumentCaptor<PutItemEnhancedRequest<AuthorizationCodeItem>> requestCaptor =
+                ArgumentCaptor.forClass(PutItemEnhancedRequest.class);
+        verify(mockDynamoDbTable).putItem(requestCaptor.capture());
+        var condition = requestCaptor.getValue().conditionExpression();
+        assertEquals(CreateOutcome.CREATED, outcome);
+        assertEquals("attribute_not_exists(#key)", condition.expression());
+        assertEquals("authCode", condition.expressionNames().get("#key"));
+        assertEquals(
+                Instant.now().plusSeconds(ttl).getEpochSecond(),
+                requestCaptor.getValue().item().getTtl());
+    }
+
+    @Test
+    void createIfNotExistsShouldReportAnItemThatIsAlreadyStored() {
+        when(mockConfigService.getSsmParameter(BACKEND_SESSION_TTL)).thenReturn("7200");
+        doThrow(ConditionalCheckFailedException.builder().build())
+                .when(mockDynamoDbTable)
+                .putItem(ArgumentMatchers.<PutItemEnhancedRequest<AuthorizationCodeItem>>any());
+
+        assertEquals(
+                CreateOutcome.ALREADY_EXISTS,
+                dataStore.createIfNotExists(authorizationCodeItem, BACKEND_SESSION_TTL));
+    }
+
     @Test
     void shouldGetItemFromDynamoDbTableViaPartitionKeyAndSortKey() {
         TableDescription tableDescription =
@@ -167,6 +212,147 @@ class DataStoreTest {
         assertTrue(keyCaptor.getValue().sortKeyValue().isEmpty());
     }
 
+    @Test
+    void shouldGetItemFromDynamoDbTableWithConsistentRead() {
+        dataStore.getItemWithConsistentRead("partition-key-12345");
+
+        var requestCaptor = ArgumentCaptor.forClass(GetItemEnhancedRequest.class);
+        verify(mockDynamoDbTable).getItem(requestCaptor.capture());
+        assertTrue(requestCaptor.getValue().consistentRead());
+        assertEquals("partition-key-12345", requestCaptor.getValue().key().partitionKeyValue().s());
+    }
+
+    @Test
+    void getItemShouldOnlyReadEachKeyOnceWhileReadCacheIsOpen() {
+        stubTableSchema();
+        var key = Key.builder().partitionValue("partition-key-12345").build();
+        when(mockDynamoDbTable.getItem(key)).thenReturn(authorizationCodeItem);
+
+        try (var readCache = RequestScopedReadCache.open()) {
+            var first = dataStore.getItem("partition-key-12345");
+            first.setIpvSessionId("changed-by-caller");
+            var second = dataStore.getItem("partition-key-12345");
+
+            assertEquals(authorizationCodeItem, second);
+            assertNotSame(first, second);
+        }
+
+        verify(mockDynamoDbTable, times(1)).getItem(key);
+    }
+
+    @Test
+    void getItemShouldCacheMissingItemsWhileReadCacheIsOpen() {
+        stubTableSchema();
+
+        try (var readCache = RequestScopedReadCache.open()) {
+            assertNull(dataStore.getItem("partition-key-12345", false));
+            assertNull(dataStore.getItem("partition-key-12345", false));
+        }
+
+        verify(mockDynamoDbTable, times(1)).getItem(any(Key.class));
+    }
+
+    @Test
+    void getItemsShouldOnlyQueryEachPartitionOnceWhileReadCacheIsOpen() {
+        stubTableSchema();
+        when(mockDynamoDbTable.query(any(QueryConditional.class))).thenReturn(mockPageIterable);
+        when(mockPageIterable.stream()).thenReturn(Stream.of(mockPage));
+        when(mockPage.items()).thenReturn(List.of(authorizationCodeItem));
+
+        try (var readCache = RequestScopedReadCache.open()) {
+            assertEquals(List.of(authorizationCodeItem), dataStore.getItems("partition-key-12345"));
+            assertEquals(List.of(authorizationCodeItem), dataStore.getItems("partition-key-12345"));
+        }
+
+        verify(mockDynamoDbTable, times(1)).query(any(QueryConditional.class));
+    }
+
+    @Test
+    void writesShouldForgetCachedReadsOfTheTable() {
+        stubTableSchema();
+
+        try (var readCache = RequestScopedReadCache.open()) {
+            dataStore.getItem("partition-key-12345", false);
+            dataStore.update(authorizationCodeItem);
+            dataStore.getItem("partition-key-12345", false);
+            dataStore.delete("partition-key-12345", "sort-key-12345");
+            dataStore.getItem("partition-key-12345", false);
+        }
+
+        verify(mockDynamoDbTable, times(3)).getItem(any(Key.class));
+    }
+
+    @Test
+    void getItemShouldNotUseReadCacheOpenedByAnotherThread() throws Exception {
+        var opened = new CountDownLatch(1);
+        var read = new CountDownLatch(1);
+        var otherRequest =
+                new Thread(
+                        () -> {
+                            try (var readCache = RequestScopedReadCache.open()) {
+                                opened.countDown();
+                                read.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        otherRequest.start();
+        opened.await();
+
+        dataStore.getItem("partition-key-12345", false);
+        dataStore.getItem("partition-key-12345", false);
+        read.countDown();
+        otherRequest.join();
+
+        verify(mockDynamoDbTable, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void getItemShouldReadFromDynamoDbEveryTimeWhenReadCacheIsClosed() {
+        var readCache = RequestScopedReadCache.open();
+        readCache.close();
+
+        dataStore.getItem("partition-key-12345", false);
+        dataStore.getItem("partition-key-12345", false);
+
+        verify(mockDynamoDbTable, times(2)).getItem(any(Key.class));
+        verify(mockDynamoDbTable, never()).tableName();
+    }
+
+    @Test
+    void getAllShouldReadEachKeyOnceInBatchesOfOneHundred() {
+        stubTableSchema();
+        when(mockDynamoDbEnhancedClient.batchGetItem(any(BatchGetItemEnhancedRequest.class)))
+                .thenReturn(mockBatchGetResultPages);
+        when(mockBatchGetResultPages.resultsForTable(mockDynamoDbTable))
+                .thenAnswer(
+                        invocation ->
+                                (SdkIterable<AuthorizationCodeItem>)
+                                        () -> List.of(authorizationCodeItem).iterator());
+        var keyItems = new ArrayList<AuthorizationCodeItem>();
+        for (var i = 0; i < 230; i++) {
+            keyItems.add(AuthorizationCodeItem.builder().authCode("" + i).build());
+        }
+        keyItems.add(AuthorizationCodeItem.builder().authCode("0").build());
+
+        var items = dataStore.getAll(keyItems);
+
+        assertEquals(3, items.size());
+        var requestCaptor = ArgumentCaptor.forClass(BatchGetItemEnhancedRequest.class);
+        verify(mockDynamoDbEnhancedClient, times(3)).batchGetItem(requestCaptor.capture());
+        assertEquals(
+                List.of(100, 100, 30),
+                requestCaptor.getAllValues().stream()
+                        .map(
+                                request ->
+                                        request.readBatches()
+                                                .get(0)
+                                                .keysAndAttributes()
+                                                .keys()
+                                                .size())
+                        .toList());
+    }
+
     @Test
     void shouldGetItemFromDynamoDbTableViaSecondaryIndex() {
         when(mockIndex.query((QueryEnhancedRequest) any())).thenReturn(mockIterable);
@@ -287,6 +473,9 @@ class DataStoreTest {
         when(mockPageIterable.stream()).thenReturn(Stream.of(mockPage));
         when(mockPage.items()).thenReturn(List.of(item1, item2, item3));
         when(mockDynamoDbTable.query(any(QueryConditional.class))).thenReturn(mockPageIterable);
+        stubTableSchema();
+        when(mockDynamoDbEnhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+                .thenReturn(mockBatchWriteResult);
 
         String partitionValue = "partition-key-12345";
 
@@ -296,8 +485,109 @@ class DataStoreTest {
                 .query(
                         QueryConditional.keyEqualTo(
                                 Key.builder().partitionValue(partitionValue).build()));
-        verify(mockDynamoDbTable).deleteItem(item1);
-        verify(mockDynamoDbTable).deleteItem(item2);
-        verify(mockDynamoDbTable).deleteItem(item3);
+        assertEquals(List.of(3), writeRequestsPerBatch(1));
+    }
+
+    @Test
+    void createAllShouldWriteItemsInBatchesOfTwentyFive() {
+        when(mockConfigService.getSsmParameter(BACKEND_SESSION_TTL)).thenReturn("7200");
+        stubTableSchema();
+        when(mockDynamoDbEnhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+                .thenReturn(mockBatchWriteResult);
+        var items =
+                IntStream.range(0, 60)
+                        .mapToObj(i -> AuthorizationCodeItem.builder().authCode("" + i).build())
+                        .toList();
+
+        dataStore.createAll(items, BACKEND_SESSION_TTL);
+
+        assertEquals(List.of(25, 25, 10), writeRequestsPerBatch(3));
+        var expectedTtl = Instant.now().plusSeconds(ttl).getEpochSecond();
+        items.forEach(item -> assertEquals(expectedTtl, item.getTtl()));
+    }
+
+    @Test
+    void deleteAllShouldRetryUnprocessedItems() {
+        var item1 = AuthorizationCodeItem.builder().authCode("1").build();
+        var item2 = AuthorizationCodeItem.builder().authCode("2").build();
+        stubTableSchema();
+        when(mockDynamoDbEnhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+                .thenReturn(mockBatchWriteResult);
+        when(mockBatchWriteResult.unprocessedDeleteItemsForTable(mockDynamoDbTable))
+                .thenReturn(List.of(Key.builder().partitionValue("2").build()))
+                .thenReturn(List.of());
+
+        dataStore.deleteAll(List.of(item1, item2));
+
+        assertEquals(List.of(2, 1), writeRequestsPerBatch(2));
+    }
+
+    @Test
+    void deleteAllShouldThrowIfItemsAreStillUnprocessedAfterRetrying() {
+        var item = AuthorizationCodeItem.builder().authCode("1").build();
+        stubTableSchema();
+        when(mockDynamoDbEnhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+                .thenReturn(mockBatchWriteResult);
+        when(mockBatchWriteResult.unprocessedDeleteItemsForTable(mockDynamoDbTable))
+                .thenReturn(List.of(Key.builder().partitionValue("1").build()));
+
+        var items = List.of(item);
+        assertThrows(DynamoDbException.class, () -> dataStore.deleteAll(items));
+
+        verify(mockDynamoDbEnhancedClient, times(5))
+                .batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+    }
+
+    @Test
+    void writeTransactionShouldPutAndDeleteItemsInOneRequest() {
+        var itemToCreate = AuthorizationCodeItem.builder().authCode("1").build();
+        var itemToDelete = AuthorizationCodeItem.builder().authCode("2").build();
+        stubTableSchema();
+
+        dataStore.writeTransaction(List.of(itemToCreate), List.of(itemToDelete));
+
+        var requestCaptor = ArgumentCaptor.forClass(TransactWriteItemsEnhancedRequest.class);
+        verify(mockDynamoDbEnhancedClient).transactWriteItems(requestCaptor.capture());
+        var transactItems = requestCaptor.getValue().transactWriteItems();
+        assertEquals(2, transactItems.size());
+        assertEquals("1", transactItems.get(0).put().item().get("authCode").s());
+        assertEquals("2", transactItems.get(1).delete().key().get("authCode").s());
+    }
+
+    @Test
+    void writeTransactionShouldThrowIfThereAreTooManyItems() {
+        var items =
+                IntStream.range(0, 101)
+                        .mapToObj(i -> AuthorizationCodeItem.builder().authCode("" + i).build())
+                        .toList();
+        var noItems = List.<AuthorizationCodeItem>of();
+
+        assertThrows(
+                IllegalArgumentException.class, () -> dataStore.writeTransaction(items, noItems));
+
+        verify(mockDynamoDbEnhancedClient, never())
+                .transactWriteItems(any(TransactWriteItemsEnhancedRequest.class));
+    }
+
+    private void stubTableSchema() {
+        var schema = TableSchema.fromBean(AuthorizationCodeItem.class);
+        lenient().when(mockDynamoDbTable.tableName()).thenReturn(TEST_TABLE_NAME);
+        lenient().when(mockDynamoDbTable.tableSchema()).thenReturn(schema);
+        lenient()
+                .when(mockDynamoDbTable.keyFrom(any(AuthorizationCodeItem.class)))
+                .thenAnswer(
+                        invocation -> {
+                            AuthorizationCodeItem item = invocation.getArgument(0);
+                            return Key.builder().partitionValue(item.getAuthCode()).build();
+                        });
+    }
+
+    private List<Integer> writeRequestsPerBatch(int expectedCalls) {
+        var requestCaptor = ArgumentCaptor.forClass(BatchWriteItemEnhancedRequest.class);
+        verify(mockDynamoDbEnhancedClient, times(expectedCalls))
+                .batchWriteItem(requestCaptor.capture());
+        return requestCaptor.getAllValues().stream()
+                .map(request -> request.writeBatches().get(0).writeRequests().size())
+                .toList();
     }
 }
@@ -0,0 +1,101 @@
+package uk.gov.di.ipv.core.library.persistence;
+
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import uk.gov.di.ipv.core.library.persistence.item.DynamodbItem;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * An {@link InMemoryDataStore} that can be made to fail chosen calls, and whose secondary indexes
+ * can lag behind its writes, for testing how callers cope with a misbehaving table. Failures are
+ * thrown as {@link DynamoDbException}s before the failing call changes anything.
+ */
+public class FaultyDataStore<T extends DynamodbItem> extends InMemoryDataStore<T> {
+    public static final String INJECTED_FAILURE = "Injected failure";
+
+    public enum Operation {
+        GET_ITEMS,
+        CREATE,
+        CREATE_IF_NOT_EXISTS,
+        UPDATE,
+        WRITE_TRANSACTION
+    }
+
+    private final Map<Operation, Predicate<T>> failures = new ConcurrentHashMap<>();
+    private final AtomicInteger indexReads = new AtomicInteger();
+    private volatile int laggingIndexReads;
+
+    public FaultyDataStore(Class<T> typeParameterClass) {
+        super(typeParameterClass);
+    }
+
+    public void fail(Operation operation) {
+        failWhen(operation, item -> true);
+    }
+
+    // Fails writes of the items that match, including writes made within a transaction
+    public void failWhen(Operation operation, Predicate<T> items) {
+        failures.put(operation, items);
+    }
+
+    public void stopFailing() {
+        failures.clear();
+    }
+
+    // Index reads find nothing until they have been made this many times
+    public void lagIndexesBy(int reads) {
+        laggingIndexReads = reads;
+    }
+
+    public int getIndexReads() {
+        return indexReads.get();
+    }
+
+    @Override
+    public List<T> getItems(String partitionValue) {
+        failAt(Operation.GET_ITEMS, null);
+        return super.getItems(partitionValue);
+    }
+
+    @Override
+    public T getItemByIndex(String indexName, String value) {
+        return indexReads.incrementAndGet() > laggingIndexReads
+                ? super.getItemByIndex(indexName, value)
+                : null;
+    }
+
+    @Override
+    public void create(T item) {
+        failAt(Operation.CREATE, item);
+        super.create(item);
+    }
+
+    @Override
+    public void createIfNotExists(T item) {
+        failAt(Operation.CREATE_IF_NOT_EXISTS, item);
+        super.createIfNotExists(item);
+    }
+
+    @Override
+    public T update(T item) {
+        failAt(Operation.UPDATE, item);
+        return super.update(item);
+    }
+
+    @Override
+    public void writeTransaction(List<T> itemsToCreate, List<T> itemsToDelete) {
+        failAt(Operation.WRITE_TRANSACTION, null);
+        super.writeTransaction(itemsToCreate, itemsToDelete);
+    }
+
+    private void failAt(Operation operation, T item) {
+        var failure = failures.get(operation);
+        if (failure != null && failure.test(item)) {
+            throw DynamoDbException.builder().message(INJECTED_FAILURE).build();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package uk.gov.di.ipv.core.library.persistence;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import uk.gov.di.ipv.core.library.helpers.ExecutorHelper;
+import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+
+import java.time.Instant;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+
+class InMemoryDataStoreTest {
+    private static final String IPV_SESSION_ID = "ipv-session-id";
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00.000000100Z");
+
+    private final InMemoryDataStore<JourneyTransitionItem> transitions =
+            new InMemoryDataStore<>(JourneyTransitionItem.class);
+    private final InMemoryDataStore<IpvSessionItem> sessions =
+            new InMemoryDataStore<>(IpvSessionItem.class);
+
+    @Test
+    void getItemsShouldReturnCopiesOfAPartitionInSortKeyOrder() {
+        var later = transition(NOW.plusSeconds(1), "next");
+        var earlier = transition(NOW, "start");
+        transitions.create(later);
+        transitions.create(earlier);
+        transitions.create(new JourneyTransitionItem("another-session", NOW));
+
+        var items = transitions.getItems(IPV_SESSION_ID);
+
+        assertEquals(List.of(earlier, later), items);
+        assertNotSame(earlier, items.get(0));
+    }
+
+    @Test
+    void getItemShouldFindItemsByPartitionAndSortKey() {
+        var item = transition(NOW, "next");
+        transitions.create(item);
+
+        assertEquals(item, transitions.getItem(IPV_SESSION_ID, item.getSortKey()));
+        assertNull(transitions.getItem(IPV_SESSION_ID, "not-a-sort-key"));
+    }
+
+    @Test
+    void getItemByIndexShouldMatchSecondaryPartitionKey() {
+        var session = new IpvSessionItem();
+        session.setIpvSessionId(IPV_SESSION_ID);
+        session.setAccessToken("hashed-access-token");
+        sessions.create(session);
+
+        assertEquals(session, sessions.getItem(IPV_SESSION_ID));
+        assertEquals(session, sessions.getItemByIndex("accessToken", "hashed-access-token"));
+        assertNull(sessions.getItemByIndex("accessToken", "another-access-token"));
+    }
+
+    @Test
+    void createIfNotExistsShouldRejectAnExistingKey() {
+        var item = transition(NOW, "next");
+        transitions.createIfNotExists(item);
+
+        assertThrows(
+                ConditionalCheckFailedException.class, () -> transitions.createIfNotExists(item));
+    }
+
+    @Test
+    void createIfNotExistsShouldSetTheTtlOfCreatedItems() {
+        var configService = mock(ConfigService.class);
+        when(configService.getSsmParameter(BACKEND_SESSION_TTL)).thenReturn("7200");
+        var store = new InMemoryDataStore<>(IpvSessionItem.class, configService);
+        var session = new IpvSessionItem();
+        session.setIpvSessionId(IPV_SESSION_ID);
+
+        var outcome = store.createIfNotExists(session, BACKEND_SESSION_TTL);
+
+        assertEquals(CreateOutcome.CREATED, outcome);
+        var ttl = store.getItem(IPV_SESSION_ID).getTtl();
+        assertTrue(ttl > Instant.now().getEpochSecond());
+        assertTrue(ttl <= Instant.now().plusSeconds(7200).getEpochSecond());
+        assertEquals(
+                CreateOutcome.ALREADY_EXISTS,
+                store.createIfNotExists(session, BACKEND_SESSION_TTL));
+    }
+
+    @Test
+    void updateShouldReplaceTheStoredItem() {
+        var item = transition(NOW, "next");
+        transitions.create(item);
+        item.setTargetState("UPDATED");
+
+        assertEquals(item, transitions.update(item));
+        assertEquals("UPDATED", transitions.getItems(IPV_SESSION_ID).get(0).getTargetState());
+    }
+
+    @Test
+    void deleteShouldRemoveItemsAndReturnThem() {
+        var first = transition(NOW, "start");
+        var second = transition(NOW.plusSeconds(1), "next");
+        transitions.create(first);
+        transitions.create(second);
+
+        assertEquals(first, transitions.delete(IPV_SESSION_ID, first.getSortKey()));
+        assertEquals(List.of(second), transitions.delete(List.of(first, second)));
+        assertTrue(transitions.getItems(IPV_SESSION_ID).isEmpty());
+    }
+
+    @Test
+    void readsShouldBeServedFromTheReadCacheOfTheReadingThread() throws Exception {
+        var item = transition(NOW, "next");
+        transitions.create(item);
+
+        try (var readCache = RequestScopedReadCache.open()) {
+            transitions.getItem(IPV_SESSION_ID, item.getSortKey());
+            transitions.getItem(IPV_SESSION_ID, item.getSortKey());
+            transitions.getItems(IPV_SESSION_ID);
+            transitions.getItems(IPV_SESSION_ID);
+            assertEquals(2, transitions.getReads());
+
+            var otherThread =
+                    new Thread(() -> transitions.getItem(IPV_SESSION_ID, item.getSortKey()));
+            otherThread.start();
+            otherThread.join();
+            assertEquals(3, transitions.getReads());
+
+            transitions.update(item);
+            transitions.getItems(IPV_SESSION_ID);
+            assertEquals(4, transitions.getReads());
+        }
+
+        transitions.getItems(IPV_SESSION_ID);
+        assertEquals(5, transitions.getReads());
+    }
+
+    @Test
+    void readCacheShouldBeHandedToTasksRunByExecutorHelperPools() throws Exception {
+        var executor = ExecutorHelper.newFixedDaemonThreadPool("in-memory-data-store-test", 1);
+        try {
+            try (var readCache = RequestScopedReadCache.open()) {
+                transitions.getItems(IPV_SESSION_ID);
+                executor.submit(() -> transitions.getItems(IPV_SESSION_ID)).get(5, SECONDS);
+                assertEquals(1, transitions.getReads());
+            }
+
+            // The pool's thread doesn't keep the cache once the task has run
+            executor.submit(() -> transitions.getItems(IPV_SESSION_ID)).get(5, SECONDS);
+            assertEquals(2, transitions.getReads());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static JourneyTransitionItem transition(Instant timestamp, String event) {
+        var item = new JourneyTransitionItem(IPV_SESSION_ID, timestamp);
+        item.setJourneyType("NEW_P2_IDENTITY");
+        item.setState("START");
+        item.setEvent(event);
+        item.setFeatureSet(List.of("someFeature"));
+        return item;
+    }
+}
@@ -0,0 +1,229 @@
+package uk.gov.di.ipv.core.library.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.di.ipv.core.library.domain.BulkVcsActionResult;
+import uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
+import uk.gov.di.ipv.core.library.exceptions.SqsException;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.BulkVcsActionItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus.FAILED;
+import static uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus.NOT_ATTEMPTED;
+import static uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus.SKIPPED;
+import static uk.gov.di.ipv.core.library.domain.BulkVcsActionStatus.SUCCEEDED;
+
+class BulkVcsActionServiceTest {
+    private static final String RUN_ID = "test-run-id";
+    private static final int NUMBER_OF_PAIRS = 5000;
+
+    private InMemoryDataStore<BulkVcsActionItem> checkpointStore;
+    private Map<UserIdCriIdPair, AtomicInteger> actionCounts;
+
+    @BeforeEach
+    void setUp() {
+        checkpointStore = new InMemoryDataStore<>(BulkVcsActionItem.class);
+        actionCounts = new ConcurrentHashMap<>();
+    }
+
+    @Test
+    void runShouldActOnEveryPairAndReportOutcomesInRequestOrder() {
+        var pairs = createPairs(NUMBER_OF_PAIRS);
+        var bulkVcsActionService = new BulkVcsActionService(checkpointStore, 10);
+
+        var report =
+                bulkVcsActionService.run(RUN_ID, pairs, this::failEverySeventhPair, () -> false);
+
+        assertEquals(RUN_ID, report.getRunId());
+        assertEquals(
+                pairs,
+                report.getResults().stream().map(BulkVcsActionResult::getUserIdCriIdPair).toList());
+        for (var i = 0; i < NUMBER_OF_PAIRS; i++) {
+            var result = report.getResults().get(i);
+            if (i % 7 == 0) {
+                assertEquals(FAILED, result.getStatus());
+                assertEquals("Injected failure", result.getErrorMessage());
+            } else {
+                assertEquals(i % 5 == 0 ? SKIPPED : SUCCEEDED, result.getStatus());
+                assertNull(result.getErrorMessage());
+            }
+        }
+        var totals = report.getTotals();
+        assertEquals(715, totals.get(FAILED));
+        assertEquals(857, totals.get(SKIPPED));
+        assertEquals(3428, totals.get(SUCCEEDED));
+        assertEquals(0, totals.get(NOT_ATTEMPTED));
+        assertTrue(actionCounts.values().stream().allMatch(count -> count.get() == 1));
+    }
+
+    @Test
+    void runShouldCheckpointTheOutcomeForEveryPair() {
+        var pairs = createPairs(NUMBER_OF_PAIRS);
+        var bulkVcsActionService = new BulkVcsActionService(checkpointStore, 10);
+
+        bulkVcsActionService.run(RUN_ID, pairs, this::failEverySeventhPair, () -> false);
+
+        var checkpoint = checkpointStore.getItems(RUN_ID);
+        assertEquals(NUMBER_OF_PAIRS, checkpoint.size());
+        var failedItem = checkpointStore.getItem(RUN_ID, "user-7#cri-7");
+        assertEquals("user-7", failedItem.getUserId());
+        assertEquals("cri-7", failedItem.getCriId());
+        assertEquals(FAILED.name(), failedItem.getStatus());
+        assertEquals("Injected failure", failedItem.getErrorMessage());
+        assertTrue(failedItem.getTtl() > 0);
+        assertEquals(SUCCEEDED.name(), checkpointStore.getItem(RUN_ID, "user-1#cri-1").getStatus());
+    }
+
+    @Test
+    void runShouldOnlyRetryPairsThatAreNotDoneWhenResumed() {
+        var pairs = createPairs(NUMBER_OF_PAIRS);
+        var bulkVcsActionService = new BulkVcsActionService(checkpointStore, 10);
+        bulkVcsActionService.run(RUN_ID, pairs, this::failEverySeventhPair, () -> false);
+        actionCounts.clear();
+
+        var report = bulkVcsActionService.run(RUN_ID, pairs, this::countAction, () -> false);
+
+        assertEquals(715, actionCounts.size());
+        assertTrue(actionCounts.keySet().stream().allMatch(pair -> indexOf(pair) % 7 == 0));
+        var totals = report.getTotals();
+        assertEquals(0, totals.get(FAILED));
+        assertEquals(857, totals.get(SKIPPED));
+        assertEquals(4143, totals.get(SUCCEEDED));
+        assertEquals(SUCCEEDED.name(), checkpointStore.getItem(RUN_ID, "user-7#cri-7").getStatus());
+    }
+
+    @Test
+    void runShouldNotUseTheCheckpointOfAnotherRun() {
+        var pairs = createPairs(100);
+        var bulkVcsActionService = new BulkVcsActionService(checkpointStore, 10);
+        bulkVcsActionService.run(RUN_ID, pairs, this::countAction, () -> false);
+
+        bulkVcsActionService.run("another-run-id", pairs, this::countAction, () -> false);
+
+        assertTrue(actionCounts.values().stream().allMatch(count -> count.get() == 2));
+    }
+
+    @Test
+    void runShouldActOnRepeatedPairsOnce() {
+        var pairs = createPairs(100);
+        var repeatedPairs = new ArrayList<>(pairs);
+        repeatedPairs.addAll(pairs);
+        var bulkVcsActionService = new BulkVcsActionService(checkpointStore, 10);
+
+        var report =
+                bulkVcsActionService.run(RUN_ID, repeatedPairs, this::countAction, () -> false);
+
+        assertEquals(100, report.getResults().size());
+        assertTrue(actionCounts.values().stream().allMatch(count -> count.get() == 1));
+    }
+
+    @Test
+    void runShouldActOnPairsConcurrentlyUpToMaxConcurrency() {
+        var maxConcurrency = 4;
+        var allStarted = new CountDownLatch(maxConcurrency);
+        var active = new AtomicInteger();
+        var maxActive = new AtomicInteger();
+        var bulkVcsActionService = new BulkVcsActionService(checkpointStore, maxConcurrency);
+
+        var report =
+                bulkVcsActionService.run(
+                        RUN_ID,
+                        createPairs(1000),
+                        pair -> {
+                            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                            allStarted.countDown();
+                            // Only returns once the first actions have all been running at once
+                            var started = allStarted.await(5, TimeUnit.SECONDS);
+                            active.decrementAndGet();
+                            return started ? SUCCEEDED : SKIPPED;
+                        },
+                        () -> false);
+
+        assertEquals(maxConcurrency, maxActive.get());
+        assertEquals(1000, report.getTotals().get(SUCCEEDED));
+    }
+
+    @Test
+    void runShouldStopWhenAnAuditEventCannotBeSent() {
+        var pairs = createPairs(1000);
+        var bulkVcsActionService = new BulkVcsActionService(checkpointStore, 1);
+
+        var report =
+                bulkVcsActionService.run(
+                        RUN_ID,
+                        pairs,
+                        pair -> {
+                            if (indexOf(pair) == 600) {
+                                throw new SqsException("Injected audit failure");
+                            }
+                            return countAction(pair);
+                        },
+                        () -> false);
+
+        var totals = report.getTotals();
+        assertEquals(600, totals.get(SUCCEEDED));
+        assertEquals(1, totals.get(FAILED));
+        assertEquals(399, totals.get(NOT_ATTEMPTED));
+        assertEquals("Injected audit failure", report.getResults().get(600).getErrorMessage());
+        assertEquals(601, checkpointStore.getItems(RUN_ID).size());
+    }
+
+    @Test
+    void runShouldNotStartPairsOnceOutOfTime() {
+        var pairs = createPairs(1000);
+        var timeChecks = new AtomicInteger();
+        var bulkVcsActionService = new BulkVcsActionService(checkpointStore, 1);
+
+        var report =
+                bulkVcsActionService.run(
+                        RUN_ID, pairs, this::countAction, () -> timeChecks.incrementAndGet() > 250);
+
+        var totals = report.getTotals();
+        assertEquals(250, totals.get(SUCCEEDED));
+        assertEquals(750, totals.get(NOT_ATTEMPTED));
+        assertEquals(250, actionCounts.size());
+
+        var resumedReport =
+                bulkVcsActionService.run(RUN_ID, pairs, this::countAction, () -> false);
+
+        assertEquals(1000, resumedReport.getTotals().get(SUCCEEDED));
+        assertTrue(actionCounts.values().stream().allMatch(count -> count.get() == 1));
+    }
+
+    private BulkVcsActionStatus failEverySeventhPair(UserIdCriIdPair pair) {
+        countAction(pair);
+        var index = indexOf(pair);
+        if (index % 7 == 0) {
+            throw new IllegalStateException("Injected failure");
+        }
+        return index % 5 == 0 ? SKIPPED : SUCCEEDED;
+    }
+
+    private BulkVcsActionStatus countAction(UserIdCriIdPair pair) {
+        actionCounts.computeIfAbsent(pair, key -> new AtomicInteger()).incrementAndGet();
+        return SUCCEEDED;
+    }
+
+    private static int indexOf(UserIdCriIdPair pair) {
+        return Integer.parseInt(pair.getUserId().substring("user-".length()));
+    }
+
+    private static List<UserIdCriIdPair> createPairs(int numberOfPairs) {
+        return IntStream.range(0, numberOfPairs)
+                .mapToObj(i -> new UserIdCriIdPair("user-" + i, "cri-" + i))
+                .toList();
+    }
+}
@@ -0,0 +1,317 @@
+package uk.gov.di.ipv.core.library.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.services.ssm.model.ParameterNotFoundException;
+import uk.gov.di.ipv.core.library.domain.ContraIndicatorConfig;
+import uk.gov.di.ipv.core.library.exceptions.NoConfigForClientException;
+import uk.gov.di.ipv.core.library.fixtures.InMemoryConfigProviders;
+import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
+import uk.org.webcompere.systemstubs.jupiter.SystemStub;
+import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.FEATURE_FLAGS;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PRIVATE_KEY_JWK_DOUBLE_ENCODED;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.EC_PUBLIC_JWK;
+import static uk.gov.di.ipv.core.library.fixtures.TestFixtures.RSA_ENCRYPTION_PUBLIC_JWK_DOUBLE_ENCODED;
+
+@ExtendWith(SystemStubsExtension.class)
+class ConfigSnapshotTest {
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(3);
+    private static final String CI_CONFIG_SECRET = "/test/core/self/ci-config";
+    private static final String CI_CONFIG =
+            "[{\"ci\":\"X01\",\"detectedScore\":3,\"checkedScore\":-3,\"returnCode\":\"1\"}]";
+    private static final String CIMIT_CONFIG_PARAM = "/test/core/cimit/config";
+    private static final String CLIENT_PATH = "/test/core/clients/orchestrator";
+    private static final String CRI_CONFIG_PARAM =
+            "/test/core/credentialIssuers/ukPassport/connections/main";
+    private static final String CRI_CONFIG =
+            String.format(
+                    "{\"tokenUrl\":\"https://testTokenUrl\",\"clientId\":\"ipv-core-test\",\"signingKey\":%s,\"encryptionKey\":%s,\"componentId\":\"https://testComponentId\"}",
+                    EC_PRIVATE_KEY_JWK_DOUBLE_ENCODED, RSA_ENCRYPTION_PUBLIC_JWK_DOUBLE_ENCODED);
+
+    @SystemStub private EnvironmentVariables environmentVariables;
+
+    private InMemoryConfigProviders providers;
+    private MutableClock clock;
+    private ConfigService configService;
+
+    @BeforeEach
+    void setUp() {
+        environmentVariables.set("ENVIRONMENT", "test");
+        providers = new InMemoryConfigProviders();
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        configService =
+                new ConfigService(
+                        providers.ssmProvider(),
+                        providers.secretsProvider(),
+                        null,
+                        clock,
+                        REFRESH_INTERVAL);
+    }
+
+    @Test
+    void shouldReadParameterOncePerSnapshot() {
+        providers.withParameter("/test/core/self/backendSessionTtl", "3600");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("3600", configService.getSsmParameter(BACKEND_SESSION_TTL));
+        }
+
+        assertEquals(1, providers.calls("get", "/test/core/self/backendSessionTtl"));
+    }
+
+    @Test
+    void shouldReadFeatureSetOverlayOncePerSnapshot() {
+        providers
+                .withParameter("/test/core/featureFlags/flagOne", "false")
+                .withParameter("/test/core/featureFlags/flagTwo", "false")
+                .withParameter("/test/core/features/fs01/featureFlags/flagOne", "true");
+        configService.setFeatureSet(List.of("fs01"));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(configService.enabled("flagOne"));
+            assertFalse(configService.enabled("flagTwo"));
+        }
+
+        assertEquals(1, providers.calls("getMultiple", "/test/core/features/fs01/featureFlags"));
+        assertEquals(0, providers.calls("get", "/test/core/featureFlags/flagOne"));
+        assertEquals(1, providers.calls("get", "/test/core/featureFlags/flagTwo"));
+    }
+
+    @Test
+    void shouldShareSnapshotAcrossFeatureSets() {
+        providers
+                .withParameter("/test/core/featureFlags/flagOne", "false")
+                .withParameter("/test/core/features/fs01/featureFlags/flagOne", "true");
+
+        configService.setFeatureSet(List.of("fs01"));
+        assertTrue(configService.enabled("flagOne"));
+        configService.setFeatureSet(null);
+        assertFalse(configService.enabled("flagOne"));
+        configService.setFeatureSet(List.of("fs01"));
+        assertTrue(configService.enabled("flagOne"));
+        configService.setFeatureSet(null);
+        assertFalse(configService.enabled("flagOne"));
+
+        assertEquals(2, providers.totalCalls());
+    }
+
+    @Test
+    void shouldParseContraIndicatorConfigOncePerSnapshot() {
+        providers.withSecret(CI_CONFIG_SECRET, CI_CONFIG);
+
+        var configMap = configService.getContraIndicatorConfigMap();
+
+        assertSame(configMap, configService.getContraIndicatorConfigMap());
+        assertEquals(1, providers.calls("get", CI_CONFIG_SECRET));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> configMap.put("X02", new ContraIndicatorConfig()));
+    }
+
+    @Test
+    void shouldParseCimitConfigOncePerSnapshot() throws Exception {
+        providers.withParameter(
+                CIMIT_CONFIG_PARAM, "{\"X01\": [{\"event\": \"/journey/do-a-thing\"}]}");
+
+        var cimitConfig = configService.getCimitConfig();
+
+        assertSame(cimitConfig, configService.getCimitConfig());
+        assertEquals("/journey/do-a-thing", cimitConfig.get("X01").get(0).event());
+        assertEquals(1, providers.calls("get", CIMIT_CONFIG_PARAM));
+    }
+
+    @Test
+    void shouldParseCriConfigAndKeysOncePerSnapshot() throws Exception {
+        providers.withParameter(CRI_CONFIG_PARAM, CRI_CONFIG);
+
+        var criConfig = configService.getOauthCriConfigForConnection("main", "ukPassport");
+
+        assertSame(
+                criConfig, configService.getOauthCriConfigForConnection("main", "ukPassport"));
+        assertSame(criConfig.getParsedSigningKey(), criConfig.getParsedSigningKey());
+        assertSame(criConfig.getParsedEncryptionKey(), criConfig.getParsedEncryptionKey());
+        assertEquals(1, providers.calls("get", CRI_CONFIG_PARAM));
+    }
+
+    @Test
+    void shouldKeepCriConfigTypesSeparate() {
+        providers
+                .withParameter("/test/core/credentialIssuers/ukPassport/activeConnection", "main")
+                .withParameter(
+                        CRI_CONFIG_PARAM,
+                        String.format(
+                                "{\"signingKey\":%s,\"componentId\":\"https://testComponentId\"}",
+                                EC_PRIVATE_KEY_JWK_DOUBLE_ENCODED));
+
+        var oauthCriConfig = configService.getOauthCriConfigForConnection("main", "ukPassport");
+        var criConfig = configService.getCriConfig("ukPassport");
+
+        assertEquals(oauthCriConfig.getComponentId(), criConfig.getComponentId());
+        assertNotSame(oauthCriConfig, criConfig);
+        assertSame(criConfig, configService.getCriConfig("ukPassport"));
+        assertEquals(1, providers.calls("get", CRI_CONFIG_PARAM));
+    }
+
+    @Test
+    void shouldReloadOnceRefreshIntervalHasPassed() throws Exception {
+        providers
+                .withParameter(CIMIT_CONFIG_PARAM, "{\"X01\": [{\"event\": \"/journey/one\"}]}")
+                .withParameter("/test/core/featureFlags/flagOne", "false");
+        var cimitConfig = configService.getCimitConfig();
+        assertFalse(configService.enabled("flagOne"));
+
+        providers
+                .withParameter(CIMIT_CONFIG_PARAM, "{\"X01\": [{\"event\": \"/journey/two\"}]}")
+                .withParameter("/test/core/featureFlags/flagOne", "true");
+        clock.advance(REFRESH_INTERVAL.minusSeconds(1));
+        assertSame(cimitConfig, configService.getCimitConfig());
+        assertFalse(configService.enabled("flagOne"));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals("/journey/two", configService.getCimitConfig().get("X01").get(0).event());
+        assertTrue(configService.enabled("flagOne"));
+        assertEquals(2, providers.calls("get", CIMIT_CONFIG_PARAM));
+        assertEquals(2, providers.calls("get", "/test/core/featureFlags/flagOne"));
+    }
+
+    @Test
+    void shouldBuildClientAuthPolicyOncePerSnapshot() {
+        givenClientConfig(EC_PUBLIC_JWK);
+
+        var policy = configService.getClientAuthPolicy("orchestrator");
+        var callsToBuild = providers.totalCalls();
+
+        assertSame(policy, configService.getClientAuthPolicy("orchestrator"));
+        assertEquals(4, callsToBuild);
+        assertEquals(callsToBuild, providers.totalCalls());
+        assertEquals("https://orch.example.com", policy.getIssuer());
+        assertEquals(Duration.ofSeconds(1500), policy.getMaxJarTtl());
+        assertTrue(policy.getVerifier().isPresent());
+        assertTrue(policy.isAllowedRedirectUrl("https://orch.example.com/callback"));
+        assertTrue(policy.isAllowedRedirectUrl("https://ORCH.example.com:443/other"));
+
+        clock.advance(REFRESH_INTERVAL);
+        assertNotSame(policy, configService.getClientAuthPolicy("orchestrator"));
+        assertEquals(callsToBuild * 2, providers.totalCalls());
+    }
+
+    @Test
+    void shouldBuildClientAuthPolicyWithoutVerifierForInvalidPublicKey() {
+        givenClientConfig("invalid-jwk");
+
+        var policy = configService.getClientAuthPolicy("orchestrator");
+
+        assertFalse(policy.getVerifier().isPresent());
+        assertEquals("https://orch.example.com", policy.getIssuer());
+    }
+
+    @Test
+    void shouldNotRememberUnknownClients() {
+        assertThrows(
+                ParameterNotFoundException.class,
+                () -> configService.getClientAuthPolicy("orchestrator"));
+
+        givenClientConfig(EC_PUBLIC_JWK);
+
+        var policy = configService.getClientAuthPolicy("orchestrator");
+        assertEquals("orchestrator", policy.getClientId());
+    }
+
+    @Test
+    void shouldNotTreatKnownClientMissingPublicKeyAsUnknown() {
+        providers
+                .withParameter(CLIENT_PATH + "/issuer", "https://orch.example.com")
+                .withParameter(
+                        CLIENT_PATH + "/validRedirectUrls", "https://orch.example.com/callback")
+                .withParameter("/test/core/self/maxAllowedAuthClientTtl", "1500");
+
+        assertThrows(
+                NoConfigForClientException.class,
+                () -> configService.getClientAuthPolicy("orchestrator"));
+    }
+
+    @Test
+    void shouldNotRememberMissingParameters() {
+        assertThrows(
+                ParameterNotFoundException.class,
+                () -> configService.getSsmParameter(FEATURE_FLAGS, "flagOne"));
+
+        providers.withParameter("/test/core/featureFlags/flagOne", "true");
+
+        assertTrue(configService.enabled("flagOne"));
+        assertEquals(2, providers.calls("get", "/test/core/featureFlags/flagOne"));
+    }
+
+    @Test
+    void shouldMatchProviderValuesWithoutSnapshotReuse() throws Exception {
+        providers.withParameter(CIMIT_CONFIG_PARAM, "{\"X01\": [{\"event\": \"/journey/one\"}]}");
+        var uncached =
+                new ConfigService(
+                        providers.ssmProvider(),
+                        providers.secretsProvider(),
+                        null,
+                        clock,
+                        Duration.ZERO);
+
+        var first = uncached.getCimitConfig();
+        var second = uncached.getCimitConfig();
+
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(2, providers.calls("get", CIMIT_CONFIG_PARAM));
+    }
+
+    private void givenClientConfig(String publicKeyMaterial) {
+        providers
+                .withParameter(CLIENT_PATH + "/issuer", "https://orch.example.com")
+                .withParameter(CLIENT_PATH + "/publicKeyMaterialForCoreToVerify", publicKeyMaterial)
+                .withParameter(
+                        CLIENT_PATH + "/validRedirectUrls",
+                        "https://orch.example.com/callback,https://orch.example.com/other")
+                .withParameter("/test/core/self/maxAllowedAuthClientTtl", "1500");
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
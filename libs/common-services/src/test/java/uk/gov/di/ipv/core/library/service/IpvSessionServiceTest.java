@@ -3,24 +3,37 @@ package uk.gov.di.ipv.core.library.service;
 import com.nimbusds.oauth2.sdk.AuthorizationCode;
 import com.nimbusds.oauth2.sdk.ErrorObject;
 import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import uk.gov.di.ipv.core.library.domain.IpvJourneyTypes;
 import uk.gov.di.ipv.core.library.dto.AccessTokenMetadata;
 import uk.gov.di.ipv.core.library.helpers.SecureTokenHelper;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.FaultyDataStore;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.AccessTokenItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
@@ -31,7 +44,15 @@ class IpvSessionServiceTest {
     private static final String IPV_SUCCESS_PAGE_STATE = "IPV_SUCCESS_PAGE";
 
     @Mock private DataStore<IpvSessionItem> mockDataStore;
-    @InjectMocks private IpvSessionService ipvSessionService;
+    @Mock private DataStore<AccessTokenItem> mockAccessTokenDataStore;
+    private final List<Long> sleeps = new ArrayList<>();
+    private IpvSessionService ipvSessionService;
+
+    @BeforeEach
+    void setUp() {
+        ipvSessionService =
+                new IpvSessionService(mockDataStore, mockAccessTokenDataStore, sleeps::add);
+    }
 
     @Test
     void shouldReturnSessionItem() {
@@ -103,6 +124,105 @@ class IpvSessionServiceTest {
                 ipvSessionService.getIpvSessionByAccessToken(accessToken).orElseThrow();
 
         assertEquals(result, ipvSessionItem);
+        assertEquals(List.of(10L), sleeps);
+    }
+
+    @Test
+    void shouldReturnSessionItemByAccessTokenWithConsistentReads() {
+        String ipvSessionID = SecureTokenHelper.getInstance().generate();
+        String accessToken = "56789";
+        String hashedAccessToken = DigestUtils.sha256Hex(accessToken);
+
+        IpvSessionItem ipvSessionItem = new IpvSessionItem();
+        ipvSessionItem.setIpvSessionId(ipvSessionID);
+        ipvSessionItem.setAccessToken(hashedAccessToken);
+
+        when(mockAccessTokenDataStore.getItemWithConsistentRead(hashedAccessToken))
+                .thenReturn(new AccessTokenItem(hashedAccessToken, ipvSessionID, 0));
+        when(mockDataStore.getItemWithConsistentRead(ipvSessionID)).thenReturn(ipvSessionItem);
+
+        IpvSessionItem result =
+                ipvSessionService.getIpvSessionByAccessToken(accessToken).orElseThrow();
+
+        assertEquals(result, ipvSessionItem);
+        verify(mockDataStore, never()).getItemByIndex(any(), any());
+    }
+
+    @Test
+    void shouldNotReturnSessionItemByAccessTokenIfSessionHasAnotherAccessToken() {
+        String ipvSessionID = SecureTokenHelper.getInstance().generate();
+        String accessToken = "56789";
+        String hashedAccessToken = DigestUtils.sha256Hex(accessToken);
+
+        IpvSessionItem ipvSessionItem = new IpvSessionItem();
+        ipvSessionItem.setIpvSessionId(ipvSessionID);
+        ipvSessionItem.setAccessToken(DigestUtils.sha256Hex("another-access-token"));
+
+        when(mockAccessTokenDataStore.getItemWithConsistentRead(hashedAccessToken))
+                .thenReturn(new AccessTokenItem(hashedAccessToken, ipvSessionID, 0));
+        when(mockDataStore.getItemWithConsistentRead(ipvSessionID)).thenReturn(ipvSessionItem);
+
+        assertTrue(ipvSessionService.getIpvSessionByAccessToken(accessToken).isEmpty());
+        verify(mockDataStore, never()).getItemByIndex(any(), any());
+    }
+
+    @Nested
+    class WithIndexReplicationLag {
+        private static final int LAGGING_INDEX_READS = 3;
+
+        private final FaultyDataStore<IpvSessionItem> sessions =
+                new FaultyDataStore<>(IpvSessionItem.class);
+        private final IpvSessionService service =
+                new IpvSessionService(
+                        sessions, new InMemoryDataStore<>(AccessTokenItem.class), sleeps::add);
+
+        @BeforeEach
+        void lagTheIndex() {
+            sessions.lagIndexesBy(LAGGING_INDEX_READS);
+        }
+
+        @Test
+        void shouldFindSessionGivenAnAccessTokenWithoutReadingTheIndex() {
+            var accessToken = new BearerAccessToken("test-access-token");
+            var ipvSessionItem = session();
+            service.setAccessToken(ipvSessionItem, accessToken);
+
+            var result = service.getIpvSessionByAccessToken(accessToken.getValue());
+
+            assertEquals(ipvSessionItem.getIpvSessionId(), result.orElseThrow().getIpvSessionId());
+            assertEquals(0, sessions.getIndexReads());
+            assertTrue(sleeps.isEmpty());
+        }
+
+        @Test
+        void shouldPollTheIndexForLegacySessions() {
+            var accessToken = "test-access-token";
+            var ipvSessionItem = session();
+            ipvSessionItem.setAccessToken(DigestUtils.sha256Hex(accessToken));
+            sessions.create(ipvSessionItem);
+
+            var result = service.getIpvSessionByAccessToken(accessToken);
+
+            assertEquals(ipvSessionItem.getIpvSessionId(), result.orElseThrow().getIpvSessionId());
+            assertEquals(LAGGING_INDEX_READS + 1, sessions.getIndexReads());
+            assertEquals(List.of(10L, 20L, 40L), sleeps);
+        }
+
+        @Test
+        void shouldGiveUpPollingTheIndexForUnknownAccessTokens() {
+            var result = service.getIpvSessionByAccessToken("unknown-access-token");
+
+            assertTrue(result.isEmpty());
+            assertEquals(7, sessions.getIndexReads());
+            assertEquals(1270L, sleeps.stream().mapToLong(Long::longValue).sum());
+        }
+
+        private IpvSessionItem session() {
+            var ipvSessionItem = new IpvSessionItem();
+            ipvSessionItem.setIpvSessionId(SecureTokenHelper.getInstance().generate());
+            ipvSessionItem.setAccessTokenMetadata(new AccessTokenMetadata());
+            return ipvSessionItem;
+        }
     }
 
     @Test
@@ -203,19 +323,40 @@ class IpvSessionServiceTest {
 
     @Test
     void shouldSetAccessTokenAndMetadataOnSessionItem() {
+        var sessions = new InMemoryDataStore<>(IpvSessionItem.class);
+        var accessTokens = new InMemoryDataStore<>(AccessTokenItem.class);
+        var service = new IpvSessionService(sessions, accessTokens, sleeps::add);
         BearerAccessToken accessToken = new BearerAccessToken("test-access-token");
         IpvSessionItem ipvSessionItem = new IpvSessionItem();
         ipvSessionItem.setIpvSessionId(SecureTokenHelper.getInstance().generate());
         ipvSessionItem.setUserState(IPV_SUCCESS_PAGE_STATE);
         ipvSessionItem.setCreationDateTime(new Date().toString());
 
-        ipvSessionService.setAccessToken(ipvSessionItem, accessToken);
+        service.setAccessToken(ipvSessionItem, accessToken);
 
-        ArgumentCaptor<IpvSessionItem> ipvSessionItemArgumentCaptor =
-                ArgumentCaptor.forClass(IpvSessionItem.class);
-        verify(mockDataStore).update(ipvSessionItemArgumentCaptor.capture());
-        assertNotNull(ipvSessionItemArgumentCaptor.getValue().getAccessToken());
-        assertNotNull(ipvSessionItemArgumentCaptor.getValue().getAccessTokenMetadata());
+        var hashedAccessToken = DigestUtils.sha256Hex(accessToken.getValue());
+        var savedSession = sessions.getItem(ipvSessionItem.getIpvSessionId(), false);
+        assertEquals(hashedAccessToken, savedSession.getAccessToken());
+        assertNotNull(savedSession.getAccessTokenMetadata());
+        assertEquals(
+                ipvSessionItem.getIpvSessionId(),
+                accessTokens.getItem(hashedAccessToken, false).getIpvSessionId());
+    }
+
+    @Test
+    void shouldNotKeepAccessTokenIfSessionIsNotSaved() {
+        var sessions = new FaultyDataStore<>(IpvSessionItem.class);
+        sessions.fail(FaultyDataStore.Operation.UPDATE);
+        var accessTokens = new InMemoryDataStore<>(AccessTokenItem.class);
+        var service = new IpvSessionService(sessions, accessTokens, sleeps::add);
+        BearerAccessToken accessToken = new BearerAccessToken("test-access-token");
+        IpvSessionItem ipvSessionItem = new IpvSessionItem();
+        ipvSessionItem.setIpvSessionId(SecureTokenHelper.getInstance().generate());
+
+        assertThrows(
+                DynamoDbException.class, () -> service.setAccessToken(ipvSessionItem, accessToken));
+
+        assertNull(accessTokens.getItem(DigestUtils.sha256Hex(accessToken.getValue()), false));
     }
 
     @Test
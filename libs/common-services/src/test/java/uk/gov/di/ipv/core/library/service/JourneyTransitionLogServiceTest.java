@@ -0,0 +1,73 @@
+package uk.gov.di.ipv.core.library.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.BACKEND_SESSION_TTL;
+
+@ExtendWith(MockitoExtension.class)
+class JourneyTransitionLogServiceTest {
+    private static final String IPV_SESSION_ID = "ipv-session-id";
+
+    @Mock private DataStore<JourneyTransitionItem> mockDataStore;
+    @InjectMocks private JourneyTransitionLogService journeyTransitionLogService;
+
+    @Test
+    void recordTransitionShouldCreateItemWithSessionTtl() {
+        var transition = new JourneyTransitionItem(IPV_SESSION_ID, Instant.now());
+
+        journeyTransitionLogService.recordTransition(transition);
+
+        verify(mockDataStore).create(transition, BACKEND_SESSION_TTL);
+    }
+
+    @Test
+    void recordTransitionShouldNotThrowIfItemCannotBeStored() {
+        var transition = new JourneyTransitionItem(IPV_SESSION_ID, Instant.now());
+        doThrow(DynamoDbException.builder().message("Throttled").build())
+                .when(mockDataStore)
+                .create(transition, BACKEND_SESSION_TTL);
+
+        assertDoesNotThrow(() -> journeyTransitionLogService.recordTransition(transition));
+    }
+
+    @Test
+    void getTransitionsShouldReturnSessionHistory() {
+        var transitions = List.of(new JourneyTransitionItem(IPV_SESSION_ID, Instant.now()));
+        when(mockDataStore.getItems(IPV_SESSION_ID)).thenReturn(transitions);
+
+        assertEquals(transitions, journeyTransitionLogService.getTransitions(IPV_SESSION_ID));
+    }
+
+    @Test
+    void sortKeysShouldOrderTransitionsByTime() {
+        var earlier = new JourneyTransitionItem(IPV_SESSION_ID, Instant.ofEpochSecond(9, 5));
+        var later = new JourneyTransitionItem(IPV_SESSION_ID, Instant.ofEpochSecond(10, 1));
+
+        assertEquals(-1, Integer.signum(earlier.getSortKey().compareTo(later.getSortKey())));
+    }
+
+    @Test
+    void sortKeysShouldBeUniqueForTransitionsAtTheSameInstant() {
+        var timestamp = Instant.ofEpochSecond(10, 1);
+        var first = new JourneyTransitionItem(IPV_SESSION_ID, timestamp);
+        var second = new JourneyTransitionItem(IPV_SESSION_ID, timestamp);
+
+        assertNotEquals(first.getSortKey(), second.getSortKey());
+    }
+}
@@ -0,0 +1,60 @@
+package uk.gov.di.ipv.core.library.validation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientAuthPolicyTest {
+    private static final ClientAuthPolicy POLICY =
+            new ClientAuthPolicy(
+                    "orchestrator",
+                    "https://orch.example.com",
+                    null,
+                    List.of("https://orch.example.com/callback", " http://localhost:4500"),
+                    Duration.ofMinutes(25));
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "https://orch.example.com/callback",
+                "HTTPS://Orch.Example.com/callback",
+                "https://orch.example.com:443/callback",
+                "https://orch.example.com/app/../callback",
+                "http://localhost:4500",
+                "http://localhost:4500/"
+            })
+    void isAllowedRedirectUrlShouldMatchEquivalentUrls(String redirectUrl) {
+        assertTrue(POLICY.isAllowedRedirectUrl(redirectUrl));
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "https://orch.example.com/Callback",
+                "https://orch.example.com:8443/callback",
+                "http://orch.example.com/callback",
+                "https://orch.example.com/callback?next=elsewhere",
+                "https://user@orch.example.com/callback",
+                "not a url"
+            })
+    void isAllowedRedirectUrlShouldNotMatchOtherUrls(String redirectUrl) {
+        assertFalse(POLICY.isAllowedRedirectUrl(redirectUrl));
+    }
+
+    @Test
+    void isAllowedRedirectUrlShouldNotMatchNull() {
+        assertFalse(POLICY.isAllowedRedirectUrl(null));
+    }
+
+    @Test
+    void normaliseShouldLeaveUnparseableUrlsAsTheyAre() {
+        assertEquals("not a url", ClientAuthPolicy.normalise(" not a url "));
+    }
+}
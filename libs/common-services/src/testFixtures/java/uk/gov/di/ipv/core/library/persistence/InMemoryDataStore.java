@@ -0,0 +1,352 @@
+package uk.gov.di.ipv.core.library.persistence;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import uk.gov.di.ipv.core.library.config.ConfigurationVariable;
+import uk.gov.di.ipv.core.library.persistence.item.DynamodbItem;
+import uk.gov.di.ipv.core.library.service.ConfigService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A {@link DataStore} that keeps items in memory, for running tools and tests without DynamoDB.
+ * Items are mapped with the same bean schema as a DynamoDB table, so they are copied in and out of
+ * the store and read back in sort key order, as they would be from a query. Reads are served from
+ * a request's {@link RequestScopedReadCache} as DataStore's are, and the reads that reach the
+ * store are counted.
+ */
+public class InMemoryDataStore<T extends DynamodbItem> extends DataStore<T> {
+    private static final AttributeValue NO_SORT_KEY = AttributeValue.fromS("");
+    private static final Comparator<AttributeValue> SORT_KEY_ORDER =
+            (a, b) ->
+                    a.n() != null && b.n() != null
+                            ? new BigDecimal(a.n()).compareTo(new BigDecimal(b.n()))
+                            : Objects.toString(a.s(), "").compareTo(Objects.toString(b.s(), ""));
+
+    private final TableSchema<T> schema;
+    private final String partitionKey;
+    private final String sortKey;
+    private final ConfigService configService;
+    private final Partitions partitions = new Partitions();
+    private final String tableName = "in-memory-" + UUID.randomUUID();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    public InMemoryDataStore(Class<T> typeParameterClass) {
+        this(typeParameterClass, null);
+    }
+
+    // Items are given TTLs from the config service, as in DynamoDB, though nothing expires
+    public InMemoryDataStore(Class<T> typeParameterClass, ConfigService configService) {
+        super(typeParameterClass, configService);
+        this.configService = configService;
+        this.schema = TableSchema.fromBean(typeParameterClass);
+        this.partitionKey = schema.tableMetadata().primaryPartitionKey();
+        this.sortKey = schema.tableMetadata().primarySortKey().orElse(null);
+    }
+
+    // Reads that were not served from a request's read cache
+    public int getReads() {
+        return reads.get();
+    }
+
+    // Without a config service items are stored with no TTL
+    @Override
+    protected long getTtl(ConfigurationVariable tableTtl) {
+        return configService == null ? 0 : super.getTtl(tableTtl);
+    }
+
+    @Override
+    public synchronized void createAll(List<T> items, ConfigurationVariable tableTtl) {
+        var ttl = getTtl(tableTtl);
+        items.forEach(item -> item.setTtl(ttl));
+        items.forEach(this::create);
+    }
+
+    @Override
+    public synchronized void writeTransaction(List<T> itemsToCreate, List<T> itemsToDelete) {
+        if (itemsToCreate.size() + itemsToDelete.size() > MAX_TRANSACTION_ITEMS) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "A transaction can write at most %d items", MAX_TRANSACTION_ITEMS));
+        }
+        // DynamoDB rejects transactions that write an item more than once
+        var keys = new HashSet<List<AttributeValue>>();
+        for (var item : Stream.concat(itemsToCreate.stream(), itemsToDelete.stream()).toList()) {
+            var attributes = schema.itemToMap(item, true);
+            if (!keys.add(List.of(attributes.get(partitionKey), sortValue(attributes)))) {
+                throw DynamoDbException.builder()
+                        .message(
+                                "Transaction request cannot include multiple operations on one"
+                                        + " item")
+                        .build();
+            }
+        }
+        // Applied all or nothing, as DynamoDB does, even if a write fails part way through
+        var snapshot = snapshot();
+        try {
+            itemsToCreate.forEach(this::create);
+            delete(itemsToDelete);
+        } catch (RuntimeException e) {
+            restore(snapshot);
+            throw e;
+        }
+    }
+
+    // Every store written to is rolled back if a write fails. Writes to different stores are
+    // only serialised with each other, not with other calls to those stores.
+    @Override
+    protected void writeTransactionAcrossTables(List<TransactionWrite<?>> writes) {
+        if (writes.size() > MAX_TRANSACTION_ITEMS) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "A transaction can write at most %d items", MAX_TRANSACTION_ITEMS));
+        }
+        var snapshots = new LinkedHashMap<InMemoryDataStore<?>, Partitions>();
+        for (var write : writes) {
+            if (!(write.store() instanceof InMemoryDataStore<?> store)) {
+                throw new IllegalArgumentException(
+                        "Stores written in one transaction must share a client");
+            }
+            snapshots.putIfAbsent(store, null);
+        }
+        synchronized (InMemoryDataStore.class) {
+            snapshots.replaceAll((store, snapshot) -> store.snapshot());
+            try {
+                writes.forEach(InMemoryDataStore::apply);
+            } catch (RuntimeException e) {
+                snapshots.forEach(InMemoryDataStore::restore);
+                throw e;
+            }
+        }
+    }
+
+    private static <I extends DynamodbItem> void apply(TransactionWrite<I> write) {
+        if (write.update()) {
+            write.store().update(write.item());
+        } else {
+            write.store().create(write.item());
+        }
+    }
+
+    private synchronized Partitions snapshot() {
+        var snapshot = new Partitions();
+        partitions.forEach((key, partition) -> snapshot.put(key, new TreeMap<>(partition)));
+        return snapshot;
+    }
+
+    private synchronized void restore(Partitions snapshot) {
+        partitions.clear();
+        partitions.putAll(snapshot);
+        forgetCachedReads();
+    }
+
+    @Override
+    public synchronized void create(T item) {
+        var attributes = schema.itemToMap(item, true);
+        partitions
+                .computeIfAbsent(attributes.get(partitionKey), key -> new TreeMap<>(SORT_KEY_ORDER))
+                .put(sortValue(attributes), attributes);
+        forgetCachedReads();
+    }
+
+    @Override
+    public synchronized void createIfNotExists(T item) {
+        var attributes = schema.itemToMap(item, true);
+        if (find(attributes.get(partitionKey), sortValue(attributes)) != null) {
+            throw ConditionalCheckFailedException.builder()
+                    .message("The conditional request failed")
+                    .build();
+        }
+        create(item);
+    }
+
+    @Override
+    public synchronized T getItem(String partitionValue, String sortValue) {
+        return cachedRead(
+                        List.of("item", partitionValue, sortValue),
+                        () ->
+                                Optional.ofNullable(
+                                        find(
+                                                AttributeValue.fromS(partitionValue),
+                                                AttributeValue.fromS(sortValue))))
+                .map(this::toItem)
+                .orElse(null);
+    }
+
+    @Override
+    public synchronized T getItem(String partitionValue, boolean warnOnNull) {
+        return cachedRead(
+                        List.of("item", partitionValue, ""),
+                        () ->
+                                Optional.ofNullable(
+                                        find(AttributeValue.fromS(partitionValue), NO_SORT_KEY)))
+                .map(this::toItem)
+                .orElse(null);
+    }
+
+    // Consistent reads are never served from the read cache
+    @Override
+    public synchronized T getItemWithConsistentRead(String partitionValue) {
+        reads.incrementAndGet();
+        return toItem(find(AttributeValue.fromS(partitionValue), NO_SORT_KEY));
+    }
+
+    @Override
+    public synchronized List<T> getAll(List<T> keyItems) {
+        reads.incrementAndGet();
+        var keys = new HashSet<List<AttributeValue>>();
+        var items = new ArrayList<T>();
+        for (var keyItem : keyItems) {
+            var attributes = schema.itemToMap(keyItem, true);
+            var partitionValue = attributes.get(partitionKey);
+            var sortValue = sortValue(attributes);
+            var stored = find(partitionValue, sortValue);
+            if (stored != null && keys.add(List.of(partitionValue, sortValue))) {
+                items.add(toItem(stored));
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public synchronized T getItemByIndex(String indexName, String value) {
+        reads.incrementAndGet();
+        var indexKey = schema.tableMetadata().indexPartitionKey(indexName);
+        var indexValue = AttributeValue.fromS(value);
+        return partitions.values().stream()
+                .flatMap(partition -> partition.values().stream())
+                .filter(attributes -> indexValue.equals(attributes.get(indexKey)))
+                .findFirst()
+                .map(this::toItem)
+                .orElse(null);
+    }
+
+    @Override
+    public synchronized List<T> getItems(String partitionValue) {
+        return cachedRead(
+                        List.of("items", partitionValue),
+                        () -> List.copyOf(partition(partitionValue).values()))
+                .stream()
+                .map(this::toItem)
+                .toList();
+    }
+
+    @Override
+    public synchronized List<T> getItemsWithBooleanAttribute(
+            String partitionValue, String name, boolean value) {
+        reads.incrementAndGet();
+        var attributeValue = AttributeValue.fromBool(value);
+        return partition(partitionValue).values().stream()
+                .filter(attributes -> attributeValue.equals(attributes.get(name)))
+                .map(this::toItem)
+                .toList();
+    }
+
+    @Override
+    public synchronized List<T> getItemsBySortKeyPrefix(String partitionValue, String sortPrefix) {
+        reads.incrementAndGet();
+        return partition(partitionValue).entrySet().stream()
+                .filter(entry -> Objects.toString(entry.getKey().s(), "").startsWith(sortPrefix))
+                .map(entry -> toItem(entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public synchronized T update(T item) {
+        create(item);
+        var attributes = schema.itemToMap(item, true);
+        return toItem(find(attributes.get(partitionKey), sortValue(attributes)));
+    }
+
+    @Override
+    public synchronized T delete(String partitionValue, String sortValue) {
+        return remove(AttributeValue.fromS(partitionValue), AttributeValue.fromS(sortValue));
+    }
+
+    @Override
+    public synchronized List<T> delete(List<T> items) {
+        var deleted = new ArrayList<T>();
+        for (var item : items) {
+            var attributes = schema.itemToMap(item, true);
+            var removed = remove(attributes.get(partitionKey), sortValue(attributes));
+            if (removed != null) {
+                deleted.add(removed);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized void deleteAll(List<T> items) {
+        delete(items);
+    }
+
+    // Reads through the open read cache as DataStore does, counting the reads that miss it
+    private <V> V cachedRead(List<String> key, Supplier<V> reader) {
+        Supplier<V> counted =
+                () -> {
+                    reads.incrementAndGet();
+                    return reader.get();
+                };
+        var cache = RequestScopedReadCache.current();
+        return cache == null ? counted.get() : cache.read(tableName, key, counted);
+    }
+
+    private void forgetCachedReads() {
+        var cache = RequestScopedReadCache.current();
+        if (cache != null) {
+            cache.invalidate(tableName);
+        }
+    }
+
+    private AttributeValue sortValue(Map<String, AttributeValue> attributes) {
+        return sortKey == null ? NO_SORT_KEY : attributes.get(sortKey);
+    }
+
+    private Map<String, AttributeValue> find(AttributeValue partitionValue, AttributeValue sort) {
+        var partition = partitions.get(partitionValue);
+        return partition == null ? null : partition.get(sort);
+    }
+
+    private T remove(AttributeValue partitionValue, AttributeValue sort) {
+        var partition = partitions.get(partitionValue);
+        if (partition == null) {
+            return null;
+        }
+        var removed = partition.remove(sort);
+        if (partition.isEmpty()) {
+            partitions.remove(partitionValue);
+        }
+        forgetCachedReads();
+        return toItem(removed);
+    }
+
+    private TreeMap<AttributeValue, Map<String, AttributeValue>> partition(String partitionValue) {
+        return partitions.getOrDefault(
+                AttributeValue.fromS(partitionValue), new TreeMap<>(SORT_KEY_ORDER));
+    }
+
+    private T toItem(Map<String, AttributeValue> attributes) {
+        return attributes == null ? null : schema.mapToItem(attributes);
+    }
+
+    // Items by partition key value, then sort key value
+    private static class Partitions
+            extends HashMap<AttributeValue, TreeMap<AttributeValue, Map<String, AttributeValue>>> {}
+}
@@ -2,6 +2,7 @@ package uk.gov.di.ipv.core.library.cristoringservice;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.StringMapMessage;
@@ -13,6 +14,7 @@ import uk.gov.di.ipv.core.library.auditing.extension.AuditExtensionsCriResRetrie
 import uk.gov.di.ipv.core.library.cimit.exception.CiPostMitigationsException;
 import uk.gov.di.ipv.core.library.cimit.exception.CiPutException;
 import uk.gov.di.ipv.core.library.config.ConfigurationVariable;
+import uk.gov.di.ipv.core.library.domain.ErrorResponse;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
 import uk.gov.di.ipv.core.library.dto.CriCallbackRequest;
 import uk.gov.di.ipv.core.library.enums.CriResourceRetrievedType;
@@ -20,6 +22,7 @@ import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.exceptions.SqsException;
 import uk.gov.di.ipv.core.library.exceptions.UnrecognisedVotException;
 import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
+import uk.gov.di.ipv.core.library.helpers.ExecutorHelper;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
@@ -32,6 +35,10 @@ import uk.gov.di.ipv.core.library.verifiablecredential.helpers.VcHelper;
 import uk.gov.di.ipv.core.library.verifiablecredential.service.SessionCredentialsService;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static uk.gov.di.ipv.core.library.auditing.helpers.AuditExtensionsHelper.getExtensionsForAudit;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.ADDRESS_CRI;
@@ -42,6 +49,10 @@ import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_LAMBDA_R
 public class CriStoringService {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int MAX_CONCURRENT_SESSION_CREDENTIAL_WRITES = 4;
+    private static final ExecutorService SESSION_CREDENTIAL_WRITES =
+            ExecutorHelper.newFixedDaemonThreadPool(
+                    "session-credential-writes", MAX_CONCURRENT_SESSION_CREDENTIAL_WRITES);
     private final CriResponseService criResponseService;
     private final SessionCredentialsService sessionCredentialsService;
     private final AuditService auditService;
@@ -110,29 +121,28 @@ public class CriStoringService {
                 new AuditEventUser(
                         userId, ipvSessionItem.getIpvSessionId(), govukSigninJourneyId, ipAddress);
 
+        // Each VC is written to session credentials while the next one is sent to CIMIT. Apart
+        // from that overlap every step still happens in VC order, and a VC is only stored once
+        // CIMIT has accepted it.
+        Future<Void> previousWrite = CompletableFuture.completedFuture(null);
         for (var vc : vcs) {
-            auditService.sendAuditEvent(
-                    new AuditEvent(
-                            AuditEventTypes.IPV_VC_RECEIVED,
-                            configService.getSsmParameter(ConfigurationVariable.COMPONENT_ID),
-                            auditEventUser,
-                            getExtensionsForAudit(vc, VcHelper.isSuccessfulVc(vc))));
-
-            ciMitService.submitVC(vc, govukSigninJourneyId, ipAddress);
-            ciMitService.submitMitigatingVcList(List.of(vc), govukSigninJourneyId, ipAddress);
-
-            if (criId.equals(TICF_CRI)) {
-                ipvSessionItem.setRiskAssessmentCredential(vc.getVcString());
-            } else {
-                if (criId.equals(ADDRESS_CRI)) {
-                    // Remove any existing address VC from session credentials - for 6MFC
-                    sessionCredentialsService.deleteSessionCredentialsForCri(
-                            ipvSessionItem.getIpvSessionId(), ADDRESS_CRI);
-                }
-                sessionCredentialsService.persistCredentials(
-                        List.of(vc), ipvSessionItem.getIpvSessionId(), true);
+            try {
+                auditService.sendAuditEvent(
+                        new AuditEvent(
+                                AuditEventTypes.IPV_VC_RECEIVED,
+                                configService.getSsmParameter(ConfigurationVariable.COMPONENT_ID),
+                                auditEventUser,
+                                getExtensionsForAudit(vc, VcHelper.isSuccessfulVc(vc))));
+
+                ciMitService.submitVC(vc, govukSigninJourneyId, ipAddress);
+                ciMitService.submitMitigatingVcList(List.of(vc), govukSigninJourneyId, ipAddress);
+            } finally {
+                // The previous VC's write came first, so its failure is the one thrown
+                awaitWrite(previousWrite);
             }
+            previousWrite = storeInSession(criId, vc, ipvSessionItem);
         }
+        awaitWrite(previousWrite);
 
         sendAuditEventForProcessedVcResponse(
                 vcs.isEmpty()
@@ -142,6 +152,48 @@ public class CriStoringService {
                 auditEventUser);
     }
 
+    private Future<Void> storeInSession(
+            String criId, VerifiableCredential vc, IpvSessionItem ipvSessionItem) {
+        if (criId.equals(TICF_CRI)) {
+            ipvSessionItem.setRiskAssessmentCredential(vc.getVcString());
+            return CompletableFuture.completedFuture(null);
+        }
+        var ipvSessionId = ipvSessionItem.getIpvSessionId();
+        return SESSION_CREDENTIAL_WRITES.submit(
+                () -> {
+                    if (criId.equals(ADDRESS_CRI)) {
+                        // Remove any existing address VC from session credentials - for 6MFC
+                        sessionCredentialsService.deleteSessionCredentialsForCri(
+                                ipvSessionId, ADDRESS_CRI);
+                    }
+                    sessionCredentialsService.persistCredentials(List.of(vc), ipvSessionId, true);
+                    return null;
+                });
+    }
+
+    // A write is never cancelled, so a VC is either stored or its failure is rethrown here
+    private static void awaitWrite(Future<Void> write) throws VerifiableCredentialException {
+        try {
+            write.get();
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof VerifiableCredentialException verifiableCredentialException) {
+                throw verifiableCredentialException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Unexpected failure storing session credential", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VerifiableCredentialException(
+                    HTTPResponse.SC_SERVER_ERROR, ErrorResponse.FAILED_TO_SAVE_CREDENTIAL);
+        }
+    }
+
     private void sendAuditEventForProcessedVcResponse(
             String criResourceRetrievedType, String criId, AuditEventUser auditEventUser)
             throws SqsException {
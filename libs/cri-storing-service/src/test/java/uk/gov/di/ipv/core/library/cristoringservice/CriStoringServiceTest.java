@@ -2,6 +2,7 @@ package uk.gov.di.ipv.core.library.cristoringservice;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -13,9 +14,11 @@ import uk.gov.di.ipv.core.library.auditing.AuditEvent;
 import uk.gov.di.ipv.core.library.auditing.AuditEventTypes;
 import uk.gov.di.ipv.core.library.cimit.exception.CiPostMitigationsException;
 import uk.gov.di.ipv.core.library.cimit.exception.CiPutException;
+import uk.gov.di.ipv.core.library.domain.ErrorResponse;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
 import uk.gov.di.ipv.core.library.dto.CriCallbackRequest;
 import uk.gov.di.ipv.core.library.exceptions.SqsException;
+import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
 import uk.gov.di.ipv.core.library.persistence.item.ClientOAuthSessionItem;
 import uk.gov.di.ipv.core.library.persistence.item.IpvSessionItem;
 import uk.gov.di.ipv.core.library.service.AuditService;
@@ -27,15 +30,23 @@ import uk.gov.di.ipv.core.library.verifiablecredential.dto.VerifiableCredentialR
 import uk.gov.di.ipv.core.library.verifiablecredential.service.SessionCredentialsService;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.ADDRESS_CRI;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.TICF_CRI;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.PASSPORT_NON_DCMAW_SUCCESSFUL_VC;
@@ -312,6 +323,208 @@ class CriStoringServiceTest {
                                 mockIpvSessionItem));
     }
 
+    @Test
+    void storeVcsShouldNotSubmitToCimitIfFirstVcsAuditEventFailsToSend() throws Exception {
+        // Arrange
+        var callbackRequest = buildValidCallbackRequest();
+        var clientOAuthSessionItem = buildValidClientOAuthSessionItem();
+        doThrow(new SqsException("")).when(mockAuditService).sendAuditEvent(any(AuditEvent.class));
+
+        // Act & Assert
+        assertThrows(
+                SqsException.class,
+                () ->
+                        criStoringService.storeVcs(
+                                callbackRequest.getCredentialIssuerId(),
+                                callbackRequest.getIpAddress(),
+                                List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, VC_ADDRESS),
+                                clientOAuthSessionItem,
+                                mockIpvSessionItem));
+
+        verify(mockCiMitService, never()).submitVC(any(), any(), any());
+        verify(mockCiMitService, never()).submitMitigatingVcList(any(), any(), any());
+    }
+
+    @Test
+    void storeVcsShouldSendEachVcToCimitBeforeStoringItAndStoreVcsInOrder() throws Exception {
+        // Arrange
+        var callbackRequest = buildValidCallbackRequest();
+        var clientOAuthSessionItem = buildValidClientOAuthSessionItem();
+        when(mockIpvSessionItem.getIpvSessionId()).thenReturn(TEST_IPV_SESSION_ID);
+
+        // Act
+        criStoringService.storeVcs(
+                callbackRequest.getCredentialIssuerId(),
+                callbackRequest.getIpAddress(),
+                List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, VC_ADDRESS),
+                clientOAuthSessionItem,
+                mockIpvSessionItem);
+
+        // Assert
+        for (var vc : List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, VC_ADDRESS)) {
+            var inOrder =
+                    inOrder(mockAuditService, mockCiMitService, mockSessionCredentialsService);
+            inOrder.verify(mockAuditService).sendAuditEvent(any(AuditEvent.class));
+            inOrder.verify(mockCiMitService).submitVC(eq(vc), any(), any());
+            inOrder.verify(mockCiMitService).submitMitigatingVcList(eq(List.of(vc)), any(), any());
+            inOrder.verify(mockSessionCredentialsService)
+                    .persistCredentials(List.of(vc), TEST_IPV_SESSION_ID, true);
+        }
+        var storeOrder = inOrder(mockSessionCredentialsService);
+        storeOrder
+                .verify(mockSessionCredentialsService)
+                .persistCredentials(
+                        List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC), TEST_IPV_SESSION_ID, true);
+        storeOrder
+                .verify(mockSessionCredentialsService)
+                .persistCredentials(List.of(VC_ADDRESS), TEST_IPV_SESSION_ID, true);
+    }
+
+    @Test
+    void storeVcsShouldSendTheNextVcToCimitWhileStoringThePreviousVc() throws Exception {
+        // Arrange
+        var callbackRequest = buildValidCallbackRequest();
+        var clientOAuthSessionItem = buildValidClientOAuthSessionItem();
+        var nextVcSubmitted = new CountDownLatch(1);
+        var overlapped = new AtomicBoolean();
+        doAnswer(
+                        invocation -> {
+                            if (VC_ADDRESS.equals(invocation.getArgument(0))) {
+                                nextVcSubmitted.countDown();
+                            }
+                            return null;
+                        })
+                .when(mockCiMitService)
+                .submitVC(any(VerifiableCredential.class), any(), any());
+        // The first VC's write is slow, and only ends early if the next VC reaches CIMIT
+        doAnswer(
+                        invocation -> {
+                            if (List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC)
+                                    .equals(invocation.getArgument(0))) {
+                                overlapped.set(nextVcSubmitted.await(5, TimeUnit.SECONDS));
+                            }
+                            return null;
+                        })
+                .when(mockSessionCredentialsService)
+                .persistCredentials(any(), any(), eq(true));
+
+        // Act
+        criStoringService.storeVcs(
+                callbackRequest.getCredentialIssuerId(),
+                callbackRequest.getIpAddress(),
+                List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, VC_ADDRESS),
+                clientOAuthSessionItem,
+                mockIpvSessionItem);
+
+        // Assert
+        assertTrue(overlapped.get());
+    }
+
+    @Test
+    void storeVcsShouldThrowThePreviousVcsWriteFailureBeforeTheNextVcsCimitFailure()
+            throws Exception {
+        // Arrange
+        var callbackRequest = buildValidCallbackRequest();
+        var clientOAuthSessionItem = buildValidClientOAuthSessionItem();
+        var writeFailure =
+                new VerifiableCredentialException(
+                        HTTPResponse.SC_SERVER_ERROR, ErrorResponse.FAILED_TO_SAVE_CREDENTIAL);
+        doAnswer(
+                        invocation -> {
+                            if (VC_ADDRESS.equals(invocation.getArgument(0))) {
+                                throw new CiPutException("Second VC failed");
+                            }
+                            return null;
+                        })
+                .when(mockCiMitService)
+                .submitVC(any(VerifiableCredential.class), any(), any());
+        doThrow(writeFailure)
+                .when(mockSessionCredentialsService)
+                .persistCredentials(any(), any(), eq(true));
+
+        // Act & Assert
+        var thrown =
+                assertThrows(
+                        VerifiableCredentialException.class,
+                        () ->
+                                criStoringService.storeVcs(
+                                        callbackRequest.getCredentialIssuerId(),
+                                        callbackRequest.getIpAddress(),
+                                        List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, VC_ADDRESS),
+                                        clientOAuthSessionItem,
+                                        mockIpvSessionItem));
+
+        assertSame(writeFailure, thrown);
+        verify(mockSessionCredentialsService).persistCredentials(any(), any(), eq(true));
+    }
+
+    @Test
+    void storeVcsShouldStoreEarlierVcsButNotTheVcThatFailsInCimit() throws Exception {
+        // Arrange
+        var callbackRequest = buildValidCallbackRequest();
+        var clientOAuthSessionItem = buildValidClientOAuthSessionItem();
+        when(mockIpvSessionItem.getIpvSessionId()).thenReturn(TEST_IPV_SESSION_ID);
+        doAnswer(
+                        invocation -> {
+                            if (VC_ADDRESS.equals(invocation.getArgument(0))) {
+                                throw new CiPostMitigationsException("Second VC failed");
+                            }
+                            return null;
+                        })
+                .when(mockCiMitService)
+                .submitMitigatingVcList(any(), any(), any());
+
+        // Act & Assert
+        assertThrows(
+                CiPostMitigationsException.class,
+                () ->
+                        criStoringService.storeVcs(
+                                callbackRequest.getCredentialIssuerId(),
+                                callbackRequest.getIpAddress(),
+                                List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, VC_ADDRESS),
+                                clientOAuthSessionItem,
+                                mockIpvSessionItem));
+
+        verify(mockSessionCredentialsService)
+                .persistCredentials(
+                        List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC), TEST_IPV_SESSION_ID, true);
+        verify(mockSessionCredentialsService, never())
+                .persistCredentials(List.of(VC_ADDRESS), TEST_IPV_SESSION_ID, true);
+    }
+
+    @Test
+    void storeVcsShouldThrowFirstVcsCimitFailureAndNotStoreLaterVcs() throws Exception {
+        // Arrange
+        var callbackRequest = buildValidCallbackRequest();
+        var clientOAuthSessionItem = buildValidClientOAuthSessionItem();
+        var failure = new CiPutException("First VC failed");
+        doAnswer(
+                        invocation -> {
+                            VerifiableCredential vc = invocation.getArgument(0);
+                            if (vc.equals(PASSPORT_NON_DCMAW_SUCCESSFUL_VC)) {
+                                throw failure;
+                            }
+                            return null;
+                        })
+                .when(mockCiMitService)
+                .submitVC(any(VerifiableCredential.class), any(), any());
+
+        // Act & Assert
+        var thrown =
+                assertThrows(
+                        CiPutException.class,
+                        () ->
+                                criStoringService.storeVcs(
+                                        callbackRequest.getCredentialIssuerId(),
+                                        callbackRequest.getIpAddress(),
+                                        List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, VC_ADDRESS),
+                                        clientOAuthSessionItem,
+                                        mockIpvSessionItem));
+
+        assertSame(failure, thrown);
+        verify(mockSessionCredentialsService, never()).persistCredentials(any(), any(), eq(true));
+    }
+
     private CriCallbackRequest buildValidCallbackRequest() {
         return CriCallbackRequest.builder()
                 .ipvSessionId(TEST_IPV_SESSION_ID)
@@ -1,8 +1,5 @@
 package uk.gov.di.ipv.core.library.gpg45;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.CollectionType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.StringMapMessage;
@@ -19,18 +16,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CLAIM;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_EVIDENCE;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_GPG45_PROFILE;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_MESSAGE_DESCRIPTION;
 
 public class Gpg45ProfileEvaluator {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static final CollectionType CREDENTIAL_EVIDENCE_ITEM_LIST_TYPE =
-            OBJECT_MAPPER
-                    .getTypeFactory()
-                    .constructCollectionType(List.class, CredentialEvidenceItem.class);
     private static final int NO_SCORE = 0;
 
     public Optional<Gpg45Profile> getFirstMatchingProfile(
@@ -163,22 +153,6 @@ public class Gpg45ProfileEvaluator {
         return gpg45CredentialItems;
     }
 
-    private List<CredentialEvidenceItem> getCredentialEvidence(VerifiableCredential vc)
-            throws CredentialParseException {
-        var evidenceArray =
-                OBJECT_MAPPER.valueToTree(vc.getClaimsSet().getClaim(VC_CLAIM)).path(VC_EVIDENCE);
-
-        if (evidenceArray.isMissingNode()) {
-            return Collections.emptyList();
-        }
-
-        try {
-            return OBJECT_MAPPER.treeToValue(evidenceArray, CREDENTIAL_EVIDENCE_ITEM_LIST_TYPE);
-        } catch (JsonProcessingException e) {
-            throw new CredentialParseException("Unable to create credential evidence list", e);
-        }
-    }
-
     private Map<CredentialEvidenceItem.EvidenceType, List<CredentialEvidenceItem>>
             parseGpg45ScoresFromCredentials(List<VerifiableCredential> vcs)
                     throws UnknownEvidenceTypeException, CredentialParseException {
@@ -194,9 +168,7 @@ public class Gpg45ProfileEvaluator {
                         CredentialEvidenceItem.EvidenceType.NINO, new ArrayList<>());
 
         for (var vc : vcs) {
-            var credentialEvidenceList = getCredentialEvidence(vc);
-            for (CredentialEvidenceItem evidenceItem : credentialEvidenceList) {
-                evidenceItem.setCredentialIss(vc.getClaimsSet().getIssuer());
+            for (CredentialEvidenceItem evidenceItem : vc.getClaims().getEvidence()) {
                 evidenceMap.get(evidenceItem.getEvidenceType()).add(evidenceItem);
             }
         }
@@ -0,0 +1,25 @@
+package uk.gov.di.ipv.core.library.kmses256signer;
+
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.kms.KmsClient;
+import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
+import uk.gov.di.ipv.core.library.metrics.DependencyMetricsInterceptor;
+
+import static software.amazon.awssdk.regions.Region.EU_WEST_2;
+
+/** Creates the KMS clients used to sign and decrypt. */
+public final class KmsClients {
+    @ExcludeFromGeneratedCoverageReport
+    private KmsClients() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    @ExcludeFromGeneratedCoverageReport
+    public static KmsClient create() {
+        return KmsClient.builder()
+                .region(EU_WEST_2)
+                .httpClientBuilder(UrlConnectionHttpClient.builder())
+                .overrideConfiguration(DependencyMetricsInterceptor.clientConfiguration())
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package uk.gov.di.ipv.core.library.kmses256signer;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.kms.model.CreateKeyRequest;
+import software.amazon.awssdk.services.kms.model.DecryptRequest;
+import software.amazon.awssdk.services.kms.model.GetPublicKeyRequest;
+import software.amazon.awssdk.services.kms.model.IncorrectKeyException;
+import software.amazon.awssdk.services.kms.model.KeySpec;
+import software.amazon.awssdk.services.kms.model.KeyUsageType;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static software.amazon.awssdk.services.kms.model.EncryptionAlgorithmSpec.RSAES_OAEP_SHA_256;
+
+class InMemoryKmsClientTest {
+    private InMemoryKmsClient kmsClient;
+
+    @BeforeEach
+    void setUp() {
+        kmsClient = new InMemoryKmsClient();
+    }
+
+    @Test
+    void signShouldProduceSignaturesThatVerifyWithThePublicKey() throws Exception {
+        var keyId = createKey(KeySpec.ECC_NIST_P256, KeyUsageType.SIGN_VERIFY);
+        var jwsObject =
+                new JWSObject(
+                        new JWSHeader.Builder(JWSAlgorithm.ES256).build(),
+                        new Payload(Map.of("test", "test")));
+
+        jwsObject.sign(new KmsEs256SignerFactory(kmsClient).getSigner(keyId));
+
+        var publicKey = (ECPublicKey) getPublicKey(keyId, "EC");
+        assertTrue(jwsObject.verify(new ECDSAVerifier(publicKey)));
+    }
+
+    @Test
+    void decryptShouldDecryptRsaOaepSha256Ciphertext() throws Exception {
+        var keyId = createKey(KeySpec.RSA_2048, KeyUsageType.ENCRYPT_DECRYPT);
+        var cipher = Cipher.getInstance("RSA/ECB/OAEPPadding");
+        cipher.init(
+                Cipher.ENCRYPT_MODE,
+                getPublicKey(keyId, "RSA"),
+                new OAEPParameterSpec(
+                        "SHA-256",
+                        "MGF1",
+                        MGF1ParameterSpec.SHA256,
+                        PSource.PSpecified.DEFAULT));
+        var ciphertext = cipher.doFinal("content key".getBytes(StandardCharsets.UTF_8));
+
+        var response =
+                kmsClient.decrypt(
+                        DecryptRequest.builder()
+                                .keyId(keyId)
+                                .encryptionAlgorithm(RSAES_OAEP_SHA_256)
+                                .ciphertextBlob(SdkBytes.fromByteArray(ciphertext))
+                                .build());
+
+        assertEquals("content key", response.plaintext().asUtf8String());
+    }
+
+    @Test
+    void requestsShouldFailWithThrottlingErrorsWhenThrottled() {
+        var keyId = createKey(KeySpec.ECC_NIST_P256, KeyUsageType.SIGN_VERIFY);
+        kmsClient.throttleNextRequests(2);
+        var request = GetPublicKeyRequest.builder().keyId(keyId).build();
+
+        for (int i = 0; i < 2; i++) {
+            var exception = assertThrows(KmsException.class, () -> kmsClient.getPublicKey(request));
+            assertEquals(
+                    InMemoryKmsClient.THROTTLING_ERROR_CODE,
+                    exception.awsErrorDetails().errorCode());
+            assertTrue(exception.isThrottlingException());
+        }
+        assertEquals(keyId, kmsClient.getPublicKey(request).keyId());
+        assertEquals(4, kmsClient.getRequestCount());
+    }
+
+    @Test
+    void requestsShouldTakeAtLeastTheConfiguredLatency() {
+        var keyId = createKey(KeySpec.ECC_NIST_P256, KeyUsageType.SIGN_VERIFY);
+        kmsClient.setLatency(Duration.ofMillis(100));
+
+        var startNanos = System.nanoTime();
+        kmsClient.getPublicKey(GetPublicKeyRequest.builder().keyId(keyId).build());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).toMillis() >= 100);
+    }
+
+    @Test
+    void requestsShouldFailForUnknownKeys() {
+        var signer = new KmsEs256SignerFactory(kmsClient).getSigner("unknown-key-id");
+        var jwsObject =
+                new JWSObject(
+                        new JWSHeader.Builder(JWSAlgorithm.ES256).build(),
+                        new Payload(Map.of("test", "test")));
+
+        assertThrows(NotFoundException.class, () -> jwsObject.sign(signer));
+    }
+
+    @Test
+    void signShouldFailForRsaKeys() {
+        var keyId = createKey(KeySpec.RSA_2048, KeyUsageType.ENCRYPT_DECRYPT);
+        var signer = new KmsEs256SignerFactory(kmsClient).getSigner(keyId);
+        var jwsObject =
+                new JWSObject(
+                        new JWSHeader.Builder(JWSAlgorithm.ES256).build(),
+                        new Payload(Map.of("test", "test")));
+
+        assertThrows(IncorrectKeyException.class, () -> jwsObject.sign(signer));
+    }
+
+    private String createKey(KeySpec keySpec, KeyUsageType keyUsage) {
+        return kmsClient
+                .createKey(CreateKeyRequest.builder().keySpec(keySpec).keyUsage(keyUsage).build())
+                .keyMetadata()
+                .keyId();
+    }
+
+    private PublicKey getPublicKey(String keyId, String algorithm) throws Exception {
+        var encodedKey =
+                kmsClient
+                        .getPublicKey(GetPublicKeyRequest.builder().keyId(keyId).build())
+                        .publicKey()
+                        .asByteArray();
+        return KeyFactory.getInstance(algorithm).generatePublic(new X509EncodedKeySpec(encodedKey));
+    }
+}
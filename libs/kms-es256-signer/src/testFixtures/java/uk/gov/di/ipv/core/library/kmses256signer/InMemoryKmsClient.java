@@ -0,0 +1,264 @@
+package uk.gov.di.ipv.core.library.kmses256signer;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.CreateKeyRequest;
+import software.amazon.awssdk.services.kms.model.CreateKeyResponse;
+import software.amazon.awssdk.services.kms.model.DecryptRequest;
+import software.amazon.awssdk.services.kms.model.DecryptResponse;
+import software.amazon.awssdk.services.kms.model.EncryptionAlgorithmSpec;
+import software.amazon.awssdk.services.kms.model.GetPublicKeyRequest;
+import software.amazon.awssdk.services.kms.model.GetPublicKeyResponse;
+import software.amazon.awssdk.services.kms.model.IncorrectKeyException;
+import software.amazon.awssdk.services.kms.model.InvalidCiphertextException;
+import software.amazon.awssdk.services.kms.model.InvalidKeyUsageException;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeySpec;
+import software.amazon.awssdk.services.kms.model.KeyUsageType;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.MessageType;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.awssdk.services.kms.model.SignRequest;
+import software.amazon.awssdk.services.kms.model.SignResponse;
+import software.amazon.awssdk.services.kms.model.SigningAlgorithmSpec;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.ECKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.MGF1ParameterSpec;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-process stand-in for the KMS operations core uses: signing with EC P-256 keys and
+ * decrypting with RSA keys. Keys are generated with {@code CreateKey}, or imported, and never leave
+ * the process, so signing and decryption can be run offline against real cryptography.
+ *
+ * <p>Latency can be added to every call, and calls can be made to fail with KMS's throttling
+ * error, to see how callers behave when KMS is slow or busy.
+ *
+ * <p>Other projects' tests, and local running, get it through this project's test fixtures, so it
+ * is never packaged with a lambda.
+ */
+public class InMemoryKmsClient implements KmsClient {
+    static final String THROTTLING_ERROR_CODE = "ThrottlingException";
+
+    private final Map<String, KeyPair> keys = new ConcurrentHashMap<>();
+    private final Map<String, KeyPair> defaultKeys = new ConcurrentHashMap<>();
+    private final AtomicInteger requestsToThrottle = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+
+    // Imports a key to use for the given key ID, such as one whose public key a stub already has
+    public void importKey(String keyId, KeyPair keyPair) {
+        keys.put(keyId, keyPair);
+    }
+
+    // Imports a key to use for any key ID that hasn't been created or imported, by key algorithm
+    public void importDefaultKey(KeyPair keyPair) {
+        defaultKeys.put(keyPair.getPrivate().getAlgorithm(), keyPair);
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void throttleNextRequests(int numberOfRequests) {
+        requestsToThrottle.set(numberOfRequests);
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public CreateKeyResponse createKey(CreateKeyRequest createKeyRequest) {
+        handleRequest();
+        var keySpec = createKeyRequest.keySpec();
+        var keyId = UUID.randomUUID().toString();
+        keys.put(keyId, generateKeyPair(keySpec));
+        return CreateKeyResponse.builder()
+                .keyMetadata(
+                        KeyMetadata.builder()
+                                .keyId(keyId)
+                                .keySpec(keySpec)
+                                .keyUsage(createKeyRequest.keyUsage())
+                                .enabled(true)
+                                .build())
+                .build();
+    }
+
+    @Override
+    public SignResponse sign(SignRequest signRequest) {
+        handleRequest();
+        var keyPair = getKeyPair(signRequest.keyId(), "EC");
+        if (signRequest.signingAlgorithm() != SigningAlgorithmSpec.ECDSA_SHA_256) {
+            throw InvalidKeyUsageException.builder()
+                    .message("Unsupported signing algorithm: " + signRequest.signingAlgorithm())
+                    .build();
+        }
+        try {
+            // A digest is signed as given; a raw message is hashed first
+            var signature =
+                    Signature.getInstance(
+                            signRequest.messageType() == MessageType.DIGEST
+                                    ? "NONEwithECDSA"
+                                    : "SHA256withECDSA");
+            signature.initSign(keyPair.getPrivate());
+            signature.update(signRequest.message().asByteArray());
+            return SignResponse.builder()
+                    .keyId(signRequest.keyId())
+                    .signingAlgorithm(signRequest.signingAlgorithm())
+                    .signature(SdkBytes.fromByteArray(signature.sign()))
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw KmsException.builder().message("Failed to sign").cause(e).build();
+        }
+    }
+
+    @Override
+    public GetPublicKeyResponse getPublicKey(GetPublicKeyRequest getPublicKeyRequest) {
+        handleRequest();
+        var keyPair = getKeyPair(getPublicKeyRequest.keyId(), null);
+        if (keyPair.getPublic() == null) {
+            throw NotFoundException.builder()
+                    .message("No public key imported for: " + getPublicKeyRequest.keyId())
+                    .build();
+        }
+        var responseBuilder =
+                GetPublicKeyResponse.builder()
+                        .keyId(getPublicKeyRequest.keyId())
+                        .publicKey(SdkBytes.fromByteArray(keyPair.getPublic().getEncoded()));
+        if (keyPair.getPublic() instanceof ECKey) {
+            responseBuilder
+                    .keySpec(KeySpec.ECC_NIST_P256)
+                    .keyUsage(KeyUsageType.SIGN_VERIFY)
+                    .signingAlgorithms(SigningAlgorithmSpec.ECDSA_SHA_256);
+        } else {
+            responseBuilder
+                    .keyUsage(KeyUsageType.ENCRYPT_DECRYPT)
+                    .encryptionAlgorithms(
+                            EncryptionAlgorithmSpec.RSAES_OAEP_SHA_1,
+                            EncryptionAlgorithmSpec.RSAES_OAEP_SHA_256);
+        }
+        return responseBuilder.build();
+    }
+
+    @Override
+    public DecryptResponse decrypt(DecryptRequest decryptRequest) {
+        handleRequest();
+        var keyPair = getKeyPair(decryptRequest.keyId(), "RSA");
+        var digest =
+                decryptRequest.encryptionAlgorithm() == EncryptionAlgorithmSpec.RSAES_OAEP_SHA_1
+                        ? "SHA-1"
+                        : "SHA-256";
+        try {
+            var cipher = Cipher.getInstance("RSA/ECB/OAEPPadding");
+            cipher.init(
+                    Cipher.DECRYPT_MODE,
+                    keyPair.getPrivate(),
+                    new OAEPParameterSpec(
+                            digest,
+                            "MGF1",
+                            new MGF1ParameterSpec(digest),
+                            PSource.PSpecified.DEFAULT));
+            return DecryptResponse.builder()
+                    .keyId(decryptRequest.keyId())
+                    .encryptionAlgorithm(decryptRequest.encryptionAlgorithm())
+                    .plaintext(
+                            SdkBytes.fromByteArray(
+                                    cipher.doFinal(decryptRequest.ciphertextBlob().asByteArray())))
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw InvalidCiphertextException.builder()
+                    .message("Failed to decrypt ciphertext")
+                    .cause(e)
+                    .build();
+        }
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    private void handleRequest() {
+        requestCount.incrementAndGet();
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw KmsException.builder().message("Interrupted").cause(e).build();
+            }
+        }
+        if (requestsToThrottle.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            throw KmsException.builder()
+                    .statusCode(400)
+                    .awsErrorDetails(
+                            AwsErrorDetails.builder()
+                                    .errorCode(THROTTLING_ERROR_CODE)
+                                    .errorMessage("Rate exceeded")
+                                    .serviceName(SERVICE_NAME)
+                                    .build())
+                    .message("Rate exceeded")
+                    .build();
+        }
+    }
+
+    // Finds the key for an ID, or the default key for the algorithm the operation needs
+    private KeyPair getKeyPair(String keyId, String algorithm) {
+        var keyPair = keys.get(keyId);
+        if (keyPair == null && algorithm != null) {
+            keyPair = defaultKeys.get(algorithm);
+        }
+        if (keyPair == null) {
+            throw NotFoundException.builder().message("Key not found: " + keyId).build();
+        }
+        if (algorithm != null && !algorithm.equals(keyPair.getPrivate().getAlgorithm())) {
+            throw IncorrectKeyException.builder()
+                    .message("Key " + keyId + " can't be used for this operation")
+                    .build();
+        }
+        return keyPair;
+    }
+
+    private static KeyPair generateKeyPair(KeySpec keySpec) {
+        try {
+            if (keySpec == KeySpec.ECC_NIST_P256) {
+                var generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                return generator.generateKeyPair();
+            }
+            var rsaKeySizes =
+                    Map.of(
+                            KeySpec.RSA_2048, 2048,
+                            KeySpec.RSA_3072, 3072,
+                            KeySpec.RSA_4096, 4096);
+            if (!rsaKeySizes.containsKey(keySpec)) {
+                throw KmsException.builder().message("Unsupported key spec: " + keySpec).build();
+            }
+            var generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(rsaKeySizes.get(keySpec));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw KmsException.builder().message("Failed to generate key").cause(e).build();
+        }
+    }
+}
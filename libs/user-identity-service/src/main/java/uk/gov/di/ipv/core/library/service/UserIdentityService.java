@@ -1,12 +1,8 @@
 package uk.gov.di.ipv.core.library.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.type.CollectionType;
-import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.util.CollectionUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -52,11 +48,6 @@ import static uk.gov.di.ipv.core.library.domain.CriConstants.DRIVING_LICENCE_CRI
 import static uk.gov.di.ipv.core.library.domain.CriConstants.HMRC_MIGRATION_CRI;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.NINO_CRI;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.PASSPORT_CRI;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CLAIM;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CREDENTIAL_SUBJECT;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_EVIDENCE;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_EVIDENCE_STRENGTH;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_EVIDENCE_VALIDITY;
 import static uk.gov.di.ipv.core.library.domain.VocabConstants.VOT_CLAIM_NAME;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_CRI_ISSUER;
 import static uk.gov.di.ipv.core.library.helpers.LogHelper.LogField.LOG_ERROR_CODE;
@@ -80,7 +71,6 @@ public class UserIdentityService {
     private static final String NINO_PROPERTY_NAME = "socialSecurityRecord";
     private static final String PASSPORT_PROPERTY_NAME = "passport";
     private static final String DRIVING_PERMIT_PROPERTY_NAME = "drivingPermit";
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final Pattern DIACRITIC_CHECK_PATTERN = Pattern.compile("\\p{M}");
     private static final Pattern IGNORE_SOME_CHARACTERS_PATTERN = Pattern.compile("[\\s'-]+");
 
@@ -407,56 +397,18 @@ public class UserIdentityService {
                 .toList();
     }
 
-    private JsonNode getVcClaimNode(String credential, String node)
-            throws CredentialParseException {
-        try {
-            return OBJECT_MAPPER
-                    .readTree(SignedJWT.parse(credential).getPayload().toString())
-                    .path(VC_CLAIM)
-                    .path(node);
-        } catch (JsonProcessingException | ParseException e) {
-            throw new CredentialParseException(
-                    "Encountered a parsing error while attempting to parse VC store item: "
-                            + e.getMessage());
-        }
-    }
-
-    private <T> T getJsonProperty(JsonNode jsonNode, String propertyName, CollectionType valueType)
-            throws HttpResponseExceptionWithErrorBody {
-        JsonNode propertyNode = jsonNode.path(propertyName);
-        if (propertyNode.isMissingNode()) {
-            return OBJECT_MAPPER.convertValue(List.of(), valueType);
-        }
+    private IdentityClaim getIdentityClaim(VerifiableCredential vc)
+            throws HttpResponseExceptionWithErrorBody, CredentialParseException {
+        var claims = vc.getClaims();
         try {
-            return OBJECT_MAPPER.treeToValue(propertyNode, valueType);
-        } catch (JsonProcessingException e) {
+            return new IdentityClaim(claims.getNames(), claims.getBirthDates());
+        } catch (CredentialParseException e) {
             LOGGER.error(LogHelper.buildErrorMessage("Failed to parse VC JWT", e));
             throw new HttpResponseExceptionWithErrorBody(
                     500, ErrorResponse.FAILED_TO_GENERATE_IDENTIY_CLAIM);
         }
     }
 
-    private IdentityClaim getIdentityClaim(VerifiableCredential vc)
-            throws HttpResponseExceptionWithErrorBody, CredentialParseException {
-        JsonNode vcClaimNode = getVcClaimNode(vc.getVcString(), VC_CREDENTIAL_SUBJECT);
-        List<Name> names =
-                getJsonProperty(
-                        vcClaimNode,
-                        NAME_PROPERTY_NAME,
-                        OBJECT_MAPPER
-                                .getTypeFactory()
-                                .constructCollectionType(List.class, Name.class));
-        List<BirthDate> birthDates =
-                getJsonProperty(
-                        vcClaimNode,
-                        BIRTH_DATE_PROPERTY_NAME,
-                        OBJECT_MAPPER
-                                .getTypeFactory()
-                                .constructCollectionType(List.class, BirthDate.class));
-
-        return new IdentityClaim(names, birthDates);
-    }
-
     public Vot getVot(VerifiableCredential vc) throws IllegalArgumentException, ParseException {
         return Vot.valueOf(vc.getClaimsSet().getStringClaim(VOT_CLAIM_NAME));
     }
@@ -609,7 +561,7 @@ public class UserIdentityService {
             ErrorResponse errorResponse)
             throws HttpResponseExceptionWithErrorBody {
         try {
-            return getVcClaimNode(vc.getVcString(), VC_CREDENTIAL_SUBJECT).path(detailName);
+            return vc.getClaims().getCredentialSubjectProperty(detailName);
         } catch (CredentialParseException e) {
             LOGGER.error(LogHelper.buildErrorMessage(errorLog, e));
             throw new HttpResponseExceptionWithErrorBody(SC_SERVER_ERROR, errorResponse);
@@ -617,18 +569,16 @@ public class UserIdentityService {
     }
 
     private boolean isEvidenceVc(VerifiableCredential vc) throws CredentialParseException {
-        JsonNode vcEvidenceNode = getVcClaimNode(vc.getVcString(), VC_EVIDENCE);
-        for (JsonNode evidence : vcEvidenceNode) {
-            if (isNonZeroInt(evidence.path(VC_EVIDENCE_VALIDITY))
-                    && isNonZeroInt(evidence.path(VC_EVIDENCE_STRENGTH))) {
+        for (var evidence : vc.getClaims().getEvidence()) {
+            if (isNonZero(evidence.getValidityScore()) && isNonZero(evidence.getStrengthScore())) {
                 return true;
             }
         }
         return false;
     }
 
-    private boolean isNonZeroInt(JsonNode node) {
-        return node.isInt() && node.asInt() != 0;
+    private boolean isNonZero(Integer score) {
+        return score != null && score != 0;
     }
 
     private List<VerifiableCredential> filterValidVCs(List<VerifiableCredential> vcs) {
@@ -1,12 +1,10 @@
 package uk.gov.di.ipv.core.library.verifiablecredential.helpers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.CollectionType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.gov.di.ipv.core.library.domain.ProfileType;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
+import uk.gov.di.ipv.core.library.domain.VerifiableCredentialClaims;
 import uk.gov.di.ipv.core.library.enums.Vot;
 import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.exceptions.UnrecognisedVotException;
@@ -35,28 +33,13 @@ import java.util.stream.Collectors;
 import static uk.gov.di.ipv.core.library.config.ConfigurationVariable.FRAUD_CHECK_EXPIRY_PERIOD_HOURS;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.NON_EVIDENCE_CRI_TYPES;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.OPERATIONAL_CRIS;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_ATTR_VALUE_NAME;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_BIRTH_DATE;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CLAIM;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_CREDENTIAL_SUBJECT;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_DRIVING_LICENCE_ISSUED_BY;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_DRIVING_PERMIT;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_EVIDENCE;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_EVIDENCE_TXN;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_ICAO_ISSUER_CODE;
 import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_PASSPORT;
-import static uk.gov.di.ipv.core.library.domain.VerifiableCredentialConstants.VC_RESIDENCE_PERMIT;
 import static uk.gov.di.ipv.core.library.domain.VocabConstants.VOT_CLAIM_NAME;
 
 public class VcHelper {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final List<String> DL_UK_ISSUER_LIST = Arrays.asList("DVLA", "DVA");
     private static final String UK_ICAO_ISSUER_CODE = "GBR";
-    private static final CollectionType CREDENTIAL_EVIDENCE_ITEM_LIST_TYPE =
-            OBJECT_MAPPER
-                    .getTypeFactory()
-                    .constructCollectionType(List.class, CredentialEvidenceItem.class);
     private static ConfigService configService;
     private static final int ONLY = 0;
 
@@ -67,12 +50,11 @@ public class VcHelper {
     }
 
     public static boolean isSuccessfulVc(VerifiableCredential vc) throws CredentialParseException {
-        var evidenceArray =
-                OBJECT_MAPPER.valueToTree(vc.getClaimsSet().getClaim(VC_CLAIM)).path(VC_EVIDENCE);
+        var claims = vc.getClaims();
 
         var excludedCredentialIssuers = getNonEvidenceCredentialIssuers();
 
-        if (evidenceArray.isMissingNode() || evidenceArray.isEmpty()) {
+        if (!claims.hasEvidence()) {
             String vcIssuer = vc.getClaimsSet().getIssuer();
             if (excludedCredentialIssuers.contains(vcIssuer)) {
                 return true;
@@ -81,12 +63,7 @@ public class VcHelper {
             return false;
         }
 
-        try {
-            return isValidEvidence(
-                    OBJECT_MAPPER.treeToValue(evidenceArray, CREDENTIAL_EVIDENCE_ITEM_LIST_TYPE));
-        } catch (JsonProcessingException e) {
-            throw new CredentialParseException("Unable to create credential evidence list", e);
-        }
+        return isValidEvidence(claims.getEvidence());
     }
 
     public static List<VerifiableCredential> filterVCBasedOnProfileType(
@@ -108,16 +85,13 @@ public class VcHelper {
 
     public static boolean matchesEvidenceType(
             VerifiableCredential vc, List<EvidenceType> evidenceTypes) {
-        var evidenceArray =
-                OBJECT_MAPPER.valueToTree(vc.getClaimsSet().getClaim(VC_CLAIM)).path(VC_EVIDENCE);
-        if (evidenceArray == null || evidenceArray.isEmpty()) {
-            return false;
-        }
-
         try {
-            List<CredentialEvidenceItem> credentialEvidenceList =
-                    OBJECT_MAPPER.treeToValue(evidenceArray, CREDENTIAL_EVIDENCE_ITEM_LIST_TYPE);
-            return credentialEvidenceList.stream()
+            var claims = vc.getClaims();
+            if (!claims.hasEvidence()) {
+                return false;
+            }
+
+            return claims.getEvidence().stream()
                     .anyMatch(
                             credentialEvidenceItem -> {
                                 try {
@@ -130,7 +104,7 @@ public class VcHelper {
                                     return false;
                                 }
                             });
-        } catch (JsonProcessingException e) {
+        } catch (CredentialParseException e) {
             LOGGER.error("Failed to parse evidence array for VC: {}", vc.getVcString());
         }
 
@@ -140,59 +114,53 @@ public class VcHelper {
     public static List<String> extractTxnIdsFromCredentials(List<VerifiableCredential> vcs) {
         List<String> txnIds = new ArrayList<>();
         for (var vc : vcs) {
-            var evidenceArray =
-                    OBJECT_MAPPER
-                            .valueToTree(vc.getClaimsSet().getClaim(VC_CLAIM))
-                            .path(VC_EVIDENCE);
-            if (evidenceArray.isArray()
-                    && !evidenceArray.isEmpty()) { // not all VCs have an evidence block
-                txnIds.add(evidenceArray.get(ONLY).path(VC_EVIDENCE_TXN).asText());
+            try {
+                var evidenceTxns = vc.getClaims().getEvidenceTxns();
+                if (!evidenceTxns.isEmpty()) { // not all VCs have an evidence block
+                    txnIds.add(evidenceTxns.get(ONLY));
+                }
+            } catch (CredentialParseException e) {
+                LOGGER.error("Failed to read evidence txn for VC: {}", vc.getVcString());
             }
         }
         return txnIds;
     }
 
     public static Integer extractAgeFromCredential(VerifiableCredential vc) {
-        var birthDateArr =
-                OBJECT_MAPPER
-                        .valueToTree(vc.getClaimsSet().getClaim(VC_CLAIM))
-                        .path(VC_CREDENTIAL_SUBJECT)
-                        .path(VC_BIRTH_DATE);
-        if (birthDateArr.isMissingNode() || birthDateArr.isEmpty()) {
+        try {
+            var birthDates = vc.getClaims().getBirthDates();
+            if (birthDates == null || birthDates.isEmpty()) {
+                return null;
+            }
+            return getAge(birthDates.get(ONLY).getValue());
+        } catch (CredentialParseException e) {
+            LOGGER.info("Failed to parse birth date claim for the vc.");
             return null;
         }
-        return getAge(birthDateArr.get(ONLY).path(VC_ATTR_VALUE_NAME).asText());
     }
 
     public static Boolean checkIfDocUKIssuedForCredential(VerifiableCredential vc) {
-        var credentialSubject =
-                OBJECT_MAPPER
-                        .valueToTree(vc.getClaimsSet().getClaim(VC_CLAIM))
-                        .path(VC_CREDENTIAL_SUBJECT);
-        if (!credentialSubject.isMissingNode()) {
-            var passportOrResPermitField =
-                    credentialSubject.hasNonNull(VC_PASSPORT)
-                            ? credentialSubject.path(VC_PASSPORT)
-                            : credentialSubject.path(VC_RESIDENCE_PERMIT);
-            if (passportOrResPermitField.isArray()) {
-                var icaoCode = passportOrResPermitField.path(ONLY).path(VC_ICAO_ISSUER_CODE);
-                if (!icaoCode.isMissingNode()) {
-                    return UK_ICAO_ISSUER_CODE.equals(icaoCode.asText());
-                }
-            }
-            // If Passport/ResidencePermit not exist then try for DL now
-            var issuer =
-                    credentialSubject
-                            .path(VC_DRIVING_PERMIT)
-                            .path(ONLY)
-                            .path(VC_DRIVING_LICENCE_ISSUED_BY);
-            if (!issuer.isMissingNode()) {
-                return DL_UK_ISSUER_LIST.contains(issuer.asText());
-            }
+        VerifiableCredentialClaims claims;
+        try {
+            claims = vc.getClaims();
+        } catch (CredentialParseException e) {
+            LOGGER.info("Failed to parse identity document claims for the vc.");
+            return null; // NOSONAR
+        }
+        if (!claims.hasCredentialSubject()) {
+            return null; // NOSONAR
+        }
+        var icaoIssuerCode = getPassportOrResidencePermitIcaoIssuerCode(claims);
+        if (icaoIssuerCode != null) {
+            return UK_ICAO_ISSUER_CODE.equals(icaoIssuerCode);
+        }
+        // If Passport/ResidencePermit not exist then try for DL now
+        var drivingLicenceIssuer = getDrivingLicenceIssuer(claims);
+        if (drivingLicenceIssuer != null) {
+            return DL_UK_ISSUER_LIST.contains(drivingLicenceIssuer);
         }
         return null; // NOSONAR
     }
-
     public static boolean isOperationalProfileVc(VerifiableCredential vc) throws ParseException {
         var vot = vc.getClaimsSet().getStringClaim(VOT_CLAIM_NAME);
         return vot != null
@@ -236,6 +204,37 @@ public class VcHelper {
         }
     }
 
+    // A passport claim is used when present, even if empty, and residence permits only otherwise
+    private static String getPassportOrResidencePermitIcaoIssuerCode(
+            VerifiableCredentialClaims claims) {
+        try {
+            var passportOrResPermits =
+                    claims.hasCredentialSubjectProperty(VC_PASSPORT)
+                            ? claims.getPassports()
+                            : claims.getResidencePermits();
+            return isNullOrEmpty(passportOrResPermits)
+                    ? null
+                    : passportOrResPermits.get(ONLY).icaoIssuerCode();
+        } catch (CredentialParseException e) {
+            LOGGER.info("Failed to parse passport or residence permit claims for the vc.");
+            return null;
+        }
+    }
+
+    private static String getDrivingLicenceIssuer(VerifiableCredentialClaims claims) {
+        try {
+            var drivingPermits = claims.getDrivingPermits();
+            return isNullOrEmpty(drivingPermits) ? null : drivingPermits.get(ONLY).issuedBy();
+        } catch (CredentialParseException e) {
+            LOGGER.info("Failed to parse driving permit claims for the vc.");
+            return null;
+        }
+    }
+
+    private static boolean isNullOrEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+
     private static Integer getAge(String dobValue) {
         try {
             LocalDate dob = LocalDate.parse(dobValue);
@@ -83,11 +83,14 @@ public class SessionCredentialsService {
             boolean receivedThisSession)
             throws VerifiableCredentialException {
         try {
-            for (var credential : credentials) {
-                dataStore.create(
-                        credential.toSessionCredentialItem(ipvSessionId, receivedThisSession),
-                        SESSION_CREDENTIALS_TTL);
-            }
+            dataStore.createAll(
+                    credentials.stream()
+                            .map(
+                                    credential ->
+                                            credential.toSessionCredentialItem(
+                                                    ipvSessionId, receivedThisSession))
+                            .toList(),
+                    SESSION_CREDENTIALS_TTL);
         } catch (Exception e) {
             LOGGER.error(LogHelper.buildErrorMessage("Error persisting session credential", e));
             throw new VerifiableCredentialException(
@@ -122,7 +125,7 @@ public class SessionCredentialsService {
                 vcsToDelete = sessionCredentialItems;
             }
 
-            dataStore.delete(vcsToDelete);
+            dataStore.deleteAll(vcsToDelete);
         } catch (Exception e) {
             LOGGER.error(
                     LogHelper.buildErrorMessage(
@@ -151,7 +154,8 @@ public class SessionCredentialsService {
     public void deleteSessionCredentialsForCri(String ipvSessionId, String criId)
             throws VerifiableCredentialException {
         try {
-            var deleted = dataStore.delete(dataStore.getItemsBySortKeyPrefix(ipvSessionId, criId));
+            var deleted = dataStore.getItemsBySortKeyPrefix(ipvSessionId, criId);
+            dataStore.deleteAll(deleted);
             LOGGER.info(
                     LogHelper.buildLogMessage(
                             String.format(
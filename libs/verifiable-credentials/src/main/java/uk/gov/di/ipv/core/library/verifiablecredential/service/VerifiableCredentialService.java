@@ -6,6 +6,7 @@ import org.apache.logging.log4j.message.StringMapMessage;
 import uk.gov.di.ipv.core.library.annotations.ExcludeFromGeneratedCoverageReport;
 import uk.gov.di.ipv.core.library.config.EnvironmentVariable;
 import uk.gov.di.ipv.core.library.domain.ErrorResponse;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
 import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
@@ -15,6 +16,7 @@ import uk.gov.di.ipv.core.library.persistence.item.VcStoreItem;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 import static com.nimbusds.oauth2.sdk.http.HTTPResponse.SC_SERVER_ERROR;
@@ -60,6 +62,25 @@ public class VerifiableCredentialService {
         return vcs;
     }
 
+    // Reads the VCs in batches, leaving out any that aren't stored
+    public List<VerifiableCredential> getVcs(List<UserIdCriIdPair> userIdCriIdPairs)
+            throws CredentialParseException {
+        var keyItems =
+                userIdCriIdPairs.stream()
+                        .map(
+                                pair ->
+                                        VcStoreItem.builder()
+                                                .userId(pair.getUserId())
+                                                .credentialIssuer(pair.getCriId())
+                                                .build())
+                        .toList();
+        var vcs = new ArrayList<VerifiableCredential>();
+        for (var vcStoreItem : dataStore.getAll(keyItems)) {
+            vcs.add(VerifiableCredential.fromVcStoreItem(vcStoreItem));
+        }
+        return vcs;
+    }
+
     public VerifiableCredential getVc(String userId, String criId) throws CredentialParseException {
         return VerifiableCredential.fromVcStoreItem(dataStore.getItem(userId, criId));
     }
@@ -96,12 +117,25 @@ public class VerifiableCredentialService {
         dataStore.delete(userId, criId);
     }
 
+    // Replaces the user's VCs in one transaction, so they never have a partial identity stored
     public void storeIdentity(List<VerifiableCredential> vcs, String userId)
             throws VerifiableCredentialException {
         try {
-            dataStore.deleteAllByPartition(userId);
-            vcs.stream().map(VerifiableCredential::toVcStoreItem).forEach(dataStore::create);
+            // A transaction can't write an item twice, so only the last VC from each CRI is put,
+            // as it would have overwritten the others
+            var itemsByCri = new LinkedHashMap<String, VcStoreItem>();
+            for (var vc : vcs) {
+                var item = vc.toVcStoreItem();
+                itemsByCri.put(item.getCredentialIssuer(), item);
+            }
+            // Nor delete an item it puts, and these are overwritten by the put anyway
+            var itemsToDelete =
+                    dataStore.getItems(userId).stream()
+                            .filter(item -> !itemsByCri.containsKey(item.getCredentialIssuer()))
+                            .toList();
+            dataStore.writeTransaction(new ArrayList<>(itemsByCri.values()), itemsToDelete);
         } catch (Exception e) {
+            LOGGER.error(LogHelper.buildErrorMessage("Error storing identity", e));
             throw new VerifiableCredentialException(SC_SERVER_ERROR, FAILED_TO_STORE_IDENTITY);
         }
     }
@@ -24,6 +24,7 @@ import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
 import uk.gov.di.ipv.core.library.gpg45.domain.CredentialEvidenceItem;
 import uk.gov.di.ipv.core.library.helpers.LogHelper;
+import uk.gov.di.ipv.core.library.helpers.VerifierRegistry;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
 import java.text.ParseException;
@@ -124,7 +125,7 @@ public class VerifiableCredentialValidator {
         }
 
         try {
-            ECDSAVerifier verifier = new ECDSAVerifier(signingKey);
+            ECDSAVerifier verifier = VerifierRegistry.getInstance().getVerifier(signingKey);
             if (!concatSignatureVerifiableCredential.verify(verifier)) {
                 LOGGER.error(
                         LogHelper.buildLogMessage("Verifiable credential signature not valid"));
@@ -15,12 +15,14 @@ import uk.gov.di.ipv.core.library.enums.Vot;
 import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.exceptions.UnrecognisedVotException;
 import uk.gov.di.ipv.core.library.gpg45.domain.CredentialEvidenceItem.EvidenceType;
+import uk.gov.di.ipv.core.library.helpers.TestVc;
 import uk.gov.di.ipv.core.library.service.ConfigService;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.ParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -56,6 +58,7 @@ import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcPassportM1aWithCI
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcPassportMissingBirthDate;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcTicf;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcVerificationM1a;
+import static uk.gov.di.ipv.core.library.helpers.VerifiableCredentialGenerator.generateVerifiableCredential;
 
 @ExtendWith(MockitoExtension.class)
 class VcHelperTest {
@@ -174,6 +177,41 @@ class VcHelperTest {
         assertEquals(Boolean.TRUE, VcHelper.checkIfDocUKIssuedForCredential(vcDrivingPermit()));
     }
 
+    @Test
+    void checkIfDocUKIssuedForCredentialShouldNotUseResidencePermitIfPassportIsEmpty() {
+        var vc =
+                generateVerifiableCredential(
+                        "test-subject",
+                        "dcmaw",
+                        TestVc.builder()
+                                .credentialSubject(
+                                        TestVc.TestCredentialSubject.builder()
+                                                .passport(List.of())
+                                                .residencePermit(
+                                                        List.of(Map.of("icaoIssuerCode", "GBR")))
+                                                .build())
+                                .build());
+
+        assertNull(VcHelper.checkIfDocUKIssuedForCredential(vc));
+    }
+
+    @Test
+    void checkIfDocUKIssuedForCredentialShouldCheckDrivingPermitIfPassportCannotBeParsed() {
+        var vc =
+                generateVerifiableCredential(
+                        "test-subject",
+                        "dcmaw",
+                        TestVc.builder()
+                                .credentialSubject(
+                                        TestVc.TestCredentialSubject.builder()
+                                                .passport(List.of("not a passport"))
+                                                .drivingPermit(List.of(Map.of("issuedBy", "DVLA")))
+                                                .build())
+                                .build());
+
+        assertEquals(Boolean.TRUE, VcHelper.checkIfDocUKIssuedForCredential(vc));
+    }
+
     @Test
     void shouldCheckIsItOperationalVC() throws Exception {
         assertTrue(VcHelper.isOperationalProfileVc(vcHmrcMigration()));
@@ -29,7 +29,6 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.di.ipv.core.library.domain.CriConstants.ADDRESS_CRI;
@@ -53,7 +52,8 @@ class SessionCredentialsServiceTest {
     private static final String CRI_ID_1 = "criId1";
     private static final String CRI_ID_2 = "criId2";
     private static final String CRI_ID_3 = "criId3";
-    @Captor private ArgumentCaptor<SessionCredentialItem> sessionCredentialItemArgumentCaptor;
+    @Captor
+    private ArgumentCaptor<List<SessionCredentialItem>> sessionCredentialItemsArgumentCaptor;
     @Captor private ArgumentCaptor<String> ipvSessionIdArgumentCaptor;
     @Mock private DataStore<SessionCredentialItem> mockDataStore;
     @InjectMocks private SessionCredentialsService sessionCredentialService;
@@ -66,12 +66,14 @@ class SessionCredentialsServiceTest {
                     List.of(CREDENTIAL_1, CREDENTIAL_2, CREDENTIAL_3);
             sessionCredentialService.persistCredentials(credentialsToStore, SESSION_ID, false);
 
-            verify(mockDataStore, times(3))
-                    .create(
-                            sessionCredentialItemArgumentCaptor.capture(),
+            verify(mockDataStore)
+                    .createAll(
+                            sessionCredentialItemsArgumentCaptor.capture(),
                             eq(ConfigurationVariable.SESSION_CREDENTIALS_TTL));
             List<SessionCredentialItem> createdItems =
-                    sessionCredentialItemArgumentCaptor.getAllValues();
+                    sessionCredentialItemsArgumentCaptor.getValue();
+
+            assertEquals(3, createdItems.size());
 
             IntStream.range(0, 3)
                     .forEach(
@@ -86,7 +88,7 @@ class SessionCredentialsServiceTest {
 
         @Test
         void persistCredentialsShouldThrowVerifiableCredentialExceptionIfProblemStoring() {
-            doThrow(IllegalStateException.class).when(mockDataStore).create(any(), any());
+            doThrow(IllegalStateException.class).when(mockDataStore).createAll(any(), any());
 
             assertThrows(
                     VerifiableCredentialException.class,
@@ -211,7 +213,7 @@ class SessionCredentialsServiceTest {
             sessionCredentialService.deleteSessionCredentialsForCri(SESSION_ID, CRI_ID_1);
 
             verify(mockDataStore).getItemsBySortKeyPrefix(SESSION_ID, CRI_ID_1);
-            verify(mockDataStore).delete(List.of(sessionCredentialItem));
+            verify(mockDataStore).deleteAll(List.of(sessionCredentialItem));
         }
 
         @Test
@@ -234,7 +236,7 @@ class SessionCredentialsServiceTest {
                     SESSION_ID, CoiSubjourneyType.GIVEN_NAMES_ONLY);
 
             verify(mockDataStore).getItems(SESSION_ID);
-            verify(mockDataStore).delete(List.of(sessionFraudCredentialItem));
+            verify(mockDataStore).deleteAll(List.of(sessionFraudCredentialItem));
         }
 
         @Test
@@ -273,7 +275,7 @@ class SessionCredentialsServiceTest {
 
             verify(mockDataStore).getItems(SESSION_ID);
             verify(mockDataStore)
-                    .delete(List.of(sessionFraudCredentialItem, sessionAddressCredentialItem));
+                    .deleteAll(List.of(sessionFraudCredentialItem, sessionAddressCredentialItem));
         }
 
         @Test
@@ -312,7 +314,7 @@ class SessionCredentialsServiceTest {
 
             verify(mockDataStore).getItems(SESSION_ID);
             verify(mockDataStore)
-                    .delete(
+                    .deleteAll(
                             List.of(
                                     sessionFraudCredentialItem,
                                     sessionAddressCredentialItem,
@@ -355,7 +357,7 @@ class SessionCredentialsServiceTest {
 
             verify(mockDataStore).getItems(SESSION_ID);
             verify(mockDataStore)
-                    .delete(
+                    .deleteAll(
                             List.of(
                                     sessionFraudCredentialItem,
                                     sessionAddressCredentialItem,
@@ -384,7 +386,7 @@ class SessionCredentialsServiceTest {
         @Test
         void deleteSessionCredentialsForCriShouldThrowIfProblemDeleting() {
             when(mockDataStore.getItemsBySortKeyPrefix(SESSION_ID, CRI_ID_1)).thenReturn(List.of());
-            when(mockDataStore.delete(any())).thenThrow(new IllegalStateException());
+            doThrow(new IllegalStateException()).when(mockDataStore).deleteAll(any());
 
             var verifiableCredentialException =
                     assertThrows(
@@ -6,18 +6,25 @@ import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.http.HTTPResponse;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.di.ipv.core.library.domain.ErrorResponse;
+import uk.gov.di.ipv.core.library.domain.UserIdCriIdPair;
 import uk.gov.di.ipv.core.library.domain.VerifiableCredential;
 import uk.gov.di.ipv.core.library.exceptions.CredentialParseException;
 import uk.gov.di.ipv.core.library.exceptions.VerifiableCredentialException;
 import uk.gov.di.ipv.core.library.persistence.DataStore;
+import uk.gov.di.ipv.core.library.persistence.FaultyDataStore;
+import uk.gov.di.ipv.core.library.persistence.FaultyDataStore.Operation;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
 import uk.gov.di.ipv.core.library.persistence.item.VcStoreItem;
 
 import java.security.KeyFactory;
@@ -27,6 +34,9 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.util.Base64;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.nimbusds.oauth2.sdk.http.HTTPResponse.SC_SERVER_ERROR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -37,7 +47,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,11 +60,12 @@ import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.PASSPORT_NON_DCMAW_
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcExperianFraudScoreOne;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcExperianFraudScoreTwo;
 import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcHmrcMigrationPCL250NoEvidence;
+import static uk.gov.di.ipv.core.library.fixtures.VcFixtures.vcPassportM1aFailed;
 
 @ExtendWith(MockitoExtension.class)
 class VerifiableCredentialServiceTest {
     private static final String USER_ID = "user-id";
-    @Captor ArgumentCaptor<VcStoreItem> vcStoreItemCaptor;
+    @Captor ArgumentCaptor<List<VcStoreItem>> vcStoreItemsCaptor;
     @Mock private DataStore<VcStoreItem> mockDataStore;
     @InjectMocks private VerifiableCredentialService verifiableCredentialService;
 
@@ -153,6 +164,30 @@ class VerifiableCredentialServiceTest {
                 retrievedCredentialItem.getVcString());
     }
 
+    @Test
+    void getVcsShouldReturnTheStoredVcsForUserIdCriIdPairs() throws Exception {
+        var dataStore = new InMemoryDataStore<>(VcStoreItem.class);
+        dataStore.create(PASSPORT_NON_DCMAW_SUCCESSFUL_VC.toVcStoreItem());
+        dataStore.create(M1A_ADDRESS_VC.toVcStoreItem());
+        var service = new VerifiableCredentialService(dataStore);
+
+        var vcs =
+                service.getVcs(
+                        List.of(
+                                new UserIdCriIdPair(
+                                        PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getUserId(),
+                                        PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getCriId()),
+                                new UserIdCriIdPair("missing-user-id", "kbv"),
+                                new UserIdCriIdPair(
+                                        M1A_ADDRESS_VC.getUserId(), M1A_ADDRESS_VC.getCriId())));
+
+        assertEquals(
+                Set.of(
+                        PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getVcString(),
+                        M1A_ADDRESS_VC.getVcString()),
+                vcs.stream().map(VerifiableCredential::getVcString).collect(Collectors.toSet()));
+    }
+
     @Test
     void shouldDeleteAllExistingVCs() {
         var experianVc1 = vcExperianFraudScoreOne();
@@ -205,33 +240,26 @@ class VerifiableCredentialServiceTest {
     }
 
     @Test
-    void storeIdentityShouldClearVcsAndStoreNewOnes() throws Exception {
-        var vcs =
-                List.of(
-                        PASSPORT_NON_DCMAW_SUCCESSFUL_VC,
-                        EXPIRED_M1A_EXPERIAN_FRAUD_VC,
-                        M1A_ADDRESS_VC);
+    void storeIdentityShouldReplaceVcsInOneTransaction() throws Exception {
+        var oldPassportItem = PASSPORT_NON_DCMAW_SUCCESSFUL_VC.toVcStoreItem();
+        var oldFraudItem = vcExperianFraudScoreOne().toVcStoreItem();
+        when(mockDataStore.getItems(USER_ID)).thenReturn(List.of(oldPassportItem, oldFraudItem));
+        var vcs = List.of(EXPIRED_M1A_EXPERIAN_FRAUD_VC, M1A_ADDRESS_VC);
 
         verifiableCredentialService.storeIdentity(vcs, USER_ID);
 
-        var inOrder = inOrder(mockDataStore);
-        inOrder.verify(mockDataStore).deleteAllByPartition(USER_ID);
-        inOrder.verify(mockDataStore, times(3)).create(vcStoreItemCaptor.capture());
-        inOrder.verifyNoMoreInteractions();
-
-        var capturedItems = vcStoreItemCaptor.getAllValues();
-
-        assertEquals(
-                PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getVcString(),
-                capturedItems.get(0).getCredential());
+        verify(mockDataStore)
+                .writeTransaction(vcStoreItemsCaptor.capture(), eq(List.of(oldPassportItem)));
+        var createdItems = vcStoreItemsCaptor.getValue();
+        assertEquals(2, createdItems.size());
         assertEquals(
-                EXPIRED_M1A_EXPERIAN_FRAUD_VC.getVcString(), capturedItems.get(1).getCredential());
-        assertEquals(M1A_ADDRESS_VC.getVcString(), capturedItems.get(2).getCredential());
+                EXPIRED_M1A_EXPERIAN_FRAUD_VC.getVcString(), createdItems.get(0).getCredential());
+        assertEquals(M1A_ADDRESS_VC.getVcString(), createdItems.get(1).getCredential());
     }
 
     @Test
-    void storeIdentityShouldThrowIfFailureToDeleteExistingVc() {
-        doThrow(new IllegalStateException()).when(mockDataStore).deleteAllByPartition(USER_ID);
+    void storeIdentityShouldThrowIfFailureToGetExistingVcs() {
+        when(mockDataStore.getItems(USER_ID)).thenThrow(new IllegalStateException());
 
         var verifiableCredentialException =
                 assertThrows(
@@ -240,11 +268,12 @@ class VerifiableCredentialServiceTest {
 
         assertEquals(SC_SERVER_ERROR, verifiableCredentialException.getResponseCode());
         assertEquals(FAILED_TO_STORE_IDENTITY, verifiableCredentialException.getErrorResponse());
+        verify(mockDataStore, never()).writeTransaction(any(), any());
     }
 
     @Test
-    void storeIdentityShouldThrowIfFailureToWriteNewVc() {
-        doThrow(new IllegalStateException()).when(mockDataStore).create(any());
+    void storeIdentityShouldThrowIfFailureToWriteTransaction() {
+        doThrow(new IllegalStateException()).when(mockDataStore).writeTransaction(any(), any());
 
         var verifiableCredentialException =
                 assertThrows(
@@ -257,6 +286,80 @@ class VerifiableCredentialServiceTest {
         assertEquals(FAILED_TO_STORE_IDENTITY, verifiableCredentialException.getErrorResponse());
     }
 
+    @Test
+    void storeIdentityShouldKeepTheLastVcFromEachCri() throws Exception {
+        var service = new VerifiableCredentialService(new InMemoryDataStore<>(VcStoreItem.class));
+        var failedPassportVc = vcPassportM1aFailed();
+        var userId = failedPassportVc.getUserId();
+
+        service.storeIdentity(
+                List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, M1A_ADDRESS_VC, failedPassportVc),
+                userId);
+
+        var storedVcs = service.getVcs(userId);
+        assertEquals(2, storedVcs.size());
+        assertEquals(
+                Set.of(failedPassportVc.getVcString(), M1A_ADDRESS_VC.getVcString()),
+                Set.of(storedVcs.get(0).getVcString(), storedVcs.get(1).getVcString()));
+    }
+
+    @Nested
+    class StoreIdentityFaults {
+        private final String userId = PASSPORT_NON_DCMAW_SUCCESSFUL_VC.getUserId();
+        private final List<VerifiableCredential> oldVcs =
+                List.of(PASSPORT_NON_DCMAW_SUCCESSFUL_VC, vcExperianFraudScoreOne());
+        private final List<VerifiableCredential> newVcs =
+                List.of(EXPIRED_M1A_EXPERIAN_FRAUD_VC, M1A_ADDRESS_VC);
+
+        @ParameterizedTest
+        @EnumSource
+        void storeIdentityShouldLeaveTheOldIdentityIfAnyStepFails(StoreStep failingStep)
+                throws Exception {
+            var dataStore = new FaultyDataStore<>(VcStoreItem.class);
+            var service = new VerifiableCredentialService(dataStore);
+            service.storeIdentity(oldVcs, userId);
+            failingStep.fault.accept(dataStore);
+
+            assertThrows(
+                    VerifiableCredentialException.class,
+                    () -> service.storeIdentity(newVcs, userId));
+
+            dataStore.stopFailing();
+            assertEquals(vcStrings(oldVcs), vcStrings(service.getVcs(userId)));
+        }
+
+        @Test
+        void storeIdentityShouldReplaceTheOldIdentityIfNoStepFails() throws Exception {
+            var service = new VerifiableCredentialService(new FaultyDataStore<>(VcStoreItem.class));
+            service.storeIdentity(oldVcs, userId);
+
+            service.storeIdentity(newVcs, userId);
+
+            assertEquals(vcStrings(newVcs), vcStrings(service.getVcs(userId)));
+        }
+
+        private static Set<String> vcStrings(List<VerifiableCredential> vcs) {
+            return vcs.stream().map(VerifiableCredential::getVcString).collect(Collectors.toSet());
+        }
+    }
+
+    enum StoreStep {
+        READ_EXISTING_VCS(store -> store.fail(Operation.GET_ITEMS)),
+        WRITE_TRANSACTION(store -> store.fail(Operation.WRITE_TRANSACTION)),
+        // The second put in the transaction, once the first has been applied
+        PUT_IN_TRANSACTION(
+                store ->
+                        store.failWhen(
+                                Operation.CREATE,
+                                item -> M1A_ADDRESS_VC.getVcString().equals(item.getCredential())));
+
+        private final Consumer<FaultyDataStore<VcStoreItem>> fault;
+
+        StoreStep(Consumer<FaultyDataStore<VcStoreItem>> fault) {
+            this.fault = fault;
+        }
+    }
+
     private ECPrivateKey getPrivateKey() throws InvalidKeySpecException, NoSuchAlgorithmException {
         return (ECPrivateKey)
                 KeyFactory.getInstance("EC")
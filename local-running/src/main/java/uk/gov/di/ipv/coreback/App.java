@@ -1,9 +1,52 @@
 package uk.gov.di.ipv.coreback;
 
+import software.amazon.awssdk.services.kms.KmsClient;
+import uk.gov.di.ipv.core.library.kmses256signer.InMemoryKmsClient;
+import uk.gov.di.ipv.core.library.kmses256signer.KmsClients;
+
 import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
 
 public class App {
-    public static void main(String[] args) throws IOException {
-        new CoreBack();
+    private static final String KMS_EMULATOR_SIGNING_KEY = "KMS_EMULATOR_SIGNING_KEY";
+    private static final String KMS_EMULATOR_JAR_DECRYPTION_KEY =
+            "KMS_EMULATOR_JAR_DECRYPTION_KEY";
+
+    public static void main(String[] args) throws IOException, GeneralSecurityException {
+        new CoreBack(createKmsClient());
+    }
+
+    // Signs and decrypts in process with the given keys, rather than with KMS, if either is set
+    private static KmsClient createKmsClient() throws GeneralSecurityException {
+        var signingKey = System.getenv(KMS_EMULATOR_SIGNING_KEY);
+        var decryptionKey = System.getenv(KMS_EMULATOR_JAR_DECRYPTION_KEY);
+        if (signingKey == null && decryptionKey == null) {
+            return KmsClients.create();
+        }
+        var kmsClient = new InMemoryKmsClient();
+        if (signingKey != null) {
+            var privateKey = KeyFactory.getInstance("EC").generatePrivate(pkcs8(signingKey));
+            kmsClient.importDefaultKey(new KeyPair(null, privateKey));
+        }
+        if (decryptionKey != null) {
+            var rsaKeyFactory = KeyFactory.getInstance("RSA");
+            var privateKey = (RSAPrivateCrtKey) rsaKeyFactory.generatePrivate(pkcs8(decryptionKey));
+            var publicKey =
+                    rsaKeyFactory.generatePublic(
+                            new RSAPublicKeySpec(
+                                    privateKey.getModulus(), privateKey.getPublicExponent()));
+            kmsClient.importDefaultKey(new KeyPair(publicKey, privateKey));
+        }
+        return kmsClient;
+    }
+
+    private static PKCS8EncodedKeySpec pkcs8(String base64Key) {
+        return new PKCS8EncodedKeySpec(Base64.getDecoder().decode(base64Key));
     }
 }
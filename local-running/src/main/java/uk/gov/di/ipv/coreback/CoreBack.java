@@ -1,5 +1,6 @@
 package uk.gov.di.ipv.coreback;
 
+import software.amazon.awssdk.services.kms.KmsClient;
 import spark.Spark;
 import uk.gov.di.ipv.core.processasynccricredential.ProcessAsyncCriCredentialHandler;
 import uk.gov.di.ipv.coreback.handlers.HomeHandler;
@@ -10,9 +11,9 @@ import uk.gov.di.ipv.coreback.sqs.SqsPoller;
 import java.io.IOException;
 
 public class CoreBack {
-    public CoreBack() throws IOException {
-        var lambdaHandler = new LambdaHandler();
-        var journeyEngineHandler = new JourneyEngineHandler();
+    public CoreBack(KmsClient kmsClient) throws IOException {
+        var lambdaHandler = new LambdaHandler(kmsClient);
+        var journeyEngineHandler = new JourneyEngineHandler(kmsClient);
 
         new SqsPoller().start(new ProcessAsyncCriCredentialHandler());
 
@@ -1,6 +1,7 @@
 package uk.gov.di.ipv.coreback.handlers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.services.kms.KmsClient;
 import spark.Request;
 import spark.Response;
 import spark.Route;
@@ -12,6 +13,7 @@ import uk.gov.di.ipv.core.checkgpg45score.CheckGpg45ScoreHandler;
 import uk.gov.di.ipv.core.evaluategpg45scores.EvaluateGpg45ScoresHandler;
 import uk.gov.di.ipv.core.library.domain.JourneyRequest;
 import uk.gov.di.ipv.core.library.domain.ProcessRequest;
+import uk.gov.di.ipv.core.library.kmses256signer.KmsEs256SignerFactory;
 import uk.gov.di.ipv.core.processjourneyevent.ProcessJourneyEventHandler;
 import uk.gov.di.ipv.core.resetsessionidentity.ResetSessionIdentityHandler;
 import uk.gov.di.ipv.core.storeidentity.StoreIdentityHandler;
@@ -43,11 +45,12 @@ public class JourneyEngineHandler {
     private final CallTicfCriHandler callTicfCriHandler;
     private final StoreIdentityHandler storeIdentityHandler;
 
-    public JourneyEngineHandler() throws IOException {
+    public JourneyEngineHandler(KmsClient kmsClient) throws IOException {
         this.processJourneyEventHandler = new ProcessJourneyEventHandler();
         this.checkExistingIdentityHandler = new CheckExistingIdentityHandler();
         this.resetSessionIdentityHandler = new ResetSessionIdentityHandler();
-        this.buildCriOauthRequestHandler = new BuildCriOauthRequestHandler();
+        this.buildCriOauthRequestHandler =
+                new BuildCriOauthRequestHandler(new KmsEs256SignerFactory(kmsClient));
         this.buildClientOauthResponseHandler = new BuildClientOauthResponseHandler();
         this.checkGpg45ScoreHandler = new CheckGpg45ScoreHandler();
         this.evaluateGpg45ScoresHandler = new EvaluateGpg45ScoresHandler();
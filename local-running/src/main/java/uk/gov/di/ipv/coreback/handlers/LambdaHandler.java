@@ -3,13 +3,16 @@ package uk.gov.di.ipv.coreback.handlers;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import software.amazon.awssdk.services.kms.KmsClient;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 import uk.gov.di.ipv.core.buildprovenuseridentitydetails.BuildProvenUserIdentityDetailsHandler;
 import uk.gov.di.ipv.core.builduseridentity.BuildUserIdentityHandler;
 import uk.gov.di.ipv.core.initialiseipvsession.InitialiseIpvSessionHandler;
+import uk.gov.di.ipv.core.initialiseipvsession.service.KmsRsaDecrypter;
 import uk.gov.di.ipv.core.issueclientaccesstoken.IssueClientAccessTokenHandler;
+import uk.gov.di.ipv.core.library.kmses256signer.KmsEs256SignerFactory;
 import uk.gov.di.ipv.core.processcricallback.ProcessCriCallbackHandler;
 import uk.gov.di.ipv.coreback.domain.CoreContext;
 
@@ -20,17 +23,26 @@ public class LambdaHandler {
     public static final CoreContext EMPTY_CONTEXT = new CoreContext();
     public static final String APPLICATION_JSON = "application/json";
 
-    private final Route initialiseSession = apiGatewayProxyRoute(new InitialiseIpvSessionHandler());
+    private final Route initialiseSession;
 
     private final Route buildProvenUserIdentityDetails =
             apiGatewayProxyRoute(new BuildProvenUserIdentityDetailsHandler());
 
-    private final Route criCallBack = apiGatewayProxyRoute(new ProcessCriCallbackHandler());
+    private final Route criCallBack;
 
     private final Route token = apiGatewayProxyRoute(new IssueClientAccessTokenHandler());
 
     private final Route userIdentity = apiGatewayProxyRoute(new BuildUserIdentityHandler());
 
+    public LambdaHandler(KmsClient kmsClient) {
+        initialiseSession =
+                apiGatewayProxyRoute(
+                        new InitialiseIpvSessionHandler(new KmsRsaDecrypter(kmsClient)));
+        criCallBack =
+                apiGatewayProxyRoute(
+                        new ProcessCriCallbackHandler(new KmsEs256SignerFactory(kmsClient)));
+    }
+
     private Route apiGatewayProxyRoute(
             RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) {
         return (Request request, Response response) -> {
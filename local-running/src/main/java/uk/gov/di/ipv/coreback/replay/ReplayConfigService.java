@@ -0,0 +1,27 @@
+package uk.gov.di.ipv.coreback.replay;
+
+import uk.gov.di.ipv.core.library.service.ConfigService;
+
+import java.util.Set;
+
+// Offline config for replays. CRIs are enabled and feature flags are off unless listed.
+public class ReplayConfigService extends ConfigService {
+    private final Set<String> disabledCris;
+    private final Set<String> enabledFeatureFlags;
+
+    public ReplayConfigService(Set<String> disabledCris, Set<String> enabledFeatureFlags) {
+        super(null, null);
+        this.disabledCris = disabledCris;
+        this.enabledFeatureFlags = enabledFeatureFlags;
+    }
+
+    @Override
+    public boolean isEnabled(String credentialIssuerId) {
+        return !disabledCris.contains(credentialIssuerId);
+    }
+
+    @Override
+    public boolean enabled(String featureFlagValue) {
+        return enabledFeatureFlags.contains(featureFlagValue);
+    }
+}
@@ -0,0 +1,108 @@
+package uk.gov.di.ipv.coreback.replay;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import uk.gov.di.ipv.core.library.persistence.InMemoryDataStore;
+import uk.gov.di.ipv.core.library.persistence.item.JourneyTransitionItem;
+import uk.gov.di.ipv.core.library.service.JourneyTransitionLogService;
+import uk.gov.di.ipv.core.processjourneyevent.replay.JourneyReplayer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Replays a session's journey history against the journey maps in this checkout, without AWS.
+ *
+ * <p>The history is the output of {@code aws dynamodb query --output json} against the journey
+ * transitions table. Options {@code --disabled-cris=a,b} and {@code --feature-flags=c,d} set the
+ * config the journey maps are evaluated with.
+ */
+public class ReplayJourney {
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final String DISABLED_CRIS_OPTION = "--disabled-cris=";
+    private static final String FEATURE_FLAGS_OPTION = "--feature-flags=";
+    private static final String USAGE =
+            "Usage: ReplayJourney <history.json> [--disabled-cris=a,b] [--feature-flags=c,d]";
+
+    private ReplayJourney() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        Set<String> disabledCris = new HashSet<>();
+        Set<String> featureFlags = new HashSet<>();
+        for (var option : Arrays.copyOfRange(args, 1, args.length)) {
+            if (option.startsWith(DISABLED_CRIS_OPTION)) {
+                disabledCris.addAll(values(option, DISABLED_CRIS_OPTION));
+            } else if (option.startsWith(FEATURE_FLAGS_OPTION)) {
+                featureFlags.addAll(values(option, FEATURE_FLAGS_OPTION));
+            }
+        }
+
+        var journeyTransitionLogService =
+                new JourneyTransitionLogService(
+                        new InMemoryDataStore<>(JourneyTransitionItem.class));
+        String ipvSessionId = null;
+        for (var item : OBJECT_MAPPER.readTree(Path.of(args[0]).toFile()).path("Items")) {
+            var transition =
+                    OBJECT_MAPPER.treeToValue(
+                            fromAttributeValues(item), JourneyTransitionItem.class);
+            ipvSessionId = transition.getIpvSessionId();
+            journeyTransitionLogService.recordTransition(transition);
+        }
+        if (ipvSessionId == null) {
+            System.err.println("No journey transitions found in " + args[0]);
+            System.exit(1);
+        }
+
+        var report =
+                JourneyReplayer.forCurrentJourneyMaps(
+                                new ReplayConfigService(disabledCris, featureFlags))
+                        .replay(journeyTransitionLogService, ipvSessionId);
+
+        System.out.printf(
+                "Replayed %d transitions for session %s%n",
+                report.transitions().size(), ipvSessionId);
+        report.divergences().forEach(divergence -> System.out.println(divergence.describe()));
+        System.out.printf("%d transitions diverged%n", report.divergences().size());
+        System.exit(report.hasDiverged() ? 1 : 0);
+    }
+
+    private static Set<String> values(String option, String prefix) {
+        return Set.of(option.substring(prefix.length()).split(","));
+    }
+
+    // Unwraps DynamoDB's typed JSON, e.g. {"S": "value"}, into plain JSON values
+    private static JsonNode fromAttributeValues(JsonNode item) {
+        var node = JsonNodeFactory.instance.objectNode();
+        item.fields()
+                .forEachRemaining(
+                        field -> node.set(field.getKey(), fromAttributeValue(field.getValue())));
+        return node;
+    }
+
+    private static JsonNode fromAttributeValue(JsonNode attributeValue) {
+        var type = attributeValue.fieldNames().next();
+        var value = attributeValue.get(type);
+        return switch (type) {
+            case "S", "N", "BOOL" -> value;
+            case "NULL" -> JsonNodeFactory.instance.nullNode();
+            case "L" -> {
+                var list = JsonNodeFactory.instance.arrayNode();
+                value.forEach(element -> list.add(fromAttributeValue(element)));
+                yield list;
+            }
+            case "M" -> fromAttributeValues(value);
+            default -> throw new IllegalArgumentException("Unsupported attribute type: " + type);
+        };
+    }
+}